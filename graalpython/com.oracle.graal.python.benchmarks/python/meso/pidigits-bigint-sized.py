@@ -0,0 +1,86 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+# Computes pi with the Chudnovsky series using binary splitting, then converts the
+# result to its decimal representation and back. Besides big-int multiplication and
+# division, this stresses int.__str__ and int(str) on numbers with up to a million digits.
+from math import isqrt
+
+C = 640320
+C3_OVER_24 = C ** 3 // 24
+
+
+def bs(a, b):
+    if b - a == 1:
+        if a == 0:
+            Pab = Qab = 1
+        else:
+            Pab = (6 * a - 5) * (2 * a - 1) * (6 * a - 1)
+            Qab = a * a * a * C3_OVER_24
+        Tab = Pab * (13591409 + 545140134 * a)
+        if a & 1:
+            Tab = -Tab
+    else:
+        m = (a + b) // 2
+        Pam, Qam, Tam = bs(a, m)
+        Pmb, Qmb, Tmb = bs(m, b)
+        Pab = Pam * Pmb
+        Qab = Qam * Qmb
+        Tab = Qmb * Tam + Pam * Tmb
+    return Pab, Qab, Tab
+
+
+def pi_digits(digits):
+    # each term of the series contributes about 14.18 digits
+    n = int(digits / 14.181647462725477) + 1
+    P, Q, T = bs(0, n)
+    one_sq = 10 ** (2 * digits)
+    sqrt_c = isqrt(10005 * one_sq)
+    return (Q * 426880 * sqrt_c) // T
+
+
+def measure(digits):
+    pi = pi_digits(digits)
+    s = str(pi)
+    assert int(s) == pi
+    print(s[:10], "...", s[-10:], len(s))
+
+
+def __benchmark__(digits=1_000_000):
+    measure(digits)
@@ -52,6 +52,18 @@ def fill(mm, size):
         mm.write(data)
 
 
+def scan(mm):
+    # searching and slicing work directly on the mapped memory
+    count = 0
+    idx = mm.find(data, 0)
+    while idx >= 0:
+        count += 1
+        idx = mm.find(data, idx + ndata)
+    with memoryview(mm) as view:
+        assert view[0:ndata] == data
+    return count
+
+
 def measure(num):
     tmp_path = tempfile.mkstemp()
     with open(tmp_path[1], "wb") as f:
@@ -62,7 +74,8 @@ def measure(num):
         size = mm.size()
         for i in range(num):
             fill(mm, size)
-        print(mm[0:ndata])
+            count = scan(mm)
+        print(mm[0:ndata], count)
 
 
 def __benchmark__(num=100):
@@ -55,6 +55,7 @@
 #include <fcntl.h>
 #include <netdb.h>
 #include <netinet/in.h>
+#include <poll.h>
 #include <signal.h>
 #include <stdio.h>
 #include <stdint.h>
@@ -63,14 +64,22 @@
 #include <sys/ioctl.h>
 #include <sys/stat.h>
 #include <sys/select.h>
+#ifdef __linux__
+#include <sys/sendfile.h>
+#include <sys/syscall.h>
+#endif
 #include <sys/socket.h>
 #include <sys/time.h>
 #include <sys/types.h>
+#include <sys/uio.h>
 #include <sys/utsname.h>
 #include <sys/wait.h>
 #include <sys/file.h>
 #include <sys/mman.h>
 #include <unistd.h>
+#ifdef __linux__
+#include <sys/epoll.h>
+#endif
 
 
 int64_t call_getpid() {
@@ -122,6 +131,57 @@ int64_t call_write(int32_t fd, void *buf, uint64_t count) {
     return write(fd, buf, count);
 }
 
+int64_t call_read_into(int32_t fd, int8_t *buf, int32_t offset, uint64_t count) {
+    return read(fd, buf + offset, count);
+}
+
+int64_t call_pread_into(int32_t fd, int8_t *buf, int32_t offset, uint64_t count, int64_t pos) {
+    return pread(fd, buf + offset, count, pos);
+}
+
+/*
+ * NFI cannot pass an array of arrays, so the buffers are passed as separate arguments, up to
+ * IOV_BATCH at a time. Only the first 'count' of them are used.
+ */
+#define IOV_BATCH 8
+#define IOV_PARAMS int8_t *b0, int64_t l0, int8_t *b1, int64_t l1, int8_t *b2, int64_t l2, int8_t *b3, int64_t l3, \
+                   int8_t *b4, int64_t l4, int8_t *b5, int64_t l5, int8_t *b6, int64_t l6, int8_t *b7, int64_t l7
+#define IOV_INIT {{b0, l0}, {b1, l1}, {b2, l2}, {b3, l3}, {b4, l4}, {b5, l5}, {b6, l6}, {b7, l7}}
+
+int64_t call_writev(int32_t fd, IOV_PARAMS, int32_t count) {
+    struct iovec iov[IOV_BATCH] = IOV_INIT;
+    return writev(fd, iov, count);
+}
+
+int64_t call_readv(int32_t fd, IOV_PARAMS, int32_t count) {
+    struct iovec iov[IOV_BATCH] = IOV_INIT;
+    return readv(fd, iov, count);
+}
+
+int64_t call_sendfile(int32_t out_fd, int32_t in_fd, int64_t offset, uint64_t count) {
+#ifdef __linux__
+    if (offset < 0) {
+        return sendfile(out_fd, in_fd, NULL, count);
+    }
+    off_t off = (off_t) offset;
+    return sendfile(out_fd, in_fd, &off, count);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
+int64_t call_copy_file_range(int32_t in_fd, int64_t in_offset, int32_t out_fd, int64_t out_offset, uint64_t count) {
+#if defined(__linux__) && defined(SYS_copy_file_range)
+    loff_t in_off = (loff_t) in_offset;
+    loff_t out_off = (loff_t) out_offset;
+    return syscall(SYS_copy_file_range, in_fd, in_offset < 0 ? NULL : &in_off, out_fd, out_offset < 0 ? NULL : &out_off, (size_t) count, 0);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
 int32_t call_dup(int32_t fd) {
     return fcntl(fd, F_DUPFD_CLOEXEC, 0);
 }
@@ -200,6 +260,77 @@ int32_t call_select(int32_t nfds, int32_t* readfds, int32_t readfdsLen,
     return (int32_t) result;
 }
 
+// revents is output parameter, it receives the returned events of each
+// file descriptor
+int32_t call_poll(int32_t* fds, int32_t* events, int32_t* revents, int32_t nfds, int32_t timeout) {
+    struct pollfd *pfds = (struct pollfd *) malloc(sizeof(struct pollfd) * (nfds > 0 ? nfds : 1));
+    if (pfds == NULL) {
+        errno = ENOMEM;
+        return -1;
+    }
+    for (int32_t i = 0; i < nfds; ++i) {
+        pfds[i].fd = fds[i];
+        pfds[i].events = (short) events[i];
+        pfds[i].revents = 0;
+    }
+    int result = poll(pfds, (nfds_t) nfds, timeout);
+    if (result >= 0) {
+        for (int32_t i = 0; i < nfds; ++i) {
+            revents[i] = (uint16_t) pfds[i].revents;
+        }
+    }
+    int saved_errno = errno;
+    free(pfds);
+    errno = saved_errno;
+    return (int32_t) result;
+}
+
+int32_t call_epoll_create() {
+#ifdef __linux__
+    return epoll_create1(EPOLL_CLOEXEC);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
+int32_t call_epoll_ctl(int32_t epfd, int32_t op, int32_t fd, int32_t events) {
+#ifdef __linux__
+    struct epoll_event ev;
+    memset(&ev, 0, sizeof(ev));
+    ev.events = (uint32_t) events;
+    ev.data.fd = fd;
+    return epoll_ctl(epfd, op, fd, &ev);
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
+// fds and events are output parameters of length maxevents, they receive
+// the file descriptors and events of the ready file descriptors
+int32_t call_epoll_wait(int32_t epfd, int32_t* fds, int32_t* events, int32_t maxevents, int32_t timeout) {
+#ifdef __linux__
+    struct epoll_event *evs = (struct epoll_event *) malloc(sizeof(struct epoll_event) * maxevents);
+    if (evs == NULL) {
+        errno = ENOMEM;
+        return -1;
+    }
+    int result = epoll_wait(epfd, evs, maxevents, timeout);
+    for (int i = 0; i < result; ++i) {
+        fds[i] = evs[i].data.fd;
+        events[i] = (int32_t) evs[i].events;
+    }
+    int saved_errno = errno;
+    free(evs);
+    errno = saved_errno;
+    return (int32_t) result;
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
 int64_t call_lseek(int32_t fd, int64_t offset, int32_t whence) {
     return lseek(fd, offset, whence);
 }
@@ -368,6 +499,49 @@ int32_t call_readdir(intptr_t dirp, char *nameBuf, uint64_t nameBufSize, int64_t
     return 0;
 }
 
+/*
+ * Reads up to maxEntries entries, skipping '.' and '..'. The names are stored in nameBuf as
+ * consecutive zero-terminated strings, each slot being nameSlotSize bytes long. For each entry,
+ * out contains the inode and the type. If resolveTypes is set, DT_UNKNOWN types are resolved using
+ * lstat since the caller would need to stat such entries anyway. If readdir fails after some
+ * entries were read, these are returned and out[2 * maxEntries] is set to errno, otherwise it is 0.
+ */
+int32_t call_readdir_batch(intptr_t dirp, char *nameBuf, uint64_t nameSlotSize, int64_t *out, int32_t maxEntries, int32_t resolveTypes) {
+    int32_t count = 0;
+    out[2 * maxEntries] = 0;
+    while (count < maxEntries) {
+        errno = 0;
+        struct dirent *dirEntry = readdir((DIR *) dirp);
+        if (dirEntry == NULL) {
+            if (errno != 0) {
+                if (count == 0) {
+                    return -1;
+                }
+                out[2 * maxEntries] = errno;
+            }
+            break;
+        }
+        const char *name = dirEntry->d_name;
+        if (name[0] == '.' && (name[1] == 0 || (name[1] == '.' && name[2] == 0))) {
+            continue;
+        }
+        int64_t type = dirEntry->d_type;
+#ifdef IFTODT
+        if (resolveTypes && type == DT_UNKNOWN) {
+            struct stat st;
+            if (fstatat(dirfd((DIR *) dirp), name, &st, AT_SYMLINK_NOFOLLOW) == 0) {
+                type = IFTODT(st.st_mode);
+            }
+        }
+#endif
+        snprintf(nameBuf + count * nameSlotSize, nameSlotSize, "%s", name);
+        out[2 * count] = dirEntry->d_ino;
+        out[2 * count + 1] = type;
+        count++;
+    }
+    return count;
+}
+
 #ifdef __gnu_linux__
 int32_t call_utimensat(int32_t dirFd, const char *path, int64_t *timespec, int32_t followSymlinks) {
     if (!timespec) {
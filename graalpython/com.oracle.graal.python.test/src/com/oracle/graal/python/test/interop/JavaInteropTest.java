@@ -49,6 +49,7 @@ import static org.junit.Assert.fail;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
 import org.graalvm.polyglot.Context;
@@ -193,6 +194,39 @@ public class JavaInteropTest {
             assertPrints("b'\\x01\\x02\\x03\\x04'\n", source);
         }
 
+        @Test
+        public void bytesAsBuffer() {
+            Value bytes = context.eval("python", "b'\\x01\\x02\\x03\\x04\\xff'");
+            assertTrue(bytes.hasBufferElements());
+            assertFalse(bytes.isBufferWritable());
+            assertEquals(5, bytes.getBufferSize());
+            assertEquals((byte) 0xff, bytes.readBufferByte(4));
+            assertEquals(0x04030201, bytes.readBufferInt(ByteOrder.LITTLE_ENDIAN, 0));
+            assertEquals(0x010203, bytes.readBufferShort(ByteOrder.BIG_ENDIAN, 0) << 8 | bytes.readBufferByte(2));
+
+            Value bytearray = context.eval("python", "bytearray(8)");
+            assertTrue(bytearray.isBufferWritable());
+            bytearray.writeBufferLong(ByteOrder.BIG_ENDIAN, 0, 42);
+            assertEquals(42, bytearray.readBufferByte(7));
+            assertEquals(42L, bytearray.readBufferLong(ByteOrder.BIG_ENDIAN, 0));
+            try {
+                bytearray.readBufferInt(ByteOrder.BIG_ENDIAN, 6);
+                fail();
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+        }
+
+        @Test
+        public void javaByteArrayAsBuffer() {
+            Value setFirst = context.eval("python", "lambda a: memoryview(a).__setitem__(0, 42)");
+            byte[] array = new byte[]{1, 2, 3};
+            setFirst.execute(array);
+            assertEquals(42, array[0]);
+            Value bytes = context.eval("python", "bytes");
+            assertEquals(3, bytes.execute(array).getArraySize());
+        }
+
         @Test
         public void testPassingFloats() throws UnsupportedEncodingException {
             String source = "import polyglot\n" +
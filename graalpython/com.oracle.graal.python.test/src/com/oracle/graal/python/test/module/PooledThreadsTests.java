@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.module;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.oracle.graal.python.test.PythonTests;
+
+public class PooledThreadsTests {
+    private static final Map<String, String> OPTIONS = Collections.singletonMap("python.PooledThreads", "true");
+
+    private static String run(String source) {
+        final ByteArrayOutputStream byteArray = new ByteArrayOutputStream();
+        final PrintStream printStream = new PrintStream(byteArray);
+        PythonTests.runScript(OPTIONS, new String[0], source, printStream, System.err, () -> PythonTests.closeContext());
+        return byteArray.toString().replaceAll("\r\n", "\n");
+    }
+
+    @Test
+    public void reusesThreads() {
+        String source = "import _thread, java, threading, time\n" +
+                        "Thread = java.type('java.lang.Thread')\n" +
+                        "def wait_idle():\n" +
+                        "    # the worker only becomes idle some time after join() returned\n" +
+                        "    deadline = time.monotonic() + 10\n" +
+                        "    while _thread._count() != 0 and time.monotonic() < deadline:\n" +
+                        "        time.sleep(0.001)\n" +
+                        "    return _thread._count()\n" +
+                        "threads = []\n" +
+                        "for i in range(20):\n" +
+                        "    t = threading.Thread(target=lambda: threads.append(Thread.currentThread()))\n" +
+                        "    t.start()\n" +
+                        "    t.join()\n" +
+                        "    assert wait_idle() == 0\n" +
+                        "print(len(threads), all(t is threads[0] for t in threads), threads[0] is not Thread.currentThread())\n";
+        assertEquals("20 True True\n", run(source));
+    }
+
+    @Test
+    public void resetsThreadState() {
+        String source = "import _thread, sys, threading, time\n" +
+                        "local = threading.local()\n" +
+                        "results = []\n" +
+                        "def f(i):\n" +
+                        "    results.append((getattr(local, 'value', None), sys.exc_info()[0], threading.current_thread().name))\n" +
+                        "    local.value = i\n" +
+                        "    try:\n" +
+                        "        raise ValueError(i)\n" +
+                        "    except ValueError:\n" +
+                        "        pass\n" +
+                        "for i in range(5):\n" +
+                        "    t = threading.Thread(target=f, args=(i,), name='t%d' % i)\n" +
+                        "    t.start()\n" +
+                        "    t.join()\n" +
+                        "    time.sleep(0.01)\n" +
+                        "print(results)\n";
+        assertEquals("[(None, None, 't0'), (None, None, 't1'), (None, None, 't2'), (None, None, 't3'), (None, None, 't4')]\n", run(source));
+    }
+
+    @Test
+    public void stopsWorkersOnExit() throws InterruptedException {
+        String source = "import _thread, threading\n" +
+                        "idents = set()\n" +
+                        "def f():\n" +
+                        "    idents.add(_thread.get_ident())\n" +
+                        "threads = [threading.Thread(target=f) for i in range(8)]\n" +
+                        "for t in threads:\n" +
+                        "    t.start()\n" +
+                        "for t in threads:\n" +
+                        "    t.join()\n" +
+                        "print(' '.join(str(i) for i in idents))\n";
+        Set<Long> idents = new HashSet<>();
+        for (String ident : run(source).trim().split(" ")) {
+            idents.add(Long.parseLong(ident));
+        }
+        // the idle workers would otherwise wait for the keep-alive time before they exit
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (idents.contains(thread.getId())) {
+                thread.join(10000);
+                assertFalse(thread.getName(), thread.isAlive());
+            }
+        }
+    }
+}
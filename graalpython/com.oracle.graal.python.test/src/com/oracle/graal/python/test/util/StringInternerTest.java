@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.oracle.graal.python.util.StringInterner;
+
+public class StringInternerTest {
+    @Test
+    public void testIntern() {
+        String a = new String(new char[]{'f', 'o', 'o', '_', '1'});
+        String b = new String(new char[]{'f', 'o', 'o', '_', '1'});
+        assertNotSame(a, b);
+        String interned = StringInterner.intern(a);
+        assertSame(interned, StringInterner.intern(b));
+        assertSame(interned, StringInterner.internIfIdentifier(b));
+        assertEquals("foo_1", interned);
+    }
+
+    @Test
+    public void testOnlyIdentifiersAreInternedAutomatically() {
+        String notIdentifier = new String(new char[]{'1', 'a'});
+        assertSame(notIdentifier, StringInterner.internIfIdentifier(notIdentifier));
+        assertFalse(StringInterner.isIdentifierLike(""));
+        assertFalse(StringInterner.isIdentifierLike("a b"));
+        assertFalse(StringInterner.isIdentifierLike("ä"));
+        assertFalse(StringInterner.isIdentifierLike(new String(new char[StringInterner.MAX_AUTO_INTERN_LENGTH + 1]).replace('\0', 'x')));
+        assertTrue(StringInterner.isIdentifierLike("_"));
+        assertTrue(StringInterner.isIdentifierLike("__init__"));
+        assertTrue(StringInterner.isIdentifierLike("Value42"));
+    }
+}
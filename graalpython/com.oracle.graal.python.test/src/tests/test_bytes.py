@@ -793,6 +793,33 @@ class BaseLikeBytes:
             c = b.translate(None, delete=b'e')
             self.assertEqual(c, b'hllo')
 
+    def test_search_long(self):
+        filler = b'abcdefgh' * 100
+        b = self.type2test(filler + b'needle' + filler + b'needle' + filler)
+        first = len(filler)
+        second = 2 * len(filler) + 6
+        self.assertEqual(b.find(b'needle'), first)
+        self.assertEqual(b.find(b'needle', first + 1), second)
+        self.assertEqual(b.find(b'needle', first + 1, second + 5), -1)
+        self.assertEqual(b.rfind(b'needle'), second)
+        self.assertEqual(b.rfind(b'needle', 0, second + 5), first)
+        self.assertEqual(b.find(ord('n')), first)
+        self.assertEqual(b.rfind(ord('n')), second)
+        self.assertEqual(b.count(b'needle'), 2)
+        self.assertEqual(b.count(b'h'), 300)
+        self.assertEqual(b.count(b'hab'), 297)
+        self.assertEqual(b.find(b'ghabcdefghabcdefghx'), -1)
+        self.assertEqual(b.rfind(b'xabcdefghabcdefgh'), -1)
+        self.assertEqual(b.split(b'needle'), [filler, filler, filler])
+        self.assertEqual(b.rsplit(b'needle', 1), [filler + b'needle' + filler, filler])
+        self.assertEqual(b.replace(b'needle', b'pin'), filler + b'pin' + filler + b'pin' + filler)
+        self.assertEqual(b.replace(b'needle', b'thread', 1), filler + b'thread' + filler + b'needle' + filler)
+        self.assertEqual(b.replace(b'needle', b''), filler * 3)
+        self.assertEqual(self.type2test(b'aaaa').replace(b'aa', b'b'), b'bb')
+        self.assertEqual(self.type2test(b'aaaa').count(b'aa'), 2)
+        self.assertEqual(self.type2test(b'ab').replace(b'', b'-'), b'-a-b-')
+        self.assertEqual(self.type2test(b'\xff\x80\x00\xff' * 20).count(b'\x80\x00'), 20)
+
 class BytesTest(BaseLikeBytes, unittest.TestCase):
     type2test = bytes
 
@@ -0,0 +1,135 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import asyncio
+import errno
+import os
+import subprocess
+import sys
+import tempfile
+import unittest
+
+import graalpython_aio
+
+
+class AsyncFileIOTests(unittest.TestCase):
+
+    def setUp(self):
+        fd, self.path = tempfile.mkstemp()
+        os.close(fd)
+
+    def tearDown(self):
+        os.unlink(self.path)
+
+    def test_write_and_read(self):
+        async def run():
+            fd = os.open(self.path, os.O_RDWR)
+            try:
+                await graalpython_aio.write_all(fd, b'hello ')
+                self.assertEqual(5, await graalpython_aio.write(fd, bytearray(b'world')))
+                self.assertEqual(b'world', await graalpython_aio.read(fd, 5, 6))
+                self.assertEqual(b'hello', await graalpython_aio.read(fd, 5, 0))
+                os.lseek(fd, 6, os.SEEK_SET)
+                self.assertEqual(b'wor', await graalpython_aio.read(fd, 3))
+                self.assertEqual(b'ld', await graalpython_aio.read(fd, 10))
+                self.assertEqual(b'', await graalpython_aio.read(fd, 10))
+            finally:
+                os.close(fd)
+
+        asyncio.run(run())
+
+    def test_concurrent_reads(self):
+        data = bytes(range(256)) * 1000
+        with open(self.path, 'wb') as f:
+            f.write(data)
+
+        async def run():
+            results = await asyncio.gather(*[graalpython_aio.read_file(self.path, 4096) for i in range(8)])
+            for result in results:
+                self.assertEqual(data, result)
+
+        asyncio.run(run())
+
+    def test_error(self):
+        async def run():
+            fd = os.open(self.path, os.O_RDONLY)
+            os.close(fd)
+            with self.assertRaises(OSError):
+                await graalpython_aio.read(fd, 10)
+            with open(self.path, 'rb') as f:
+                with self.assertRaises(OSError):
+                    await graalpython_aio.write(f, b'abc')
+
+        asyncio.run(run())
+
+    @unittest.skipUnless(sys.implementation.name == 'graalpython', 'uses the GraalPython builtins')
+    def test_pipe_is_rejected(self):
+        async def run():
+            r, w = os.pipe()
+            try:
+                with self.assertRaises(OSError) as cm:
+                    await graalpython_aio.read(r, 10)
+                self.assertEqual(errno.ESPIPE, cm.exception.errno)
+                with self.assertRaises(OSError) as cm:
+                    await graalpython_aio.write(w, b'abc')
+                self.assertEqual(errno.ESPIPE, cm.exception.errno)
+            finally:
+                os.close(r)
+                os.close(w)
+
+        asyncio.run(run())
+
+    @unittest.skipUnless(sys.implementation.name == 'graalpython', 'uses the GraalPython builtins')
+    def test_exit_with_pipe_read(self):
+        # a read of a pipe that is still pending at exit would keep the context from closing
+        script = """if True:
+            import asyncio, os, graalpython_aio
+            async def run():
+                r, w = os.pipe()
+                task = asyncio.ensure_future(graalpython_aio.read(r, 10))
+                await asyncio.sleep(0.1)
+                assert task.done()
+            asyncio.run(run())
+        """
+        proc = subprocess.run([sys.executable, '-c', script], timeout=120)
+        self.assertEqual(0, proc.returncode)
+
+
+if __name__ == '__main__':
+    unittest.main()
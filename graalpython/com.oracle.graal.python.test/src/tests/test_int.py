@@ -356,6 +356,29 @@ def test_create_int_from_string():
         assert False, "expected TypeError"
 
 
+def test_huge_int_str_roundtrip():
+    for exp in (1000, 5000, 20000):
+        for x in (7 ** exp, -(7 ** exp), 10 ** exp, 10 ** exp - 1, (3 ** exp) * 10 ** 100):
+            s = str(x)
+            assert int(s) == x
+            assert s == "%d" % x
+            assert repr(x) == s
+    digits = "1" + "0" * 3000 + "1"
+    assert int(digits) == 10 ** 3001 + 1
+    assert int("-" + digits) == -(10 ** 3001 + 1)
+    assert int("1_" + "0" * 3000) == 10 ** 3000
+    assert eval(digits) == 10 ** 3001 + 1
+
+
+def test_pow_small_modulus():
+    assert pow(3, 200, 1000007) == 3 ** 200 % 1000007
+    assert pow(-3, 201, 1000007) == (-3) ** 201 % 1000007
+    assert pow(2, 0, 1) == 0
+    assert pow(123456789, 98765, 3037000499) == 123456789 ** 98765 % 3037000499
+    assert pow(123456789, 98765, 3037000500) == 123456789 ** 98765 % 3037000500
+    assert pow(5, 117, -13) == 5 ** 117 % -13
+
+
 def test_create_int_from_float():
     assert int(123.0) == 123
     assert int(123.4) == 123
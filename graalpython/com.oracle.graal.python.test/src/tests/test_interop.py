@@ -304,6 +304,32 @@ if sys.implementation.name == "graalpython":
         except NotImplementedError as e:
             assert "host lookup is not allowed" in str(e)
 
+    @skipIf(is_native, "not supported in native mode")
+    def test_java_byte_buffers():
+        import java
+        try:
+            ByteBuffer = java.type("java.nio.ByteBuffer")
+        except NotImplementedError as e:
+            assert "host lookup is not allowed" in str(e)
+            return
+        bb = ByteBuffer.allocate(8)
+        bb.put(1, 0x41)
+        bb.put(2, -1)
+        arr = bb.array()
+        assert bytes(arr) == b"\x00\x41\xff\x00\x00\x00\x00\x00"
+        assert bytes(bb) == bytes(arr)
+        mv = memoryview(arr)
+        assert not mv.readonly
+        mv[0] = 0x42
+        assert arr[0] == 0x42 and bb.get(0) == 0x42
+        bb.position(1)
+        mv = memoryview(bb)
+        assert len(mv) == 7
+        assert mv[0] == 0x41 and mv[1] == 0xff
+        mv = memoryview(bb.asReadOnlyBuffer())
+        assert mv.readonly
+        assert mv.tobytes() == b"\x41\xff\x00\x00\x00\x00\x00"
+
     def test_array_element_info():
         immutableObj = (1,2,3,4)
         assert polyglot.__element_info__(immutableObj, 0, "exists")
@@ -0,0 +1,148 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import sys
+import threading
+import unittest
+
+if sys.implementation.name == 'graalpython':
+    import interpreters
+
+
+@unittest.skipIf(sys.implementation.name == 'cpython', "graalpython specific")
+class InterpretersTests(unittest.TestCase):
+
+    def test_create(self):
+        main = interpreters.get_main()
+        self.assertEqual(interpreters.get_current(), main)
+        interp = interpreters.create()
+        try:
+            self.assertIn(interp, interpreters.list_all())
+            self.assertNotEqual(interp, main)
+            self.assertFalse(interp.is_running())
+            self.assertTrue(main.is_running())
+        finally:
+            interp.close()
+        self.assertNotIn(interp, interpreters.list_all())
+        self.assertRaises(RuntimeError, main.close)
+
+    def test_isolated(self):
+        interp = interpreters.create()
+        try:
+            interp.run("import sys; sys.x = 42; y = 1")
+            self.assertFalse(hasattr(sys, "x"))
+            interp.run("assert sys.x == 42 and y == 1")
+        finally:
+            interp.close()
+
+    def test_run_failed(self):
+        interp = interpreters.create()
+        try:
+            with self.assertRaisesRegex(interpreters.RunFailedError, "ValueError: spam"):
+                interp.run("raise ValueError('spam')")
+        finally:
+            interp.close()
+
+    def test_shareable(self):
+        for obj in [None, True, 1, 2 ** 100, 1.5, "str", b"bytes", (1, ("a", b"b"))]:
+            self.assertTrue(interpreters.is_shareable(obj), obj)
+        for obj in [[], {}, object(), bytearray(b"x"), (1, [])]:
+            self.assertFalse(interpreters.is_shareable(obj), obj)
+
+    def test_channels(self):
+        recv, send = interpreters.create_channel()
+        results, results_send = interpreters.create_channel()
+        interp = interpreters.create()
+        try:
+            send.send((1, "two", b"three", 2 ** 100))
+            interp.run("results.send(tasks.recv())", channels={"tasks": recv, "results": results_send})
+            self.assertEqual(results.recv(), (1, "two", b"three", 2 ** 100))
+            self.assertIsNone(results.recv_nowait())
+            self.assertRaises(interpreters.ChannelEmptyError, results.recv, 0.01)
+            self.assertRaises(ValueError, results.recv, -1)
+            self.assertRaises(ValueError, send.send, [])
+            send.close()
+            self.assertRaises(interpreters.ChannelClosedError, send.send, 1)
+        finally:
+            interp.close()
+
+    def test_channel_wait(self):
+        import _xxsubinterpreters as _interpreters
+        recv1, send1 = interpreters.create_channel()
+        recv2, send2 = interpreters.create_channel()
+        self.assertEqual(_interpreters.channel_wait([recv1.id, recv2.id], 0.01), [])
+        self.assertRaises(ValueError, _interpreters.channel_wait, [recv1.id], -1)
+        send2.send(1)
+        self.assertEqual(_interpreters.channel_wait([recv1.id, recv2.id]), [recv2.id])
+        # closing the channel wakes up the receivers
+        closer = threading.Timer(0.1, send1.close)
+        closer.start()
+        self.assertRaises(interpreters.ChannelClosedError, recv1.recv)
+        closer.join()
+        self.assertEqual(_interpreters.channel_wait([recv1.id], 0), [recv1.id])
+
+    def test_parallel(self):
+        results, send = interpreters.create_channel()
+        interps = [interpreters.create() for _ in range(2)]
+        script = "results.send(sum(range(100000)))"
+        try:
+            threads = [threading.Thread(target=interp.run, args=(script,), kwargs={"channels": {"results": send}})
+                       for interp in interps]
+            for t in threads:
+                t.start()
+            for t in threads:
+                t.join()
+            self.assertEqual([results.recv(), results.recv()], [sum(range(100000))] * 2)
+        finally:
+            for interp in interps:
+                interp.close()
+
+    def test_exit_while_running(self):
+        # an interpreter that is still running when the main one exits is cancelled
+        import subprocess
+        script = """if True:
+            import interpreters, threading, time
+            interp = interpreters.create()
+            threading.Thread(target=interp.run, args=("while True: pass",), daemon=True).start()
+            while not interp.is_running():
+                time.sleep(0.01)
+            print("exiting")
+        """
+        proc = subprocess.run([sys.executable, '-c', script], stdout=subprocess.PIPE, timeout=120)
+        self.assertEqual(b"exiting", proc.stdout.strip())
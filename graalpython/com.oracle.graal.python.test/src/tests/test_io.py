@@ -37,6 +37,8 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
+import os
+import tempfile
 import unittest
 import _io
 
@@ -263,5 +265,123 @@ class IOBaseTests(unittest.TestCase):
         self.assertRaises(AttributeError, _io._IOBase().writelines, ['aaa', 'bbb'])
 
 
+class TextIOWrapperReadlineTests(unittest.TestCase):
+
+    def setUp(self):
+        fd, self.path = tempfile.mkstemp()
+        os.close(fd)
+
+    def tearDown(self):
+        os.unlink(self.path)
+
+    def write(self, data):
+        with open(self.path, 'wb') as f:
+            f.write(data)
+
+    def test_universal_newlines(self):
+        self.write(b'a\nbb\r\nccc\rdddd')
+        with open(self.path, encoding='utf-8') as f:
+            self.assertEqual(['a\n', 'bb\n', 'ccc\n', 'dddd'], list(f))
+            self.assertEqual(('\r', '\n', '\r\n'), f.newlines)
+        with open(self.path, encoding='latin-1', newline='') as f:
+            self.assertEqual(['a\n', 'bb\r\n', 'ccc\r', 'dddd'], list(f))
+
+    def test_line_endings_at_buffer_boundary(self):
+        # with buffering=4, the \r ends up at the end of the buffer
+        self.write(b'abc\r\ndef\rghi\n\r\n')
+        with open(self.path, encoding='ascii', buffering=4) as f:
+            self.assertEqual(['abc\n', 'def\n', 'ghi\n', '\n'], list(f))
+        with open(self.path, encoding='ascii', buffering=4, newline='') as f:
+            self.assertEqual(['abc\r\n', 'def\r', 'ghi\n', '\r\n'], list(f))
+
+    def test_long_lines(self):
+        lines = ['%d: %s\n' % (i, '\u00e9\u20ac' * i) for i in range(300)]
+        self.write(''.join(lines).encode('utf-8'))
+        with open(self.path, encoding='utf-8', buffering=64) as f:
+            self.assertEqual(lines, f.readlines())
+
+    def test_invalid_data(self):
+        self.write(b'ok\nbad \xff\nok again\n')
+        with open(self.path, encoding='utf-8', errors='replace') as f:
+            self.assertEqual(['ok\n', 'bad \ufffd\n', 'ok again\n'], list(f))
+        with open(self.path, encoding='ascii') as f:
+            self.assertRaises(UnicodeDecodeError, list, f)
+
+    def test_nonblocking_cr_at_end(self):
+        # the byte after the \r is not available yet, the decoder has to keep the \r
+        r, w = os.pipe()
+        try:
+            os.set_blocking(r, False)
+            with open(r, encoding='ascii', buffering=4, closefd=False) as f:
+                os.write(w, b'ab\r')
+                self.assertEqual('ab\n', f.readline())
+                os.write(w, b'\ncd\r\n')
+                self.assertEqual(['\n', 'cd\n'], [f.readline(), f.readline()])
+                self.assertEqual(('\r', '\n', '\r\n'), f.newlines)
+        finally:
+            os.close(r)
+            os.close(w)
+
+    def test_mixed_with_read_and_tell(self):
+        self.write(b'first\nsecond\nthird\nfourth\n')
+        with open(self.path, encoding='utf-8') as f:
+            self.assertEqual('fi', f.read(2))
+            self.assertEqual('rst\n', f.readline())
+            self.assertEqual('second\n', f.readline())
+            pos = f.tell()
+            self.assertEqual('third\n', f.readline())
+            f.seek(pos)
+            self.assertEqual('third\n', f.readline())
+            self.assertEqual('fo', f.read(2))
+            self.assertEqual('urth\n', f.readline())
+            self.assertEqual('', f.readline())
+            f.seek(0)
+            self.assertEqual('first\n', f.readline())
+            self.assertEqual(6, f.tell())
+            self.assertEqual('sec', f.readline(3))
+            self.assertEqual('ond\n', f.readline())
+
+
+class BufferedThreadingTests(unittest.TestCase):
+
+    def test_reentrant_call(self):
+        class Raw(_io._RawIOBase):
+            def writable(self):
+                return True
+
+            def write(self, b):
+                buffered.flush()
+                return len(b)
+
+        buffered = _io.BufferedWriter(Raw(), 8)
+        buffered.write(b'abcd')
+        self.assertRaises(RuntimeError, buffered.flush)
+
+    def test_shared_between_threads(self):
+        import threading
+        fd, path = tempfile.mkstemp()
+        os.close(fd)
+        try:
+            with open(path, 'wb', buffering=16) as f:
+                # the first write may happen before any thread is started
+                f.write(b'-' * 10)
+
+                def write_lines(n):
+                    for i in range(200):
+                        f.write(b'%d%03d\n' % (n, i))
+
+                threads = [threading.Thread(target=write_lines, args=(n,)) for n in range(4)]
+                for t in threads:
+                    t.start()
+                for t in threads:
+                    t.join()
+            with open(path, 'rb') as f:
+                self.assertEqual(b'-' * 10, f.read(10))
+                lines = f.read().splitlines()
+            self.assertEqual(sorted(b'%d%03d' % (n, i) for n in range(4) for i in range(200)), sorted(lines))
+        finally:
+            os.unlink(path)
+
+
 if __name__ == '__main__':
     unittest.main()
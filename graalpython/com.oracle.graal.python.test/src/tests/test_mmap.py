@@ -4,6 +4,7 @@
 # Licensed under the PYTHON SOFTWARE FOUNDATION LICENSE VERSION 2
 import os
 import re
+import tempfile
 import unittest
 from test.support import (TESTFN, run_unittest, import_module)
 
@@ -174,14 +175,13 @@ class MmapTests(unittest.TestCase):
         self.assertTrue(m.closed, "context manager failed")
 
 
-FIND_BUFFER_SIZE = 1024 # keep in sync with FindNode#BUFFER_SIZE
 def test_find():
     cases = [
-        # (size, needle_pos)
-        (FIND_BUFFER_SIZE * 3 + 1, FIND_BUFFER_SIZE * 3 - 2),
-        (FIND_BUFFER_SIZE * 3 + 3, FIND_BUFFER_SIZE * 3),
-        (FIND_BUFFER_SIZE * 2, FIND_BUFFER_SIZE),
-        (FIND_BUFFER_SIZE * 2, FIND_BUFFER_SIZE - 1),
+        # (size, needle_pos), some of the needles cross 1 KiB boundaries
+        (3073, 3070),
+        (3075, 3072),
+        (2048, 1024),
+        (2048, 1023),
         (11, 1),
     ]
     for (size, needle_pos) in cases:
@@ -199,11 +199,80 @@ def test_find():
         m.close()
 
 
+def test_rfind():
+    m = mmap.mmap(-1, 3072)
+    for pos in (1, 1023, 2048):
+        m[pos:pos + 3] = b'abc'
+    assert m.rfind(b'abc') == 2048
+    assert m.rfind(b'abc', 0, 2050) == 1023
+    assert m.rfind(b'abc', 0, 1026) == 1023
+    assert m.rfind(b'abc', 0, 1025) == 1
+    assert m.rfind(b'abc', 2) == 2048
+    assert m.rfind(b'abc', 2, 1024) == -1
+    assert m.rfind(b'', 3, 10) == 10
+    m.seek(2049)
+    assert m.rfind(b'abc') == -1
+    assert m.find(b'abc') == -1
+    m.close()
+
+
 def test_getitem():
     m = mmap.mmap(-1, 12)
     for i in range(0, 12):
         m[i] = i
     assert m[slice(-10, 100)] == b'\x02\x03\x04\x05\x06\x07\x08\t\n\x0b'
+    assert m[::3] == b'\x00\x03\x06\t'
+    assert m[10:1:-4] == b'\n\x06\x02'
+    assert m[::-1] == bytes(range(11, -1, -1))
+    m.close()
+
+    m = mmap.mmap(-1, 150001)
+    for i in range(0, 150001, 7):
+        m[i] = i % 251
+    assert m[::7] == bytes(i % 251 for i in range(0, 150001, 7))
+    assert m[::70000] == b'\x00' + bytes([70000 % 251, 140000 % 251])
+    assert m[140000::-70000] == bytes([140000 % 251, 70000 % 251]) + b'\x00'
+    m.close()
+
+
+def test_write_advances_position():
+    m = mmap.mmap(-1, 8)
+    assert m.write(b'abc') == 3
+    assert m.tell() == 3
+    m.write(b'de')
+    assert m.tell() == 5
+    assert m[:] == b'abcde\x00\x00\x00'
+    m.close()
+
+
+def test_memoryview():
+    m = mmap.mmap(-1, 16)
+    m.seek(4)
+    assert bytes(m) == b'\x00' * 16
+    view = memoryview(m)
+    assert len(view) == 16
+    assert not view.readonly
+    m[2:5] = b'xyz'
+    assert view[2:5].tobytes() == b'xyz'
+    view[8] = ord('q')
+    assert m[8] == ord('q')
+    assert bytes(m)[8] == ord('q')
+    view[10:13] = b'abc'
+    assert m[10:13] == b'abc'
+    assert view[8:13].tobytes() == b'q\x00abc'
+    assert view[::2].tobytes() == bytes(m)[::2]
+    view.release()
+    m.close()
+
+    with tempfile.TemporaryFile() as f:
+        f.write(b'hello world')
+        f.flush()
+        m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_READ)
+        view = memoryview(m)
+        assert view.readonly
+        assert view[6:].tobytes() == b'world'
+        view.release()
+        m.close()
 
 
 def test_readline():
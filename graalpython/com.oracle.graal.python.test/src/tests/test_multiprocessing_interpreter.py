@@ -0,0 +1,153 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import multiprocessing
+import os
+import sys
+import time
+import unittest
+
+
+def square(x):
+    return x * x
+
+
+def increment(conn, queue, lock):
+    with lock:
+        conn.send(conn.recv() + 1)
+    queue.put(("done", multiprocessing.current_process().name))
+
+
+def release(sem, queue):
+    try:
+        sem.release()
+    except ValueError:
+        queue.put("bounded")
+    else:
+        queue.put("released")
+
+
+@unittest.skipIf(sys.implementation.name == 'cpython', "graalpython specific")
+class InterpreterStartMethodTests(unittest.TestCase):
+
+    def setUp(self):
+        self.ctx = multiprocessing.get_context("interpreter")
+
+    def test_start_methods(self):
+        self.assertIn("interpreter", multiprocessing.get_all_start_methods())
+        self.assertEqual(self.ctx.get_start_method(), "interpreter")
+
+    def test_process(self):
+        conn, child_conn = self.ctx.Pipe()
+        queue = self.ctx.Queue()
+        lock = self.ctx.Lock()
+        p = self.ctx.Process(target=increment, args=(child_conn, queue, lock), name="worker")
+        p.start()
+        conn.send(41)
+        self.assertEqual(conn.recv(), 42)
+        self.assertEqual(queue.get(timeout=60), ("done", "worker"))
+        p.join()
+        self.assertEqual(p.exitcode, 0)
+        self.assertFalse(p.is_alive())
+        p.close()
+
+    def test_exitcode(self):
+        p = self.ctx.Process(target=sys.exit, args=(3,))
+        p.start()
+        p.join()
+        self.assertEqual(p.exitcode, 3)
+
+    def test_pool(self):
+        with self.ctx.Pool(2) as pool:
+            self.assertEqual(pool.map(square, range(20)), [x * x for x in range(20)])
+            self.assertEqual(pool.apply_async(square, (7,)).get(timeout=60), 49)
+
+    def test_bounded_semaphore(self):
+        sem = self.ctx.BoundedSemaphore(1)
+        self.assertRaises(ValueError, sem.release)
+        queue = self.ctx.Queue()
+        p = self.ctx.Process(target=release, args=(sem, queue))
+        p.start()
+        self.assertEqual(queue.get(timeout=60), "bounded")
+        p.join()
+
+    def test_pipe_close(self):
+        import _xxsubinterpreters as _interpreters
+        channels = len(_interpreters.channel_list_all())
+        r, w = self.ctx.Pipe(duplex=False)
+        w.send(1)
+        w.close()
+        self.assertEqual(r.recv(), 1)
+        self.assertRaises(EOFError, r.recv)
+        r.close()
+        a, b = self.ctx.Pipe()
+        a.close()
+        self.assertTrue(b.poll(60))
+        self.assertRaises(EOFError, b.recv)
+        b.close()
+        # the channels are destroyed once both ends are closed
+        self.assertEqual(len(_interpreters.channel_list_all()), channels)
+
+    def test_pipe_close_in_child(self):
+        r, w = self.ctx.Pipe(duplex=False)
+        p = self.ctx.Process(target=w.send, args=("hello",))
+        p.start()
+        # the child has its own reference to the writer
+        w.close()
+        self.assertEqual(r.recv(), "hello")
+        p.join()
+        self.assertRaises(EOFError, r.recv)
+        r.close()
+
+    def test_wait(self):
+        from multiprocessing.connection import wait
+        p = self.ctx.Process(target=time.sleep, args=(0.5,))
+        p.start()
+        r, w = os.pipe()
+        try:
+            self.assertEqual(wait([p.sentinel, r], 0.01), [])
+            p.join(0.01)
+            self.assertIsNone(p.exitcode)
+            self.assertEqual(wait([p.sentinel, r], 60), [p.sentinel])
+            os.write(w, b"x")
+            self.assertEqual(wait([p.sentinel, r], 0), [p.sentinel, r])
+        finally:
+            os.close(r)
+            os.close(w)
+        p.join()
+        self.assertEqual(p.exitcode, 0)
@@ -49,6 +49,7 @@ except:
 import unittest
 import os
 import array
+import errno
 import sys
 import posix
 import stat
@@ -283,6 +284,207 @@ class WithCurdirFdTests(unittest.TestCase):
         self.assertFalse(os.isatty(self.fd))
 
 
+class ReadIntoTests(unittest.TestCase):
+
+    DATA = bytes(range(256)) * 64
+
+    def setUp(self):
+        with open(TEST_FULL_PATH1, os.O_WRONLY | os.O_CREAT | os.O_TRUNC) as fd:
+            os.write(fd, self.DATA)
+
+    def tearDown(self):
+        os.unlink(TEST_FULL_PATH1)
+
+    def test_pread(self):
+        with open(TEST_FULL_PATH1, os.O_RDONLY) as fd:
+            self.assertEqual(self.DATA[10:20], os.pread(fd, 10, 10))
+            # the file offset is left unchanged
+            self.assertEqual(self.DATA[:5], os.read(fd, 5))
+            self.assertEqual(self.DATA[-3:], os.pread(fd, 100, len(self.DATA) - 3))
+            self.assertEqual(b'', os.pread(fd, 10, len(self.DATA) + 10))
+            self.assertEqual(self.DATA[5:8], os.read(fd, 3))
+
+    def test_pread_errors(self):
+        r, w = os.pipe()
+        with auto_close(r), auto_close(w):
+            self.assertRaises(OSError, os.pread, r, 1, 0)
+        with open(TEST_FULL_PATH1, os.O_RDONLY) as fd:
+            self.assertRaises(OSError, os.pread, fd, -1, 0)
+
+    def test_fileio_readinto(self):
+        with io.FileIO(TEST_FULL_PATH1, 'r') as f:
+            b = bytearray(100)
+            self.assertEqual(100, f.readinto(b))
+            self.assertEqual(self.DATA[:100], b)
+            m = memoryview(bytearray(b'x' * 30))
+            self.assertEqual(10, f.readinto(m[10:20]))
+            self.assertEqual(b'x' * 10 + self.DATA[100:110] + b'x' * 10, m.tobytes())
+            a = array.array('b', [0] * 4)
+            self.assertEqual(4, f.readinto(a))
+            self.assertEqual(self.DATA[110:114], a.tobytes())
+            f.seek(len(self.DATA) - 2)
+            b = bytearray(5)
+            self.assertEqual(2, f.readinto(b))
+            self.assertEqual(self.DATA[-2:] + bytes(3), b)
+            self.assertEqual(0, f.readinto(b))
+
+    def test_buffered_readinto(self):
+        with io.open(TEST_FULL_PATH1, 'rb', buffering=64) as f:
+            b = bytearray(10)
+            self.assertEqual(10, f.readinto(b))
+            self.assertEqual(self.DATA[:10], b)
+            # larger than the buffer, read straight into the target
+            m = memoryview(bytearray(1000))
+            self.assertEqual(900, f.readinto(m[100:]))
+            self.assertEqual(bytes(100) + self.DATA[10:910], m.tobytes())
+            self.assertEqual(self.DATA[910:1000], f.read(90))
+            rest = bytearray(len(self.DATA))
+            self.assertEqual(len(self.DATA) - 1000, f.readinto(rest))
+            self.assertEqual(self.DATA[1000:], rest[:len(self.DATA) - 1000])
+
+    def test_buffered_readinto_custom_raw(self):
+        class Raw(io.RawIOBase):
+            def readable(self):
+                return True
+
+            def readinto(self, b):
+                b[:3] = b'abc'
+                return 3
+
+        raw = Raw()
+        f = io.BufferedReader(raw, buffer_size=16)
+        self.assertEqual(b'abcab', f.read(5))
+        self.assertEqual(b'cabc', f.read(4))
+
+    def test_readinto_pins_target(self):
+        import threading, time
+        r, w = os.pipe()
+        with auto_close(r), auto_close(w):
+            for target in (bytearray(4), memoryview(bytearray(4)), array.array('b', [0] * 4)):
+                owner = target.obj if isinstance(target, memoryview) else target
+                grow = (lambda: owner.append(1)) if isinstance(owner, array.array) else (lambda: owner.extend(b'x'))
+                result = []
+                f = io.FileIO(r, 'r', closefd=False)
+                t = threading.Thread(target=lambda: result.append(f.readinto(target)))
+                t.start()
+                # give the reader time to block in the read
+                time.sleep(0.2)
+                with self.assertRaises(BufferError):
+                    grow()
+                with self.assertRaises(BufferError):
+                    del owner[:]
+                os.write(w, b'data')
+                t.join()
+                self.assertEqual([4], result)
+                self.assertEqual(b'data', bytes(target))
+                if target is owner:
+                    # the export is released after the read
+                    del owner[:]
+
+
+
+class VectoredIOTests(unittest.TestCase):
+
+    def tearDown(self):
+        try:
+            os.unlink(TEST_FULL_PATH1)
+        except FileNotFoundError:
+            pass
+
+    def test_writev_readv(self):
+        with open(TEST_FULL_PATH1, os.O_WRONLY | os.O_CREAT | os.O_TRUNC) as fd:
+            self.assertEqual(11, os.writev(fd, [b'hello', bytearray(b' '), memoryview(b'world')]))
+            self.assertEqual(0, os.writev(fd, []))
+        with open(TEST_FULL_PATH1, os.O_RDONLY) as fd:
+            a, b, c = bytearray(3), bytearray(4), bytearray(10)
+            self.assertEqual(11, os.readv(fd, [a, memoryview(b), c]))
+            self.assertEqual(b'hel', a)
+            self.assertEqual(b'lo w', b)
+            self.assertEqual(b'orld' + bytes(6), c)
+            self.assertEqual(0, os.readv(fd, [a]))
+
+    def test_writev_readv_many_buffers(self):
+        data = [bytes([i]) * (i + 1) for i in range(20)]
+        with open(TEST_FULL_PATH1, os.O_WRONLY | os.O_CREAT | os.O_TRUNC) as fd:
+            self.assertEqual(210, os.writev(fd, data))
+        with open(TEST_FULL_PATH1, os.O_RDONLY) as fd:
+            targets = [bytearray(i + 1) for i in range(20)]
+            self.assertEqual(210, os.readv(fd, targets))
+            self.assertEqual(data, [bytes(t) for t in targets])
+
+    def test_readv_errors(self):
+        with open(TEST_FULL_PATH1, os.O_WRONLY | os.O_CREAT | os.O_TRUNC) as fd:
+            self.assertRaises(OSError, os.readv, fd, [bytearray(1)])
+
+    def test_buffered_large_write(self):
+        header = b'HTTP/1.1 200 OK\r\n' + b'X-Header: value\r\n' * 10 + b'\r\n'
+        body = bytes(range(256)) * 100
+        with io.open(TEST_FULL_PATH1, 'wb', buffering=1024) as f:
+            f.write(header)
+            f.write(body)
+            self.assertEqual(len(header) + len(body), f.tell())
+            f.write(b'tail')
+            f.write(body)
+        with io.open(TEST_FULL_PATH1, 'rb') as f:
+            self.assertEqual(header + body + b'tail' + body, f.read())
+
+    def test_buffered_random_large_write(self):
+        with io.open(TEST_FULL_PATH1, 'w+b', buffering=64) as f:
+            f.write(b'x' * 100)
+            f.seek(10)
+            self.assertEqual(b'x' * 5, f.read(5))
+            f.write(b'ab')
+            f.write(b'y' * 200)
+            f.seek(0)
+            self.assertEqual(b'x' * 15 + b'ab' + b'y' * 200, f.read())
+
+
+class KernelCopyTests(unittest.TestCase):
+
+    def setUp(self):
+        with open(TEST_FULL_PATH1, os.O_WRONLY | os.O_CREAT | os.O_TRUNC) as fd:
+            os.write(fd, b'0123456789')
+
+    def tearDown(self):
+        for teardown_file in [TEST_FULL_PATH1, TEST_FULL_PATH2]:
+            try:
+                os.unlink(teardown_file)
+            except FileNotFoundError:
+                pass
+
+    @unittest.skipUnless(sys.platform.startswith('linux'), 'sendfile to regular files is Linux specific')
+    def test_sendfile(self):
+        with open(TEST_FULL_PATH1, os.O_RDONLY) as src:
+            with open(TEST_FULL_PATH2, os.O_WRONLY | os.O_CREAT | os.O_TRUNC) as dst:
+                self.assertEqual(4, os.sendfile(dst, src, 2, 4))
+                self.assertEqual(0, os.lseek(src, 0, os.SEEK_CUR))
+                self.assertEqual(3, os.sendfile(dst, src, None, 3))
+                self.assertEqual(3, os.lseek(src, 0, os.SEEK_CUR))
+                self.assertEqual(0, os.sendfile(dst, src, 10, 5))
+                self.assertRaises(OSError, os.sendfile, dst, src, -1, 5)
+        with open(TEST_FULL_PATH2, os.O_RDONLY) as fd:
+            self.assertEqual(b'2345012', os.read(fd, 20))
+
+    @unittest.skipUnless(hasattr(os, 'copy_file_range'), 'requires os.copy_file_range')
+    def test_copy_file_range(self):
+        with open(TEST_FULL_PATH1, os.O_RDONLY) as src:
+            with open(TEST_FULL_PATH2, os.O_WRONLY | os.O_CREAT | os.O_TRUNC) as dst:
+                try:
+                    self.assertEqual(3, os.copy_file_range(src, dst, 3))
+                except OSError as e:
+                    if e.errno == errno.ENOSYS:
+                        self.skipTest('copy_file_range not supported by the kernel')
+                    raise
+                self.assertEqual(3, os.lseek(src, 0, os.SEEK_CUR))
+                self.assertEqual(2, os.copy_file_range(src, dst, 2, offset_src=8))
+                self.assertEqual(3, os.lseek(src, 0, os.SEEK_CUR))
+                self.assertEqual(5, os.lseek(dst, 0, os.SEEK_CUR))
+                self.assertEqual(1, os.copy_file_range(src, dst, 1, 9, 0))
+                self.assertEqual(5, os.lseek(dst, 0, os.SEEK_CUR))
+        with open(TEST_FULL_PATH2, os.O_RDONLY) as fd:
+            self.assertEqual(b'91289', os.read(fd, 20))
+
+
 class WithTempFilesTests(unittest.TestCase):
 
     def setUp(self):
@@ -473,6 +675,46 @@ class ScandirEmptyTests(unittest.TestCase):
         self.assertEqual([], os.listdir(TEST_FULL_PATH1))
 
 
+class ScandirLargeDirTests(unittest.TestCase):
+
+    # more entries than fit into a single readdir batch
+    FILE_COUNT = 150
+
+    def setUp(self):
+        os.mkdir(TEST_FULL_PATH1)
+        self.names = {'f%d' % i for i in range(self.FILE_COUNT)}
+        for name in self.names:
+            os.close(os.open(os.path.join(TEST_FULL_PATH1, name), os.O_WRONLY | os.O_CREAT))
+        os.mkdir(os.path.join(TEST_FULL_PATH1, 'subdir'))
+        os.symlink('subdir', os.path.join(TEST_FULL_PATH1, 'link'))
+
+    def tearDown(self):
+        for name in self.names | {'link'}:
+            os.unlink(os.path.join(TEST_FULL_PATH1, name))
+        os.rmdir(os.path.join(TEST_FULL_PATH1, 'subdir'))
+        os.rmdir(TEST_FULL_PATH1)
+
+    def test_listdir(self):
+        self.assertEqual(self.names | {'subdir', 'link'}, set(os.listdir(TEST_FULL_PATH1)))
+
+    def test_scandir(self):
+        with os.scandir(TEST_FULL_PATH1) as dir:
+            entries = {entry.name: entry for entry in dir}
+        self.assertEqual(self.names | {'subdir', 'link'}, set(entries))
+        self.assertTrue(all(entries[name].is_file() for name in self.names))
+        self.assertTrue(entries['subdir'].is_dir())
+        self.assertFalse(entries['subdir'].is_symlink())
+        self.assertTrue(entries['link'].is_symlink())
+        self.assertTrue(entries['link'].is_dir())
+        self.assertFalse(entries['link'].is_dir(follow_symlinks=False))
+
+    def test_walk(self):
+        walked = list(os.walk(TEST_FULL_PATH1))
+        self.assertEqual(2, len(walked))
+        self.assertEqual(['link', 'subdir'], sorted(walked[0][1]))
+        self.assertEqual(self.names, set(walked[0][2]))
+
+
 class ScandirTests(unittest.TestCase):
 
     def setUp(self):
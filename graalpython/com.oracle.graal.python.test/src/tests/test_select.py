@@ -95,3 +95,147 @@ class SelectTests(unittest.TestCase):
             fds = [F(f.fileno()), F(stdout_fd), F(f.fileno())]
             res = select.select(fds, [], [], 1)
             assert res == ([fds[0], fds[2]], [], [])
+
+
+class PollTests(unittest.TestCase):
+    def test_poll_pipe(self):
+        r, w = os.pipe()
+        try:
+            p = select.poll()
+            p.register(r, select.POLLIN)
+            p.register(w, select.POLLOUT)
+            assert p.poll(0) == [(w, select.POLLOUT)]
+            os.write(w, b'x')
+            assert sorted(p.poll(1000)) == sorted([(r, select.POLLIN), (w, select.POLLOUT)])
+            p.modify(w, select.POLLIN)
+            assert p.poll(0) == [(r, select.POLLIN)]
+            assert os.read(r, 1) == b'x'
+            assert p.poll(10) == []
+            p.unregister(r)
+            self.assertRaises(KeyError, p.unregister, r)
+            self.assertRaises(OSError, p.modify, r, select.POLLIN)
+        finally:
+            os.close(r)
+            os.close(w)
+
+    def test_poll_socket_and_pipe(self):
+        import socket
+        r, w = os.pipe()
+        s1, s2 = socket.socketpair()
+        try:
+            p = select.poll()
+            p.register(r, select.POLLIN)
+            p.register(s1, select.POLLIN)
+            assert p.poll(10) == []
+            s2.send(b'x')
+            assert p.poll(1000) == [(s1.fileno(), select.POLLIN)]
+            os.write(w, b'y')
+            assert sorted(p.poll(1000)) == sorted([(r, select.POLLIN), (s1.fileno(), select.POLLIN)])
+        finally:
+            os.close(r)
+            os.close(w)
+            s1.close()
+            s2.close()
+
+    def test_poll_socket_and_pipe_wakes_up(self):
+        import socket, threading
+        r, w = os.pipe()
+        s1, s2 = socket.socketpair()
+        try:
+            p = select.poll()
+            p.register(r, select.POLLIN)
+            p.register(s1, select.POLLIN)
+            t = threading.Timer(0.1, os.write, (w, b'x'))
+            t.start()
+            assert p.poll(10000) == [(r, select.POLLIN)]
+            t.join()
+            t = threading.Timer(0.1, s2.send, (b'y',))
+            t.start()
+            os.read(r, 1)
+            assert p.poll(10000) == [(s1.fileno(), select.POLLIN)]
+            t.join()
+        finally:
+            os.close(r)
+            os.close(w)
+            s1.close()
+            s2.close()
+
+    def test_poll_timeout_arg_validation(self):
+        p = select.poll()
+        self.assertRaises(TypeError, p.poll, 'abc')
+        self.assertRaises(OverflowError, p.poll, 1 << 40)
+
+
+@unittest.skipUnless(hasattr(select, 'epoll'), 'epoll is not supported on this platform')
+class EpollTests(unittest.TestCase):
+    def test_epoll_pipe(self):
+        r, w = os.pipe()
+        try:
+            with select.epoll() as ep:
+                assert not ep.closed
+                assert isinstance(ep.fileno(), int)
+                ep.register(r, select.EPOLLIN)
+                ep.register(w, select.EPOLLOUT)
+                self.assertRaises(FileExistsError, ep.register, r, select.EPOLLIN)
+                assert ep.poll(0) == [(w, select.EPOLLOUT)]
+                os.write(w, b'x')
+                assert sorted(ep.poll(1)) == sorted([(r, select.EPOLLIN), (w, select.EPOLLOUT)])
+                assert len(ep.poll(1, maxevents=1)) == 1
+                ep.modify(w, 0)
+                assert ep.poll(0) == [(r, select.EPOLLIN)]
+                assert os.read(r, 1) == b'x'
+                assert ep.poll(0.01) == []
+                ep.unregister(r)
+                self.assertRaises(FileNotFoundError, ep.unregister, r)
+                self.assertRaises(ValueError, ep.poll, 0, 0)
+            assert ep.closed
+            self.assertRaises(ValueError, ep.poll, 0)
+            self.assertRaises(ValueError, ep.fileno)
+        finally:
+            os.close(r)
+            os.close(w)
+
+    def test_epoll_oneshot(self):
+        r, w = os.pipe()
+        try:
+            ep = select.epoll()
+            ep.register(w, select.EPOLLOUT | select.EPOLLONESHOT)
+            assert ep.poll(0) == [(w, select.EPOLLOUT)]
+            assert ep.poll(0) == []
+            ep.modify(w, select.EPOLLOUT)
+            assert ep.poll(0) == [(w, select.EPOLLOUT)]
+            ep.close()
+            ep.close()
+        finally:
+            os.close(r)
+            os.close(w)
+
+    def test_epoll_waits_for_whole_timeout(self):
+        import socket, threading, time
+        r, w = os.pipe()
+        s1, s2 = socket.socketpair()
+        try:
+            with select.epoll() as ep:
+                ep.register(r, select.EPOLLIN)
+                ep.register(s1, select.EPOLLIN)
+                # changing the registered fds must not end a pending wait
+                t = threading.Timer(0.1, ep.modify, (s1, select.EPOLLIN | select.EPOLLPRI))
+                t.start()
+                start = time.monotonic()
+                assert ep.poll(0.5) == []
+                assert time.monotonic() - start >= 0.45
+                t.join()
+                t = threading.Timer(0.1, s2.send, (b'x',))
+                t.start()
+                assert ep.poll(10) == [(s1.fileno(), select.EPOLLIN)]
+                t.join()
+        finally:
+            os.close(r)
+            os.close(w)
+            s1.close()
+            s2.close()
+
+    def test_epoll_constants(self):
+        assert select.EPOLLET > 0
+        assert select.EPOLLIN == select.POLLIN
+        self.assertRaises(ValueError, select.epoll, 0)
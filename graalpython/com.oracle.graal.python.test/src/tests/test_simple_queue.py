@@ -0,0 +1,123 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import queue
+import sys
+import threading
+import time
+import unittest
+
+GRAALPYTHON = sys.implementation.name == 'graalpython'
+
+
+class SimpleQueueTests(unittest.TestCase):
+
+    def test_fifo(self):
+        q = queue.SimpleQueue()
+        for r in range(3):
+            # make the ring buffer wrap around and grow
+            for i in range(100):
+                q.put(i)
+            self.assertEqual([q.get() for _ in range(50)], list(range(50)))
+            for i in range(100, 200):
+                q.put_nowait(i)
+            self.assertEqual(q.qsize(), 150)
+            self.assertEqual([q.get_nowait() for _ in range(150)], list(range(50, 200)))
+            self.assertTrue(q.empty())
+        self.assertRaises(queue.Empty, q.get_nowait)
+        self.assertRaises(queue.Empty, q.get, True, 0.01)
+
+    def test_producers_consumers(self):
+        q = queue.SimpleQueue()
+        n = 2000
+        results = []
+
+        def produce():
+            for i in range(n):
+                q.put(i)
+
+        def consume():
+            total = 0
+            for _ in range(n):
+                total += q.get()
+            results.append(total)
+
+        threads = [threading.Thread(target=f) for f in (consume, consume, produce, produce)]
+        for t in threads:
+            t.start()
+        for t in threads:
+            t.join()
+        self.assertEqual(sum(results), n * (n - 1))
+        self.assertTrue(q.empty())
+
+    @unittest.skipUnless(GRAALPYTHON, "graalpython specific")
+    def test_bounded(self):
+        q = queue.SimpleQueue(2)
+        self.assertEqual(q.maxsize, 2)
+        q.put(1)
+        q.put_nowait(2)
+        self.assertTrue(q.full())
+        self.assertRaises(queue.Full, q.put_nowait, 3)
+        self.assertRaises(queue.Full, q.put, 3, False)
+        self.assertRaises(queue.Full, q.put, 3, True, 0.01)
+        self.assertEqual(q.get(), 1)
+        self.assertFalse(q.full())
+        q.put(3)
+        self.assertEqual([q.get(), q.get()], [2, 3])
+        self.assertEqual(queue.SimpleQueue().maxsize, 0)
+        self.assertEqual(queue.SimpleQueue(-1).maxsize, 0)
+
+    @unittest.skipUnless(GRAALPYTHON, "graalpython specific")
+    def test_bounded_blocking_put(self):
+        q = queue.SimpleQueue(1)
+        q.put(0)
+        done = []
+
+        def produce():
+            q.put(1)
+            done.append(True)
+
+        t = threading.Thread(target=produce)
+        t.start()
+        time.sleep(0.05)
+        self.assertEqual(done, [])
+        self.assertEqual(q.get(), 0)
+        t.join()
+        self.assertEqual(done, [True])
+        self.assertEqual(q.get(), 1)
@@ -66,3 +66,48 @@ def test_get_name_info():
     except TypeError:
         raised = True
     assert raised
+
+
+class TestRecvInto(unittest.TestCase):
+    def setUp(self):
+        self.server = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        self.server.bind(('127.0.0.1', 0))
+        self.server.listen(1)
+        self.client = socket.create_connection(self.server.getsockname())
+        self.conn, _ = self.server.accept()
+
+    def tearDown(self):
+        self.conn.close()
+        self.client.close()
+        self.server.close()
+
+    def recv_into_fully(self, view):
+        n = 0
+        while n < len(view):
+            n += self.conn.recv_into(view[n:])
+        return n
+
+    def test_recv_into_bytearray(self):
+        self.client.sendall(b'hello world')
+        buf = bytearray(11)
+        self.assertEqual(11, self.recv_into_fully(memoryview(buf)))
+        self.assertEqual(b'hello world', buf)
+
+    def test_recv_into_memoryview_slice(self):
+        self.client.sendall(b'abcd')
+        buf = bytearray(b'.' * 8)
+        self.assertEqual(4, self.recv_into_fully(memoryview(buf)[2:6]))
+        self.assertEqual(b'..abcd..', buf)
+
+    def test_sendmsg(self):
+        self.assertEqual(9, self.client.sendmsg([b'abc', bytearray(b'def'), memoryview(b'ghi')]))
+        buf = bytearray(9)
+        self.assertEqual(9, self.recv_into_fully(memoryview(buf)))
+        self.assertEqual(b'abcdefghi', buf)
+
+    def test_sendmsg_address_ignored(self):
+        # the address is ignored for connected stream sockets
+        self.assertEqual(2, self.client.sendmsg([b'ab'], [], 0, ('127.0.0.1', 1)))
+        buf = bytearray(2)
+        self.assertEqual(2, self.recv_into_fully(memoryview(buf)))
+        self.assertEqual(b'ab', buf)
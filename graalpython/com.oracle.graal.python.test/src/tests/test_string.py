@@ -1046,6 +1046,32 @@ def test_translate():
         assert False, "should raise"
 
 
+def test_translate_long_string():
+    text = "The quick brown fox jumps over the lazy dog \U0001F600 \u00e4\u00f6\u00fc " * 10
+    table = str.maketrans("abcxyz", "ABCXYZ", "o")
+    table[0x1F600] = "<smiley>"
+    table[ord("\u00e4")] = 0x1F601
+    table[True] = "one"
+    expected = "".join(table.get(ord(c), c) if not isinstance(table.get(ord(c), c), int) else chr(table[ord(c)])
+                       for c in text if table.get(ord(c), c) is not None)
+    assert text.translate(table) == expected
+    assert "\x01" * 20 == ("\x01" * 20).translate({1.5: "x"})
+    assert "a" * 20 == ("a" * 20).translate({"a": "b"})
+    assert "b" * 20 == ("a" * 20).translate({97.0: "b"})
+
+    class D(dict):
+        def __missing__(self, key):
+            return "?"
+    assert "?" * 20 == ("a" * 20).translate(D())
+
+
+def test_translate_surrogate_keys():
+    # the halves of a surrogate pair are not code points of their own
+    text = "emoji \U0001F600 " * 10
+    assert text.translate({0xD83D: "x", 0xDE00: "y"}) == text
+    assert ("\ud83d" * 20).translate({0xD83D: "x"}) == "x" * 20
+
+
 def test_translate_from_byte_table():
     table = bytes.maketrans(bytes(string.ascii_lowercase, 'ascii'), bytes(string.ascii_uppercase, 'ascii'))
     assert "ahoj".translate(table) == "AHOJ"
@@ -1069,6 +1095,15 @@ def test_translate_from_long_byte_table():
     assert 'ahoj453875287ščřžýáí'.translate(table) == 'AHOJ453875287A\rY~ýáí'
 
 
+def test_case_mapping_latin1():
+    s = "AZaz\u00c0\u00d6\u00d7\u00d8\u00de\u00df\u00e0\u00f6\u00f7\u00f8\u00fe\u00ff"
+    assert s.lower() == "azaz\u00e0\u00f6\u00d7\u00f8\u00fe\u00df\u00e0\u00f6\u00f7\u00f8\u00fe\u00ff"
+    assert "\u00f7abc".upper() == "\u00f7ABC"
+    assert "abc\u00d7".lower() == "abc\u00d7"
+    assert "Hello World".casefold() == "hello world"
+    assert "Stra\u00dfe".casefold() == "strasse"
+
+
 def test_splitlines():
     assert len(str.splitlines("\n\n")) == 2
     assert len(str.splitlines("\n")) == 1
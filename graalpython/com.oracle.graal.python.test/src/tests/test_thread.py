@@ -513,3 +513,236 @@ if syscfg.get_config_var('WITH_THREAD'):
             lock.release()
             self.assertFalse(lock.locked())
             self.assertTrue(lock.acquire(blocking=False))
+
+
+    class SwitchIntervalTests(unittest.TestCase):
+
+        def setUp(self):
+            self.interval = sys.getswitchinterval()
+
+        def tearDown(self):
+            sys.setswitchinterval(self.interval)
+
+        def test_switch_interval(self):
+            sys.setswitchinterval(0.001)
+            self.assertAlmostEqual(0.001, sys.getswitchinterval(), places=6)
+            sys.setswitchinterval(1)
+            self.assertAlmostEqual(1.0, sys.getswitchinterval())
+            self.assertRaises(ValueError, sys.setswitchinterval, 0)
+            self.assertRaises(ValueError, sys.setswitchinterval, -1.0)
+            self.assertRaises(TypeError, sys.setswitchinterval, "1")
+
+        def test_io_thread_not_starved(self):
+            # a thread that only needs the GIL for short periods must get it back quickly
+            # while another thread keeps computing
+            sys.setswitchinterval(0.001)
+            done = threading.Event()
+
+            def compute():
+                while not done.is_set():
+                    sum(range(100))
+
+            def io():
+                for i in range(20):
+                    time.sleep(0.001)
+                done.set()
+
+            cpu_thread = threading.Thread(target=compute)
+            io_thread = threading.Thread(target=io)
+            cpu_thread.start()
+            io_thread.start()
+            io_thread.join(10)
+            finished = done.is_set()
+            done.set()
+            cpu_thread.join()
+            self.assertTrue(finished)
+
+
+    @unittest.skipIf(sys.implementation.name == 'cpython', "graalpython specific")
+    class GilStatisticsTests(unittest.TestCase):
+
+        def test_current_thread(self):
+            before = __graalpython__.get_gil_statistics()
+            time.sleep(0.001)
+            after = __graalpython__.get_gil_statistics()
+            self.assertGreater(after["acquire_count"], before["acquire_count"])
+            self.assertGreaterEqual(after["wait_time"], before["wait_time"])
+            self.assertEqual(after["contended_count"], sum(after["wait_histogram"]))
+
+        def test_all_threads(self):
+            def f():
+                time.sleep(0.001)
+            t = threading.Thread(target=f)
+            t.start()
+            t.join()
+            stats = __graalpython__.get_gil_statistics(all_threads=True)
+            self.assertIn(threading.get_ident(), stats)
+            self.assertIn(None, stats)
+            for s in stats.values():
+                self.assertIn("forced_releases", s)
+
+
+    class ThreadStateTests(unittest.TestCase):
+
+        def test_fresh_state(self):
+            # threads may run on a reused Java thread, which must not leak the state of the
+            # previous Python thread
+            local = threading.local()
+            results = []
+
+            def f(i):
+                results.append(getattr(local, "value", None))
+                local.value = i
+                try:
+                    raise ValueError(i)
+                except ValueError:
+                    pass
+
+            for i in range(10):
+                t = threading.Thread(target=f, args=(i,))
+                t.start()
+                t.join()
+                self.assertEqual(sys.exc_info(), (None, None, None))
+            self.assertEqual(results, [None] * 10)
+            self.assertFalse(hasattr(local, "value"))
+
+        def test_many_threads(self):
+            counter = [0]
+            lock = thread.allocate_lock()
+
+            def f():
+                with lock:
+                    counter[0] += 1
+
+            for _ in range(5):
+                threads = [threading.Thread(target=f) for _ in range(50)]
+                for t in threads:
+                    t.start()
+                for t in threads:
+                    t.join()
+                    self.assertFalse(t.is_alive())
+            self.assertEqual(counter[0], 250)
+
+        def test_local_reuse(self):
+            # the storage of collected locals is reused and must not leak into new ones
+            import gc
+            for i in range(20):
+                local = threading.local()
+                self.assertFalse(hasattr(local, "value"))
+                local.value = i
+                self.assertEqual(local.value, i)
+                del local
+                gc.collect()
+
+        def test_local_per_thread(self):
+            locals = [threading.local() for _ in range(10)]
+            for i, local in enumerate(locals):
+                local.value = i
+            seen = []
+
+            def f():
+                seen.append([hasattr(local, "value") for local in locals])
+                for local in locals:
+                    local.value = -1
+
+            t = threading.Thread(target=f)
+            t.start()
+            t.join()
+            self.assertEqual(seen, [[False] * 10])
+            self.assertEqual([local.value for local in locals], list(range(10)))
+
+        def test_local_dict_freed_when_thread_ends(self):
+            # the values of a collected local are dropped even if no local is created afterwards
+            import gc, weakref
+
+            class Value:
+                pass
+
+            local = threading.local()
+            value = local.value = Value()
+            ref = weakref.ref(value)
+            del local, value
+            for i in range(10):
+                gc.collect()
+                t = threading.Thread(target=lambda: None)
+                t.start()
+                t.join()
+                if ref() is None:
+                    break
+            self.assertIsNone(ref())
+
+
+    @unittest.skipIf(sys.implementation.name == 'cpython', "graalpython specific")
+    class RWLockTests(unittest.TestCase):
+
+        def test_shared_readers(self):
+            lock = thread.RWLock()
+            with lock.reader:
+                self.assertTrue(lock.reader.locked())
+                self.assertFalse(lock.writer.locked())
+                # readers do not exclude each other, but exclude the writer
+                acquired = []
+                t = threading.Thread(target=lambda: acquired.append((lock.reader.acquire(False), lock.writer.acquire(False))))
+                t.start()
+                t.join()
+                self.assertEqual(acquired, [(True, False)])
+                self.assertIn("readers=2", repr(lock))
+                self.assertRaises(RuntimeError, lock.writer.acquire)
+                self.assertRaises(RuntimeError, lock.writer.acquire, timeout=10)
+            self.assertRaises(RuntimeError, lock.writer.release)
+            self.assertRaises(RuntimeError, lock.writer.__exit__, None, None, None)
+
+        def test_exclusive_writer(self):
+            lock = thread.RWLock()
+            shared = []
+
+            def read():
+                with lock.reader:
+                    shared.append(len(shared))
+
+            with lock.writer:
+                # the writer is reentrant and may take the reader
+                with lock.writer, lock.reader:
+                    pass
+                readers = [threading.Thread(target=read) for _ in range(4)]
+                for t in readers:
+                    t.start()
+                # blocked readers give up the GIL, so this thread keeps running
+                time.sleep(0.05)
+                self.assertEqual(shared, [])
+            for t in readers:
+                t.join()
+            self.assertEqual(sorted(shared), [0, 1, 2, 3])
+            self.assertFalse(lock.writer.locked())
+
+
+    @unittest.skipIf(sys.implementation.name == 'cpython', "graalpython specific")
+    class StripedLockTests(unittest.TestCase):
+
+        def test_stripes(self):
+            self.assertEqual(len(thread.StripedLock(5)), 8)
+            self.assertEqual(len(thread.StripedLock(1)), 1)
+            self.assertRaises(ValueError, thread.StripedLock, 0)
+            locks = thread.StripedLock(16)
+            self.assertIs(locks["key"], locks.get("key"))
+            self.assertIs(locks[1], locks[1])
+            self.assertIsInstance(locks[1], thread.RLock)
+            self.assertEqual(len({id(locks[i]) for i in range(1000)}), 16)
+            self.assertIsInstance(thread.StripedLock(4, readwrite=True)[1], thread.RWLock)
+
+        def test_counters(self):
+            locks = thread.StripedLock(4)
+            counters = {k: 0 for k in range(10)}
+
+            def f():
+                for i in range(100):
+                    key = i % 10
+                    with locks[key]:
+                        counters[key] += 1
+
+            threads = [threading.Thread(target=f) for _ in range(4)]
+            for t in threads:
+                t.start()
+            for t in threads:
+                t.join()
+            self.assertEqual(counters, {k: 40 for k in range(10)})
@@ -0,0 +1,148 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import os
+import sys
+import tempfile
+import unittest
+import zipfile
+
+try:
+    __graalpython__.posix_module_backend()
+except:
+    class GP:
+        def posix_module_backend(self):
+            return 'cpython'
+    __graalpython__ = GP()
+
+
+@unittest.skipUnless(__graalpython__.posix_module_backend() == 'java', 'virtual mounts need the java POSIX backend')
+class VirtualMountTests(unittest.TestCase):
+
+    def setUp(self):
+        self.tmpdir = tempfile.mkdtemp()
+        self.mount_point = os.path.join(self.tmpdir, 'mnt')
+
+    def tearDown(self):
+        try:
+            __graalpython__.unmount(self.mount_point)
+        except OSError:
+            pass
+        for name in os.listdir(self.tmpdir):
+            os.remove(os.path.join(self.tmpdir, name))
+        os.rmdir(self.tmpdir)
+
+    def make_archive(self):
+        archive = os.path.join(self.tmpdir, 'archive.zip')
+        with zipfile.ZipFile(archive, 'w') as zf:
+            zf.writestr('stored.txt', b'stored data', compress_type=zipfile.ZIP_STORED)
+            zf.writestr('pkg/deflated.txt', b'deflated data' * 100, compress_type=zipfile.ZIP_DEFLATED)
+            zf.writestr('vfs_test_module.py', 'VALUE = 42\n')
+        return archive
+
+    def test_archive_read(self):
+        __graalpython__.mount_archive(self.make_archive(), self.mount_point)
+        with open(os.path.join(self.mount_point, 'stored.txt'), 'rb') as f:
+            self.assertEqual(b'stored data', f.read())
+        with open(os.path.join(self.mount_point, 'pkg', 'deflated.txt'), 'rb') as f:
+            f.seek(13)
+            self.assertEqual(b'deflated data', f.read(13))
+        self.assertTrue(os.path.isdir(os.path.join(self.mount_point, 'pkg')))
+        self.assertEqual(1300, os.stat(os.path.join(self.mount_point, 'pkg', 'deflated.txt')).st_size)
+        self.assertEqual(['pkg', 'stored.txt', 'vfs_test_module.py'], sorted(os.listdir(self.mount_point)))
+
+    def test_archive_read_only(self):
+        __graalpython__.mount_archive(self.make_archive(), self.mount_point)
+        with self.assertRaises(OSError):
+            open(os.path.join(self.mount_point, 'new.txt'), 'wb')
+        with self.assertRaises(OSError):
+            os.remove(os.path.join(self.mount_point, 'stored.txt'))
+        self.assertFalse(os.access(os.path.join(self.mount_point, 'stored.txt'), os.W_OK))
+
+    def test_archive_import(self):
+        __graalpython__.mount_archive(self.make_archive(), self.mount_point)
+        sys.path.insert(0, self.mount_point)
+        try:
+            import vfs_test_module
+            self.assertEqual(42, vfs_test_module.VALUE)
+        finally:
+            sys.path.remove(self.mount_point)
+            sys.modules.pop('vfs_test_module', None)
+
+    def test_memory(self):
+        __graalpython__.mount_memory(self.mount_point)
+        os.mkdir(os.path.join(self.mount_point, 'dir'))
+        path = os.path.join(self.mount_point, 'dir', 'file.txt')
+        with open(path, 'w') as f:
+            f.write('hello')
+        with open(path, 'a') as f:
+            f.write(' world')
+        with open(path) as f:
+            self.assertEqual('hello world', f.read())
+        self.assertEqual(['file.txt'], os.listdir(os.path.join(self.mount_point, 'dir')))
+        with self.assertRaises(OSError):
+            os.rmdir(os.path.join(self.mount_point, 'dir'))
+        os.remove(path)
+        os.rmdir(os.path.join(self.mount_point, 'dir'))
+        self.assertEqual([], os.listdir(self.mount_point))
+
+    def test_memory_mmap_after_growth(self):
+        import mmap
+        __graalpython__.mount_memory(self.mount_point)
+        path = os.path.join(self.mount_point, 'mapped.bin')
+        with open(path, 'wb') as f:
+            f.write(b'abcd')
+        with open(path, 'r+b') as f:
+            m = mmap.mmap(f.fileno(), 4)
+            f.seek(0, os.SEEK_END)
+            f.write(b'x' * 4096)
+            f.flush()
+            m[0:2] = b'AB'
+            m.close()
+        with open(path, 'rb') as f:
+            self.assertEqual(b'ABcd' + b'x' * 4096, f.read())
+
+    def test_unmount(self):
+        __graalpython__.mount_memory(self.mount_point)
+        with self.assertRaises(OSError):
+            __graalpython__.mount_memory(self.mount_point)
+        __graalpython__.unmount(self.mount_point)
+        self.assertFalse(os.path.exists(self.mount_point))
+        with self.assertRaises(OSError):
+            __graalpython__.unmount(self.mount_point)
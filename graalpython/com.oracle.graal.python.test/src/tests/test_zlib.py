@@ -164,6 +164,57 @@ class CompressTests(BaseCompressTestCase, unittest.TestCase):
         compressed = zlib.compress(data, 1)
         self.assertEqual(zlib.decompress(compressed, 15, CustomInt()), data)
 
+    def test_threads(self):
+        # large inputs are compressed without the GIL, make sure threads do not interfere
+        import threading
+        data = [HAMLET_SCENE * (i + 10) for i in range(4)]
+        results = [None] * len(data)
+
+        def run(i):
+            for _ in range(5):
+                results[i] = zlib.decompress(zlib.compress(data[i]))
+
+        threads = [threading.Thread(target=run, args=(i,)) for i in range(len(data))]
+        for t in threads:
+            t.start()
+        for t in threads:
+            t.join()
+        self.assertEqual(data, results)
+        x = zlib.compress(data[0])
+        self.assertRaisesRegex(zlib.error,
+            "Error -5 while decompressing data: incomplete or truncated stream",
+            zlib.decompress, x[:-1])
+
+    def test_other_thread_runs_while_compressing(self):
+        import threading
+        import time
+        data = os.urandom(4 * 1024 * 1024)
+        stamps = []
+        stop = threading.Event()
+
+        def spin():
+            while not stop.is_set():
+                stamps.append(time.monotonic())
+
+        def ran_during(operation):
+            start = time.monotonic()
+            operation()
+            end = time.monotonic()
+            # only look at the middle of the call, the GIL may change hands around it
+            lo, hi = start + (end - start) / 4, end - (end - start) / 4
+            return any(lo < stamp < hi for stamp in stamps)
+
+        thread = threading.Thread(target=spin)
+        thread.start()
+        try:
+            while not stamps:
+                time.sleep(0.01)
+            self.assertTrue(ran_during(lambda: zlib.compress(data, 9)))
+            self.assertTrue(ran_during(lambda: zlib.compressobj(9).compress(data)))
+        finally:
+            stop.set()
+            thread.join()
+
 HAMLET_SCENE = b"""
 LAERTES
 
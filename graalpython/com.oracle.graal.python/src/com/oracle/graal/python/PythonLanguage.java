@@ -26,10 +26,12 @@
 package com.oracle.graal.python;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import org.graalvm.options.OptionDescriptors;
@@ -183,6 +185,15 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
      */
     public final ConcurrentHashMap<String, Semaphore> namedSemaphores = new ConcurrentHashMap<>();
 
+    /**
+     * The semaphores of {@code SemLock} objects that were pickled, by their handle. Contexts in the
+     * same engine run in the same process, so a {@code SemLock} unpickled by another context (see
+     * {@code SemLock._rebuild}) refers to the same semaphore. The entries do not keep the
+     * semaphores alive.
+     */
+    public final ConcurrentHashMap<Long, WeakReference<Semaphore>> semaphoreHandles = new ConcurrentHashMap<>();
+    public final AtomicLong nextSemaphoreHandle = new AtomicLong();
+
     @CompilationFinal(dimensions = 1) private volatile Object[] engineOptionsStorage;
     @CompilationFinal private volatile OptionValues engineOptions;
 
@@ -761,7 +772,6 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
     protected void initializeMultiThreading(PythonContext context) {
         if (singleThreadedAssumption.isValid()) {
             singleThreadedAssumption.invalidate();
-            context.initializeMultiThreading();
         }
     }
 
@@ -152,6 +152,9 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PThreadLocal("_local", "_thread"),
     PLock("LockType", "_thread"),
     PRLock("RLock", "_thread"),
+    PRWLock("RWLock", "_thread"),
+    PRWLockView("_RWLockView", "_thread", Flags.PRIVATE_DERIVED_WODICT),
+    PStripedLock("StripedLock", "_thread"),
     PSemLock("SemLock", "_multiprocessing"),
     PSocket("socket", "_socket"),
     PStaticmethod("staticmethod", BUILTINS, Flags.PUBLIC_BASE_WDICT),
@@ -162,6 +165,10 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PStruct("Struct", "_struct"),
     PStructUnpackIterator("unpack_iterator", "_struct"),
 
+    // select
+    PPoll("poll", "select", Flags.PRIVATE_DERIVED_WODICT),
+    PEpoll("epoll", "select", Flags.PRIVATE_BASE_WODICT),
+
     // bz2
     BZ2Compressor("BZ2Compressor", "_bz2"),
     BZ2Decompressor("BZ2Decompressor", "_bz2"),
@@ -293,6 +300,13 @@ public enum PythonBuiltinClassType implements TruffleObject {
     IOUnsupportedOperation("UnsupportedOperation", "io", Flags.EXCEPTION),
 
     Empty("Empty", "_queue", Flags.EXCEPTION),
+    Full("Full", "_queue", Flags.EXCEPTION),
+
+    RunFailedError("RunFailedError", "_xxsubinterpreters", Flags.EXCEPTION),
+    ChannelError("ChannelError", "_xxsubinterpreters", Flags.EXCEPTION),
+    ChannelNotFoundError("ChannelNotFoundError", "_xxsubinterpreters", Flags.EXCEPTION),
+    ChannelClosedError("ChannelClosedError", "_xxsubinterpreters", Flags.EXCEPTION),
+    ChannelEmptyError("ChannelEmptyError", "_xxsubinterpreters", Flags.EXCEPTION),
 
     // warnings
     Warning("Warning", BUILTINS, Flags.EXCEPTION),
@@ -612,6 +626,13 @@ public enum PythonBuiltinClassType implements TruffleObject {
         PStringIO.base = PTextIOBase;
 
         Empty.base = Exception;
+        Full.base = Exception;
+
+        RunFailedError.base = RuntimeError;
+        ChannelError.base = RuntimeError;
+        ChannelNotFoundError.base = ChannelError;
+        ChannelClosedError.base = ChannelError;
+        ChannelEmptyError.base = ChannelError;
     }
 
     // Proxy InteropLibrary messages to the PythonBuiltinClass
@@ -154,12 +154,15 @@ import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.getsetdescriptor.GetSetDescriptor;
 import com.oracle.graal.python.builtins.objects.getsetdescriptor.HiddenKeyDescriptor;
+import com.oracle.graal.python.builtins.objects.ints.DecimalConversion;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.iterator.PZip;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.map.PMap;
 import com.oracle.graal.python.builtins.objects.memoryview.PBuffer;
 import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.mmap.MMapPointer;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.ObjectBuiltins;
 import com.oracle.graal.python.builtins.objects.object.ObjectBuiltinsFactory;
@@ -243,6 +246,7 @@ import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.interop.HostByteBuffers;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
@@ -1296,7 +1300,12 @@ public final class BuiltinConstructors extends PythonBuiltins {
             s = s.replace("_", "");
 
             BigInteger bi;
-            if (sign == '-') {
+            if (base == 10) {
+                bi = DecimalConversion.parse(s);
+                if (sign == '-') {
+                    bi = bi.negate();
+                }
+            } else if (sign == '-') {
                 bi = new BigInteger("-" + s, base);
             } else {
                 bi = new BigInteger(s, base);
@@ -3489,6 +3498,19 @@ public final class BuiltinConstructors extends PythonBuiltins {
             return factory().createMemoryViewForManagedObject(object, object.getFormat().bytesize, object.getLength(), false, object.getFormatStr());
         }
 
+        @Specialization
+        PMemoryView fromMMap(@SuppressWarnings("unused") Object cls, PMMap object,
+                        @Shared("c") @CachedContext(PythonLanguage.class) PythonContext context,
+                        @Cached CastToJavaIntExactNode castToIntNode) {
+            if (object.getPosixSupportHandle() == null) {
+                throw raise(ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+            }
+            // The view accesses the mapped memory directly, nothing is copied
+            int len = castToIntNode.execute(object.getLength());
+            return factory().createMemoryView(context, null, object, len, !object.isWriteable(), 1, "B", 1, new MMapPointer(object), 0,
+                            new int[]{len}, new int[]{1}, null, PMemoryView.FLAG_C | PMemoryView.FLAG_FORTRAN);
+        }
+
         @Specialization
         PMemoryView fromMemoryView(@SuppressWarnings("unused") Object cls, PMemoryView object,
                         @Shared("c") @CachedContext(PythonLanguage.class) PythonContext context) {
@@ -3499,6 +3521,29 @@ public final class BuiltinConstructors extends PythonBuiltins {
                             object.getBufferSuboffsets(), object.getFlags());
         }
 
+        @Specialization(guards = "isHostByteBuffer(context, object)")
+        PMemoryView fromHostBuffer(@SuppressWarnings("unused") Object cls, Object object,
+                        @Shared("c") @CachedContext(PythonLanguage.class) PythonContext context) {
+            Object hostBuffer = HostByteBuffers.unwrap(context.getEnv(), object);
+            int len = HostByteBuffers.length(hostBuffer);
+            byte[] array = HostByteBuffers.getBackingArray(hostBuffer);
+            if (array != null) {
+                // Share the Java array. The wrapping bytearray is never visible to the user and
+                // must not be resized, so it is pinned as exported.
+                PByteArray owner = factory().createByteArray(array);
+                owner.setExports(1);
+                return factory().createMemoryView(context, null, owner, len, false, 1, "B", 1, null, HostByteBuffers.getArrayOffset(hostBuffer),
+                                new int[]{len}, new int[]{1}, null, PMemoryView.FLAG_C | PMemoryView.FLAG_FORTRAN);
+            }
+            // direct and read-only buffers cannot be shared
+            PBytes copy = factory().createBytes(HostByteBuffers.copyBytes(hostBuffer));
+            return factory().createMemoryViewForManagedObject(copy, 1, len, true, "B");
+        }
+
+        static boolean isHostByteBuffer(PythonContext context, Object object) {
+            return HostByteBuffers.isHostByteBuffer(context.getEnv(), object);
+        }
+
         @Specialization
         PMemoryView fromNative(VirtualFrame frame, @SuppressWarnings("unused") Object cls, PythonAbstractNativeObject object,
                         @Cached CExtNodes.ToSulongNode toSulongNode,
@@ -97,6 +97,8 @@ public class FaulthandlerModuleBuiltins extends PythonBuiltins {
     }
 
     private static final class StackDumpAction implements AsyncHandler.AsyncAction {
+        private static final long RETRY_DELAY = 15;
+
         @Override
         public void execute(PythonContext context) {
             CompilerDirectives.bailout("This should never be compiled");
@@ -110,6 +112,10 @@ public class FaulthandlerModuleBuiltins extends PythonBuiltins {
                     Object file = ((Object[]) callableAndFile)[1];
                     dumpTraceback(callable, file);
                 }
+                if (!weakDumpQueue.isEmpty()) {
+                    // the other threads dump their own stacks, give them a chance to get the GIL
+                    context.getAsyncHandler().queueAction(this, RETRY_DELAY);
+                }
             }
         }
 
@@ -119,16 +125,8 @@ public class FaulthandlerModuleBuiltins extends PythonBuiltins {
     @Override
     public void postInitialize(PythonCore core) {
         super.postInitialize(core);
-        final PythonContext ctx = core.getContext();
         PythonModule mod = core.lookupBuiltinModule("faulthandler");
         mod.setAttribute(STACK_DUMP_REQUESTED, dumpRequestedForThreads);
-        ctx.registerAsyncAction(() -> {
-            if (!dumpRequestedForThreads.isEmpty()) {
-                return StackDumpAction.INSTANCE;
-            } else {
-                return null;
-            }
-        });
     }
 
     @Builtin(name = "dump_traceback", minNumOfPositionalArgs = 1, parameterNames = {"$mod", "file", "all_threads"}, declaresExplicitSelf = true)
@@ -189,6 +187,7 @@ public class FaulthandlerModuleBuiltins extends PythonBuiltins {
                         for (Thread th : context.getThreads()) {
                             weakDumpQueue.put(th, new Object[]{printStackFunc, file});
                         }
+                        context.getAsyncHandler().queueAction(StackDumpAction.INSTANCE, 0);
                     }
                 }
             } else {
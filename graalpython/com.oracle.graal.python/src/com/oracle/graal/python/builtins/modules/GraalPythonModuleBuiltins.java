@@ -46,22 +46,28 @@ import static com.oracle.graal.python.runtime.exception.PythonErrorType.ImportEr
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
 
 import java.io.PrintWriter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 import org.graalvm.nativeimage.ImageInfo;
 
 import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.code.PCode;
 import com.oracle.graal.python.builtins.objects.common.DynamicObjectStorage;
 import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.EmptyStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes;
 import com.oracle.graal.python.builtins.objects.common.HashMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
@@ -78,6 +84,7 @@ import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.argument.ReadIndexedArgumentNode;
 import com.oracle.graal.python.nodes.argument.ReadVarArgsNode;
@@ -85,13 +92,23 @@ import com.oracle.graal.python.nodes.function.FunctionRootNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.AsyncHandler;
+import com.oracle.graal.python.runtime.EmulatedPosixSupport;
+import com.oracle.graal.python.runtime.GilStatistics;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.Buffer;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonOptions;
@@ -636,6 +653,297 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Calls {@code callback(result, errno)} once a blocking file operation submitted by
+     * {@link AsyncReadNode} or {@link AsyncWriteNode} has completed.
+     */
+    private static final class FileIOCompletion extends AsyncHandler.AsyncPythonAction {
+        private final Object callback;
+        private final byte[] data;
+        private final long result;
+        private final int errno;
+
+        FileIOCompletion(Object callback, byte[] data, long result, int errno) {
+            this.callback = callback;
+            this.data = data;
+            this.result = result;
+            this.errno = errno;
+        }
+
+        @Override
+        protected Object callable() {
+            return callback;
+        }
+
+        @Override
+        protected Object[] arguments() {
+            Object value;
+            if (errno != 0) {
+                value = PNone.NONE;
+            } else if (data != null) {
+                value = PythonObjectFactory.getUncached().createBytes(data, 0, (int) result);
+            } else {
+                value = result;
+            }
+            return new Object[]{value, errno};
+        }
+    }
+
+    /**
+     * Only reads and writes of regular files are sure to complete. A read of a pipe, a socket or a
+     * terminal could occupy one of the few blocking workers, and delay the exit of the context,
+     * forever.
+     */
+    private static void checkRegularFile(PythonBuiltinBaseNode node, VirtualFrame frame, int fd, PosixSupportLibrary posixLib) {
+        long[] stat;
+        try {
+            stat = posixLib.fstat(node.getPosixSupport(), fd);
+        } catch (PosixException e) {
+            throw node.raiseOSErrorFromPosixException(frame, e);
+        }
+        if (!PosixSupportLibrary.isREG(stat[0])) {
+            throw node.raiseOSError(frame, OSErrorEnum.ESPIPE);
+        }
+    }
+
+    @Builtin(name = "async_read", minNumOfPositionalArgs = 4, parameterNames = {"fd", "length", "offset", "callback"}, doc = "async_read(fd, length, offset, callback)\n\n" +
+                    "Read at most length bytes from fd on a background thread that does not hold the GIL, at the given offset or at the\n" +
+                    "current file position if offset is negative. callback(data, errno) is called with the GIL held once the read has\n" +
+                    "completed. On failure, data is None and errno is set, otherwise errno is 0. fd must be a regular file, other\n" +
+                    "files raise OSError(ESPIPE).")
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "length", conversion = ClinicConversion.Index)
+    @ArgumentClinic(name = "offset", conversion = ClinicConversion.Long)
+    @GenerateNodeFactory
+    public abstract static class AsyncReadNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return GraalPythonModuleBuiltinsClinicProviders.AsyncReadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object read(VirtualFrame frame, int fd, int length, long offset, Object callback,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (length < 0) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "length");
+            }
+            checkRegularFile(this, frame, fd, posixLib);
+            submit(getContext(), fd, length, offset, callback);
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private static void submit(PythonContext context, int fd, int length, long offset, Object callback) {
+            Object posixSupport = context.getPosixSupport();
+            context.getAsyncHandler().submitBlockingTask(() -> {
+                PosixSupportLibrary posixLib = PosixSupportLibrary.getUncached();
+                byte[] buf = new byte[length];
+                while (true) {
+                    try {
+                        long n = offset < 0 ? posixLib.readInto(posixSupport, fd, buf, 0, length) : posixLib.preadInto(posixSupport, fd, buf, 0, length, offset);
+                        return new FileIOCompletion(callback, buf, n, 0);
+                    } catch (PosixException e) {
+                        if (e.getErrorCode() != OSErrorEnum.EINTR.getNumber()) {
+                            return new FileIOCompletion(callback, null, 0, e.getErrorCode());
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    @Builtin(name = "async_write", minNumOfPositionalArgs = 3, parameterNames = {"fd", "data", "callback"}, doc = "async_write(fd, data, callback)\n\n" +
+                    "Write data to fd on a background thread that does not hold the GIL. callback(count, errno) is called with the GIL\n" +
+                    "held once the write has completed. On failure, count is None and errno is set, otherwise errno is 0. fd must be\n" +
+                    "a regular file, other files raise OSError(ESPIPE).")
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    public abstract static class AsyncWriteNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return GraalPythonModuleBuiltinsClinicProviders.AsyncWriteNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object write(VirtualFrame frame, int fd, Object data, Object callback,
+                        @Cached BytesNodes.ToBytesNode toBytes,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            checkRegularFile(this, frame, fd, posixLib);
+            // copy the data now, the caller may modify the object while the write is in progress
+            submit(getContext(), fd, toBytes.execute(data), callback);
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private static void submit(PythonContext context, int fd, byte[] bytes, Object callback) {
+            Object posixSupport = context.getPosixSupport();
+            context.getAsyncHandler().submitBlockingTask(() -> {
+                PosixSupportLibrary posixLib = PosixSupportLibrary.getUncached();
+                while (true) {
+                    try {
+                        return new FileIOCompletion(callback, null, posixLib.write(posixSupport, fd, Buffer.wrap(bytes)), 0);
+                    } catch (PosixException e) {
+                        if (e.getErrorCode() != OSErrorEnum.EINTR.getNumber()) {
+                            return new FileIOCompletion(callback, null, 0, e.getErrorCode());
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    private static EmulatedPosixSupport getVirtualFileSystemSupport(PythonBuiltinBaseNode node) {
+        PythonContext context = node.getContext();
+        if (!context.getLanguage().getEngineOption(PythonOptions.PosixModuleBackend).equals("java")) {
+            throw node.raise(NotImplementedError, ErrorMessages.VFS_REQUIRES_JAVA_BACKEND);
+        }
+        return context.getResources();
+    }
+
+    @Builtin(name = "mount_archive", minNumOfPositionalArgs = 2, parameterNames = {"archive", "mount_point"}, doc = "mount_archive(archive, mount_point)\n\n" +
+                    "Mount the zip or jar archive read-only at mount_point. Files under mount_point are then read from the archive, so\n" +
+                    "adding mount_point to sys.path imports modules from the archive without zipimport.")
+    @ArgumentClinic(name = "archive", conversion = ClinicConversion.String)
+    @ArgumentClinic(name = "mount_point", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    public abstract static class MountArchiveNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return GraalPythonModuleBuiltinsClinicProviders.MountArchiveNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object mount(VirtualFrame frame, String archive, String mountPoint) {
+            try {
+                getVirtualFileSystemSupport(this).mountArchive(mountPoint, archive);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e, archive);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "mount_memory", minNumOfPositionalArgs = 1, parameterNames = {"mount_point"}, doc = "mount_memory(mount_point)\n\n" +
+                    "Mount an empty in-memory file system at mount_point.")
+    @ArgumentClinic(name = "mount_point", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    public abstract static class MountMemoryNode extends PythonUnaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return GraalPythonModuleBuiltinsClinicProviders.MountMemoryNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object mount(VirtualFrame frame, String mountPoint) {
+            try {
+                getVirtualFileSystemSupport(this).mountMemory(mountPoint);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e, mountPoint);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unmount", minNumOfPositionalArgs = 1, parameterNames = {"mount_point"}, doc = "unmount(mount_point)\n\n" +
+                    "Remove the mount at mount_point. The contents of in-memory file systems are lost.")
+    @ArgumentClinic(name = "mount_point", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    public abstract static class UnmountNode extends PythonUnaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return GraalPythonModuleBuiltinsClinicProviders.UnmountNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object unmount(VirtualFrame frame, String mountPoint) {
+            try {
+                getVirtualFileSystemSupport(this).unmount(mountPoint);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e, mountPoint);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "get_gil_statistics", parameterNames = {"all_threads"}, doc = "get_gil_statistics(all_threads=False)\n\n" +
+                    "Return a dict with GIL statistics of the current thread: how often it acquired the GIL, how often and how long it\n" +
+                    "had to wait, and how often it was forced to release it. Histograms count times shorter than 2**i microseconds in\n" +
+                    "bucket i. With the GilStatistics option, hold times and the sites that held the GIL for a long time are included.\n" +
+                    "If all_threads is true, return a dict mapping thread identifiers to statistics, the key None combines all threads\n" +
+                    "that have exited.")
+    @ArgumentClinic(name = "all_threads", conversion = ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    public abstract static class GetGilStatisticsNode extends PythonUnaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return GraalPythonModuleBuiltinsClinicProviders.GetGilStatisticsNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!allThreads")
+        PDict currentThread(@SuppressWarnings("unused") boolean allThreads) {
+            PythonContext context = getContext();
+            return toDict(factory(), context.getThreadState().getGilStatistics(), context.isGilStatisticsEnabled());
+        }
+
+        @Specialization(guards = "allThreads")
+        PDict allThreads(VirtualFrame frame, @SuppressWarnings("unused") boolean allThreads,
+                        @Cached HashingCollectionNodes.SetItemNode setItemNode) {
+            PythonContext context = getContext();
+            boolean withHoldTimes = context.isGilStatisticsEnabled();
+            PDict result = factory().createDict();
+            for (Map.Entry<Thread, GilStatistics> e : getAllStatistics(context)) {
+                setItemNode.execute(frame, result, getThreadId(e.getKey()), toDict(factory(), e.getValue(), withHoldTimes));
+            }
+            setItemNode.execute(frame, result, PNone.NONE, toDict(factory(), context.getExitedThreadsGilStatistics(), withHoldTimes));
+            return result;
+        }
+
+        @TruffleBoundary
+        private static Iterable<Map.Entry<Thread, GilStatistics>> getAllStatistics(PythonContext context) {
+            return context.getGilStatistics().entrySet();
+        }
+
+        @TruffleBoundary
+        private static long getThreadId(Thread thread) {
+            return thread.getId();
+        }
+
+        @TruffleBoundary
+        private static PDict toDict(PythonObjectFactory factory, GilStatistics statistics, boolean withHoldTimes) {
+            LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+            map.put("acquire_count", statistics.getAcquireCount());
+            map.put("contended_count", statistics.getContendedCount());
+            map.put("wait_time", statistics.getWaitTime() / 1e9);
+            map.put("wait_histogram", toTuple(factory, statistics.getWaitHistogram()));
+            map.put("forced_releases", statistics.getForcedReleases());
+            if (withHoldTimes) {
+                map.put("hold_time", statistics.getHoldTime() / 1e9);
+                map.put("hold_histogram", toTuple(factory, statistics.getHoldHistogram()));
+                LinkedHashMap<String, Object> sites = new LinkedHashMap<>();
+                for (Map.Entry<String, GilStatistics.HoldSite> e : statistics.getHoldSites().entrySet()) {
+                    GilStatistics.HoldSite site = e.getValue();
+                    sites.put(e.getKey(), factory.createTuple(new Object[]{site.getCount(), site.getTotalTime() / 1e9, site.getMaxTime() / 1e9}));
+                }
+                map.put("hold_sites", factory.createDictFromMap(sites));
+            }
+            return factory.createDictFromMap(map);
+        }
+
+        private static PTuple toTuple(PythonObjectFactory factory, long[] histogram) {
+            Object[] items = new Object[histogram.length];
+            for (int i = 0; i < histogram.length; i++) {
+                items[i] = histogram[i];
+            }
+            return factory.createTuple(items);
+        }
+    }
+
     @Builtin(name = "extend", minNumOfPositionalArgs = 1, doc = "Extends Java class and return HostAdapterCLass")
     @GenerateNodeFactory
     public abstract static class JavaExtendNode extends PythonUnaryBuiltinNode {
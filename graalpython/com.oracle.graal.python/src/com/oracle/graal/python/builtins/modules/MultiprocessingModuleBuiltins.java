@@ -95,8 +95,7 @@ public class MultiprocessingModuleBuiltins extends PythonBuiltins {
                 throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.UNRECOGNIZED_KIND);
             }
             int value = castValueToIntNode.execute(valueObj);
-            castMaxvalueToIntNode.execute(maxvalueObj); // executed for the side-effect, but ignored
-                                                        // on posix
+            int maxvalue = castMaxvalueToIntNode.execute(maxvalueObj);
             Semaphore semaphore = newSemaphore(value);
             int unlink = castUnlinkToIntNode.execute(unlinkObj);
             String name;
@@ -117,7 +116,7 @@ public class MultiprocessingModuleBuiltins extends PythonBuiltins {
                     semaphorePut(lang, semaphore, name);
                 }
             }
-            return factory().createSemLock(cls, name, kind, semaphore);
+            return factory().createSemLock(cls, name, kind, maxvalue, semaphore);
         }
 
         @TruffleBoundary
@@ -70,11 +70,13 @@ import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNodeGen;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -95,6 +97,7 @@ import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.nodes.LanguageInfo;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.Source.LiteralBuilder;
 import com.oracle.truffle.api.source.Source.SourceBuilder;
@@ -159,12 +162,24 @@ public final class PolyglotModuleBuiltins extends PythonBuiltins {
                 if (mimeType) {
                     newBuilder = newBuilder.mimeType(langOrMimeType);
                 }
-                return env.parsePublic(newBuilder.build()).call();
+                return callReleasingGil(env.parsePublic(newBuilder.build()));
             } catch (RuntimeException e) {
                 throw raise(NotImplementedError, e);
             }
         }
 
+        /**
+         * Code of other languages may run for a long time without touching Python objects, so we
+         * let other Python threads run meanwhile. Python code takes the GIL again when it is
+         * called.
+         */
+        @SuppressWarnings("try")
+        private static Object callReleasingGil(CallTarget callTarget) {
+            try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                return callTarget.call();
+            }
+        }
+
         private void raiseIfInternal(Env env, String lang) {
             LanguageInfo languageInfo = env.getPublicLanguages().get(lang);
             if (languageInfo != null && languageInfo.isInternal()) {
@@ -187,7 +202,7 @@ public final class PolyglotModuleBuiltins extends PythonBuiltins {
                 if (mimeType) {
                     newBuilder = newBuilder.mimeType(langOrMimeType);
                 }
-                return getContext().getEnv().parsePublic(newBuilder.name(path).build()).call();
+                return callReleasingGil(getContext().getEnv().parsePublic(newBuilder.name(path).build()));
             } catch (IOException e) {
                 throw raise(OSError, "%s", e);
             } catch (RuntimeException e) {
@@ -203,7 +218,7 @@ public final class PolyglotModuleBuiltins extends PythonBuiltins {
                 throw raise(PythonErrorType.NotImplementedError, ErrorMessages.POLYGLOT_ACCESS_NOT_ALLOWED);
             }
             try {
-                return getContext().getEnv().parsePublic(Source.newBuilder(PythonLanguage.ID, env.getPublicTruffleFile(path)).name(path).build()).call();
+                return callReleasingGil(getContext().getEnv().parsePublic(Source.newBuilder(PythonLanguage.ID, env.getPublicTruffleFile(path)).name(path).build()));
             } catch (IOException e) {
                 throw raise(OSError, "%s", e);
             } catch (RuntimeException e) {
@@ -423,9 +438,16 @@ public final class PolyglotModuleBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class executeNode extends PythonBuiltinNode {
         @Specialization
-        Object exec(Object receiver, Object[] arguments) {
+        Object exec(Object receiver, Object[] arguments,
+                        @Cached ConditionProfile isHostProfile,
+                        @Cached GilNode gil) {
             try {
-                return getInterop().execute(receiver, arguments);
+                gil.release(isHostProfile.profile(getContext().getEnv().isHostObject(receiver)));
+                try {
+                    return getInterop().execute(receiver, arguments);
+                } finally {
+                    gil.acquire();
+                }
             } catch (UnsupportedMessageException | UnsupportedTypeException | ArityException e) {
                 throw raise(PythonErrorType.AttributeError, e);
             }
@@ -436,9 +458,16 @@ public final class PolyglotModuleBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class newNode extends PythonBuiltinNode {
         @Specialization
-        Object instantiate(Object receiver, Object[] arguments) {
+        Object instantiate(Object receiver, Object[] arguments,
+                        @Cached ConditionProfile isHostProfile,
+                        @Cached GilNode gil) {
             try {
-                return getInterop().instantiate(receiver, arguments);
+                gil.release(isHostProfile.profile(getContext().getEnv().isHostObject(receiver)));
+                try {
+                    return getInterop().instantiate(receiver, arguments);
+                } finally {
+                    gil.acquire();
+                }
             } catch (UnsupportedMessageException | UnsupportedTypeException | ArityException e) {
                 throw raise(PythonErrorType.AttributeError, e);
             }
@@ -449,9 +478,16 @@ public final class PolyglotModuleBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class invokeNode extends PythonBuiltinNode {
         @Specialization
-        Object invoke(Object receiver, String key, Object[] arguments) {
+        Object invoke(Object receiver, String key, Object[] arguments,
+                        @Cached ConditionProfile isHostProfile,
+                        @Cached GilNode gil) {
             try {
-                return getInterop().invokeMember(receiver, key, arguments);
+                gil.release(isHostProfile.profile(getContext().getEnv().isHostObject(receiver)));
+                try {
+                    return getInterop().invokeMember(receiver, key, arguments);
+                } finally {
+                    gil.acquire();
+                }
             } catch (UnsupportedMessageException | UnsupportedTypeException | ArityException | UnknownIdentifierException e) {
                 throw raise(PythonErrorType.AttributeError, e);
             }
@@ -29,6 +29,7 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.__FSPATH__;
 import static com.oracle.graal.python.runtime.PosixConstants.AT_FDCWD;
 import static com.oracle.graal.python.runtime.PosixConstants.O_CLOEXEC;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
@@ -56,8 +57,11 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.modules.SysModuleBuiltins.AuditNode;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodesFactory;
 import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes.LenNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetItemNode;
@@ -80,18 +84,21 @@ import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes.FastConstructListNode;
 import com.oracle.graal.python.nodes.expression.BinaryArithmetic;
 import com.oracle.graal.python.nodes.expression.BinaryOpNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentCastNode.ArgumentCastNodeWithRaise;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.function.builtins.clinic.BufferConversionNode;
 import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CastToJavaLongLossyNode;
@@ -110,6 +117,7 @@ import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonExitException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -185,6 +193,12 @@ public class PosixModuleBuiltins extends PythonBuiltins {
                                     "operating system release", "operating system version", "hardware identifier"
                     });
 
+    /**
+     * Number of directory entries fetched by a single {@code readdirBatch} call in {@code listdir}
+     * and {@code scandir}.
+     */
+    public static final int READDIR_BATCH_SIZE = 64;
+
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
         return PosixModuleBuiltinsFactory.getFactories();
@@ -590,6 +604,90 @@ public class PosixModuleBuiltins extends PythonBuiltins {
                 gil.acquire();
             }
         }
+
+        /**
+         * Like {@link #read}, but stores the data directly into {@code buf} at {@code offset}
+         * instead of allocating a new bytes object.
+         */
+        public int readInto(int fd, byte[] buf, int offset, int length,
+                        PosixSupportLibrary posixLib,
+                        BranchProfile errorProfile, GilNode gil) throws PosixException {
+            gil.release(true);
+            try {
+                while (true) {
+                    try {
+                        return (int) posixLib.readInto(getPosixSupport(), fd, buf, offset, length);
+                    } catch (PosixException e) {
+                        errorProfile.enter();
+                        if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                            gil.acquire(); // need gil to trigger actions or construct OSError
+                            getContext().triggerAsyncActions();
+                            gil.release(true); // continue read loop without gil
+                        } else {
+                            throw e;
+                        }
+                    }
+                }
+            } finally {
+                gil.acquire();
+            }
+        }
+    }
+
+    @Builtin(name = "pread", minNumOfPositionalArgs = 3, parameterNames = {"fd", "length", "offset"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "length", conversion = ClinicConversion.Index)
+    @ArgumentClinic(name = "offset", conversion = ClinicConversion.Long)
+    @GenerateNodeFactory
+    public abstract static class PreadNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.PreadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PBytes doPread(VirtualFrame frame, int fd, int length, long offset,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            if (length < 0) {
+                int error = OSErrorEnum.EINVAL.getNumber();
+                throw raiseOSError(frame, error, posixLib.strerror(getPosixSupport(), error));
+            }
+            byte[] buf = new byte[length];
+            try {
+                int n = pread(fd, buf, length, offset, posixLib, errorProfile, gil);
+                return factory().createBytes(buf, 0, n);
+            } catch (PosixException e) {
+                errorProfile.enter();
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+
+        private int pread(int fd, byte[] buf, int length, long offset,
+                        PosixSupportLibrary posixLib,
+                        BranchProfile errorProfile, GilNode gil) throws PosixException {
+            gil.release(true);
+            try {
+                while (true) {
+                    try {
+                        return (int) posixLib.preadInto(getPosixSupport(), fd, buf, 0, length, offset);
+                    } catch (PosixException e) {
+                        errorProfile.enter();
+                        if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                            gil.acquire(); // need gil to trigger actions or construct OSError
+                            getContext().triggerAsyncActions();
+                            gil.release(true); // continue read loop without gil
+                        } else {
+                            throw e;
+                        }
+                    }
+                }
+            } finally {
+                gil.acquire();
+            }
+        }
     }
 
     @Builtin(name = "write", minNumOfPositionalArgs = 2, parameterNames = {"fd", "data"})
@@ -641,6 +739,289 @@ public class PosixModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "writev", minNumOfPositionalArgs = 2, parameterNames = {"fd", "buffers"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    public abstract static class WritevNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.WritevNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long doWritev(VirtualFrame frame, int fd, Object buffers,
+                        @Cached FastConstructListNode constructListNode,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @Cached BufferConversionNode bufferConversionNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            Object[] items = getObjectArrayNode.execute(constructListNode.execute(frame, buffers));
+            Buffer[] data = new Buffer[items.length];
+            for (int i = 0; i < items.length; i++) {
+                data[i] = toBuffer(frame, items[i], bufferConversionNode);
+            }
+            try {
+                return writev(fd, data, posixLib, errorProfile, gil);
+            } catch (PosixException e) {
+                errorProfile.enter();
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+
+        public static Buffer toBuffer(VirtualFrame frame, Object item, BufferConversionNode bufferConversionNode) {
+            if (item instanceof PBytesLike && ((PBytesLike) item).getSequenceStorage() instanceof ByteSequenceStorage) {
+                // the data is only read, so it can be passed on without copying
+                ByteSequenceStorage storage = (ByteSequenceStorage) ((PBytesLike) item).getSequenceStorage();
+                return new Buffer(storage.getInternalByteArray(), storage.length());
+            }
+            return Buffer.wrap((byte[]) bufferConversionNode.execute(frame, item));
+        }
+
+        public long writev(int fd, Buffer[] buffers,
+                        PosixSupportLibrary posixLib,
+                        BranchProfile errorProfile, GilNode gil) throws PosixException {
+            gil.release(true);
+            try {
+                while (true) {
+                    try {
+                        return posixLib.writev(getPosixSupport(), fd, buffers);
+                    } catch (PosixException e) {
+                        errorProfile.enter();
+                        if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                            gil.acquire();
+                            getContext().triggerAsyncActions();
+                            gil.release(true);
+                        } else {
+                            throw e;
+                        }
+                    }
+                }
+            } finally {
+                gil.acquire();
+            }
+        }
+    }
+
+    @Builtin(name = "readv", minNumOfPositionalArgs = 2, parameterNames = {"fd", "buffers"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    public abstract static class ReadvNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.ReadvNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long doReadv(VirtualFrame frame, int fd, Object buffers,
+                        @Cached FastConstructListNode constructListNode,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @Cached("createGetLength()") BytesNodes.GetByteLengthIfWritableNode getLength,
+                        @Cached BytesNodes.GetWritableByteArrayNode getArrayNode,
+                        @Cached SequenceStorageNodes.BytesMemcpyNode memcpyNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached BranchProfile copyProfile,
+                        @Cached GilNode gil) {
+            Object[] targets = getObjectArrayNode.execute(constructListNode.execute(frame, buffers));
+            Buffer[] data = new Buffer[targets.length];
+            boolean[] copy = new boolean[targets.length];
+            int pinned = 0;
+            long n;
+            try {
+                for (int i = 0; i < targets.length; i++) {
+                    int len = getLength.execute(frame, targets[i]);
+                    byte[] array = getArrayNode.execute(targets[i]);
+                    if (array != null && BytesNodes.GetWritableByteArrayNode.getArrayOffset(targets[i]) == 0) {
+                        // read into the backing array directly
+                        BytesNodes.GetWritableByteArrayNode.pin(targets[i]);
+                        pinned = i + 1;
+                        data[i] = new Buffer(array, len);
+                    } else {
+                        copyProfile.enter();
+                        data[i] = new Buffer(new byte[len], len);
+                        copy[i] = true;
+                    }
+                }
+                n = readv(fd, data, posixLib, errorProfile, gil);
+            } catch (PosixException e) {
+                errorProfile.enter();
+                throw raiseOSErrorFromPosixException(frame, e);
+            } finally {
+                for (int i = 0; i < pinned; i++) {
+                    if (!copy[i]) {
+                        BytesNodes.GetWritableByteArrayNode.unpin(targets[i]);
+                    }
+                }
+            }
+            long remaining = n;
+            for (int i = 0; i < targets.length && remaining > 0; i++) {
+                int len = (int) Math.min(data[i].length, remaining);
+                if (copy[i]) {
+                    memcpyNode.execute(frame, targets[i], 0, data[i].data, 0, len);
+                }
+                remaining -= len;
+            }
+            return n;
+        }
+
+        private long readv(int fd, Buffer[] buffers,
+                        PosixSupportLibrary posixLib,
+                        BranchProfile errorProfile, GilNode gil) throws PosixException {
+            gil.release(true);
+            try {
+                while (true) {
+                    try {
+                        return posixLib.readv(getPosixSupport(), fd, buffers);
+                    } catch (PosixException e) {
+                        errorProfile.enter();
+                        if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                            gil.acquire();
+                            getContext().triggerAsyncActions();
+                            gil.release(true);
+                        } else {
+                            throw e;
+                        }
+                    }
+                }
+            } finally {
+                gil.acquire();
+            }
+        }
+
+        static BytesNodes.GetByteLengthIfWritableNode createGetLength() {
+            return BytesNodesFactory.GetByteLengthIfWritableNodeGen.create("readv", "argument 2");
+        }
+    }
+
+    @Builtin(name = "sendfile", minNumOfPositionalArgs = 4, parameterNames = {"out_fd", "in_fd", "offset", "count"})
+    @ArgumentClinic(name = "out_fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "in_fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "offset", conversionClass = OffsetOrNoneConversionNode.class)
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class SendfileNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.SendfileNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long doSendfile(VirtualFrame frame, int outFd, int inFd, long offset, int count,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            if (count < 0 || isEmulatedSocket(outFd, posixLib)) {
+                // sendfile(2) rejects negative counts; the native fd of an emulated socket is just a
+                // placeholder, so let callers such as socket.sendfile() fall back to send()
+                errorProfile.enter();
+                int error = OSErrorEnum.EINVAL.getNumber();
+                throw raiseOSError(frame, error, posixLib.strerror(getPosixSupport(), error));
+            }
+            try {
+                return sendfile(outFd, inFd, offset, count, posixLib, errorProfile, gil);
+            } catch (PosixException e) {
+                errorProfile.enter();
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+
+        private long sendfile(int outFd, int inFd, long offset, int count,
+                        PosixSupportLibrary posixLib,
+                        BranchProfile errorProfile, GilNode gil) throws PosixException {
+            gil.release(true);
+            try {
+                while (true) {
+                    try {
+                        return posixLib.sendfile(getPosixSupport(), outFd, inFd, offset, count);
+                    } catch (PosixException e) {
+                        errorProfile.enter();
+                        if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                            gil.acquire();
+                            getContext().triggerAsyncActions();
+                            gil.release(true);
+                        } else {
+                            throw e;
+                        }
+                    }
+                }
+            } finally {
+                gil.acquire();
+            }
+        }
+
+        /**
+         * Sockets are always Java channels, also with the native backend, where they have no real
+         * file descriptor that sendfile(2) could write to. {@code os.sendfile} therefore does not
+         * support them with the native backend and fails with {@code EINVAL}, which makes
+         * {@code socket.sendfile()} fall back to {@code send()}. With the java backend, the emulated
+         * sendfile handles sockets like any other channel.
+         */
+        private boolean isEmulatedSocket(int fd, PosixSupportLibrary posixLib) {
+            return getContext().getResources().isSocket(fd) && !"java".equals(posixLib.getBackend(getPosixSupport()));
+        }
+    }
+
+    @Builtin(name = "copy_file_range", minNumOfPositionalArgs = 3, parameterNames = {"src", "dst", "count", "offset_src", "offset_dst"})
+    @ArgumentClinic(name = "src", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "dst", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.Index)
+    @ArgumentClinic(name = "offset_src", conversionClass = OffsetOrNoneConversionNode.class)
+    @ArgumentClinic(name = "offset_dst", conversionClass = OffsetOrNoneConversionNode.class)
+    @GenerateNodeFactory
+    public abstract static class CopyFileRangeNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.CopyFileRangeNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long doCopyFileRange(VirtualFrame frame, int src, int dst, int count, long offsetSrc, long offsetDst,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached GilNode gil) {
+            if (count < 0) {
+                errorProfile.enter();
+                int error = OSErrorEnum.EINVAL.getNumber();
+                throw raiseOSError(frame, error, posixLib.strerror(getPosixSupport(), error));
+            }
+            try {
+                return copyFileRange(src, dst, count, offsetSrc, offsetDst, posixLib, errorProfile, gil);
+            } catch (PosixException e) {
+                errorProfile.enter();
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+
+        private long copyFileRange(int src, int dst, int count, long offsetSrc, long offsetDst,
+                        PosixSupportLibrary posixLib,
+                        BranchProfile errorProfile, GilNode gil) throws PosixException {
+            gil.release(true);
+            try {
+                while (true) {
+                    try {
+                        return posixLib.copyFileRange(getPosixSupport(), src, offsetSrc, dst, offsetDst, count);
+                    } catch (PosixException e) {
+                        errorProfile.enter();
+                        if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                            gil.acquire();
+                            getContext().triggerAsyncActions();
+                            gil.release(true);
+                        } else {
+                            throw e;
+                        }
+                    }
+                }
+            } finally {
+                gil.acquire();
+            }
+        }
+    }
+
     @Builtin(name = "dup", minNumOfPositionalArgs = 1, parameterNames = {"fd"})
     @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
     @GenerateNodeFactory
@@ -1375,15 +1756,17 @@ public class PosixModuleBuiltins extends PythonBuiltins {
             List<Object> list = new ArrayList<>();
             try {
                 while (true) {
-                    Object dirEntry = posixLib.readdir(getPosixSupport(), dirStream);
-                    if (dirEntry == null) {
+                    Object[] dirEntries = posixLib.readdirBatch(getPosixSupport(), dirStream, READDIR_BATCH_SIZE, false);
+                    if (dirEntries.length == 0) {
                         return factory().createList(listToArray(list));
                     }
-                    Object name = posixLib.dirEntryGetName(getPosixSupport(), dirEntry);
-                    if (produceBytes) {
-                        addToList(list, opaquePathToBytes(name, posixLib, getPosixSupport(), factory()));
-                    } else {
-                        addToList(list, posixLib.getPathAsString(getPosixSupport(), name));
+                    for (Object dirEntry : dirEntries) {
+                        Object name = posixLib.dirEntryGetName(getPosixSupport(), dirEntry);
+                        if (produceBytes) {
+                            addToList(list, opaquePathToBytes(name, posixLib, getPosixSupport(), factory()));
+                        } else {
+                            addToList(list, posixLib.getPathAsString(getPosixSupport(), name));
+                        }
                     }
                 }
             } catch (PosixException e) {
@@ -2620,6 +3003,34 @@ public class PosixModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Like {@link OffsetConversionNode}, but {@code None} is also accepted and converted to
+     * {@code -1}, which tells {@link PosixSupportLibrary} to use (and advance) the current file
+     * offset. Explicit negative offsets are rejected with {@code EINVAL} like the kernel does.
+     */
+    public abstract static class OffsetOrNoneConversionNode extends ArgumentCastNodeWithRaise {
+
+        @Specialization
+        static long doNone(@SuppressWarnings("unused") PNone value) {
+            return -1;
+        }
+
+        @Specialization(guards = "!isPNone(value)")
+        long doOffset(VirtualFrame frame, Object value,
+                        @Cached OffsetConversionNode offsetConversionNode) {
+            long offset = (long) offsetConversionNode.execute(frame, value);
+            if (offset < 0) {
+                throw raise(OSError, OSErrorEnum.EINVAL.getNumber(), OSErrorEnum.EINVAL.getMessage());
+            }
+            return offset;
+        }
+
+        @ClinicConverterFactory
+        public static OffsetOrNoneConversionNode create() {
+            return PosixModuleBuiltinsFactory.OffsetOrNoneConversionNodeGen.create();
+        }
+    }
+
     /**
      * Equivalent of CPython's {@code fildes_converter()}, which in turn delegates to
      * {@code PyObject_AsFileDescriptor}. Always returns an {@code int}.
@@ -42,6 +42,8 @@ package com.oracle.graal.python.builtins.modules;
 
 import java.util.List;
 
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
@@ -49,7 +51,8 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.queue.PSimpleQueue;
 import com.oracle.graal.python.nodes.BuiltinNames;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
-import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
@@ -66,18 +69,26 @@ public class QueueModuleBuiltins extends PythonBuiltins {
     public void initialize(PythonCore core) {
         super.initialize(core);
         builtinConstants.put(BuiltinNames.EMPTY, core.lookupType(PythonBuiltinClassType.Empty));
+        builtinConstants.put(BuiltinNames.FULL, core.lookupType(PythonBuiltinClassType.Full));
     }
 
     // _queue.SimpleQueue
     @Builtin(name = BuiltinNames.SIMPLE_QUEUE, constructsClass = PythonBuiltinClassType.PSimpleQueue, //
-                    minNumOfPositionalArgs = 1, //
-                    doc = "SimpleQueue()\n--\n\nSimple, unbounded, reentrant FIFO queue.")
+                    minNumOfPositionalArgs = 1, parameterNames = {"cls", "maxsize"}, //
+                    doc = "SimpleQueue(maxsize=0)\n--\n\nSimple, reentrant FIFO queue.\n\n" +
+                                    "If maxsize is <= 0, the queue size is infinite.")
+    @ArgumentClinic(name = "maxsize", conversion = ClinicConversion.Index, defaultValue = "0")
     @GenerateNodeFactory
-    abstract static class SimpleQueueNode extends PythonUnaryBuiltinNode {
+    abstract static class SimpleQueueNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return QueueModuleBuiltinsClinicProviders.SimpleQueueNodeClinicProviderGen.INSTANCE;
+        }
 
         @Specialization
-        PSimpleQueue doGeneric(Object cls) {
-            return factory().createSimpleQueue(cls);
+        PSimpleQueue doGeneric(Object cls, int maxSize) {
+            return factory().createSimpleQueue(cls, Math.max(maxSize, 0));
         }
     }
 }
@@ -58,6 +58,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonOptions;
@@ -78,6 +79,7 @@ import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.SourceSection;
 
@@ -207,11 +209,19 @@ public class SREModuleBuiltins extends PythonBuiltins {
         @Specialization(limit = "1")
         Object call(VirtualFrame frame, Object callable, Object inputStringOrBytes, Number fromIndex,
                         @Cached BranchProfile typeError,
+                        @Cached ConditionProfile releaseGilProfile,
+                        @Cached GilNode gil,
                         @CachedLibrary("callable") InteropLibrary interop,
                         @CachedContext(PythonLanguage.class) PythonContext context) {
             Object state = IndirectCallContext.enter(frame, context, this);
             try {
-                return interop.execute(callable, inputStringOrBytes, fromIndex);
+                // strings are immutable, so other threads may run while we match long ones
+                gil.release(releaseGilProfile.profile(inputStringOrBytes instanceof String && ((String) inputStringOrBytes).length() >= GilNode.RELEASE_GIL_MIN_SIZE));
+                try {
+                    return interop.execute(callable, inputStringOrBytes, fromIndex);
+                } finally {
+                    gil.acquire();
+                }
             } catch (ArityException | UnsupportedTypeException | UnsupportedMessageException e) {
                 typeError.enter();
                 throw raise(TypeError, "%s", e);
@@ -42,16 +42,24 @@ package com.oracle.graal.python.builtins.modules;
 
 import static com.oracle.graal.python.nodes.ErrorMessages.INVALID_VALUE_NAN;
 import static com.oracle.graal.python.nodes.ErrorMessages.TOO_LARGE_TO_CONVERT_TO;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CLOEXEC;
 import static com.oracle.graal.python.runtime.PosixConstants.FD_SETSIZE;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
 import java.util.List;
 
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.SelectModuleBuiltinsClinicProviders.EpollNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.select.PEpoll;
+import com.oracle.graal.python.builtins.modules.select.PPoll;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.floats.PFloat;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.list.PList;
@@ -65,14 +73,19 @@ import com.oracle.graal.python.nodes.builtins.ListNodes.FastConstructListNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.runtime.EmulatedPosixSupport;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixConstants;
+import com.oracle.graal.python.runtime.PosixConstants.IntConstant;
 import com.oracle.graal.python.runtime.PosixResources;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.ChannelNotSelectableException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
-import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.sequence.PSequence;
@@ -94,6 +107,20 @@ public class SelectModuleBuiltins extends PythonBuiltins {
 
     public SelectModuleBuiltins() {
         builtinConstants.put("error", PythonErrorType.OSError);
+        for (IntConstant c : PosixConstants.pollEvents) {
+            if (c.defined) {
+                builtinConstants.put(c.name, c.getValueIfDefined());
+            }
+        }
+        if (EPOLLIN.defined) {
+            for (IntConstant c : PosixConstants.epollEvents) {
+                if (c.defined) {
+                    // the event masks are unsigned
+                    builtinConstants.put(c.name, c.getValueIfDefined() & 0xFFFFFFFFL);
+                }
+            }
+            builtinConstants.put(EPOLL_CLOEXEC.name, EPOLL_CLOEXEC.getValueIfDefined());
+        }
     }
 
     @Override
@@ -101,6 +128,52 @@ public class SelectModuleBuiltins extends PythonBuiltins {
         return SelectModuleBuiltinsFactory.getFactories();
     }
 
+    @Override
+    public void initialize(PythonCore core) {
+        super.initialize(core);
+        if (EPOLLIN.defined) {
+            // like in CPython, epoll is only available where the platform supports it
+            builtinConstants.put("epoll", core.lookupType(PythonBuiltinClassType.PEpoll));
+        }
+    }
+
+    @Builtin(name = "poll")
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonBuiltinNode {
+
+        @Specialization
+        PPoll poll() {
+            return factory().createPoll();
+        }
+    }
+
+    @Builtin(name = "epoll", constructsClass = PythonBuiltinClassType.PEpoll, minNumOfPositionalArgs = 1, parameterNames = {"$cls", "sizehint", "flags"})
+    @ArgumentClinic(name = "sizehint", conversion = ClinicConversion.Int, defaultValue = "-1")
+    @ArgumentClinic(name = "flags", conversion = ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class EpollNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return EpollNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PEpoll epoll(VirtualFrame frame, Object cls, int sizehint, int flags,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (sizehint != -1 && sizehint <= 0) {
+                throw raise(ValueError, ErrorMessages.NEGATIVE_SIZEHINT);
+            }
+            if (flags != 0 && flags != EPOLL_CLOEXEC.getValueIfDefined()) {
+                throw raiseOSError(frame, OSErrorEnum.EINVAL);
+            }
+            try {
+                return factory().createEpoll(cls, posixLib.epollCreate(getPosixSupport()));
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
     @Builtin(name = "select", minNumOfPositionalArgs = 3, parameterNames = {"rlist", "wlist", "xlist", "timeout"})
     @GenerateNodeFactory
     abstract static class SelectNode extends PythonBuiltinNode {
@@ -231,8 +304,8 @@ public class SelectModuleBuiltins extends PythonBuiltins {
     static final long US_TO_NS = 1000L;
     static final long MS_TO_US = 1000L;
     static final long SEC_TO_MS = 1000L;
-    static final long MS_TO_NS = MS_TO_US * US_TO_NS;
-    static final long SEC_TO_NS = SEC_TO_MS * MS_TO_NS;
+    public static final long MS_TO_NS = MS_TO_US * US_TO_NS;
+    public static final long SEC_TO_NS = SEC_TO_MS * MS_TO_NS;
     static final long SEC_TO_US = SEC_TO_MS * MS_TO_US;
 
     static Timeval timeAsTimeval(long t) {
@@ -252,6 +325,20 @@ public class SelectModuleBuiltins extends PythonBuiltins {
         return new Timeval(secs, usec);
     }
 
+    /**
+     * Converts a timeout to milliseconds, rounding up like {@code _PyTime_AsMilliseconds} with
+     * {@code _PyTime_ROUND_CEILING}. Negative timeouts are converted to {@code -1}, meaning
+     * infinite timeout.
+     */
+    public static long timeoutAsMilliseconds(long ns) {
+        if (ns < 0) {
+            return -1;
+        }
+        // a short timeout must not become 0, which would not wait at all
+        long ms = ns / MS_TO_NS;
+        return ns % MS_TO_NS == 0 ? ms : ms + 1;
+    }
+
     static long pyTimeDivide(long t, long k) {
         // _PyTime_Divide, for now hard-coded mode HALP_UP
         assert k > 1;
@@ -265,8 +352,8 @@ public class SelectModuleBuiltins extends PythonBuiltins {
     /**
      * Equivalent of {@code _PyTime_FromObject} from CPython.
      */
-    abstract static class PyTimeFromObjectNode extends PNodeWithRaise {
-        abstract long execute(VirtualFrame frame, Object obj, long unitToNs);
+    public abstract static class PyTimeFromObjectNode extends PNodeWithRaise {
+        public abstract long execute(VirtualFrame frame, Object obj, long unitToNs);
 
         @Specialization
         long doDouble(double d, long unitToNs) {
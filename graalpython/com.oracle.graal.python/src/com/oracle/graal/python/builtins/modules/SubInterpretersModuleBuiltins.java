@@ -0,0 +1,570 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ChannelClosedError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ChannelEmptyError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ChannelNotFoundError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RunFailedError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.BuiltinNames;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaLongExactNode;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.SubInterpreters;
+import com.oracle.graal.python.runtime.SubInterpreters.Channel;
+import com.oracle.graal.python.runtime.SubInterpreters.Interpreter;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * The low-level sub-interpreter API of PEP 554, see {@link SubInterpreters}. Interpreters and
+ * channels are identified by integers.
+ */
+@CoreFunctions(defineModule = "_xxsubinterpreters")
+public class SubInterpretersModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SubInterpretersModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(PythonCore core) {
+        super.initialize(core);
+        builtinConstants.put("RunFailedError", core.lookupType(RunFailedError));
+        builtinConstants.put("ChannelError", core.lookupType(PythonBuiltinClassType.ChannelError));
+        builtinConstants.put("ChannelNotFoundError", core.lookupType(ChannelNotFoundError));
+        builtinConstants.put("ChannelClosedError", core.lookupType(ChannelClosedError));
+        builtinConstants.put("ChannelEmptyError", core.lookupType(ChannelEmptyError));
+    }
+
+    private static Interpreter getInterpreter(PythonBuiltinBaseNode node, long id) {
+        Interpreter interpreter = node.getContext().getInterpreter().getRegistry().get(id);
+        if (interpreter == null) {
+            throw node.raise(RuntimeError, ErrorMessages.UNRECOGNIZED_INTERPRETER_ID, id);
+        }
+        return interpreter;
+    }
+
+    private static Channel getChannel(PythonBuiltinBaseNode node, long id) {
+        Channel channel = node.getContext().getInterpreter().getRegistry().getChannel(id);
+        if (channel == null) {
+            throw node.raise(ChannelNotFoundError, ErrorMessages.CHANNEL_D_NOT_FOUND, id);
+        }
+        return channel;
+    }
+
+    @Builtin(name = "create", minNumOfPositionalArgs = 0, doc = "create() -> ID\n\n" +
+                    "Create a new interpreter and return a unique generated ID.")
+    @GenerateNodeFactory
+    abstract static class CreateNode extends PythonBuiltinNode {
+        @Specialization
+        @SuppressWarnings("try")
+        long create() {
+            PythonContext context = getContext();
+            SubInterpreters registry = context.getInterpreter().getRegistry();
+            try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                return registry.create(context.getEnv(), this).getId();
+            }
+        }
+    }
+
+    @Builtin(name = "destroy", minNumOfPositionalArgs = 1, parameterNames = {"id"}, doc = "destroy(id)\n\n" +
+                    "Destroy the identified interpreter.\n\n" +
+                    "Attempting to destroy the current interpreter results in a RuntimeError.\n" +
+                    "So does an unrecognized ID.")
+    @ArgumentClinic(name = "id", conversion = ClinicConversion.Long)
+    @GenerateNodeFactory
+    abstract static class DestroyNode extends PythonUnaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SubInterpretersModuleBuiltinsClinicProviders.DestroyNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        @SuppressWarnings("try")
+        PNone destroy(long id) {
+            Interpreter interpreter = getInterpreter(this, id);
+            if (interpreter == getContext().getInterpreter()) {
+                throw raise(RuntimeError, ErrorMessages.CANNOT_DESTROY_CURRENT_INTERPRETER);
+            }
+            // the main interpreter is always running
+            if (interpreter.isMain() || !interpreter.start()) {
+                throw raise(RuntimeError, ErrorMessages.CANNOT_DESTROY_RUNNING_INTERPRETER);
+            }
+            try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                interpreter.getRegistry().destroy(interpreter);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "list_all", minNumOfPositionalArgs = 0, doc = "list_all() -> [ID]\n\n" +
+                    "Return a list containing the ID of every existing interpreter.")
+    @GenerateNodeFactory
+    abstract static class ListAllNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        Object listAll() {
+            return factory().createList(getContext().getInterpreter().getRegistry().getIds().toArray());
+        }
+    }
+
+    @Builtin(name = "get_current", minNumOfPositionalArgs = 0, doc = "get_current() -> ID\n\n" +
+                    "Return the ID of the current interpreter.")
+    @GenerateNodeFactory
+    abstract static class GetCurrentNode extends PythonBuiltinNode {
+        @Specialization
+        long getCurrent() {
+            return getContext().getInterpreter().getId();
+        }
+    }
+
+    @Builtin(name = "get_main", minNumOfPositionalArgs = 0, doc = "get_main() -> ID\n\n" +
+                    "Return the ID of main interpreter.")
+    @GenerateNodeFactory
+    abstract static class GetMainNode extends PythonBuiltinNode {
+        @Specialization
+        static long getMain() {
+            return SubInterpreters.MAIN_ID;
+        }
+    }
+
+    @Builtin(name = "is_running", minNumOfPositionalArgs = 1, parameterNames = {"id"}, doc = "is_running(id) -> bool\n\n" +
+                    "Return whether or not the identified interpreter is running.")
+    @ArgumentClinic(name = "id", conversion = ClinicConversion.Long)
+    @GenerateNodeFactory
+    abstract static class IsRunningNode extends PythonUnaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SubInterpretersModuleBuiltinsClinicProviders.IsRunningNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        boolean isRunning(long id) {
+            Interpreter interpreter = getInterpreter(this, id);
+            return interpreter.isMain() || interpreter.isRunning();
+        }
+    }
+
+    @Builtin(name = "is_shareable", minNumOfPositionalArgs = 1, doc = "is_shareable(obj) -> bool\n\n" +
+                    "Return True if the object's data may be shared between interpreters and\n" +
+                    "False otherwise.")
+    @GenerateNodeFactory
+    abstract static class IsShareableNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean isShareable(Object obj) {
+            return SubInterpreters.toShareable(obj) != null;
+        }
+    }
+
+    @Builtin(name = "run_string", minNumOfPositionalArgs = 2, parameterNames = {"id", "script", "shared"}, doc = "run_string(id, script, shared)\n\n" +
+                    "Execute the provided string in the identified interpreter.\n\n" +
+                    "The values of the 'shared' dict are bound as globals of the interpreter's __main__ module.\n" +
+                    "The call blocks until the script finished, other threads of the calling interpreter\n" +
+                    "keep running meanwhile. An exception raised by the script is reported as RunFailedError.")
+    @ArgumentClinic(name = "id", conversion = ClinicConversion.Long)
+    @ArgumentClinic(name = "script", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class RunStringNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SubInterpretersModuleBuiltinsClinicProviders.RunStringNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        @SuppressWarnings("try")
+        PNone run(long id, String script, Object shared) {
+            Interpreter interpreter = getInterpreter(this, id);
+            if (interpreter.isMain()) {
+                throw raise(RuntimeError, ErrorMessages.CANNOT_RUN_IN_MAIN_INTERPRETER);
+            }
+            Map<String, Object> sharedValues = toShareable(shared);
+            if (!interpreter.start()) {
+                throw raise(RuntimeError, ErrorMessages.INTERPRETER_ALREADY_RUNNING);
+            }
+            String error;
+            try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                error = interpreter.run(this, script, sharedValues);
+            } finally {
+                interpreter.stop();
+            }
+            if (error != null) {
+                throw raise(RunFailedError, "%s", error);
+            }
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private Map<String, Object> toShareable(Object shared) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            if (shared instanceof PDict) {
+                for (DictEntry entry : HashingStorageLibrary.getUncached().entries(((PDict) shared).getDictStorage())) {
+                    String key;
+                    try {
+                        key = CastToJavaStringNode.getUncached().execute(entry.key);
+                    } catch (CannotCastException e) {
+                        throw raise(TypeError, ErrorMessages.SHARED_KEYS_MUST_BE_STR);
+                    }
+                    result.put(key, toShareableOrRaise(this, entry.value));
+                }
+            } else if (shared != PNone.NONE && shared != PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.EXPECTED_S_GOT_P, "dict", shared);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Converts a {@code timeout} argument in seconds to microseconds, {@code None} meaning forever
+     * ({@code -1}).
+     */
+    private static long toTimeoutMicros(PythonBuiltinBaseNode node, Object timeout, PythonObjectLibrary timeoutLib) {
+        if (PGuards.isPNone(timeout)) {
+            return -1;
+        }
+        double seconds = timeoutLib.asJavaDouble(timeout);
+        if (seconds < 0) {
+            throw node.raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "timeout");
+        }
+        return (long) (seconds * 1000000.0);
+    }
+
+    private static Object toShareableOrRaise(PythonBuiltinBaseNode node, Object obj) {
+        Object shareable = SubInterpreters.toShareable(obj);
+        if (shareable == null) {
+            throw node.raise(ValueError, ErrorMessages.OBJ_DOES_NOT_SUPPORT_CROSS_INTERPRETER_DATA, obj);
+        }
+        return shareable;
+    }
+
+    /**
+     * Runs the script that {@link Interpreter#run} handed over to this (sub-)interpreter.
+     */
+    @Builtin(name = "_run_pending", minNumOfPositionalArgs = 0)
+    @GenerateNodeFactory
+    abstract static class RunPendingNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        PNone run() {
+            PythonContext context = getContext();
+            Interpreter interpreter = context.getInterpreter();
+            String script = interpreter.takePendingScript();
+            Map<String, Object> shared = interpreter.takePendingShared();
+            if (script == null) {
+                return PNone.NONE;
+            }
+            PythonModule main = context.getMainModule();
+            PythonObjectFactory factory = factory();
+            for (Map.Entry<String, Object> entry : shared.entrySet()) {
+                main.setAttribute(entry.getKey(), SubInterpreters.fromShareable(factory, entry.getValue()));
+            }
+            Object exec = context.getBuiltins().getAttribute(BuiltinNames.EXEC);
+            try {
+                CallNode.getUncached().execute(exec, script, PythonObjectLibrary.getUncached().getDict(main));
+            } catch (PException e) {
+                interpreter.setError(e.getUnreifiedException().getFormattedMessage());
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "channel_create", minNumOfPositionalArgs = 0, doc = "channel_create() -> cid\n\n" +
+                    "Create a new cross-interpreter channel and return a unique generated ID.")
+    @GenerateNodeFactory
+    abstract static class ChannelCreateNode extends PythonBuiltinNode {
+        @Specialization
+        long create() {
+            return getContext().getInterpreter().getRegistry().createChannel().getId();
+        }
+    }
+
+    @Builtin(name = "channel_destroy", minNumOfPositionalArgs = 1, parameterNames = {"cid"}, doc = "channel_destroy(cid)\n\n" +
+                    "Close and finalize the channel. Afterward attempts to use the channel\n" +
+                    "will behave as though it never existed.")
+    @ArgumentClinic(name = "cid", conversion = ClinicConversion.Long)
+    @GenerateNodeFactory
+    abstract static class ChannelDestroyNode extends PythonUnaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SubInterpretersModuleBuiltinsClinicProviders.ChannelDestroyNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone destroy(long cid) {
+            getContext().getInterpreter().getRegistry().destroyChannel(getChannel(this, cid));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "channel_list_all", minNumOfPositionalArgs = 0, doc = "channel_list_all() -> [cid]\n\n" +
+                    "Return the list of all IDs for active channels.")
+    @GenerateNodeFactory
+    abstract static class ChannelListAllNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        Object listAll() {
+            return factory().createList(getContext().getInterpreter().getRegistry().getChannelIds().toArray());
+        }
+    }
+
+    @Builtin(name = "channel_send", minNumOfPositionalArgs = 2, parameterNames = {"cid", "obj"}, doc = "channel_send(cid, obj)\n\n" +
+                    "Add the object's data to the channel's queue.")
+    @ArgumentClinic(name = "cid", conversion = ClinicConversion.Long)
+    @GenerateNodeFactory
+    abstract static class ChannelSendNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SubInterpretersModuleBuiltinsClinicProviders.ChannelSendNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone send(long cid, Object obj) {
+            Channel channel = getChannel(this, cid);
+            if (!channel.send(toShareableOrRaise(this, obj))) {
+                throw raise(ChannelClosedError, ErrorMessages.CHANNEL_D_CLOSED, cid);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "channel_recv", minNumOfPositionalArgs = 1, parameterNames = {"cid", "default", "block", "timeout"}, doc = "channel_recv(cid, [default], block=False, timeout=None) -> obj\n\n" +
+                    "Return a new object from the data at the front of the channel's queue.\n\n" +
+                    "If there is nothing to receive, 'default' is returned if given, and ChannelEmptyError\n" +
+                    "is raised otherwise. If 'block' is true, wait at most 'timeout' seconds (forever if\n" +
+                    "'timeout' is None) for an object first.")
+    @ArgumentClinic(name = "cid", conversion = ClinicConversion.Long)
+    @ArgumentClinic(name = "block", conversion = ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class ChannelRecvNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SubInterpretersModuleBuiltinsClinicProviders.ChannelRecvNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object recv(long cid, Object defaultValue, boolean block, Object timeout,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary timeoutLib) {
+            Channel channel = getChannel(this, cid);
+            long timeoutMicros = 0;
+            if (block) {
+                timeoutMicros = toTimeoutMicros(this, timeout, timeoutLib);
+            }
+            Object shareable = receive(channel, timeoutMicros);
+            if (shareable != null) {
+                return SubInterpreters.fromShareable(factory(), shareable);
+            } else if (defaultValue != PNone.NO_VALUE) {
+                return defaultValue;
+            } else if (channel.isClosed()) {
+                throw raise(ChannelClosedError, ErrorMessages.CHANNEL_D_CLOSED, cid);
+            }
+            throw raise(ChannelEmptyError, ErrorMessages.CHANNEL_D_EMPTY, cid);
+        }
+
+        @TruffleBoundary
+        @SuppressWarnings("try")
+        private static Object receive(Channel channel, long timeoutMicros) {
+            Object shareable = channel.poll();
+            if (shareable == null && timeoutMicros != 0) {
+                try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                    try {
+                        shareable = channel.receive(timeoutMicros);
+                    } catch (InterruptedException e) {
+                        // reacquiring the GIL handles the interrupt, e.g. by exiting a daemon
+                        // thread at shutdown
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            return shareable;
+        }
+    }
+
+    @Builtin(name = "channel_wait", minNumOfPositionalArgs = 1, parameterNames = {"cids", "timeout"}, doc = "channel_wait(cids, timeout=None) -> [cid]\n\n" +
+                    "Wait at most 'timeout' seconds (forever if 'timeout' is None) until at least one of the\n" +
+                    "channels has an object to receive or is closed, and return the IDs of these channels.")
+    @GenerateNodeFactory
+    abstract static class ChannelWaitNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        @SuppressWarnings("try")
+        Object wait(Object cids, Object timeout,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @Cached CastToJavaLongExactNode castToLongNode,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary timeoutLib) {
+            Object[] ids = getObjectArrayNode.execute(cids);
+            List<Channel> channels = new ArrayList<>(ids.length);
+            for (Object id : ids) {
+                try {
+                    channels.add(getChannel(this, castToLongNode.execute(id)));
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ErrorMessages.INTEGER_REQUIRED_GOT, id);
+                }
+            }
+            long timeoutMicros = toTimeoutMicros(this, timeout, timeoutLib);
+            SubInterpreters registry = getContext().getInterpreter().getRegistry();
+            List<Channel> ready = SubInterpreters.pollChannels(channels);
+            if (ready.isEmpty() && timeoutMicros != 0) {
+                try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                    try {
+                        ready = registry.waitForChannels(channels, timeoutMicros);
+                    } catch (InterruptedException e) {
+                        // reacquiring the GIL handles the interrupt
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            Object[] readyIds = new Object[ready.size()];
+            for (int i = 0; i < readyIds.length; i++) {
+                readyIds[i] = ready.get(i).getId();
+            }
+            return factory().createList(readyIds);
+        }
+    }
+
+    @Builtin(name = "channel_close", minNumOfPositionalArgs = 1, parameterNames = {"cid"}, doc = "channel_close(cid)\n\n" +
+                    "Close the channel for all interpreters. Objects that were already sent can still be received.")
+    @ArgumentClinic(name = "cid", conversion = ClinicConversion.Long)
+    @GenerateNodeFactory
+    abstract static class ChannelCloseNode extends PythonUnaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SubInterpretersModuleBuiltinsClinicProviders.ChannelCloseNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone close(long cid) {
+            getChannel(this, cid).close();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "_channel_retain", minNumOfPositionalArgs = 1, parameterNames = {"cid", "send", "recv"}, doc = "_channel_retain(cid, send=False, recv=False)\n\n" +
+                    "Count a reference to the send and/or the receive end of the channel, see channel_release.")
+    @ArgumentClinic(name = "cid", conversion = ClinicConversion.Long)
+    @ArgumentClinic(name = "send", conversion = ClinicConversion.Boolean, defaultValue = "false")
+    @ArgumentClinic(name = "recv", conversion = ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class ChannelRetainNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SubInterpretersModuleBuiltinsClinicProviders.ChannelRetainNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone retain(long cid, boolean send, boolean recv) {
+            getChannel(this, cid).retain(send, recv);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "channel_release", minNumOfPositionalArgs = 1, parameterNames = {"cid", "send", "recv"}, doc = "channel_release(cid, send=False, recv=False)\n\n" +
+                    "Drop a reference counted with _channel_retain. When no reference to the send end is left, the channel is\n" +
+                    "closed. When no reference to either end is left, the channel is destroyed.")
+    @ArgumentClinic(name = "cid", conversion = ClinicConversion.Long)
+    @ArgumentClinic(name = "send", conversion = ClinicConversion.Boolean, defaultValue = "false")
+    @ArgumentClinic(name = "recv", conversion = ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class ChannelReleaseNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SubInterpretersModuleBuiltinsClinicProviders.ChannelReleaseNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone release(long cid, boolean send, boolean recv) {
+            getChannel(this, cid).release(send, recv);
+            return PNone.NONE;
+        }
+    }
+}
@@ -85,6 +85,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.object.GetClassNode;
 import com.oracle.graal.python.nodes.util.ExceptionStateNodes.GetCaughtExceptionNode;
@@ -681,4 +682,35 @@ public class SysModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "getswitchinterval")
+    @GenerateNodeFactory
+    public abstract static class GetSwitchIntervalNode extends PythonBuiltinNode {
+        @Specialization
+        static double doGeneric(
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            return context.getSwitchInterval();
+        }
+    }
+
+    @Builtin(name = "setswitchinterval", minNumOfPositionalArgs = 1, parameterNames = {"interval"})
+    @ArgumentClinic(name = "interval", conversion = ClinicConversion.Double)
+    @GenerateNodeFactory
+    public abstract static class SetSwitchIntervalNode extends PythonUnaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SysModuleBuiltinsClinicProviders.SetSwitchIntervalNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object doGeneric(double interval,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
+            if (interval <= 0.0) {
+                throw raise(ValueError, ErrorMessages.SWITCH_INTERVAL_MUST_BE_POSITIVE);
+            }
+            context.setSwitchInterval(interval);
+            return PNone.NONE;
+        }
+    }
+
 }
@@ -47,6 +47,8 @@ import java.lang.ref.WeakReference;
 import java.util.List;
 
 import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
@@ -56,6 +58,8 @@ import com.oracle.graal.python.builtins.objects.exception.PBaseException;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
 import com.oracle.graal.python.builtins.objects.thread.PRLock;
+import com.oracle.graal.python.builtins.objects.thread.PRWLock;
+import com.oracle.graal.python.builtins.objects.thread.PStripedLock;
 import com.oracle.graal.python.builtins.objects.thread.PThread;
 import com.oracle.graal.python.builtins.objects.thread.PThreadLocal;
 import com.oracle.graal.python.nodes.ErrorMessages;
@@ -64,9 +68,12 @@ import com.oracle.graal.python.nodes.argument.positional.ExecutePositionalStarar
 import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonThreadPool;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonThreadKillException;
@@ -130,6 +137,38 @@ public class ThreadModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "RWLock", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PRWLock)
+    @GenerateNodeFactory
+    abstract static class ConstructRWLockNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PRWLock construct(Object cls) {
+            return factory().createRWLock(cls);
+        }
+    }
+
+    @Builtin(name = "StripedLock", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "stripes", "readwrite"}, constructsClass = PythonBuiltinClassType.PStripedLock)
+    @ArgumentClinic(name = "stripes", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "readwrite", conversion = ClinicConversion.Boolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class ConstructStripedLockNode extends PythonTernaryClinicBuiltinNode {
+        private static final int MAX_STRIPES = 1 << 30;
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ThreadModuleBuiltinsClinicProviders.ConstructStripedLockNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PStripedLock construct(Object cls, int stripes, boolean readWrite) {
+            if (stripes <= 0) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.STRIPES_MUST_BE_POSITIVE);
+            }
+            // round up to a power of two, so that hashes are mapped to stripes with a mask
+            int count = stripes >= MAX_STRIPES ? MAX_STRIPES : Integer.highestOneBit(stripes - 1) << 1;
+            return factory().createStripedLock(cls, Math.max(count, 1), readWrite);
+        }
+    }
+
     @Builtin(name = "get_ident", minNumOfPositionalArgs = 0)
     @GenerateNodeFactory
     public abstract static class GetCurrentThreadIdNode extends PythonBuiltinNode {
@@ -146,7 +185,14 @@ public class ThreadModuleBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         long getCount() {
-            return getContext().getThreadGroup().activeCount();
+            PythonContext context = getContext();
+            PythonThreadPool threadPool = context.getThreadPool();
+            int count = context.getThreadGroup().activeCount();
+            if (threadPool != null) {
+                // idle pooled threads do not run a Python thread
+                count -= threadPool.getIdleCount();
+            }
+            return count;
         }
     }
 
@@ -190,9 +236,7 @@ public class ThreadModuleBuiltins extends PythonBuiltins {
             PythonContext context = getContext();
             TruffleLanguage.Env env = context.getEnv();
 
-            // TODO: python thread stack size != java thread stack size
-            // ignore setting the stack size for the moment
-            Thread thread = env.createThread(() -> {
+            Runnable task = () -> {
                 Object[] arguments = getArgsNode.executeWith(frame, args);
                 PKeyword[] keywords = getKwArgsNode.execute(kwargs);
 
@@ -211,8 +255,16 @@ public class ThreadModuleBuiltins extends PythonBuiltins {
                     // WriteUnraisableNode.getUncached().execute(e.getUnreifiedException(), "in
                     // thread started by", callable);
                 }
-            }, env.getContext(), context.getThreadGroup());
+            };
 
+            PythonThreadPool threadPool = context.getThreadPool();
+            if (threadPool != null) {
+                // the pooled thread is already running the task
+                return factory().createPythonThread(cls, threadPool.execute(task)).getId();
+            }
+            // TODO: python thread stack size != java thread stack size
+            // ignore setting the stack size for the moment
+            Thread thread = env.createThread(task, env.getContext(), context.getThreadGroup());
             PThread pThread = factory().createPythonThread(cls, thread);
             pThread.start();
             return pThread.getId();
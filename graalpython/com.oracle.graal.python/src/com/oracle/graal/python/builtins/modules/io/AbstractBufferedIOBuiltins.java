@@ -98,7 +98,7 @@ abstract class AbstractBufferedIOBuiltins extends PythonBuiltins {
         public static void init(PBuffered self, int bufferSize, PythonObjectFactory factory) {
             self.initBuffer(bufferSize);
             self.setLock(factory.createLock());
-            self.setOwner(0);
+            self.setOwner(null);
             int n;
             for (n = bufferSize - 1; (n & 1) != 0; n >>= 1) {
             }
@@ -56,9 +56,11 @@ import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeE
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.SystemError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
-import com.oracle.graal.python.builtins.modules.ThreadModuleBuiltins;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithContext;
@@ -67,6 +69,8 @@ import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.ImportStatic;
@@ -396,19 +400,77 @@ public class BufferedIONodes {
         }
     }
 
-    // TODO: experiment with threads count to avoid locking.
-    abstract static class EnterBufferedNode extends Node {
+    /**
+     * Enters a buffered operation. While only a single thread runs Python code, nobody can compete
+     * for the buffer, so the lock is not taken and only the owner is recorded to detect reentrant
+     * calls. {@link #leave} releases the lock only if it was taken.
+     */
+    abstract static class EnterBufferedNode extends PNodeWithRaise {
+
+        static final long FINALIZING_GRACE_PERIOD_NS = TimeUnit.SECONDS.toNanos(1);
 
         public abstract void execute(PBuffered self);
 
-        @Specialization
-        static void doEnter(PBuffered self,
+        protected static Assumption getSingleThreadedAssumption() {
+            return PythonLanguage.getCurrent().singleThreadedAssumption;
+        }
+
+        @Specialization(assumptions = "getSingleThreadedAssumption()")
+        void doSingleThreaded(PBuffered self) {
+            if (self.getOwner() != null) {
+                throw raise(RuntimeError, REENTRANT_CALL_INSIDE_P, self);
+            }
+            self.setOwner(Thread.currentThread());
+        }
+
+        @Specialization(replaces = "doSingleThreaded")
+        void doEnter(PBuffered self,
                         @Cached EnterBufferedBusyNode enterBufferedBusyNode,
-                        @Cached ConditionProfile isBusy) {
+                        @Cached ConditionProfile isBusy,
+                        @Cached ConditionProfile enteredWithoutLock,
+                        @Cached GilNode gil,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
             if (isBusy.profile(!self.getLock().acquireNonBlocking())) {
                 enterBufferedBusyNode.execute(self);
             }
-            self.setOwner(ThreadModuleBuiltins.GetCurrentThreadIdNode.getId());
+            if (enteredWithoutLock.profile(self.getOwner() != null)) {
+                /* entered before other threads were started, so the lock was not taken */
+                if (self.isOwn()) {
+                    self.getLock().release();
+                    throw raise(RuntimeError, REENTRANT_CALL_INSIDE_P, self);
+                }
+                /*
+                 * holding the lock, we are the only waiter; leave() wakes us up, the timeout only
+                 * makes us notice finalization
+                 */
+                long deadline = 0;
+                while (self.getOwner() != null) {
+                    boolean finalizing = context.isFinalizing();
+                    if (finalizing && deadline == 0) {
+                        deadline = System.nanoTime() + FINALIZING_GRACE_PERIOD_NS;
+                    } else if (finalizing && System.nanoTime() - deadline > 0) {
+                        /* like EnterBufferedBusyNode.finalizing, the owner may be a dead daemon thread */
+                        self.setWaiter(null);
+                        self.getLock().release();
+                        throw raise(SystemError, SHUTDOWN_POSSIBLY_DUE_TO_DAEMON_THREADS);
+                    }
+                    self.setWaiter(Thread.currentThread());
+                    gil.release(true);
+                    try {
+                        park(finalizing ? Math.max(1, deadline - System.nanoTime()) : FINALIZING_GRACE_PERIOD_NS);
+                    } finally {
+                        gil.acquire();
+                    }
+                }
+                self.setWaiter(null);
+            }
+            self.setOwner(Thread.currentThread());
+            self.setLockHeld(true);
+        }
+
+        @TruffleBoundary
+        private static void park(long nanos) {
+            LockSupport.parkNanos(nanos);
         }
 
         void enter(PBuffered self) {
@@ -416,8 +478,16 @@ public class BufferedIONodes {
         }
 
         static void leave(PBuffered self) {
-            self.setOwner(0);
-            self.getLock().release();
+            self.setOwner(null);
+            if (self.isLockHeld()) {
+                self.setLockHeld(false);
+                self.getLock().release();
+            } else {
+                Thread waiter = self.getWaiter();
+                if (waiter != null) {
+                    LockSupport.unpark(waiter);
+                }
+            }
         }
     }
 
@@ -449,7 +519,7 @@ public class BufferedIONodes {
              * that non-daemon threads have already exited here, so this shouldn't affect carefully
              * written threaded I/O code.
              */
-            if (!self.getLock().acquireTimeout((long) 1e3)) {
+            if (!self.getLock().acquireTimeout(TimeUnit.NANOSECONDS.toMillis(EnterBufferedNode.FINALIZING_GRACE_PERIOD_NS))) {
                 throw raise(SystemError, SHUTDOWN_POSSIBLY_DUE_TO_DAEMON_THREADS);
             }
         }
@@ -76,6 +76,7 @@ import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.lib.PyNumberAsSizeNode;
 import com.oracle.graal.python.nodes.PNodeWithContext;
@@ -149,6 +150,49 @@ public class BufferedReaderMixinBuiltins extends AbstractBufferedIOBuiltins {
 
     }
 
+    /**
+     * Same as {@link RawReadNode}, but hands the raw stream a memoryview over {@code dest}, so
+     * that the data lands in place, as in CPython. Returns the number of bytes read, or {@code -2}
+     * if a non-blocking stream would have blocked.
+     */
+    abstract static class RawReadIntoNode extends PNodeWithRaise {
+
+        public abstract int execute(VirtualFrame frame, PBuffered self, byte[] dest, int destOffset, int len);
+
+        @Specialization
+        int bufferedreaderRawReadInto(VirtualFrame frame, PBuffered self, byte[] dest, int destOffset, int len,
+                        @Cached PythonObjectFactory factory,
+                        @Cached IONodes.CallReadInto readInto,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached ConditionProfile osError) {
+            PByteArray owner = factory.createByteArray(dest);
+            // The wrapping bytearray is never visible to the user and must not be resized, so it
+            // is pinned as exported.
+            owner.setExports(1);
+            PMemoryView memobj = factory.createMemoryView(null, null, owner, len, false, 1, "B", 1, null, destOffset,
+                            new int[]{len}, new int[]{1}, null, PMemoryView.FLAG_C | PMemoryView.FLAG_FORTRAN);
+            // TODO _PyIO_trap_eintr [GR-23297]
+            Object res;
+            try {
+                res = readInto.execute(frame, self.getRaw(), memobj);
+            } finally {
+                memobj.setReleased();
+            }
+            if (res == PNone.NONE) {
+                /* Non-blocking stream would have blocked. Special return code! */
+                return -2;
+            }
+            int n = asSizeNode.executeExact(frame, res, ValueError);
+            if (osError.profile(n < 0 || n > len)) {
+                throw raise(OSError, IO_S_INVALID_LENGTH, "readinto()", n, len);
+            }
+            if (n > 0 && self.getAbsPos() != -1) {
+                self.incAbsPos(n);
+            }
+            return n;
+        }
+    }
+
     /**
      * implementation of cpython/Modules/_io/bufferedio.c:_bufferedreader_fill_buffer
      */
@@ -158,7 +202,7 @@ public class BufferedReaderMixinBuiltins extends AbstractBufferedIOBuiltins {
 
         @Specialization
         static int bufferedreaderFillBuffer(VirtualFrame frame, PBuffered self,
-                        @Cached RawReadNode rawReadNode) {
+                        @Cached RawReadIntoNode rawReadIntoNode) {
             int start;
             if (isValidReadBuffer(self)) {
                 start = self.getReadEnd();
@@ -166,15 +210,10 @@ public class BufferedReaderMixinBuiltins extends AbstractBufferedIOBuiltins {
                 start = 0;
             }
             int len = self.getBufferSize() - start;
-            byte[] fill = rawReadNode.execute(frame, self, len);
-            if (fill == BLOCKED) {
-                return -2;
-            }
-            int n = fill.length;
-            if (n == 0) {
+            int n = rawReadIntoNode.execute(frame, self, self.getBuffer(), start, len);
+            if (n <= 0) {
                 return n;
             }
-            PythonUtils.arraycopy(fill, 0, self.getBuffer(), start, n);
             self.setReadEnd(start + n);
             self.setRawPos(start + n);
             return n;
@@ -505,6 +544,8 @@ public class BufferedReaderMixinBuiltins extends AbstractBufferedIOBuiltins {
                         @Cached("createReadIntoArg()") BytesNodes.GetByteLengthIfWritableNode getLen,
                         @Cached BufferedIONodes.FlushAndRewindUnlockedNode flushAndRewindUnlockedNode,
                         @Cached RawReadNode rawReadNode,
+                        @Cached RawReadIntoNode rawReadIntoNode,
+                        @Cached BytesNodes.GetWritableByteArrayNode getWritableArray,
                         @Cached FillBufferNode fillBufferNode,
                         @Cached SequenceStorageNodes.BytesMemcpyNode memcpyNode) {
             checkIsClosedNode.execute(frame, self);
@@ -539,12 +580,23 @@ public class BufferedReaderMixinBuiltins extends AbstractBufferedIOBuiltins {
                      caller's buffer.
                      */
                     if (remaining > self.getBufferSize()) {
-                        byte[] fill = rawReadNode.execute(frame, self, remaining);
-                        if (fill == BLOCKED) {
-                            n = -2;
+                        byte[] target = getWritableArray.execute(buffer);
+                        if (target != null) {
+                            int offset = BytesNodes.GetWritableByteArrayNode.getArrayOffset(buffer);
+                            BytesNodes.GetWritableByteArrayNode.pin(buffer);
+                            try {
+                                n = rawReadIntoNode.execute(frame, self, target, offset + written, remaining);
+                            } finally {
+                                BytesNodes.GetWritableByteArrayNode.unpin(buffer);
+                            }
                         } else {
-                            n = fill.length;
-                            memcpyNode.execute(frame, buffer, written, fill, 0, n);
+                            byte[] fill = rawReadNode.execute(frame, self, remaining);
+                            if (fill == BLOCKED) {
+                                n = -2;
+                            } else {
+                                n = fill.length;
+                                memcpyNode.execute(frame, buffer, written, fill, 0, n);
+                            }
                         }
                     } else if (!(isReadinto1Mode() && written != 0)) {
                         /*-
@@ -45,22 +45,31 @@ import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_CU
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.isValidReadBuffer;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.isValidWriteBuffer;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.rawOffset;
+import static com.oracle.graal.python.builtins.objects.exception.OSErrorEnum.EAGAIN;
 import static com.oracle.graal.python.nodes.ErrorMessages.IO_S_INVALID_LENGTH;
 import static com.oracle.graal.python.nodes.ErrorMessages.WRITE_COULD_NOT_COMPLETE_WITHOUT_BLOCKING;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
+import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.lib.PyNumberAsSizeNode;
+import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.Buffer;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.BranchProfile;
 
 public class BufferedWriterNodes {
 
@@ -84,6 +93,7 @@ public class BufferedWriterNodes {
                         @Cached IsBuiltinClassProfile isBuiltinClassProfile,
                         @Cached BufferedIONodes.RawSeekNode rawSeekNode,
                         @Cached RawWriteNode rawWriteNode,
+                        @Cached FlushAndWriteNode flushAndWriteNode,
                         @Cached FlushUnlockedNode flushUnlockedNode) {
             final int bufLen = buffer.length;
 
@@ -108,9 +118,17 @@ public class BufferedWriterNodes {
                 return bufLen;
             }
 
+            /*
+             * Data larger than the buffer goes straight to the raw stream. Try to write it together
+             * with the current buffer using a single writev.
+             */
+            int written = bufLen > self.getBufferSize() ? flushAndWriteNode.execute(frame, self, buffer) : -1;
             /* First write the current buffer */
             try {
-                flushUnlockedNode.execute(frame, self);
+                if (written < 0) {
+                    flushUnlockedNode.execute(frame, self);
+                    written = 0;
+                }
             } catch (PException e) {
                 e.expect(BlockingIOError, isBuiltinClassProfile);
                 if (self.isReadable()) {
@@ -157,8 +175,7 @@ public class BufferedWriterNodes {
             }
 
             /* Then write buf itself. At this point the buffer has been emptied. */
-            int remaining = bufLen;
-            int written = 0;
+            int remaining = bufLen - written;
             while (remaining > self.getBufferSize()) {
                 byte[] buf = PythonUtils.arrayCopyOfRange(buffer, written, buffer.length);
                 int n = rawWriteNode.execute(frame, self, buf, bufLen - written);
@@ -195,6 +212,68 @@ public class BufferedWriterNodes {
         }
     }
 
+    /**
+     * Writes the pending buffer contents followed by {@code buffer} with a single {@code writev}
+     * when the raw stream is a plain FileIO, so that neither a separate flush nor joining the two
+     * parts is needed. Returns the number of bytes of {@code buffer} written, or {@code -1} if the
+     * caller has to flush as usual. In that case some of the pending data may have been written
+     * already and the buffer state reflects that.
+     */
+    abstract static class FlushAndWriteNode extends PNodeWithRaise {
+
+        public abstract int execute(VirtualFrame frame, PBuffered self, byte[] buffer);
+
+        @Specialization(guards = "canWritev(self)")
+        static int writev(VirtualFrame frame, PBuffered self, byte[] buffer,
+                        @Cached PosixModuleBuiltins.WritevNode posixWritev,
+                        @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile,
+                        @Cached PConstructAndRaiseNode constructAndRaiseNode,
+                        @Cached GilNode gil) {
+            int pending = self.getWriteEnd();
+            // the GIL is released during the write, so other threads could modify the internal
+            // buffer; the pending part is at most one buffer size, the new data is not copied
+            Buffer[] buffers = new Buffer[]{Buffer.wrap(PythonUtils.arrayCopyOf(self.getBuffer(), pending)), Buffer.wrap(buffer)};
+            long n;
+            try {
+                n = posixWritev.writev(self.getFileIORaw().getFD(), buffers, posixLib, errorProfile, gil);
+            } catch (PosixException e) {
+                if (e.getErrorCode() == EAGAIN.getNumber()) {
+                    // let the regular path deal with non-blocking streams
+                    return -1;
+                }
+                throw constructAndRaiseNode.raiseOSError(frame, e.getErrorCode(), e.getMessage(), null, null);
+            }
+            if (self.getAbsPos() != -1) {
+                self.incAbsPos(n);
+            }
+            if (n < pending) {
+                self.incWritePos((int) n);
+                self.setRawPos(self.getWritePos());
+                return -1;
+            }
+            self.setRawPos(pending);
+            self.resetWrite(); // _bufferedwriter_reset_buf
+            return (int) (n - pending);
+        }
+
+        @Specialization(guards = "!canWritev(self)")
+        static int other(@SuppressWarnings("unused") PBuffered self, @SuppressWarnings("unused") byte[] buffer) {
+            return -1;
+        }
+
+        static boolean canWritev(PBuffered self) {
+            if (!self.isFastClosedChecks() || !isValidWriteBuffer(self)) {
+                return false;
+            }
+            PFileIO raw = self.getFileIORaw();
+            // the pending data must start at the beginning of the buffer and the raw stream
+            // position must be where it ends, i.e., no rewind is necessary
+            return !raw.isClosed() && raw.isWritable() && self.getWritePos() == 0 && self.getPos() == self.getWriteEnd() &&
+                            rawOffset(self) + (self.getPos() - self.getWritePos()) == 0;
+        }
+    }
+
     abstract static class RawWriteNode extends PNodeWithRaise {
 
         public abstract int execute(VirtualFrame frame, PBuffered self, byte[] buf, int len);
@@ -589,6 +589,8 @@ public class FileIOBuiltins extends PythonBuiltins {
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode getBytes,
                         @Cached SequenceStorageNodes.BytesMemcpyNode memcpyNode,
                         @Cached("createReadIntoArg()") BytesNodes.GetByteLengthIfWritableNode getLen,
+                        @Cached BytesNodes.GetWritableByteArrayNode getWritableArray,
+                        @Cached ConditionProfile directProfile,
                         @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
                         @Cached BranchProfile exceptionProfile,
                         @Cached GilNode gil) {
@@ -597,6 +599,17 @@ public class FileIOBuiltins extends PythonBuiltins {
                 return 0;
             }
             try {
+                byte[] target = getWritableArray.execute(buffer);
+                if (directProfile.profile(target != null)) {
+                    // read straight into the target's storage
+                    int offset = BytesNodes.GetWritableByteArrayNode.getArrayOffset(buffer);
+                    BytesNodes.GetWritableByteArrayNode.pin(buffer);
+                    try {
+                        return posixRead.readInto(self.getFD(), target, offset, size, posixLib, readErrorProfile, gil);
+                    } finally {
+                        BytesNodes.GetWritableByteArrayNode.unpin(buffer);
+                    }
+                }
                 PBytes data = posixRead.read(frame, self.getFD(), size, posixLib, readErrorProfile, gil);
                 byte[] buf = getBytes.execute(data.getSequenceStorage());
                 int n = buf.length;
@@ -40,7 +40,6 @@
  */
 package com.oracle.graal.python.builtins.modules.io;
 
-import com.oracle.graal.python.builtins.modules.ThreadModuleBuiltins;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -90,7 +89,15 @@ public class PBuffered extends PythonBuiltinObject {
     private int writeEnd;
 
     private PLock lock;
-    private long owner;
+    /* The thread inside a buffered operation, or null. */
+    private Thread owner;
+    /*
+     * Whether the owner actually acquired the lock. The lock is not taken while only a single
+     * thread runs Python code, see BufferedIONodes.EnterBufferedNode.
+     */
+    private boolean lockHeld;
+    /* A thread waiting for an owner that did not take the lock to leave, or null. */
+    private volatile Thread waiter;
 
     @CompilerDirectives.CompilationFinal private int bufferSize;
     @CompilerDirectives.CompilationFinal private int bufferMask;
@@ -273,15 +280,31 @@ public class PBuffered extends PythonBuiltinObject {
         this.lock = lock;
     }
 
-    public long getOwner() {
+    public Thread getOwner() {
         return owner;
     }
 
-    public void setOwner(long owner) {
+    public void setOwner(Thread owner) {
         this.owner = owner;
     }
 
     public boolean isOwn() {
-        return ThreadModuleBuiltins.GetCurrentThreadIdNode.getId() == owner;
+        return Thread.currentThread() == owner;
+    }
+
+    public boolean isLockHeld() {
+        return lockHeld;
+    }
+
+    public void setLockHeld(boolean lockHeld) {
+        this.lockHeld = lockHeld;
+    }
+
+    public Thread getWaiter() {
+        return waiter;
+    }
+
+    public void setWaiter(Thread waiter) {
+        this.waiter = waiter;
     }
 }
@@ -46,6 +46,8 @@ import static com.oracle.graal.python.builtins.objects.bytes.BytesUtils.toByteAr
 
 import java.io.ByteArrayOutputStream;
 import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
 
 import com.oracle.graal.python.builtins.objects.ints.IntBuiltins;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
@@ -53,6 +55,7 @@ import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.memory.ByteArraySupport;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.profiles.ConditionProfile;
@@ -105,6 +108,15 @@ public class PTextIO extends PTextIOBase {
     /* Cache raw object if it's a FileIO object */
     private PFileIO raw;
 
+    /*
+     * Charset of the encoding if it is one that readline can decode directly from the bytes of the
+     * buffer (see TextIOWrapperNodes.ReadlineFastNode), null otherwise.
+     */
+    private Charset fastCharset;
+    private CharsetDecoder fastDecoder;
+    /* True if the decoder is known not to hold any buffered input. */
+    private boolean decoderClean;
+
     public PTextIO(Object cls, Shape instanceShape) {
         super(cls, instanceShape);
         pendingBytes = createOutputStream();
@@ -122,6 +134,9 @@ public class PTextIO extends PTextIOBase {
         clearDecodedChars();
         clearPendingBytes();
         clearSnapshot();
+        fastCharset = null;
+        fastDecoder = null;
+        decoderClean = false;
         encodefunc = null;
         b2cratio = 0.0;
     }
@@ -334,6 +349,35 @@ public class PTextIO extends PTextIOBase {
         this.snapshotDecFlags = 0;
     }
 
+    public Charset getFastCharset() {
+        return fastCharset;
+    }
+
+    public void setFastCharset(Charset fastCharset) {
+        this.fastCharset = fastCharset;
+        this.fastDecoder = null;
+    }
+
+    /**
+     * Returns a decoder for the {@link #getFastCharset() fast charset} that reports malformed
+     * input. The decoder is reused for all lines.
+     */
+    @TruffleBoundary
+    public CharsetDecoder getFastDecoder() {
+        if (fastDecoder == null) {
+            fastDecoder = fastCharset.newDecoder();
+        }
+        return fastDecoder;
+    }
+
+    public boolean isDecoderClean() {
+        return decoderClean;
+    }
+
+    public void setDecoderClean(boolean decoderClean) {
+        this.decoderClean = decoderClean;
+    }
+
     public double getB2cratio() {
         return b2cratio;
     }
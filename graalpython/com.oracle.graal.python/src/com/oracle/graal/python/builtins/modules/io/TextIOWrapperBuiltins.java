@@ -407,6 +407,7 @@ public class TextIOWrapperBuiltins extends PythonBuiltins {
             /* Read everything */
             Object bytes = read.execute(frame, self.getBuffer());
             String decoded = decodeNode.execute(frame, self.getDecoder(), bytes, true);
+            self.setDecoderClean(false);
             StringBuilder result = getDecodedChars(self, -1);
             PythonUtils.append(result, decoded);
             self.clearDecodedChars();
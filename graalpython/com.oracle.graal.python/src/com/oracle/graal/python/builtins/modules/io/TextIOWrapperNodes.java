@@ -43,10 +43,18 @@ package com.oracle.graal.python.builtins.modules.io;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IOUnsupportedOperation;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PIncrementalNewlineDecoder;
 import static com.oracle.graal.python.builtins.modules.CodecsModuleBuiltins.STRICT;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.safeDowncast;
 import static com.oracle.graal.python.builtins.modules.io.IONodes.CLOSED;
+import static com.oracle.graal.python.builtins.modules.io.IONodes.NAME;
 import static com.oracle.graal.python.builtins.modules.io.IONodes.READ;
 import static com.oracle.graal.python.builtins.modules.io.IONodes.READ1;
+import static com.oracle.graal.python.builtins.modules.io.IncrementalNewlineDecoderBuiltins.SEEN_CR;
+import static com.oracle.graal.python.builtins.modules.io.IncrementalNewlineDecoderBuiltins.SEEN_CRLF;
+import static com.oracle.graal.python.builtins.modules.io.IncrementalNewlineDecoderBuiltins.SEEN_LF;
+import static com.oracle.graal.python.builtins.objects.bytes.BytesUtils.append;
+import static com.oracle.graal.python.builtins.objects.bytes.BytesUtils.createOutputStream;
 import static com.oracle.graal.python.builtins.objects.bytes.BytesUtils.getBytes;
+import static com.oracle.graal.python.builtins.objects.bytes.BytesUtils.toByteArray;
 import static com.oracle.graal.python.nodes.BuiltinNames.ASCII;
 import static com.oracle.graal.python.nodes.ErrorMessages.COULD_NOT_DETERMINE_DEFAULT_ENCODING;
 import static com.oracle.graal.python.nodes.ErrorMessages.DECODER_SHOULD_RETURN_A_STRING_RESULT_NOT_P;
@@ -61,6 +69,12 @@ import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
 import com.oracle.graal.python.builtins.modules.CodecsTruffleModuleBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
@@ -75,9 +89,11 @@ import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
@@ -290,9 +306,18 @@ public class TextIOWrapperNodes {
         @Specialization
         static String readline(VirtualFrame frame, PTextIO self, int limit,
                         @Cached ReadChunkNode readChunkNode,
-                        @Cached WriteFlushNode writeFlushNode) {
+                        @Cached WriteFlushNode writeFlushNode,
+                        @Cached ReadlineFastNode readlineFastNode,
+                        @Cached ConditionProfile fastProfile) {
             writeFlushNode.execute(frame, self);
 
+            if (fastProfile.profile(limit < 0 && ReadlineFastNode.isApplicable(self))) {
+                String fastLine = readlineFastNode.execute(frame, self);
+                if (fastLine != null) {
+                    return fastLine;
+                }
+            }
+
             int chunked = 0;
             int start, endpos, offsetToBuffer;
             StringBuilder line = null;
@@ -410,6 +435,253 @@ public class TextIOWrapperNodes {
         }
     }
 
+    /**
+     * Fast path of {@link ReadlineNode} for universal newlines mode with UTF-8, ASCII or Latin-1 on
+     * top of a vanilla {@link PBuffered} over a {@link PFileIO}. Since all line endings are ASCII,
+     * the line can be searched for in the bytes of the buffer and only the line itself is decoded,
+     * bypassing the incremental decoders. This is only possible while the decoder holds no input.
+     * Returns {@code null} if the fast path cannot be taken, in which case any bytes already
+     * consumed from the buffer have been passed to the decoder and the generic algorithm has to
+     * continue.
+     */
+    protected abstract static class ReadlineFastNode extends PNodeWithRaise {
+
+        public abstract String execute(VirtualFrame frame, PTextIO self);
+
+        static boolean isApplicable(PTextIO self) {
+            if (self.getFastCharset() == null || !self.isReadUniversal() || !(self.getDecoder() instanceof PNLDecoder) || !(self.getBuffer() instanceof PBuffered)) {
+                return false;
+            }
+            PBuffered buffered = (PBuffered) self.getBuffer();
+            return buffered.isOK() && !buffered.isDetached() && buffered.isReadable() && buffered.isFastClosedChecks();
+        }
+
+        @TruffleBoundary
+        static Charset getFastCharset(Object codecName) {
+            if (!(codecName instanceof String)) {
+                return null;
+            }
+            switch ((String) codecName) {
+                case "utf-8":
+                    return StandardCharsets.UTF_8;
+                case "ascii":
+                    return StandardCharsets.US_ASCII;
+                case "iso8859-1":
+                case "latin-1":
+                    return StandardCharsets.ISO_8859_1;
+                default:
+                    return null;
+            }
+        }
+
+        @Specialization
+        static String readline(VirtualFrame frame, PTextIO self,
+                        @Cached IONodes.CallGetState getState,
+                        @Cached SequenceNodes.GetObjectArrayNode getArray,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib,
+                        @Cached BufferedIONodes.EnterBufferedNode lock,
+                        @Cached BufferedIONodes.FlushAndRewindUnlockedNode flushAndRewindUnlockedNode,
+                        @Cached BufferedReaderMixinBuiltins.FillBufferNode fillBufferNode,
+                        @Cached DecodeNode decodeNode,
+                        @Cached PythonObjectFactory factory,
+                        @Cached ConditionProfile inBufferProfile,
+                        @Cached ConditionProfile malformedProfile) {
+            if (self.hasDecodedChars() && self.getDecodedCharsUsed() < self.getDecodedChars().length()) {
+                return null;
+            }
+            if (!self.isDecoderClean()) {
+                /* The generic algorithm has used the decoder, check that nothing is left in it */
+                if (!isDecoderAtSnapshotPoint(frame, self, getState, getArray, asSizeNode, lib)) {
+                    return null;
+                }
+                self.setDecoderClean(true);
+            }
+            self.clearDecodedChars();
+
+            PBuffered buffered = (PBuffered) self.getBuffer();
+            PNLDecoder decoder = (PNLDecoder) self.getDecoder();
+            byte[] line;
+            int lineStart;
+            int lineEnd;
+            int newline = 0;
+            lock.enter(buffered);
+            try {
+                if (buffered.isWritable()) {
+                    flushAndRewindUnlockedNode.execute(frame, buffered);
+                }
+                ByteArrayOutputStream chunks = null;
+                while (true) {
+                    int n = safeDowncast(buffered);
+                    if (n == 0) {
+                        buffered.resetRead(); // _bufferedreader_reset_buf
+                        n = fillBufferNode.execute(frame, buffered);
+                        buffered.setPos(0);
+                        if (n <= 0) {
+                            if (n < 0 && chunks != null) {
+                                /* non-blocking stream without data, let the decoder keep what we have */
+                                feedDecoder(frame, self, toByteArray(chunks), decodeNode, factory);
+                                return null;
+                            } else if (n < 0) {
+                                return null;
+                            }
+                            /* end of file */
+                            line = chunks == null ? PythonUtils.EMPTY_BYTE_ARRAY : toByteArray(chunks);
+                            lineStart = 0;
+                            lineEnd = line.length;
+                            break;
+                        }
+                    }
+                    byte[] buf = buffered.getBuffer();
+                    int start = buffered.getPos();
+                    int end = start + n;
+                    int eol = findNewline(buf, start, end);
+                    if (eol == -1) {
+                        /* no line ending yet - put aside the current data */
+                        if (chunks == null) {
+                            chunks = createOutputStream();
+                        }
+                        append(chunks, buf, start, n);
+                        buffered.setPos(end);
+                        continue;
+                    }
+                    if (buf[eol] == '\n') {
+                        newline = SEEN_LF;
+                        eol++;
+                    } else if (eol + 1 < end) {
+                        newline = buf[eol + 1] == '\n' ? SEEN_CRLF : SEEN_CR;
+                        eol += newline == SEEN_CRLF ? 2 : 1;
+                    } else {
+                        /* \r at the end of the buffer, we need to look at the next byte */
+                        if (chunks == null) {
+                            chunks = createOutputStream();
+                        }
+                        append(chunks, buf, start, n);
+                        buffered.resetRead();
+                        n = fillBufferNode.execute(frame, buffered);
+                        buffered.setPos(0);
+                        if (n < 0) {
+                            /* non-blocking stream without data, the \r may still be part of \r\n */
+                            feedDecoder(frame, self, toByteArray(chunks), decodeNode, factory);
+                            return null;
+                        }
+                        newline = SEEN_CR;
+                        if (n > 0&& buffered.getBuffer()[0] == '\n') {
+                            newline = SEEN_CRLF;
+                            append(chunks, buffered.getBuffer(), 0, 1);
+                            buffered.setPos(1);
+                        }
+                        line = toByteArray(chunks);
+                        lineStart = 0;
+                        lineEnd = line.length;
+                        break;
+                    }
+                    buffered.setPos(eol);
+                    if (inBufferProfile.profile(chunks == null)) {
+                        line = buf;
+                        lineStart = start;
+                        lineEnd = eol;
+                    } else {
+                        append(chunks, buf, start, eol - start);
+                        line = toByteArray(chunks);
+                        lineStart = 0;
+                        lineEnd = line.length;
+                    }
+                    break;
+                }
+            } finally {
+                BufferedIONodes.EnterBufferedNode.leave(buffered);
+            }
+
+            String result = decodeLine(self, line, lineStart, lineEnd, decoder.isTranslate() ? newline : 0);
+            if (malformedProfile.profile(result == null)) {
+                /* let the decoder deal with the bytes (and report errors) */
+                feedDecoder(frame, self, PythonUtils.arrayCopyOfRange(line, lineStart, lineEnd), decodeNode, factory);
+                return null;
+            }
+            decoder.setSeenNewline(decoder.getSeenNewline() | newline);
+            /* The decoder is empty, so the position of the buffer is the position of the text */
+            self.clearSnapshot();
+            return result;
+        }
+
+        private static boolean isDecoderAtSnapshotPoint(VirtualFrame frame, PTextIO self, IONodes.CallGetState getState, SequenceNodes.GetObjectArrayNode getArray,
+                        PyNumberAsSizeNode asSizeNode, PythonObjectLibrary lib) {
+            Object state = getState.execute(frame, self.getDecoder());
+            if (!(state instanceof PTuple)) {
+                return false;
+            }
+            Object[] array = getArray.execute(state);
+            if (array.length < 2 || !lib.isBuffer(array[0])) {
+                return false;
+            }
+            try {
+                return lib.getBufferLength(array[0]) == 0 && asSizeNode.executeExact(frame, array[1]) == 0;
+            } catch (UnsupportedMessageException e) {
+                return false;
+            }
+        }
+
+        private static void feedDecoder(VirtualFrame frame, PTextIO self, byte[] bytes, DecodeNode decodeNode, PythonObjectFactory factory) {
+            if (self.isTelling()) {
+                /* the decoder was empty before these bytes, see ReadChunkNode */
+                self.setSnapshotNextInput(bytes);
+                self.setSnapshotDecFlags(0);
+            }
+            String decoded = decodeNode.execute(frame, self.getDecoder(), factory.createBytes(bytes), false);
+            self.setDecoderClean(false);
+            setDecodedChars(self, decoded);
+        }
+
+        private static int findNewline(byte[] buf, int start, int end) {
+            for (int i = start; i < end; i++) {
+                byte b = buf[i];
+                if (b == '\n' || b == '\r') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Decodes {@code line[start:end]}, translating the line ending of the given kind to
+         * {@code \n} if it is not {@code 0}. Returns {@code null} if the bytes are not valid in the
+         * encoding.
+         */
+        @TruffleBoundary
+        private static String decodeLine(PTextIO self, byte[] line, int start, int end, int translateNewline) {
+            int bodyEnd = end;
+            if (translateNewline == SEEN_CRLF) {
+                bodyEnd -= 2;
+            } else if (translateNewline == SEEN_CR) {
+                bodyEnd -= 1;
+            }
+            String body;
+            Charset charset = self.getFastCharset();
+            if (charset == StandardCharsets.ISO_8859_1 || isAscii(line, start, bodyEnd)) {
+                body = new String(line, start, bodyEnd - start, StandardCharsets.ISO_8859_1);
+            } else if (charset == StandardCharsets.US_ASCII) {
+                return null;
+            } else {
+                try {
+                    body = self.getFastDecoder().decode(ByteBuffer.wrap(line, start, bodyEnd - start)).toString();
+                } catch (CharacterCodingException e) {
+                    return null;
+                }
+            }
+            return bodyEnd == end ? body : body + "\n";
+        }
+
+        private static boolean isAscii(byte[] bytes, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (bytes[i] < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     /*
      * cpython/Modules/_io/textio.c:textiowrapper_read_chunk
      */
@@ -483,6 +755,7 @@ public class TextIOWrapperNodes {
             boolean eof = nbytes == 0;
 
             String decodedChars = decodeNode.execute(frame, self.getDecoder(), inputChunk, eof);
+            self.setDecoderClean(false);
 
             self.clearDecodedChars();
             self.appendDecodedChars(decodedChars);
@@ -559,6 +832,7 @@ public class TextIOWrapperNodes {
                         @Cached BranchProfile notString,
                         @Cached IONodes.CallDecode decode) {
             Object decoded = decode.execute(frame, self.getDecoder(), o, isFinal);
+            self.setDecoderClean(false);
             try {
                 return toString.execute(decoded);
             } catch (CannotCastException e) {
@@ -592,6 +866,7 @@ public class TextIOWrapperNodes {
         static void atInit(VirtualFrame frame, PTextIO self, @SuppressWarnings("unused") PTextIO.CookieType cookie, @SuppressWarnings("unused") PythonObjectFactory factory,
                         @Cached IONodes.CallReset reset) {
             reset.execute(frame, self.getDecoder());
+            self.setDecoderClean(false);
         }
 
         @Specialization(guards = {"self.hasDecoder()", "!isAtInit(cookie)"})
@@ -599,6 +874,7 @@ public class TextIOWrapperNodes {
                         @Cached IONodes.CallSetState setState) {
             PTuple tuple = factory.createTuple(new Object[]{factory.createBytes(PythonUtils.EMPTY_BYTE_ARRAY), cookie.decFlags});
             setState.execute(frame, self.getDecoder(), tuple);
+            self.setDecoderClean(false);
 
         }
     }
@@ -678,6 +954,7 @@ public class TextIOWrapperNodes {
                         @Cached IONodes.CallReadable readable,
                         @CachedLibrary(limit = "2") PythonObjectLibrary lib,
                         @Cached PythonObjectFactory factory) {
+            self.setFastCharset(null);
             Object res = readable.execute(frame, self.getBuffer());
             if (isTrueProfile.profile(!lib.isTrue(res, frame))) {
                 return;
@@ -687,9 +964,11 @@ public class TextIOWrapperNodes {
                 PNLDecoder incDecoder = factory.createNLDecoder(PIncrementalNewlineDecoder);
                 IncrementalNewlineDecoderBuiltins.InitNode.internalInit(incDecoder, decoder, self.isReadTranslate());
                 self.setDecoder(incDecoder);
+                self.setFastCharset(ReadlineFastNode.getFastCharset(lib.lookupAttribute(codecInfo, frame, NAME)));
             } else {
                 self.setDecoder(decoder);
             }
+            self.setDecoderClean(true);
         }
     }
 
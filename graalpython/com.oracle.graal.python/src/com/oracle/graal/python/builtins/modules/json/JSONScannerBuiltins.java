@@ -23,6 +23,7 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
 import com.oracle.graal.python.builtins.objects.floats.FloatUtils;
+import com.oracle.graal.python.builtins.objects.ints.DecimalConversion;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.PRaiseNode;
@@ -35,6 +36,7 @@ import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.statement.AbstractImportNode;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+import com.oracle.graal.python.util.StringInterner;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
@@ -130,9 +132,10 @@ public class JSONScannerBuiltins extends PythonBuiltins {
                         throw decodeError(raiseNode, string, idx, "Expecting property name enclosed in double quotes");
                     }
                     String newKey = scanStringUnicode(string, idx + 1, scanner.strict, nextIdx, raiseNode);
-                    String key = scanner.memo.putIfAbsent(newKey, newKey);
+                    String key = scanner.memo.get(newKey);
                     if (key == null) {
-                        key = newKey;
+                        key = StringInterner.internIfIdentifier(newKey);
+                        scanner.memo.put(key, key);
                     }
                     idx = nextIdx.value;
 
@@ -335,8 +338,12 @@ public class JSONScannerBuiltins extends PythonBuiltins {
                     if (rval != null) {
                         return rval;
                     }
-                    String numStr = string.substring(start, idx);
-                    BigInteger bi = new BigInteger(numStr);
+                    BigInteger bi;
+                    if (string.charAt(start) == '-') {
+                        bi = DecimalConversion.parse(string, start + 1, idx).negate();
+                    } else {
+                        bi = DecimalConversion.parse(string, start, idx);
+                    }
                     try {
                         return bi.intValueExact();
                     } catch (ArithmeticException e) {
@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.select;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLOUT;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLPRI;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_ADD;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_DEL;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_MOD;
+import static com.oracle.graal.python.runtime.PosixConstants.FD_SETSIZE;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLIN;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.FileDescriptorConversionNode;
+import com.oracle.graal.python.builtins.modules.SelectModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.SelectModuleBuiltins.PyTimeFromObjectNode;
+import com.oracle.graal.python.builtins.modules.select.EpollBuiltinsClinicProviders.FromFdNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.select.EpollBuiltinsClinicProviders.ModifyNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.select.EpollBuiltinsClinicProviders.PollNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.select.EpollBuiltinsClinicProviders.RegisterNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.select.EpollBuiltinsClinicProviders.UnregisterNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.EmulatedPosixSupport;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PEpoll)
+public class EpollBuiltins extends PythonBuiltins {
+
+    static int getDefaultEvents() {
+        return EPOLLIN.getValueIfDefined() | EPOLLPRI.getValueIfDefined() | EPOLLOUT.getValueIfDefined();
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return EpollBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Emulated sockets cannot be registered with a native epoll instance, so they go to a separate
+     * emulated one.
+     */
+    static boolean isEmulatedSocket(PythonContext context, PosixSupportLibrary posixLib, int fd) {
+        return context.getResources().isSocket(fd) && !"java".equals(posixLib.getBackend(context.getPosixSupport()));
+    }
+
+    @TruffleBoundary
+    static int getOrCreateEmulatedEpfd(PythonContext context, PEpoll self) throws PosixException {
+        if (self.getEmulatedEpfd() < 0) {
+            self.setEmulatedEpfd(PosixSupportLibrary.getUncached().epollCreate(context.getResources()));
+        }
+        return self.getEmulatedEpfd();
+    }
+
+    @Builtin(name = "register", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd", "eventmask"})
+    @ArgumentClinic(name = "fd", conversionClass = FileDescriptorConversionNode.class)
+    @ArgumentClinic(name = "eventmask", conversion = ClinicConversion.Long, defaultValue = "EpollBuiltins.getDefaultEvents()")
+    @GenerateNodeFactory
+    abstract static class RegisterNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return RegisterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone register(VirtualFrame frame, PEpoll self, int fd, long eventmask,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.IO_OPERATION_ON_CLOSED_EPOLL);
+            }
+            PythonContext context = getContext();
+            try {
+                if (isEmulatedSocket(context, posixLib, fd)) {
+                    int emulatedEpfd = getOrCreateEmulatedEpfd(context, self);
+                    PosixSupportLibrary.getUncached().epollCtl(context.getResources(), emulatedEpfd, EPOLL_CTL_ADD.getValueIfDefined(), fd, (int) eventmask);
+                    self.addEmulatedFd(fd);
+                } else {
+                    posixLib.epollCtl(getPosixSupport(), self.getEpfd(), EPOLL_CTL_ADD.getValueIfDefined(), fd, (int) eventmask);
+                    self.incNativeFdCount();
+                }
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "modify", minNumOfPositionalArgs = 3, parameterNames = {"$self", "fd", "eventmask"})
+    @ArgumentClinic(name = "fd", conversionClass = FileDescriptorConversionNode.class)
+    @ArgumentClinic(name = "eventmask", conversion = ClinicConversion.Long)
+    @GenerateNodeFactory
+    abstract static class ModifyNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ModifyNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone modify(VirtualFrame frame, PEpoll self, int fd, long eventmask,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.IO_OPERATION_ON_CLOSED_EPOLL);
+            }
+            try {
+                if (self.isEmulatedFd(fd)) {
+                    PosixSupportLibrary.getUncached().epollCtl(getContext().getResources(), self.getEmulatedEpfd(), EPOLL_CTL_MOD.getValueIfDefined(), fd, (int) eventmask);
+                } else {
+                    posixLib.epollCtl(getPosixSupport(), self.getEpfd(), EPOLL_CTL_MOD.getValueIfDefined(), fd, (int) eventmask);
+                }
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unregister", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd"})
+    @ArgumentClinic(name = "fd", conversionClass = FileDescriptorConversionNode.class)
+    @GenerateNodeFactory
+    abstract static class UnregisterNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnregisterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone unregister(VirtualFrame frame, PEpoll self, int fd,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.IO_OPERATION_ON_CLOSED_EPOLL);
+            }
+            try {
+                if (self.isEmulatedFd(fd)) {
+                    PosixSupportLibrary.getUncached().epollCtl(getContext().getResources(), self.getEmulatedEpfd(), EPOLL_CTL_DEL.getValueIfDefined(), fd, 0);
+                    self.removeEmulatedFd(fd);
+                } else {
+                    posixLib.epollCtl(getPosixSupport(), self.getEpfd(), EPOLL_CTL_DEL.getValueIfDefined(), fd, 0);
+                    self.decNativeFdCount();
+                }
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "poll", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout", "maxevents"})
+    @ArgumentClinic(name = "maxevents", conversion = ClinicConversion.Int, defaultValue = "-1")
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PollNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PList poll(VirtualFrame frame, PEpoll self, Object timeout, int maxevents,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PyTimeFromObjectNode pyTimeFromObjectNode,
+                        @Cached GilNode gil) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.IO_OPERATION_ON_CLOSED_EPOLL);
+            }
+            int timeoutMs = -1;
+            if (!PGuards.isPNone(timeout)) {
+                long ms = SelectModuleBuiltins.timeoutAsMilliseconds(pyTimeFromObjectNode.execute(frame, timeout, SelectModuleBuiltins.SEC_TO_NS));
+                if (ms > Integer.MAX_VALUE) {
+                    throw raise(PythonBuiltinClassType.OverflowError, ErrorMessages.TIMEOUT_IS_TOO_LARGE);
+                }
+                timeoutMs = (int) ms;
+            }
+            int maxEventsCount = maxevents;
+            if (maxEventsCount == -1) {
+                maxEventsCount = FD_SETSIZE.value - 1;
+            } else if (maxEventsCount < 1) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.MAXEVENTS_MUST_BE_GREATER_THAN_ZERO, maxevents);
+            }
+            int[] fds = new int[maxEventsCount];
+            int[] events = new int[maxEventsCount];
+            int count;
+            try {
+                gil.release(true);
+                try {
+                    if (!self.hasEmulatedFds()) {
+                        count = posixLib.epollWait(getPosixSupport(), self.getEpfd(), fds, events, timeoutMs);
+                    } else if (!self.hasNativeFds()) {
+                        count = PosixSupportLibrary.getUncached().epollWait(getContext().getResources(), self.getEmulatedEpfd(), fds, events, timeoutMs);
+                    } else {
+                        count = waitMixed(getContext(), self, fds, events, timeoutMs);
+                    }
+                } finally {
+                    gil.acquire();
+                }
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            Object[] result = new Object[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = factory().createTuple(new Object[]{fds[i], events[i] & 0xFFFFFFFFL});
+            }
+            return factory().createList(result);
+        }
+
+        /**
+         * Waits on the emulated epoll instance and, through {@link MixedWait}, on the native one,
+         * whose fd becomes readable when any of its fds is ready.
+         */
+        @TruffleBoundary
+        private static int waitMixed(PythonContext context, PEpoll self, int[] fds, int[] events, int timeoutMs) throws PosixException {
+            PosixSupportLibrary posixLib = PosixSupportLibrary.getUncached();
+            EmulatedPosixSupport emulatedPosixSupport = context.getResources();
+            int emulatedEpfd = self.getEmulatedEpfd();
+            int count = posixLib.epollWait(emulatedPosixSupport, emulatedEpfd, fds, events, 0);
+            count = collectNative(context, self, fds, events, count);
+            if (count > 0 || timeoutMs == 0) {
+                return count;
+            }
+            MixedWait<Integer> wait = MixedWait.await(context, new int[]{self.getEpfd()}, new int[]{POLLIN.value}, timeoutMs,
+                            t -> posixLib.epollWait(emulatedPosixSupport, emulatedEpfd, fds, events, t));
+            return collectNative(context, self, fds, events, wait.emulatedResult);
+        }
+
+        private static int collectNative(PythonContext context, PEpoll self, int[] fds, int[] events, int count) throws PosixException {
+            if (count == fds.length) {
+                return count;
+            }
+            int[] nativeFds = new int[fds.length - count];
+            int[] nativeEvents = new int[nativeFds.length];
+            int nativeCount = PosixSupportLibrary.getUncached().epollWait(context.getPosixSupport(), self.getEpfd(), nativeFds, nativeEvents, 0);
+            System.arraycopy(nativeFds, 0, fds, count, nativeCount);
+            System.arraycopy(nativeEvents, 0, events, count, nativeCount);
+            return count + nativeCount;
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        PNone close(VirtualFrame frame, PEpoll self,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (!self.isClosed()) {
+                int epfd = self.getEpfd();
+                int emulatedEpfd = self.getEmulatedEpfd();
+                self.markClosed();
+                if (emulatedEpfd >= 0) {
+                    closeEmulated(getContext().getResources(), emulatedEpfd);
+                }
+                try {
+                    posixLib.close(getPosixSupport(), epfd);
+                } catch (PosixException e) {
+                    throw raiseOSErrorFromPosixException(frame, e);
+                }
+            }
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private static void closeEmulated(EmulatedPosixSupport resources, int emulatedEpfd) {
+            resources.closeEmulatedChannel(emulatedEpfd);
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static boolean closed(PEpoll self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = "fileno", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FilenoNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        int fileno(PEpoll self) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.IO_OPERATION_ON_CLOSED_EPOLL);
+            }
+            return self.getEpfd();
+        }
+    }
+
+    @Builtin(name = "fromfd", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "fd"}, isClassmethod = true)
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class FromFdNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return FromFdNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PEpoll fromfd(Object cls, int fd) {
+            return factory().createEpoll(cls, fd);
+        }
+    }
+
+    @Builtin(name = __ENTER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EnterNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        PEpoll enter(PEpoll self) {
+            if (self.isClosed()) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.IO_OPERATION_ON_CLOSED_EPOLL);
+            }
+            return self;
+        }
+    }
+
+    @Builtin(name = __EXIT__, minNumOfPositionalArgs = 1, takesVarArgs = true)
+    @GenerateNodeFactory
+    abstract static class ExitNode extends PythonBuiltinNode {
+        protected static final String CLOSE = "close";
+
+        @Specialization
+        static Object exit(VirtualFrame frame, PEpoll self, @SuppressWarnings("unused") Object[] args,
+                        @Cached("create(CLOSE)") LookupAndCallUnaryNode callCloseNode) {
+            return callCloseNode.executeObject(frame, self);
+        }
+    }
+}
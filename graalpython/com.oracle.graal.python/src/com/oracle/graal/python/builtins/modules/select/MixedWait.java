@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.select;
+
+import static com.oracle.graal.python.runtime.PosixConstants.POLLIN;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.Buffer;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+
+/**
+ * Waits for emulated sockets and native file descriptors at the same time. No single call can wait
+ * for both, so a helper thread waits for the sockets while the calling thread polls the native file
+ * descriptors together with a wakeup pipe. The helper writes to the pipe when its wait returns, and
+ * the calling thread interrupts the helper, which ends its selector wait, when the native poll
+ * returns first. The caller must not hold the GIL.
+ */
+final class MixedWait<T> {
+
+    @FunctionalInterface
+    interface EmulatedWait<T> {
+        T await(int timeoutMs) throws PosixException;
+    }
+
+    /** The revents of the native file descriptors. */
+    final int[] nativeRevents;
+    /** The result of the wait for the emulated sockets. */
+    final T emulatedResult;
+
+    private MixedWait(int[] nativeRevents, T emulatedResult) {
+        this.nativeRevents = nativeRevents;
+        this.emulatedResult = emulatedResult;
+    }
+
+    @TruffleBoundary
+    static <T> MixedWait<T> await(PythonContext context, int[] nativeFds, int[] nativeEvents, int timeoutMs, EmulatedWait<T> emulatedWait) throws PosixException {
+        PosixSupportLibrary posixLib = PosixSupportLibrary.getUncached();
+        Object posixSupport = context.getPosixSupport();
+        int[] wakeup = posixLib.pipe(posixSupport);
+        try {
+            Helper<T> helper = new Helper<>(posixLib, posixSupport, wakeup[1], emulatedWait, timeoutMs);
+            Env env = context.getEnv();
+            Thread thread = env.createThread(helper, null, context.getThreadGroup());
+            thread.start();
+            int n = nativeFds.length;
+            int[] fds = Arrays.copyOf(nativeFds, n + 1);
+            int[] events = Arrays.copyOf(nativeEvents, n + 1);
+            fds[n] = wakeup[0];
+            events[n] = POLLIN.value;
+            int[] revents;
+            try {
+                revents = posixLib.poll(posixSupport, fds, events, timeoutMs);
+            } finally {
+                thread.interrupt();
+                joinUninterruptibly(thread);
+            }
+            if (helper.exception != null) {
+                throw helper.exception;
+            }
+            return new MixedWait<>(Arrays.copyOf(revents, n), helper.result);
+        } finally {
+            closeQuietly(posixLib, posixSupport, wakeup[0]);
+            closeQuietly(posixLib, posixSupport, wakeup[1]);
+        }
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(PosixSupportLibrary posixLib, Object posixSupport, int fd) {
+        try {
+            posixLib.close(posixSupport, fd);
+        } catch (PosixException e) {
+            // nothing to do, the pipe is not used anymore
+        }
+    }
+
+    private static final class Helper<T> implements Runnable {
+        private final PosixSupportLibrary posixLib;
+        private final Object posixSupport;
+        private final int wakeupFd;
+        private final EmulatedWait<T> emulatedWait;
+        private final int timeoutMs;
+        T result;
+        PosixException exception;
+
+        Helper(PosixSupportLibrary posixLib, Object posixSupport, int wakeupFd, EmulatedWait<T> emulatedWait, int timeoutMs) {
+            this.posixLib = posixLib;
+            this.posixSupport = posixSupport;
+            this.wakeupFd = wakeupFd;
+            this.emulatedWait = emulatedWait;
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result = emulatedWait.await(timeoutMs);
+            } catch (PosixException e) {
+                exception = e;
+            } finally {
+                try {
+                    posixLib.write(posixSupport, wakeupFd, Buffer.wrap(new byte[1]));
+                } catch (PosixException e) {
+                    // the calling thread still returns when its timeout expires
+                }
+            }
+        }
+    }
+}
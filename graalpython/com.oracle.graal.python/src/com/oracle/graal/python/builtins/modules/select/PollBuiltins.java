@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.select;
+
+import static com.oracle.graal.python.runtime.PosixConstants.POLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLOUT;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLPRI;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.FileDescriptorConversionNode;
+import com.oracle.graal.python.builtins.modules.SelectModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.SelectModuleBuiltins.PyTimeFromObjectNode;
+import com.oracle.graal.python.builtins.modules.select.PollBuiltinsClinicProviders.ModifyNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.select.PollBuiltinsClinicProviders.RegisterNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.modules.select.PollBuiltinsClinicProviders.UnregisterNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.EmulatedPosixSupport;
+import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PPoll)
+public class PollBuiltins extends PythonBuiltins {
+
+    static int getDefaultEvents() {
+        return POLLIN.value | POLLPRI.value | POLLOUT.value;
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PollBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "register", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd", "eventmask"})
+    @ArgumentClinic(name = "fd", conversionClass = FileDescriptorConversionNode.class)
+    @ArgumentClinic(name = "eventmask", conversion = ClinicConversion.Int, defaultValue = "PollBuiltins.getDefaultEvents()")
+    @GenerateNodeFactory
+    abstract static class RegisterNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return RegisterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static PNone register(PPoll self, int fd, int eventmask) {
+            self.register(fd, eventmask & 0xFFFF);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "modify", minNumOfPositionalArgs = 3, parameterNames = {"$self", "fd", "eventmask"})
+    @ArgumentClinic(name = "fd", conversionClass = FileDescriptorConversionNode.class)
+    @ArgumentClinic(name = "eventmask", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class ModifyNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ModifyNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone modify(VirtualFrame frame, PPoll self, int fd, int eventmask) {
+            if (!self.modify(fd, eventmask & 0xFFFF)) {
+                throw raiseOSError(frame, OSErrorEnum.ENOENT);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unregister", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd"})
+    @ArgumentClinic(name = "fd", conversionClass = FileDescriptorConversionNode.class)
+    @GenerateNodeFactory
+    abstract static class UnregisterNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnregisterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone unregister(PPoll self, int fd) {
+            if (!self.unregister(fd)) {
+                throw raise(PythonBuiltinClassType.KeyError, "%d", fd);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "poll", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout"})
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PList poll(VirtualFrame frame, PPoll self, Object timeout,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached PyTimeFromObjectNode pyTimeFromObjectNode,
+                        @Cached GilNode gil) {
+            int timeoutMs = -1;
+            if (!PGuards.isPNone(timeout)) {
+                long ms = SelectModuleBuiltins.timeoutAsMilliseconds(pyTimeFromObjectNode.execute(frame, timeout, SelectModuleBuiltins.MS_TO_NS));
+                if (ms > Integer.MAX_VALUE) {
+                    throw raise(PythonBuiltinClassType.OverflowError, ErrorMessages.TIMEOUT_IS_TOO_LARGE);
+                }
+                timeoutMs = (int) ms;
+            }
+            if (self.polling) {
+                throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.CONCURRENT_POLL_INVOCATION);
+            }
+            int[] fds = self.getFds();
+            int[] events = self.getEvents();
+            // sockets are always emulated, even with the native backend, which would report them as
+            // POLLNVAL
+            EmulatedPosixSupport emulatedPosixSupport = getContext().getResources();
+            int socketCount = 0;
+            for (int fd : fds) {
+                if (EpollBuiltins.isEmulatedSocket(getContext(), posixLib, fd)) {
+                    socketCount++;
+                }
+            }
+            int[] revents;
+            self.polling = true;
+            try {
+                gil.release(true);
+                try {
+                    if (socketCount == 0) {
+                        revents = posixLib.poll(getPosixSupport(), fds, events, timeoutMs);
+                    } else if (socketCount == fds.length) {
+                        revents = PosixSupportLibrary.getUncached().poll(emulatedPosixSupport, fds, events, timeoutMs);
+                    } else {
+                        revents = pollMixed(getContext(), fds, events, socketCount, timeoutMs);
+                    }
+                } finally {
+                    gil.acquire();
+                }
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            } finally {
+                self.polling = false;
+            }
+            int count = 0;
+            for (int r : revents) {
+                if (r != 0) {
+                    count++;
+                }
+            }
+            Object[] result = new Object[count];
+            int idx = 0;
+            for (int i = 0; i < fds.length; i++) {
+                if (revents[i] != 0) {
+                    result[idx++] = factory().createTuple(new Object[]{fds[i], revents[i] & 0xFFFF});
+                }
+            }
+            return factory().createList(result);
+        }
+
+        /**
+         * Polls sockets with the emulated backend and the other fds with the native one, see
+         * {@link MixedWait}.
+         */
+        @TruffleBoundary
+        private static int[] pollMixed(PythonContext context, int[] fds, int[] events, int socketCount, int timeoutMs) throws PosixException {
+            EmulatedPosixSupport emulatedPosixSupport = context.getResources();
+            int[] socketIdx = new int[socketCount];
+            int[] nativeIdx = new int[fds.length - socketCount];
+            for (int i = 0, s = 0, n = 0; i < fds.length; i++) {
+                if (emulatedPosixSupport.isSocket(fds[i])) {
+                    socketIdx[s++] = i;
+                } else {
+                    nativeIdx[n++] = i;
+                }
+            }
+            int[] socketFds = select(fds, socketIdx);
+            int[] socketEvents = select(events, socketIdx);
+            int[] nativeFds = select(fds, nativeIdx);
+            int[] nativeEvents = select(events, nativeIdx);
+            PosixSupportLibrary posixLib = PosixSupportLibrary.getUncached();
+            int[] revents = new int[fds.length];
+            // an fd that is ready right away does not need the helper thread
+            boolean ready = merge(revents, nativeIdx, posixLib.poll(context.getPosixSupport(), nativeFds, nativeEvents, 0));
+            ready |= merge(revents, socketIdx, posixLib.poll(emulatedPosixSupport, socketFds, socketEvents, 0));
+            if (ready || timeoutMs == 0) {
+                return revents;
+            }
+            MixedWait<int[]> wait = MixedWait.await(context, nativeFds, nativeEvents, timeoutMs, t -> posixLib.poll(emulatedPosixSupport, socketFds, socketEvents, t));
+            merge(revents, nativeIdx, wait.nativeRevents);
+            merge(revents, socketIdx, wait.emulatedResult);
+            return revents;
+        }
+
+        private static int[] select(int[] values, int[] indices) {
+            int[] result = new int[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                result[i] = values[indices[i]];
+            }
+            return result;
+        }
+
+        private static boolean merge(int[] revents, int[] indices, int[] partial) {
+            boolean ready = false;
+            for (int i = 0; i < indices.length; i++) {
+                revents[indices[i]] = partial[i];
+                ready |= partial[i] != 0;
+            }
+            return ready;
+        }
+    }
+}
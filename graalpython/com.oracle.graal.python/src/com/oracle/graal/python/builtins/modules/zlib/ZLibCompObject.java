@@ -44,12 +44,14 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ZlibCompre
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ZlibDecompress;
 import static com.oracle.graal.python.builtins.modules.zlib.ZLibModuleBuiltins.MAX_WBITS;
 
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -74,6 +76,7 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
 
         private NFIZlibSupport.Pointer pointer;
         Object lastInput;
+        private final ReentrantLock lock = new ReentrantLock();
 
         public NativeZlibCompObject(Object cls, Shape instanceShape, Object zst, NFIZlibSupport zlibSupport) {
             super(cls, instanceShape);
@@ -86,6 +89,25 @@ public abstract class ZLibCompObject extends PythonBuiltinObject {
             return pointer.getReference();
         }
 
+        /**
+         * Locks the stream for the current thread. The owner may run zlib with the GIL released, so
+         * like {@code ENTER_ZLIB} in CPython we only wait for the lock without the GIL.
+         */
+        @TruffleBoundary
+        @SuppressWarnings("try")
+        public void lock() {
+            if (!lock.tryLock()) {
+                try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                    lock.lock();
+                }
+            }
+        }
+
+        @TruffleBoundary
+        public void unlock() {
+            lock.unlock();
+        }
+
         @TruffleBoundary
         public void markReleased() {
             if (isInitialized) {
@@ -81,6 +81,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuilti
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentCastNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -587,17 +588,22 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
         }
 
         @CompilerDirectives.TruffleBoundary
+        @SuppressWarnings("try")
         byte[] javaCompress(byte[] array, int level) {
             Deflater compresser = new Deflater(level);
             compresser.setInput(array);
             compresser.finish();
             byte[] resultArray = new byte[DEF_BUF_SIZE];
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            while (!compresser.finished()) {
-                int howmany = compresser.deflate(resultArray);
-                baos.write(resultArray, 0, howmany);
+            // the array is a copy, so other threads may run while we compress it
+            try (GilNode.UncachedRelease gil = GilNode.uncachedReleaseIf(array.length >= GilNode.RELEASE_GIL_MIN_SIZE)) {
+                while (!compresser.finished()) {
+                    int howmany = compresser.deflate(resultArray);
+                    baos.write(resultArray, 0, howmany);
+                }
+            } finally {
+                compresser.end();
             }
-            compresser.end();
             return baos.toByteArray();
         }
     }
@@ -665,20 +671,30 @@ public class ZLibModuleBuiltins extends PythonBuiltins {
         }
 
         @CompilerDirectives.TruffleBoundary
+        @SuppressWarnings("try")
         byte[] javaDecompress(byte[] array, @SuppressWarnings("unused") int wbits, int bufsize) throws DataFormatException {
             // We don't use wbits currently. There is no easy way how to map to java Inflater.
             Inflater decompresser = new Inflater();
             decompresser.setInput(array);
             byte[] resultArray = new byte[bufsize];
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            while (!decompresser.finished()) {
-                int howmany = decompresser.inflate(resultArray);
-                if (howmany == 0 && decompresser.needsInput()) {
-                    throw raise(ZLibError, ErrorMessages.ERROR_5_WHILE_DECOMPRESSING);
+            boolean truncated = false;
+            // the array is a copy, so other threads may run while we decompress it
+            try (GilNode.UncachedRelease gil = GilNode.uncachedReleaseIf(array.length >= GilNode.RELEASE_GIL_MIN_SIZE)) {
+                while (!decompresser.finished()) {
+                    int howmany = decompresser.inflate(resultArray);
+                    if (howmany == 0 && decompresser.needsInput()) {
+                        truncated = true;
+                        break;
+                    }
+                    baos.write(resultArray, 0, howmany);
                 }
-                baos.write(resultArray, 0, howmany);
+            } finally {
+                decompresser.end();
+            }
+            if (truncated) {
+                throw raise(ZLibError, ErrorMessages.ERROR_5_WHILE_DECOMPRESSING);
             }
-            decompresser.end();
             return baos.toByteArray();
         }
     }
@@ -98,11 +98,14 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode toBytes,
                         @Cached SequenceStorageNodes.LenNode lenNode,
                         @Shared("co") @Cached ZlibNodes.ZlibNativeCompressObj compressObj) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 byte[] bytes = toBytes.execute(data.getSequenceStorage());
                 int len = lenNode.execute(data.getSequenceStorage());
                 return factory().createBytes(compressObj.execute(self, ctxt, bytes, len));
+            } finally {
+                self.unlock();
             }
         }
 
@@ -111,11 +114,14 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
                         @Shared("c") @CachedContext(PythonLanguage.class) PythonContext ctxt,
                         @Shared("bb") @Cached BytesNodes.ToBytesNode toBytes,
                         @Shared("co") @Cached ZlibNodes.ZlibNativeCompressObj compressObj) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 byte[] bytes = toBytes.execute(data);
                 int len = bytes.length;
                 return factory().createBytes(compressObj.execute(self, ctxt, bytes, len));
+            } finally {
+                self.unlock();
             }
         }
 
@@ -145,7 +151,8 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
                         @Cached NativeLibrary.InvokeNativeFunction compressObjCopy,
                         @Cached NativeLibrary.InvokeNativeFunction deallocateStream,
                         @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 NFIZlibSupport zlibSupport = ctxt.getNFIZlibSupport();
                 Object zstNewCopy = zlibSupport.createCompObject(createCompObject);
@@ -155,6 +162,8 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
                     errorHandling.execute(self.getZst(), err, zlibSupport, false);
                 }
                 return factory.createNativeZLibCompObject(ZlibCompress, zstNewCopy, zlibSupport);
+            } finally {
+                self.unlock();
             }
         }
 
@@ -230,7 +239,8 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
                         @Cached NativeLibrary.InvokeNativeFunction getIsInitialised,
                         @Cached ZlibNodes.NativeDeallocation processDeallocation,
                         @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 NFIZlibSupport zlibSupport = ctxt.getNFIZlibSupport();
                 Object lastInput;
@@ -252,6 +262,8 @@ public class ZlibCompressBuiltins extends PythonBuiltins {
                     processDeallocation.execute(self, ctxt, factory(), true);
                 }
                 return factory().createBytes(resultArray);
+            } finally {
+                self.unlock();
             }
         }
 
@@ -105,11 +105,14 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode toBytes,
                         @Cached SequenceStorageNodes.LenNode lenNode,
                         @Shared("dobj") @Cached ZlibNodes.ZlibNativeDecompressObj decompressObj) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 byte[] bytes = toBytes.execute(data.getSequenceStorage());
                 int len = lenNode.execute(data.getSequenceStorage());
                 return factory().createBytes(decompressObj.execute(self, ctxt, bytes, len, maxLength));
+            } finally {
+                self.unlock();
             }
         }
 
@@ -118,11 +121,14 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
                         @Shared("c") @CachedContext(PythonLanguage.class) PythonContext ctxt,
                         @Shared("bb") @Cached BytesNodes.ToBytesNode toBytes,
                         @Shared("dobj") @Cached ZlibNodes.ZlibNativeDecompressObj decompressObj) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 byte[] bytes = toBytes.execute(data);
                 int len = bytes.length;
                 return factory().createBytes(decompressObj.execute(self, ctxt, bytes, len, maxLength));
+            } finally {
+                self.unlock();
             }
         }
 
@@ -158,7 +164,8 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
                         @Cached NativeLibrary.InvokeNativeFunction decompressObjCopy,
                         @Cached NativeLibrary.InvokeNativeFunction deallocateStream,
                         @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 NFIZlibSupport zlibSupport = ctxt.getNFIZlibSupport();
                 Object zstNewCopy = zlibSupport.createCompObject(createCompObject);
@@ -170,6 +177,8 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
                 ZLibCompObject copy = factory.createNativeZLibCompObject(ZlibDecompress, zstNewCopy, zlibSupport);
                 copy.setEof(self.isEof());
                 return copy;
+            } finally {
+                self.unlock();
             }
         }
 
@@ -238,7 +247,8 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
                         @Cached NativeLibrary.InvokeNativeFunction getIsInitialised,
                         @Cached ZlibNodes.NativeDeallocation processDeallocation,
                         @Cached ZlibNodes.ZlibNativeErrorHandling errorHandling) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 NFIZlibSupport zlibSupport = ctxt.getNFIZlibSupport();
                 int err = zlibSupport.decompressObjFlush(self.getZst(), length, decompressObjFlush);
@@ -250,6 +260,8 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
                     processDeallocation.execute(self, ctxt, factory(), false);
                 }
                 return factory().createBytes(resultArray);
+            } finally {
+                self.unlock();
             }
         }
 
@@ -289,9 +301,12 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
         PBytes doit(ZLibCompObject.NativeZlibCompObject self,
                         @CachedContext(PythonLanguage.class) PythonContext ctxt,
                         @Cached ZlibNodes.GetNativeBufferNode getBuffer) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 return factory().createBytes(getBuffer.getUnusedDataBuffer(self.getZst(), ctxt));
+            } finally {
+                self.unlock();
             }
         }
 
@@ -313,9 +328,12 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
         PBytes doit(ZLibCompObject.NativeZlibCompObject self,
                         @CachedContext(PythonLanguage.class) PythonContext ctxt,
                         @Cached ZlibNodes.GetNativeBufferNode getBuffer) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 return factory().createBytes(getBuffer.getUnconsumedTailBuffer(self.getZst(), ctxt));
+            } finally {
+                self.unlock();
             }
         }
 
@@ -342,11 +360,14 @@ public class ZlibDecompressBuiltins extends PythonBuiltins {
         boolean getit(ZLibCompObject.NativeZlibCompObject self,
                         @CachedContext(PythonLanguage.class) PythonContext ctxt,
                         @Cached NativeLibrary.InvokeNativeFunction getEOF) {
-            synchronized (self) {
+            self.lock();
+            try {
                 assert self.isInitialized();
                 NFIZlibSupport zlibSupport = ctxt.getNFIZlibSupport();
                 self.setEof(zlibSupport.getEOF(self.getZst(), getEOF) == 1);
                 return self.isEof();
+            } finally {
+                self.unlock();
             }
         }
 
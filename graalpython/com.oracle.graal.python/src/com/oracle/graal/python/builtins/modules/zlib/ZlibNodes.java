@@ -79,6 +79,7 @@ import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.NFIZlibSupport;
 import com.oracle.graal.python.runtime.NativeLibrary;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -124,10 +125,22 @@ public class ZlibNodes {
                         @Cached NativeLibrary.InvokeNativeFunction compressObj,
                         @Cached GetNativeBufferNode getBuffer,
                         @Cached ZlibNativeErrorHandling errorHandling,
-                        @Cached ConditionProfile errProfile) {
+                        @Cached ConditionProfile errProfile,
+                        @Cached GilNode gil) {
             NFIZlibSupport zlibSupport = context.getNFIZlibSupport();
             self.lastInput = context.getEnv().asGuestValue(bytes);
-            int err = zlibSupport.compressObj(self.getZst(), self.lastInput, len, DEF_BUF_SIZE, compressObj);
+            int err;
+            boolean release = len >= GilNode.RELEASE_GIL_MIN_SIZE;
+            if (release) {
+                gil.release(true);
+            }
+            try {
+                err = zlibSupport.compressObj(self.getZst(), self.lastInput, len, DEF_BUF_SIZE, compressObj);
+            } finally {
+                if (release) {
+                    gil.acquire();
+                }
+            }
             if (errProfile.profile(err != Z_OK)) {
                 errorHandling.execute(self.getZst(), err, zlibSupport, false);
             }
@@ -147,11 +160,23 @@ public class ZlibNodes {
                         @Cached NativeLibrary.InvokeNativeFunction deflateOffHeap,
                         @Cached GetNativeBufferNode getBuffer,
                         @Cached ZlibNativeErrorHandling errorHandling,
-                        @Cached ConditionProfile errProfile) {
+                        @Cached ConditionProfile errProfile,
+                        @Cached GilNode gil) {
             NFIZlibSupport zlibSupport = context.getNFIZlibSupport();
             Object in = context.getEnv().asGuestValue(bytes);
             Object zst = zlibSupport.createStream(createStream);
-            int err = zlibSupport.deflateOffHeap(zst, in, len, DEF_BUF_SIZE, level, deflateOffHeap);
+            int err;
+            boolean release = len >= GilNode.RELEASE_GIL_MIN_SIZE;
+            if (release) {
+                gil.release(true);
+            }
+            try {
+                err = zlibSupport.deflateOffHeap(zst, in, len, DEF_BUF_SIZE, level, deflateOffHeap);
+            } finally {
+                if (release) {
+                    gil.acquire();
+                }
+            }
             if (errProfile.profile(err != Z_OK)) {
                 errorHandling.execute(zst, err, zlibSupport, true);
             }
@@ -170,10 +195,22 @@ public class ZlibNodes {
                         @Cached NativeLibrary.InvokeNativeFunction decompressObj,
                         @Cached GetNativeBufferNode getBuffer,
                         @Cached ZlibNativeErrorHandling errorHandling,
-                        @Cached ConditionProfile errProfile) {
+                        @Cached ConditionProfile errProfile,
+                        @Cached GilNode gil) {
             NFIZlibSupport zlibSupport = context.getNFIZlibSupport();
             Object in = context.getEnv().asGuestValue(bytes);
-            int err = zlibSupport.decompressObj(self.getZst(), in, len, DEF_BUF_SIZE, maxLength, decompressObj);
+            int err;
+            boolean release = len >= GilNode.RELEASE_GIL_MIN_SIZE;
+            if (release) {
+                gil.release(true);
+            }
+            try {
+                err = zlibSupport.decompressObj(self.getZst(), in, len, DEF_BUF_SIZE, maxLength, decompressObj);
+            } finally {
+                if (release) {
+                    gil.acquire();
+                }
+            }
             if (errProfile.profile(err != Z_OK)) {
                 errorHandling.execute(self.getZst(), err, zlibSupport, false);
             }
@@ -193,11 +230,23 @@ public class ZlibNodes {
                         @Cached NativeLibrary.InvokeNativeFunction inflateOffHeap,
                         @Cached GetNativeBufferNode getBuffer,
                         @Cached ZlibNativeErrorHandling errorHandling,
-                        @Cached ConditionProfile errProfile) {
+                        @Cached ConditionProfile errProfile,
+                        @Cached GilNode gil) {
             NFIZlibSupport zlibSupport = context.getNFIZlibSupport();
             Object zst = zlibSupport.createStream(createStream);
             Object in = context.getEnv().asGuestValue(bytes);
-            int err = zlibSupport.inflateOffHeap(zst, in, len, bufsize, wbits, inflateOffHeap);
+            int err;
+            boolean release = len >= GilNode.RELEASE_GIL_MIN_SIZE;
+            if (release) {
+                gil.release(true);
+            }
+            try {
+                err = zlibSupport.inflateOffHeap(zst, in, len, bufsize, wbits, inflateOffHeap);
+            } finally {
+                if (release) {
+                    gil.acquire();
+                }
+            }
             if (errProfile.profile(err != Z_OK)) {
                 errorHandling.execute(zst, err, zlibSupport, true);
             }
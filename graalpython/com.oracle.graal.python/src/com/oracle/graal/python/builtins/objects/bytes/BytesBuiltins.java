@@ -125,6 +125,7 @@ import com.oracle.graal.python.runtime.formatting.BytesFormatProcessor;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.IntArrayBuilder;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -1036,19 +1037,11 @@ public class BytesBuiltins extends PythonBuiltins {
             throw raise(TypeError, ErrorMessages.ARG_SHOULD_BE_INT_BYTESLIKE_OBJ);
         }
 
-        @CompilerDirectives.TruffleBoundary(allowInlining = true)
-        private static int countSingle(byte[] bytes, int start, int end, int elem) {
-            int count = 0;
+        private static int countSingle(byte[] bytes, int start, int end, byte elem) {
             if ((end - start) < 0) {
                 return 0;
             }
-
-            for (int i = start; i < end; i++) {
-                if (bytes[i] == elem) {
-                    count++;
-                }
-            }
-            return count;
+            return BytesSearch.count(bytes, start, end, elem);
         }
 
         @CompilerDirectives.TruffleBoundary(allowInlining = true)
@@ -1586,7 +1579,6 @@ public class BytesBuiltins extends PythonBuiltins {
                         @Cached SequenceStorageNodes.GetInternalByteArrayNode toInternalBytes,
                         @Cached BytesNodes.ToBytesNode toBytes,
                         @Cached SequenceStorageNodes.LenNode lenNode,
-                        @Cached BytesNodes.FindNode findNode,
                         @Cached ConditionProfile selfSubAreEmpty,
                         @Cached ConditionProfile selfIsEmpty,
                         @Cached ConditionProfile subIsEmpty,
@@ -1606,7 +1598,7 @@ public class BytesBuiltins extends PythonBuiltins {
                 return create.execute(factory(), self, replaceWithEmptySub(bytes, len, replacementBytes, maxcount));
             }
             // byte[] newBytes = doReplace(bytes, subBytes, replacementBytes);
-            byte[] newBytes = replace(bytes, len, subBytes, replacementBytes, maxcount, findNode);
+            byte[] newBytes = replace(bytes, len, subBytes, replacementBytes, maxcount);
             return create.execute(factory(), self, newBytes);
         }
 
@@ -1635,41 +1627,46 @@ public class BytesBuiltins extends PythonBuiltins {
         }
 
         @CompilerDirectives.TruffleBoundary(allowInlining = true)
-        protected byte[] replace(byte[] bytes, int len, byte[] sub, byte[] replacementBytes, int count,
-                        BytesNodes.FindNode findNode) {
-            int i, j, pos, maxcount = count, subLen = sub.length, repLen = replacementBytes.length;
-            List<byte[]> list = new ArrayList<>();
+        protected static byte[] replace(byte[] bytes, int len, byte[] sub, byte[] replacementBytes, int count) {
+            int subLen = sub.length;
+            int repLen = replacementBytes.length;
 
-            int resultLen = 0;
-            i = 0;
-            while (maxcount-- > 0) {
-                pos = findNode.execute(bytes, len, sub, i, len);
+            // first collect the match positions, then copy everything into the result at once
+            IntArrayBuilder matches = new IntArrayBuilder();
+            int i = 0;
+            for (int maxcount = count; maxcount > 0; maxcount--) {
+                int pos = BytesSearch.indexOf(bytes, i, len, sub, subLen);
                 if (pos < 0) {
                     break;
                 }
-                j = pos;
-                list.add(copyOfRange(bytes, i, j));
-                list.add(replacementBytes);
-                resultLen += (j - i) + repLen;
-                i = j + subLen;
+                matches.add(pos);
+                i = pos + subLen;
             }
 
-            if (i == 0) {
+            int n = matches.size();
+            if (n == 0) {
                 return copyOfRange(bytes, 0, len);
             }
-
-            list.add(copyOfRange(bytes, i, len));
-            resultLen += (len - i);
-
-            i = 0;
-            byte[] result = new byte[resultLen];
-            Iterator<byte[]> it = iterator(list);
-            while (hasNext(it)) {
-                byte[] b = next(it);
-                PythonUtils.arraycopy(b, 0, result, i, b.length);
-                i += b.length;
-            }
-
+            byte[] result;
+            if (subLen == repLen) {
+                result = copyOfRange(bytes, 0, len);
+                for (int k = 0; k < n; k++) {
+                    PythonUtils.arraycopy(replacementBytes, 0, result, matches.get(k), repLen);
+                }
+                return result;
+            }
+            result = new byte[len + n * (repLen - subLen)];
+            int src = 0;
+            int dst = 0;
+            for (int k = 0; k < n; k++) {
+                int pos = matches.get(k);
+                PythonUtils.arraycopy(bytes, src, result, dst, pos - src);
+                dst += pos - src;
+                PythonUtils.arraycopy(replacementBytes, 0, result, dst, repLen);
+                dst += repLen;
+                src = pos + subLen;
+            }
+            PythonUtils.arraycopy(bytes, src, result, dst, len - src);
             return result;
         }
     }
@@ -1967,19 +1964,16 @@ public class BytesBuiltins extends PythonBuiltins {
             int i, j, maxcount = maxsplit;
             List<byte[]> list = new ArrayList<>();
 
-            i = j = 0;
-            while ((j < len) && (maxcount-- > 0)) {
-                for (; j < len; j++) {
-                    if (bytes[j] == sep) {
-                        list.add(copyOfRange(bytes, i, j));
-                        i = j = j + 1;
-                        break;
-                    }
+            i = 0;
+            while (maxcount-- > 0) {
+                j = BytesSearch.indexOf(bytes, i, len, sep);
+                if (j < 0) {
+                    break;
                 }
+                list.add(copyOfRange(bytes, i, j));
+                i = j + 1;
             }
-            if (i <= len) {
-                list.add(copyOfRange(bytes, i, len));
-            }
+            list.add(copyOfRange(bytes, i, len));
 
             return list;
         }
@@ -2069,19 +2063,16 @@ public class BytesBuiltins extends PythonBuiltins {
             int i, j, maxcount = maxsplit;
             ArrayList<byte[]> list = new ArrayList<>();
 
-            i = j = len - 1;
-            while ((i >= 0) && (maxcount-- > 0)) {
-                for (; i >= 0; i--) {
-                    if (bytes[i] == sep) {
-                        list.add(copyOfRange(bytes, i + 1, j + 1));
-                        j = i = i - 1;
-                        break;
-                    }
+            j = len;
+            while (maxcount-- > 0) {
+                i = BytesSearch.lastIndexOf(bytes, 0, j, sep);
+                if (i < 0) {
+                    break;
                 }
+                list.add(copyOfRange(bytes, i + 1, j));
+                j = i;
             }
-            if (j >= -1) {
-                list.add(copyOfRange(bytes, 0, j + 1));
-            }
+            list.add(copyOfRange(bytes, 0, j));
             reverseList(list);
             return list;
         }
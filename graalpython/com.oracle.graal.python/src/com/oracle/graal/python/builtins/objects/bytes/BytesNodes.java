@@ -91,6 +91,7 @@ import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.util.CastToByteNode;
 import com.oracle.graal.python.nodes.util.CastToJavaByteNode;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
@@ -153,6 +154,8 @@ public abstract class BytesNodes {
 
     @ImportStatic(PythonOptions.class)
     public abstract static class BytesJoinNode extends PNodeWithContext {
+        /** Copying is cheap, so only joins of this many bytes release the GIL, like in CPython. */
+        private static final int JOIN_RELEASE_GIL_MIN_SIZE = 1024 * 1024;
 
         public abstract byte[] execute(VirtualFrame frame, byte[] sep, Object iterable);
 
@@ -182,8 +185,17 @@ public abstract class BytesNodes {
         }
 
         @TruffleBoundary(allowInlining = true)
+        @SuppressWarnings("try")
         private static byte[] joinArrays(byte[] sep, ArrayList<byte[]> parts, int partsTotalSize) {
             byte[] joinedBytes = new byte[Math.max(0, partsTotalSize + (parts.size() - 1) * sep.length)];
+            // the parts are copies, so other threads may run while we copy large ones together
+            try (GilNode.UncachedRelease gil = GilNode.uncachedReleaseIf(joinedBytes.length >= JOIN_RELEASE_GIL_MIN_SIZE)) {
+                copyParts(sep, parts, joinedBytes);
+            }
+            return joinedBytes;
+        }
+
+        private static void copyParts(byte[] sep, ArrayList<byte[]> parts, byte[] joinedBytes) {
             if (parts.size() > 0) {
                 int offset = 0;
                 byte[] array = parts.get(0);
@@ -197,7 +209,6 @@ public abstract class BytesNodes {
                     offset += array.length;
                 }
             }
-            return joinedBytes;
         }
 
         public static BytesJoinNode create() {
@@ -347,35 +358,12 @@ public abstract class BytesNodes {
             return start;
         }
 
-        @TruffleBoundary(allowInlining = true)
-        protected static int isEqual(int i, byte[] haystack, byte[] needle, int len2) {
-            for (int j = 0; j < len2; j++) {
-                if (haystack[i + j] != needle[j]) {
-                    return -1;
-                }
-            }
-            return i;
-        }
-
-        @TruffleBoundary(allowInlining = true)
         protected int findSubSequence(byte[] haystack, byte[] needle, int len2, int start, int end) {
-            // TODO implement a more efficient algorithm
-            for (int i = start; i < end - len2 + 1; i++) {
-                if (isEqual(i, haystack, needle, len2) != -1) {
-                    return i;
-                }
-            }
-            return -1;
+            return BytesSearch.indexOf(haystack, start, end, needle, len2);
         }
 
-        @TruffleBoundary(allowInlining = true)
         protected int findElement(byte[] haystack, byte sub, int start, int end) {
-            for (int i = start; i < end; i++) {
-                if (haystack[i] == sub) {
-                    return i;
-                }
-            }
-            return -1;
+            return BytesSearch.indexOf(haystack, start, end, sub);
         }
 
         public static FindNode create() {
@@ -390,27 +378,14 @@ public abstract class BytesNodes {
             return (end - start) + start;
         }
 
-        @TruffleBoundary(allowInlining = true)
         @Override
         protected int findSubSequence(byte[] haystack, byte[] needle, int len2, int start, int end) {
-            // TODO implement a more efficient algorithm
-            for (int i = end - len2; i >= start; i--) {
-                if (isEqual(i, haystack, needle, len2) != -1) {
-                    return i;
-                }
-            }
-            return -1;
+            return BytesSearch.lastIndexOf(haystack, start, end, needle, len2);
         }
 
-        @TruffleBoundary(allowInlining = true)
         @Override
         protected int findElement(byte[] haystack, byte sub, int start, int end) {
-            for (int i = end - 1; i >= start; i--) {
-                if (haystack[i] == sub) {
-                    return i;
-                }
-            }
-            return -1;
+            return BytesSearch.lastIndexOf(haystack, start, end, sub);
         }
 
         public static RFindNode create() {
@@ -903,6 +878,89 @@ public abstract class BytesNodes {
         }
     }
 
+    /**
+     * Returns the managed {@code byte[]} backing a writable, C-contiguous buffer object, so that
+     * {@code readinto}-like operations can fill it in place instead of reading into a temporary
+     * array and copying. The buffer starts at {@link #getArrayOffset(Object)} within the returned
+     * array. Returns {@code null} if there is no such array, e.g. for native memory or strided
+     * views; callers must then fall back to copying. Callers that fill the array without the GIL
+     * must {@link #pin(Object) pin} the buffer, otherwise a concurrent resize swaps the storage and
+     * the data is lost.
+     */
+    @GenerateUncached
+    public abstract static class GetWritableByteArrayNode extends Node {
+
+        public abstract byte[] execute(Object buf);
+
+        @Specialization(guards = "isByteStorage(buf)")
+        static byte[] doByteArray(PByteArray buf) {
+            return ((ByteSequenceStorage) buf.getSequenceStorage()).getInternalByteArray();
+        }
+
+        @Specialization
+        static byte[] doArray(PArray buf) {
+            return buf.getBuffer();
+        }
+
+        @Specialization(guards = "isWritableManagedView(buf)")
+        static byte[] doMemoryView(PMemoryView buf) {
+            Object owner = buf.getOwner();
+            if (owner instanceof PArray) {
+                return ((PArray) owner).getBuffer();
+            }
+            return ((ByteSequenceStorage) ((PByteArray) owner).getSequenceStorage()).getInternalByteArray();
+        }
+
+        @Fallback
+        static byte[] doOther(@SuppressWarnings("unused") Object buf) {
+            return null;
+        }
+
+        static boolean isByteStorage(PByteArray buf) {
+            return buf.getSequenceStorage() instanceof ByteSequenceStorage;
+        }
+
+        static boolean isWritableManagedView(PMemoryView buf) {
+            if (buf.isReleased() || buf.isReadOnly() || buf.getBufferPointer() != null || !buf.isCContiguous()) {
+                return false;
+            }
+            Object owner = buf.getOwner();
+            return owner instanceof PArray || (owner instanceof PByteArray && isByteStorage((PByteArray) owner));
+        }
+
+        public static int getArrayOffset(Object buf) {
+            return buf instanceof PMemoryView ? ((PMemoryView) buf).getOffset() : 0;
+        }
+
+        /**
+         * Counts an export of the object owning the array returned for {@code buf}, so that
+         * resizing it raises {@code BufferError} until {@link #unpin(Object)} is called. Must be
+         * called with the GIL held.
+         */
+        public static void pin(Object buf) {
+            addExports(buf, 1);
+        }
+
+        public static void unpin(Object buf) {
+            addExports(buf, -1);
+        }
+
+        private static void addExports(Object buf, int delta) {
+            Object owner = buf instanceof PMemoryView ? ((PMemoryView) buf).getOwner() : buf;
+            if (owner instanceof PByteArray) {
+                PByteArray byteArray = (PByteArray) owner;
+                byteArray.setExports(byteArray.getExports() + delta);
+            } else {
+                PArray array = (PArray) owner;
+                array.setExports(array.getExports() + delta);
+            }
+        }
+
+        public static GetWritableByteArrayNode create() {
+            return BytesNodesFactory.GetWritableByteArrayNodeGen.create();
+        }
+    }
+
     public abstract static class GetBuffer extends PNodeWithRaise {
 
         public abstract byte[] execute(Object buffer);
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.bytes;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.memory.ByteArraySupport;
+
+/**
+ * Search primitives over byte arrays shared by {@code bytes}, {@code bytearray}, {@code memoryview}
+ * and {@code mmap}. Single bytes are located eight at a time using SWAR ("SIMD within a
+ * register") tricks on {@code long} words, longer needles use the Boyer-Moore-Horspool algorithm.
+ * All ranges are half-open, {@code [start, end)}, and the methods return {@code -1} if nothing is
+ * found.
+ */
+public final class BytesSearch {
+
+    /** Words are always read in little-endian order so that byte {@code i} is at bits {@code 8i}. */
+    private static final ByteArraySupport LE = ByteArraySupport.littleEndian();
+
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long BROADCAST = 0x0101010101010101L;
+
+    /**
+     * Needles shorter than this are searched for by locating their first byte and comparing the
+     * rest; the skip table of Boyer-Moore-Horspool does not pay off for them.
+     */
+    private static final int HORSPOOL_THRESHOLD = 4;
+
+    private BytesSearch() {
+    }
+
+    /**
+     * Returns a word that has the high bit set in exactly those bytes of {@code word} that are
+     * zero. Unlike the common {@code (v - 0x01..) & ~v & 0x80..} formulation this has no false
+     * positives, which matters when scanning backwards or counting.
+     */
+    private static long zeroBytes(long word) {
+        return ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    public static int indexOf(byte[] haystack, int start, int end, byte b) {
+        int i = start;
+        long pattern = (b & 0xFFL) * BROADCAST;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            long matches = zeroBytes(LE.getLong(haystack, i) ^ pattern);
+            if (matches != 0) {
+                return i + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+        }
+        for (; i < end; i++) {
+            if (haystack[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    public static int lastIndexOf(byte[] haystack, int start, int end, byte b) {
+        int i = end;
+        long pattern = (b & 0xFFL) * BROADCAST;
+        for (; i - Long.BYTES >= start; i -= Long.BYTES) {
+            long matches = zeroBytes(LE.getLong(haystack, i - Long.BYTES) ^ pattern);
+            if (matches != 0) {
+                return i - 1 - (Long.numberOfLeadingZeros(matches) >>> 3);
+            }
+        }
+        for (i = i - 1; i >= start; i--) {
+            if (haystack[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    public static int count(byte[] haystack, int start, int end, byte b) {
+        int i = start;
+        int result = 0;
+        long pattern = (b & 0xFFL) * BROADCAST;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            result += Long.bitCount(zeroBytes(LE.getLong(haystack, i) ^ pattern));
+        }
+        for (; i < end; i++) {
+            if (haystack[i] == b) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first occurrence of {@code needle[0:needleLen]} in {@code haystack[start:end]}.
+     */
+    @TruffleBoundary
+    public static int indexOf(byte[] haystack, int start, int end, byte[] needle, int needleLen) {
+        if (needleLen == 0) {
+            return start <= end ? start : -1;
+        }
+        if (needleLen == 1) {
+            return indexOf(haystack, start, end, needle[0]);
+        }
+        int last = end - needleLen;
+        if (last < start) {
+            return -1;
+        }
+        if (needleLen < HORSPOOL_THRESHOLD || end - start < 4 * needleLen) {
+            byte first = needle[0];
+            int i = start;
+            while (i <= last) {
+                i = indexOf(haystack, i, last + 1, first);
+                if (i < 0) {
+                    return -1;
+                }
+                if (regionMatches(haystack, i, needle, needleLen)) {
+                    return i;
+                }
+                i++;
+            }
+            return -1;
+        }
+        int[] skip = new int[256];
+        Arrays.fill(skip, needleLen);
+        for (int j = 0; j < needleLen - 1; j++) {
+            skip[needle[j] & 0xFF] = needleLen - 1 - j;
+        }
+        byte lastByte = needle[needleLen - 1];
+        int i = start;
+        while (i <= last) {
+            byte b = haystack[i + needleLen - 1];
+            if (b == lastByte && regionMatches(haystack, i, needle, needleLen - 1)) {
+                return i;
+            }
+            i += skip[b & 0xFF];
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the last occurrence of {@code needle[0:needleLen]} in {@code haystack[start:end]}.
+     */
+    @TruffleBoundary
+    public static int lastIndexOf(byte[] haystack, int start, int end, byte[] needle, int needleLen) {
+        if (needleLen == 0) {
+            return start <= end ? end : -1;
+        }
+        if (needleLen == 1) {
+            return lastIndexOf(haystack, start, end, needle[0]);
+        }
+        int last = end - needleLen;
+        if (last < start) {
+            return -1;
+        }
+        if (needleLen < HORSPOOL_THRESHOLD || end - start < 4 * needleLen) {
+            byte first = needle[0];
+            int i = last;
+            while (i >= start) {
+                i = lastIndexOf(haystack, start, i + 1, first);
+                if (i < 0) {
+                    return -1;
+                }
+                if (regionMatches(haystack, i, needle, needleLen)) {
+                    return i;
+                }
+                i--;
+            }
+            return -1;
+        }
+        // mirrored Horspool: align on the first byte of the needle and skip to the left
+        int[] skip = new int[256];
+        Arrays.fill(skip, needleLen);
+        for (int j = needleLen - 1; j > 0; j--) {
+            skip[needle[j] & 0xFF] = j;
+        }
+        byte firstByte = needle[0];
+        int i = last;
+        while (i >= start) {
+            byte b = haystack[i];
+            if (b == firstByte && regionMatches(haystack, i, needle, needleLen)) {
+                return i;
+            }
+            i -= skip[b & 0xFF];
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the non-overlapping occurrences of {@code needle[0:needleLen]} in
+     * {@code haystack[start:end]}. The empty needle occurs {@code end - start + 1} times.
+     */
+    @TruffleBoundary
+    public static int count(byte[] haystack, int start, int end, byte[] needle, int needleLen) {
+        if (end < start) {
+            return 0;
+        }
+        if (needleLen == 0) {
+            return end - start + 1;
+        }
+        if (needleLen == 1) {
+            return count(haystack, start, end, needle[0]);
+        }
+        int result = 0;
+        int i = start;
+        while ((i = indexOf(haystack, i, end, needle, needleLen)) >= 0) {
+            result++;
+            i += needleLen;
+        }
+        return result;
+    }
+
+    private static boolean regionMatches(byte[] haystack, int offset, byte[] needle, int len) {
+        int j = 0;
+        for (; j + Long.BYTES <= len; j += Long.BYTES) {
+            if (LE.getLong(haystack, offset + j) != LE.getLong(needle, j)) {
+                return false;
+            }
+        }
+        for (; j < len; j++) {
+            if (haystack[offset + j] != needle[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
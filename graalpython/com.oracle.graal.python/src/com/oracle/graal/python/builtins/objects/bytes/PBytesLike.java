@@ -40,19 +40,36 @@
  */
 package com.oracle.graal.python.builtins.objects.bytes;
 
+import java.nio.ByteOrder;
+
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.NativeSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidBufferOffsetException;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.memory.ByteArraySupport;
 import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
+/**
+ * Common base of {@code bytes} and {@code bytearray}. Besides the Python buffer protocol, the
+ * storage is also exposed through the interop buffer messages, so host code can read (and for
+ * {@code bytearray} also write) the contents without going through the array element messages.
+ */
 @ExportLibrary(PythonObjectLibrary.class)
+@ExportLibrary(InteropLibrary.class)
 public abstract class PBytesLike extends PSequence {
+    private static final ByteArraySupport BIG_ENDIAN = ByteArraySupport.bigEndian();
+    private static final ByteArraySupport LITTLE_ENDIAN = ByteArraySupport.littleEndian();
 
     protected SequenceStorage store;
 
@@ -88,7 +105,7 @@ public abstract class PBytesLike extends PSequence {
 
     @ExportMessage
     int getBufferLength(
-                    @Cached SequenceStorageNodes.LenNode lenNode) {
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode) {
         return lenNode.execute(store);
     }
 
@@ -97,4 +114,297 @@ public abstract class PBytesLike extends PSequence {
                     @Cached SequenceStorageNodes.ToByteArrayNode toByteArrayNode) {
         return toByteArrayNode.execute(store);
     }
+
+    @ExportMessage
+    boolean hasBufferElements() {
+        return true;
+    }
+
+    @ExportMessage
+    boolean isBufferWritable() {
+        return this instanceof PByteArray;
+    }
+
+    @ExportMessage
+    long getBufferSize(
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("gil") @Cached GilNode gil) {
+        boolean mustRelease = gil.acquire();
+        try {
+            return lenNode.execute(store);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    byte readBufferByte(long byteOffset,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyFrom") @Cached SequenceStorageNodes.CopyBytesFromByteStorage copyFrom,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Byte.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                return BIG_ENDIAN.getByte(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset);
+            }
+            return BIG_ENDIAN.getByte(copyFromNative(byteOffset, Byte.BYTES, copyFrom), 0);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    short readBufferShort(ByteOrder order, long byteOffset,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyFrom") @Cached SequenceStorageNodes.CopyBytesFromByteStorage copyFrom,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Short.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                return accessor(order).getShort(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset);
+            }
+            return accessor(order).getShort(copyFromNative(byteOffset, Short.BYTES, copyFrom), 0);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    int readBufferInt(ByteOrder order, long byteOffset,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyFrom") @Cached SequenceStorageNodes.CopyBytesFromByteStorage copyFrom,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Integer.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                return accessor(order).getInt(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset);
+            }
+            return accessor(order).getInt(copyFromNative(byteOffset, Integer.BYTES, copyFrom), 0);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    long readBufferLong(ByteOrder order, long byteOffset,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyFrom") @Cached SequenceStorageNodes.CopyBytesFromByteStorage copyFrom,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Long.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                return accessor(order).getLong(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset);
+            }
+            return accessor(order).getLong(copyFromNative(byteOffset, Long.BYTES, copyFrom), 0);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    float readBufferFloat(ByteOrder order, long byteOffset,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyFrom") @Cached SequenceStorageNodes.CopyBytesFromByteStorage copyFrom,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Float.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                return accessor(order).getFloat(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset);
+            }
+            return accessor(order).getFloat(copyFromNative(byteOffset, Float.BYTES, copyFrom), 0);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    double readBufferDouble(ByteOrder order, long byteOffset,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyFrom") @Cached SequenceStorageNodes.CopyBytesFromByteStorage copyFrom,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws InvalidBufferOffsetException {
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Double.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                return accessor(order).getDouble(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset);
+            }
+            return accessor(order).getDouble(copyFromNative(byteOffset, Double.BYTES, copyFrom), 0);
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferByte(long byteOffset, byte value,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyTo") @Cached SequenceStorageNodes.CopyBytesToByteStorage copyTo,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        if (!isBufferWritable()) {
+            throw UnsupportedMessageException.create();
+        }
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Byte.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                BIG_ENDIAN.putByte(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset, value);
+            } else {
+                byte[] bytes = new byte[Byte.BYTES];
+                BIG_ENDIAN.putByte(bytes, 0, value);
+                copyTo.execute(bytes, 0, store, (int) byteOffset, Byte.BYTES);
+            }
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferShort(ByteOrder order, long byteOffset, short value,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyTo") @Cached SequenceStorageNodes.CopyBytesToByteStorage copyTo,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        if (!isBufferWritable()) {
+            throw UnsupportedMessageException.create();
+        }
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Short.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                accessor(order).putShort(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset, value);
+            } else {
+                byte[] bytes = new byte[Short.BYTES];
+                accessor(order).putShort(bytes, 0, value);
+                copyTo.execute(bytes, 0, store, (int) byteOffset, Short.BYTES);
+            }
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferInt(ByteOrder order, long byteOffset, int value,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyTo") @Cached SequenceStorageNodes.CopyBytesToByteStorage copyTo,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        if (!isBufferWritable()) {
+            throw UnsupportedMessageException.create();
+        }
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Integer.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                accessor(order).putInt(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset, value);
+            } else {
+                byte[] bytes = new byte[Integer.BYTES];
+                accessor(order).putInt(bytes, 0, value);
+                copyTo.execute(bytes, 0, store, (int) byteOffset, Integer.BYTES);
+            }
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferLong(ByteOrder order, long byteOffset, long value,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyTo") @Cached SequenceStorageNodes.CopyBytesToByteStorage copyTo,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        if (!isBufferWritable()) {
+            throw UnsupportedMessageException.create();
+        }
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Long.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                accessor(order).putLong(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset, value);
+            } else {
+                byte[] bytes = new byte[Long.BYTES];
+                accessor(order).putLong(bytes, 0, value);
+                copyTo.execute(bytes, 0, store, (int) byteOffset, Long.BYTES);
+            }
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferFloat(ByteOrder order, long byteOffset, float value,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyTo") @Cached SequenceStorageNodes.CopyBytesToByteStorage copyTo,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        if (!isBufferWritable()) {
+            throw UnsupportedMessageException.create();
+        }
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Float.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                accessor(order).putFloat(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset, value);
+            } else {
+                byte[] bytes = new byte[Float.BYTES];
+                accessor(order).putFloat(bytes, 0, value);
+                copyTo.execute(bytes, 0, store, (int) byteOffset, Float.BYTES);
+            }
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    @ExportMessage
+    void writeBufferDouble(ByteOrder order, long byteOffset, double value,
+                    @Shared("lenNode") @Cached SequenceStorageNodes.LenNode lenNode,
+                    @Shared("copyTo") @Cached SequenceStorageNodes.CopyBytesToByteStorage copyTo,
+                    @Shared("isManaged") @Cached ConditionProfile isManaged,
+                    @Shared("gil") @Cached GilNode gil) throws UnsupportedMessageException, InvalidBufferOffsetException {
+        if (!isBufferWritable()) {
+            throw UnsupportedMessageException.create();
+        }
+        boolean mustRelease = gil.acquire();
+        try {
+            checkBufferOffset(byteOffset, Double.BYTES, lenNode.execute(store));
+            if (isManaged.profile(store instanceof ByteSequenceStorage)) {
+                accessor(order).putDouble(((ByteSequenceStorage) store).getInternalByteArray(), (int) byteOffset, value);
+            } else {
+                byte[] bytes = new byte[Double.BYTES];
+                accessor(order).putDouble(bytes, 0, value);
+                copyTo.execute(bytes, 0, store, (int) byteOffset, Double.BYTES);
+            }
+        } finally {
+            gil.release(mustRelease);
+        }
+    }
+
+    /**
+     * Native storages have no backing array, their bytes are copied out element by element.
+     */
+    private byte[] copyFromNative(long byteOffset, int length, SequenceStorageNodes.CopyBytesFromByteStorage copyFrom) {
+        byte[] result = new byte[length];
+        copyFrom.execute(store, (int) byteOffset, result, 0, length);
+        return result;
+    }
+
+    private static void checkBufferOffset(long byteOffset, int length, int bufferSize) throws InvalidBufferOffsetException {
+        if (byteOffset < 0 || byteOffset > bufferSize - length) {
+            throw InvalidBufferOffsetException.create(byteOffset, length);
+        }
+    }
+
+    private static ByteArraySupport accessor(ByteOrder order) {
+        return order == ByteOrder.BIG_ENDIAN ? BIG_ENDIAN : LITTLE_ENDIAN;
+    }
 }
@@ -57,6 +57,7 @@ import com.oracle.graal.python.nodes.attributes.WriteAttributeToDynamicObjectNod
 import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.sequence.storage.MroSequenceStorage;
+import com.oracle.graal.python.util.StringInterner;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Bind;
 import com.oracle.truffle.api.dsl.Cached;
@@ -297,19 +298,37 @@ public final class DynamicObjectStorage extends HashingStorage {
         @Specialization(guards = "!shouldTransition(self)")
         static HashingStorage string(DynamicObjectStorage self, String key, Object value, ThreadState state,
                         @Shared("hasMroprofile") @Cached BranchProfile profile,
+                        @Shared("setitemNewKey") @Cached BranchProfile newKeyProfile,
+                        @Shared("setitemDylib") @CachedLibrary(limit = "3") DynamicObjectLibrary dylib,
                         @Shared("setitemWrite") @Cached WriteAttributeToDynamicObjectNode writeNode) {
-            writeNode.execute(self.store, key, value);
+            String name = key;
+            if (!dylib.containsKey(self.store, key)) {
+                newKeyProfile.enter();
+                name = internNewKey(key);
+            }
+            writeNode.execute(self.store, name, value);
             invalidateAttributeInMROFinalAssumptions(self.mro, key, profile);
             return self;
         }
 
+        /**
+         * Keys that become part of the shape are canonicalized, so that later lookups with the
+         * (interned) names from the parser hit the identity check in the shape's property map.
+         */
+        @TruffleBoundary
+        private static String internNewKey(String key) {
+            return StringInterner.internIfIdentifier(key);
+        }
+
         @Specialization(guards = {"!shouldTransition(self)", "isBuiltinString(key, profile)"}, limit = "1")
         static HashingStorage pstring(DynamicObjectStorage self, PString key, Object value, ThreadState state,
                         @Shared("castStr") @Cached CastToJavaStringNode castStr,
                         @Shared("hasMroprofile") @Cached BranchProfile hasMro,
+                        @Shared("setitemNewKey") @Cached BranchProfile newKeyProfile,
+                        @Shared("setitemDylib") @CachedLibrary(limit = "3") DynamicObjectLibrary dylib,
                         @Shared("setitemWrite") @Cached WriteAttributeToDynamicObjectNode writeNode,
                         @Shared("builtinStringProfile") @Cached IsBuiltinClassProfile profile) {
-            return string(self, castStr.execute(key), value, state, hasMro, writeNode);
+            return string(self, castStr.execute(key), value, state, hasMro, newKeyProfile, dylib, writeNode);
         }
 
         // n.b: do not replace the other two specializations here, because that would make the
@@ -86,6 +86,13 @@ public class KeywordsStorage extends HashingStorage {
 
     @ExplodeLoop(kind = LoopExplosionKind.FULL_UNROLL_UNTIL_RETURN)
     protected int findCachedStringKey(String key, int len) {
+        // keyword names and the keys used to look them up are usually interned, so try identity
+        // first before comparing contents
+        for (int i = 0; i < len; i++) {
+            if (keywords[i].getName() == key) {
+                return i;
+            }
+        }
         for (int i = 0; i < len; i++) {
             if (keywords[i].getName().equals(key)) {
                 return i;
@@ -95,6 +102,11 @@ public class KeywordsStorage extends HashingStorage {
     }
 
     protected int findStringKey(String key) {
+        for (int i = 0; i < keywords.length; i++) {
+            if (keywords[i].getName() == key) {
+                return i;
+            }
+        }
         for (int i = 0; i < keywords.length; i++) {
             if (keywords[i].getName().equals(key)) {
                 return i;
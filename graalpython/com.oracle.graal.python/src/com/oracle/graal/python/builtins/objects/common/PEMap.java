@@ -223,6 +223,10 @@ final class PEMap implements Iterable<DictKey> {
             return true;
         }
         if (key.hash == other.hash) {
+            if (key.value instanceof String && other.value instanceof String) {
+                // no need to go through the library, String#equals has the same semantics
+                return stringEquals((String) key.value, (String) other.value);
+            }
             if (gotState.profile(state != null)) {
                 return otherlib.equalsWithState(other.value, key.value, keylib, state);
             } else {
@@ -232,6 +236,11 @@ final class PEMap implements Iterable<DictKey> {
         return false;
     }
 
+    @TruffleBoundary(allowInlining = true)
+    private static boolean stringEquals(String a, String b) {
+        return a.equals(b);
+    }
+
     private int findHash(DictKey key, PythonObjectLibrary keylib, PythonObjectLibrary otherlib, ConditionProfile gotState, ThreadState state) {
         int index = getHashArray(getHashIndex(key)) - 1;
         if (index != -1) {
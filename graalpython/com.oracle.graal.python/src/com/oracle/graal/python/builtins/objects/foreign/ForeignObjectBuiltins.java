@@ -105,6 +105,7 @@ import com.oracle.graal.python.nodes.interop.PForeignToPTypeNode;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.ExecutionContext.IndirectCallContext;
+import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
@@ -590,9 +591,18 @@ public class ForeignObjectBuiltins extends PythonBuiltins {
         protected Object doInteropCall(Object callee, Object[] arguments, @SuppressWarnings("unused") PKeyword[] keywords,
                         @SuppressWarnings("unused") @CachedLibrary("callee") PythonObjectLibrary plib,
                         @CachedLibrary("callee") InteropLibrary lib,
+                        @CachedContext(PythonLanguage.class) PythonContext context,
+                        @Cached ConditionProfile isHostProfile,
+                        @Cached GilNode gil,
                         @Cached PForeignToPTypeNode toPTypeNode) {
             try {
-                Object res = lib.instantiate(callee, arguments);
+                Object res;
+                gil.release(isHostProfile.profile(context.getEnv().isHostObject(callee)));
+                try {
+                    res = lib.instantiate(callee, arguments);
+                } finally {
+                    gil.acquire();
+                }
                 return toPTypeNode.executeConvert(res);
             } catch (ArityException | UnsupportedTypeException | UnsupportedMessageException e) {
                 throw raise(PythonErrorType.TypeError, ErrorMessages.INVALID_INSTANTIATION_OF_FOREIGN_OBJ);
@@ -618,27 +628,34 @@ public class ForeignObjectBuiltins extends PythonBuiltins {
         /**
          * A foreign function call specializes on the length of the passed arguments. Any
          * optimization based on the callee has to happen on the other side.
+         *
+         * Calls to host (Java) objects release the GIL, because they may run for a long time. As
+         * with native code that releases the GIL, Python objects passed to them take the GIL again
+         * when they are accessed.
          */
         @Specialization(guards = {"plib.isForeignObject(callee)", "!isNoValue(callee)", "keywords.length == 0"}, limit = "4")
         protected Object doInteropCall(VirtualFrame frame, Object callee, Object[] arguments, @SuppressWarnings("unused") PKeyword[] keywords,
                         @SuppressWarnings("unused") @CachedLibrary("callee") PythonObjectLibrary plib,
                         @CachedLibrary("callee") InteropLibrary lib,
                         @CachedContext(PythonLanguage.class) PythonContext context,
+                        @Cached ConditionProfile isHostProfile,
+                        @Cached GilNode gil,
                         @Cached PForeignToPTypeNode toPTypeNode) {
             try {
                 Object res = null;
                 Object state = IndirectCallContext.enter(frame, context, this);
+                gil.release(isHostProfile.profile(context.getEnv().isHostObject(callee)));
                 try {
                     if (lib.isExecutable(callee)) {
                         res = lib.execute(callee, arguments);
-                        return toPTypeNode.executeConvert(res);
                     } else {
                         res = lib.instantiate(callee, arguments);
-                        return toPTypeNode.executeConvert(res);
                     }
                 } finally {
+                    gil.acquire();
                     IndirectCallContext.exit(frame, context, state);
                 }
+                return toPTypeNode.executeConvert(res);
             } catch (ArityException | UnsupportedTypeException | UnsupportedMessageException e) {
                 throw raise(PythonErrorType.TypeError, ErrorMessages.INVALID_INSTANTIATION_OF_FOREIGN_OBJ);
             }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.ints;
+
+import java.math.BigInteger;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Sub-quadratic conversion between {@link BigInteger} and its decimal string representation.
+ * {@link BigInteger#BigInteger(String)} is quadratic in the number of digits, which makes parsing
+ * or printing of integers with hundreds of thousands of digits prohibitively slow. Both directions
+ * are implemented by splitting the number at a power of ten taken from a shared table of
+ * {@code 10^(18 * 2^k)}, so that the bulk of the work is done by {@link BigInteger#multiply} and
+ * {@link BigInteger#divideAndRemainder}, which use Karatsuba, Toom-Cook and Burnikel-Ziegler for
+ * large operands.
+ */
+public final class DecimalConversion {
+
+    /** Number of decimal digits that always fit into a {@code long}. */
+    private static final int DIGITS_PER_LONG = 18;
+
+    /**
+     * Inputs with at most this many digits are handed to {@link BigInteger#BigInteger(String)}
+     * directly. Must be a multiple of {@link #DIGITS_PER_LONG}.
+     */
+    private static final int PARSE_THRESHOLD = DIGITS_PER_LONG * 64;
+
+    /**
+     * Numbers with at most this many bits are handed to {@link BigInteger#toString()} directly.
+     */
+    private static final int TO_STRING_THRESHOLD_BITS = 4096;
+
+    /**
+     * {@code powers[k] = 10^(DIGITS_PER_LONG * 2^k)}. Grown on demand; racing threads may compute
+     * the same entries twice, which is harmless since the values are immutable.
+     */
+    private static volatile BigInteger[] powers = new BigInteger[]{BigInteger.TEN.pow(DIGITS_PER_LONG)};
+
+    private DecimalConversion() {
+    }
+
+    private static BigInteger powerOfTen(int k) {
+        BigInteger[] table = powers;
+        if (k < table.length) {
+            return table[k];
+        }
+        BigInteger[] newTable = new BigInteger[k + 1];
+        System.arraycopy(table, 0, newTable, 0, table.length);
+        for (int i = table.length; i <= k; i++) {
+            newTable[i] = newTable[i - 1].multiply(newTable[i - 1]);
+        }
+        powers = newTable;
+        return newTable[k];
+    }
+
+    /**
+     * Parses a string of ASCII decimal digits (without sign, whitespace or underscores).
+     */
+    @TruffleBoundary
+    public static BigInteger parse(String digits) {
+        return parse(digits, 0, digits.length());
+    }
+
+    /**
+     * Parses {@code digits[start:end]}, which must consist of ASCII decimal digits only.
+     */
+    @TruffleBoundary
+    public static BigInteger parse(String digits, int start, int end) {
+        int len = end - start;
+        if (len <= PARSE_THRESHOLD) {
+            return new BigInteger(digits.substring(start, end));
+        }
+        // split such that the low part has exactly DIGITS_PER_LONG * 2^k digits
+        int k = 0;
+        int lowLen = DIGITS_PER_LONG;
+        while (lowLen * 2 < len) {
+            lowLen *= 2;
+            k++;
+        }
+        int split = end - lowLen;
+        BigInteger high = parse(digits, start, split);
+        BigInteger low = parse(digits, split, end);
+        return high.multiply(powerOfTen(k)).add(low);
+    }
+
+    /**
+     * Same as {@link BigInteger#toString()}, but sub-quadratic for large values.
+     */
+    @TruffleBoundary
+    public static String toString(BigInteger value) {
+        if (value.bitLength() <= TO_STRING_THRESHOLD_BITS) {
+            return value.toString();
+        }
+        // log10(2) ~ 0.30103, so this is a slight over-estimate of the number of digits
+        StringBuilder sb = new StringBuilder((int) (value.bitLength() * 0.30103) + 2);
+        if (value.signum() < 0) {
+            sb.append('-');
+            toString(value.negate(), sb, 0);
+        } else {
+            toString(value, sb, 0);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends the decimal digits of the non-negative {@code value} to {@code sb}, left-padded with
+     * zeros to {@code width} digits.
+     */
+    private static void toString(BigInteger value, StringBuilder sb, int width) {
+        int bitLength = value.bitLength();
+        if (bitLength <= TO_STRING_THRESHOLD_BITS) {
+            String s = value.toString();
+            for (int i = s.length(); i < width; i++) {
+                sb.append('0');
+            }
+            sb.append(s);
+            return;
+        }
+        // find the largest tabulated power of ten with at most half the bits of the value
+        int k = 0;
+        while (powerOfTen(k + 1).bitLength() <= bitLength / 2) {
+            k++;
+        }
+        int lowDigits = DIGITS_PER_LONG << k;
+        BigInteger[] qr = value.divideAndRemainder(powerOfTen(k));
+        toString(qr[0], sb, width > 0 ? width - lowDigits : 0);
+        toString(qr[1], sb, lowDigits);
+    }
+}
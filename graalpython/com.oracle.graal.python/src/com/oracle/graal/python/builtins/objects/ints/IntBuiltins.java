@@ -882,6 +882,12 @@ public class IntBuiltins extends PythonBuiltins {
     @ReportPolymorphism
     abstract static class PowNode extends PythonTernaryBuiltinNode {
 
+        /**
+         * Largest modulus for which {@code (mod - 1) * (mod - 1)} does not overflow a {@code long},
+         * i.e., for which modular exponentiation can be done without {@link BigInteger}.
+         */
+        static final long MAX_SMALL_MODULUS = 3037000499L;
+
         @Specialization(guards = "right >= 0", rewriteOn = ArithmeticException.class)
         static long doLLFast(long left, long right, @SuppressWarnings("unused") PNone none) {
             long result = 1;
@@ -962,8 +968,16 @@ public class IntBuiltins extends PythonBuiltins {
             }
         }
 
-        @Specialization(guards = {"right >= 0", "mod > 0"})
+        @Specialization(guards = {"right >= 0", "mod > 0", "mod <= MAX_SMALL_MODULUS"})
+        static long doLLPosLSmallPos(long left, long right, long mod) {
+            return opSmallMod(left, right, mod);
+        }
+
+        @Specialization(guards = {"right >= 0", "mod > 0"}, replaces = "doLLPosLSmallPos")
         static long doLLPosLPos(long left, long right, long mod) {
+            if (mod <= MAX_SMALL_MODULUS) {
+                return opSmallMod(left, right, mod);
+            }
             try {
                 return PInt.longValueExact(op(left, right, mod));
             } catch (OverflowException e) {
@@ -1063,6 +1077,22 @@ public class IntBuiltins extends PythonBuiltins {
             }
         }
 
+        private static long opSmallMod(long left, long right, long mod) {
+            assert mod > 0 && mod <= MAX_SMALL_MODULUS;
+            assert right >= 0;
+            long result = 1 % mod;
+            long base = Math.floorMod(left, mod);
+            long exponent = right;
+            while (exponent != 0) {
+                if ((exponent & 1) != 0) {
+                    result = (result * base) % mod;
+                }
+                exponent >>= 1;
+                base = (base * base) % mod;
+            }
+            return result;
+        }
+
         @TruffleBoundary
         private static BigInteger op(long left, long right, long mod) {
             assert mod > 0;
@@ -388,7 +388,7 @@ public final class PInt extends PythonBuiltinObject {
 
     @TruffleBoundary
     private static String toString(BigInteger value) {
-        return value.toString();
+        return DecimalConversion.toString(value);
     }
 
     @TruffleBoundary
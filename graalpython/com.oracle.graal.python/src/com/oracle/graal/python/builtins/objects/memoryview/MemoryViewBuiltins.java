@@ -228,6 +228,10 @@ public class MemoryViewBuiltins extends PythonBuiltins {
                     // The intermediate array is necessary for overlapping views (where src and dest
                     // are the same buffer)
                     byte[] srcBytes = toJavaBytesNode.execute(srcView);
+                    if (MemoryViewNodes.ToJavaBytesNode.isPlainContiguous(destView)) {
+                        writeBytesAtNode.execute(srcBytes, 0, srcBytes.length, self, destView.getBufferPointer(), destView.getOffset());
+                        return PNone.NONE;
+                    }
                     int itemsize = srcView.getItemSize();
                     for (int i = 0; i < destView.getBufferShape()[0]; i++) {
                         MemoryViewNodes.MemoryPointer destPtr = pointerLookupNode.execute(frame, destView, i);
@@ -46,19 +46,24 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowEr
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
 
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes;
 import com.oracle.graal.python.builtins.objects.cext.capi.NativeCAPISymbol;
 import com.oracle.graal.python.builtins.objects.common.BufferStorageNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.mmap.MMapPointer;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.lib.PyIndexCheckNode;
 import com.oracle.graal.python.lib.PyNumberAsSizeNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.BufferFormat;
@@ -67,6 +72,7 @@ import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
@@ -86,6 +92,10 @@ public class MemoryViewNodes {
         return format == BufferFormat.UINT_8 || format == BufferFormat.INT_8 || format == BufferFormat.CHAR;
     }
 
+    static boolean isMMapPointer(Object ptr) {
+        return ptr instanceof MMapPointer;
+    }
+
     public abstract static class InitFlagsNode extends Node {
         public abstract int execute(int ndim, int itemsize, int[] shape, int[] strides, int[] suboffsets);
 
@@ -178,10 +188,20 @@ public class MemoryViewNodes {
     }
 
     @GenerateUncached
+    @ImportStatic(MemoryViewNodes.class)
     abstract static class ReadBytesAtNode extends Node {
         public abstract void execute(byte[] dest, int destOffset, int len, PMemoryView self, Object ptr, int offset);
 
-        @Specialization(guards = {"ptr != null", "cachedLen == len", "cachedLen <= 8"}, limit = "4")
+        @Specialization
+        static void doMMap(byte[] dest, int destOffset, int len, @SuppressWarnings("unused") PMemoryView self, MMapPointer ptr, int offset,
+                        @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                        @CachedContext(PythonLanguage.class) PythonContext context,
+                        @Cached PRaiseNode raiseNode,
+                        @Cached PConstructAndRaiseNode constructAndRaiseNode) {
+            ptr.readBytes(offset, dest, destOffset, len, posixLib, context.getPosixSupport(), raiseNode, constructAndRaiseNode);
+        }
+
+        @Specialization(guards = {"ptr != null", "!isMMapPointer(ptr)", "cachedLen == len", "cachedLen <= 8"}, limit = "4")
         @ExplodeLoop
         static void doNativeCached(byte[] dest, int destOffset, @SuppressWarnings("unused") int len, @SuppressWarnings("unused") PMemoryView self, Object ptr, int offset,
                         @Cached("len") int cachedLen,
@@ -195,7 +215,7 @@ public class MemoryViewNodes {
             }
         }
 
-        @Specialization(guards = "ptr != null", replaces = "doNativeCached")
+        @Specialization(guards = {"ptr != null", "!isMMapPointer(ptr)"}, replaces = "doNativeCached")
         static void doNativeGeneric(byte[] dest, int destOffset, int len, @SuppressWarnings("unused") PMemoryView self, Object ptr, int offset,
                         @CachedLibrary(limit = "1") InteropLibrary lib) {
             try {
@@ -223,10 +243,20 @@ public class MemoryViewNodes {
     }
 
     @GenerateUncached
+    @ImportStatic(MemoryViewNodes.class)
     abstract static class WriteBytesAtNode extends Node {
         public abstract void execute(byte[] src, int srcOffset, int len, PMemoryView self, Object ptr, int offset);
 
-        @Specialization(guards = {"ptr != null", "cachedLen == len", "cachedLen <= 8"}, limit = "4")
+        @Specialization
+        static void doMMap(byte[] src, int srcOffset, int len, @SuppressWarnings("unused") PMemoryView self, MMapPointer ptr, int offset,
+                        @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                        @CachedContext(PythonLanguage.class) PythonContext context,
+                        @Cached PRaiseNode raiseNode,
+                        @Cached PConstructAndRaiseNode constructAndRaiseNode) {
+            ptr.writeBytes(offset, src, srcOffset, len, posixLib, context.getPosixSupport(), raiseNode, constructAndRaiseNode);
+        }
+
+        @Specialization(guards = {"ptr != null", "!isMMapPointer(ptr)", "cachedLen == len", "cachedLen <= 8"}, limit = "4")
         @ExplodeLoop
         static void doNativeCached(byte[] src, int srcOffset, @SuppressWarnings("unused") int len, @SuppressWarnings("unused") PMemoryView self, Object ptr, int offset,
                         @Cached("len") int cachedLen,
@@ -240,7 +270,7 @@ public class MemoryViewNodes {
             }
         }
 
-        @Specialization(guards = "ptr != null", replaces = "doNativeCached")
+        @Specialization(guards = {"ptr != null", "!isMMapPointer(ptr)"}, replaces = "doNativeCached")
         static void doNativeGeneric(byte[] src, int srcOffset, int len, @SuppressWarnings("unused") PMemoryView self, Object ptr, int offset,
                         @CachedLibrary(limit = "1") InteropLibrary lib) {
             try {
@@ -559,6 +589,8 @@ public class MemoryViewNodes {
             byte[] bytes = new byte[self.getLength()];
             if (cachedDimensions == 0) {
                 readBytesAtNode.execute(bytes, 0, self.getItemSize(), self, self.getBufferPointer(), self.getOffset());
+            } else if (cachedDimensions == 1 && isPlainContiguous(self)) {
+                readBytesAtNode.execute(bytes, 0, bytes.length, self, self.getBufferPointer(), self.getOffset());
             } else {
                 convert(bytes, self, cachedDimensions, readBytesAtNode, callCapiFunction);
             }
@@ -574,12 +606,22 @@ public class MemoryViewNodes {
             byte[] bytes = new byte[self.getLength()];
             if (self.getDimensions() == 0) {
                 readBytesAtNode.execute(bytes, 0, self.getItemSize(), self, self.getBufferPointer(), self.getOffset());
+            } else if (self.getDimensions() == 1 && isPlainContiguous(self)) {
+                readBytesAtNode.execute(bytes, 0, bytes.length, self, self.getBufferPointer(), self.getOffset());
             } else {
                 convertBoundary(bytes, self, self.getDimensions(), readBytesAtNode, callCapiFunction);
             }
             return bytes;
         }
 
+        /**
+         * A contiguous view without suboffsets can be read with a single {@link ReadBytesAtNode}
+         * call, which for an {@link MMapPointer} means a single bulk read.
+         */
+        static boolean isPlainContiguous(PMemoryView self) {
+            return self.isCContiguous() && self.getBufferSuboffsets() == null;
+        }
+
         @TruffleBoundary
         private void convertBoundary(byte[] dest, PMemoryView self, int ndim, ReadBytesAtNode readBytesAtNode, CExtNodes.PCallCapiFunction callCapiFunction) {
             convert(dest, self, ndim, readBytesAtNode, callCapiFunction);
@@ -42,7 +42,6 @@ package com.oracle.graal.python.builtins.objects.mmap;
 
 import static com.oracle.graal.python.builtins.objects.mmap.PMMap.ACCESS_COPY;
 import static com.oracle.graal.python.builtins.objects.mmap.PMMap.ACCESS_READ;
-import static com.oracle.graal.python.nodes.ErrorMessages.MMAP_CHANGED_LENGTH;
 import static com.oracle.graal.python.nodes.ErrorMessages.MMAP_INDEX_OUT_OF_RANGE;
 import static com.oracle.graal.python.nodes.ErrorMessages.READ_BYTE_OUT_OF_RANGE;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
@@ -73,14 +72,13 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
-import com.oracle.graal.python.builtins.objects.bytes.BytesBuiltins.BytesLikeNoGeneralizationNode;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
-import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ToByteArrayNode;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.mmap.MMapBuiltinsClinicProviders.FindNodeClinicProviderGen;
 import com.oracle.graal.python.builtins.objects.mmap.MMapBuiltinsClinicProviders.FlushNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.mmap.MMapBuiltinsClinicProviders.RFindNodeClinicProviderGen;
 import com.oracle.graal.python.builtins.objects.mmap.MMapBuiltinsClinicProviders.SeekNodeClinicProviderGen;
 import com.oracle.graal.python.builtins.objects.mmap.MMapBuiltinsClinicProviders.WriteNodeClinicProviderGen;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
@@ -111,7 +109,6 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
-import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -212,6 +209,7 @@ public class MMapBuiltins extends PythonBuiltins {
     @Builtin(name = __GETITEM__, minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
     public abstract static class GetItemNode extends PythonBinaryBuiltinNode {
+        private static final int SLICE_READ_SIZE = 64 * 1024;
 
         @Specialization(guards = "!isPSlice(idxObj)", limit = "1")
         int doSingle(VirtualFrame frame, PMMap self, Object idxObj,
@@ -234,6 +232,7 @@ public class MMapBuiltins extends PythonBuiltins {
         Object doSlice(VirtualFrame frame, PMMap self, PSlice idx,
                         @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixSupportLib,
                         @Cached ConditionProfile emptyProfile,
+                        @Cached ConditionProfile stepProfile,
                         @Cached CoerceToIntSlice sliceCast,
                         @Cached ComputeIndices compute,
                         @Cached LenOfRangeNode sliceLenNode) {
@@ -243,7 +242,22 @@ public class MMapBuiltins extends PythonBuiltins {
                 if (emptyProfile.profile(len == 0)) {
                     return createEmptyBytes(factory());
                 }
-                byte[] result = readBytes(this, frame, self, posixSupportLib, info.start, len);
+                if (stepProfile.profile(info.step == 1)) {
+                    return factory().createBytes(readBytes(this, frame, self, posixSupportLib, info.start, len));
+                }
+                // read the covered region in bounded pieces, each spanning only the elements it
+                // provides, so that large steps do not read the gaps between them
+                int absStep = Math.abs(info.step);
+                int lo = info.step > 0 ? info.start : info.start + (len - 1) * info.step;
+                int perRead = Math.max(1, SLICE_READ_SIZE / absStep);
+                byte[] result = new byte[len];
+                for (int k = 0; k < len; k += perRead) {
+                    int n = Math.min(perRead, len - k);
+                    byte[] piece = readBytes(this, frame, self, posixSupportLib, lo + (long) k * absStep, (n - 1) * absStep + 1);
+                    for (int e = 0; e < n; e++) {
+                        result[info.step > 0 ? k + e : len - 1 - k - e] = piece[e * absStep];
+                    }
+                }
                 return factory().createBytes(result);
             } catch (OverflowException e) {
                 throw raise(PythonBuiltinClassType.OverflowError, e);
@@ -468,35 +482,33 @@ public class MMapBuiltins extends PythonBuiltins {
     @Builtin(name = "readline", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
     abstract static class ReadlineNode extends PythonUnaryBuiltinNode {
-        private static final int BUFFER_SIZE = 1024;
+        private static final byte[] NEWLINE = {'\n'};
 
         @Specialization
         Object readline(VirtualFrame frame, PMMap self,
                         @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
-                        @Cached SequenceStorageNodes.AppendNode appendNode) {
-            // Posix abstraction is leaking here a bit: with read mmapped memory, we'd just read
-            // byte by byte, but that would be very inefficient with emulated mmap, so we use a
-            // small buffer
-            ByteSequenceStorage res = new ByteSequenceStorage(16);
-            byte[] buffer = new byte[BUFFER_SIZE];
-            int nread;
-            outer: while (self.getPos() < self.getLength()) {
-                try {
-                    nread = posixLib.mmapReadBytes(getPosixSupport(), self.getPosixSupportHandle(), self.getPos(), buffer, (int) Math.min(self.getRemaining(), buffer.length));
-                } catch (PosixException e) {
-                    throw raiseOSErrorFromPosixException(frame, e);
-                }
-                for (int i = 0; i < nread; i++) {
-                    byte b = buffer[i];
-                    appendNode.execute(res, b, BytesLikeNoGeneralizationNode.SUPPLIER);
-                    if (b == '\n') {
-                        self.setPos(self.getPos() + i + 1);
-                        break outer;
-                    }
-                }
-                self.setPos(self.getPos() + nread);
+                        @Cached ConditionProfile emptyProfile,
+                        @Cached ConditionProfile noNewlineProfile) {
+            long pos = self.getPos();
+            long remaining = self.getRemaining();
+            if (emptyProfile.profile(remaining == 0)) {
+                return createEmptyBytes(factory());
+            }
+            // search for the line end in the mapped memory and then copy the line at once
+            long eol;
+            try {
+                eol = posixLib.mmapFind(getPosixSupport(), self.getPosixSupportHandle(), pos, pos + remaining, NEWLINE, false);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            long lineEnd = noNewlineProfile.profile(eol < 0) ? pos + remaining : eol + 1;
+            try {
+                byte[] line = readBytes(this, frame, self, posixLib, pos, PythonUtils.toIntExact(lineEnd - pos));
+                self.setPos(lineEnd);
+                return factory().createBytes(line);
+            } catch (OverflowException e) {
+                throw raise(PythonBuiltinClassType.OverflowError, ErrorMessages.TOO_MANY_REMAINING_BYTES_TO_BE_STORED);
             }
-            return factory().createBytes(res);
         }
     }
 
@@ -521,6 +533,7 @@ public class MMapBuiltins extends PythonBuiltins {
                     throw raise(ValueError, ErrorMessages.DATA_OUT_OF_RANGE);
                 }
                 posixLib.mmapWriteBytes(getPosixSupport(), self.getPosixSupportHandle(), self.getPos(), data, data.length);
+                self.setPos(self.getPos() + data.length);
                 return data.length;
             } catch (PosixException e) {
                 throw raiseOSErrorFromPosixException(frame, e);
@@ -570,7 +583,6 @@ public class MMapBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
     public abstract static class FindNode extends PythonQuaternaryClinicBuiltinNode {
-        private static final int BUFFER_SIZE = 1024; // keep in sync with test_mmap.py
 
         @Override
         protected ArgumentClinicProvider getArgumentClinic() {
@@ -582,82 +594,66 @@ public class MMapBuiltins extends PythonBuiltins {
                         @Cached LongIndexConverterNode startConverter,
                         @Cached LongIndexConverterNode endConverter,
                         @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
-            long start = normalizeIndex(frame, startConverter, startIn, self.getLength(), self.getPos());
-            long end = normalizeIndex(frame, endConverter, endIn, self.getLength(), self.getLength());
-
-            // We use two arrays to implement circular buffer, once the search for the needle would
-            // overflow the second buffer, we load more data into the other buffer and then swap the
-            // buffers and continue.
-            // This is way more complicated than it needs to be, but we do not want to access the
-            // mmap byte-by-byte as with some implementations that could be very inefficient.
-            int bufferSize = Math.max(BUFFER_SIZE, sub.length);
-            int buffersIndex = bufferSize;
-            byte[] firstBuffer = new byte[bufferSize];
-            byte[] secondBuffer = new byte[bufferSize];
-
-            readBytes(frame, self, posixLib, start, secondBuffer);
-            for (long selfIdx = start; selfIdx <= end - sub.length; selfIdx++, buffersIndex++) {
-                // Make sure that the buffers have enough room for the search
-                if (buffersIndex + sub.length > bufferSize * 2) {
-                    byte[] tmp = firstBuffer;
-                    firstBuffer = secondBuffer;
-                    secondBuffer = tmp;
-                    buffersIndex -= bufferSize; // move to the tail of the first buffer now
-                    long readIndex = selfIdx + sub.length - 1;
-                    readBytes(frame, self, posixLib, readIndex, secondBuffer);
-                    // It's OK if we read less than buffer size, the outer loop condition
-                    // 'selfIdx <= end' and the check in readBytes should cover that we don't read
-                    // garbage from the buffer
-                }
-                boolean found = true;
-                for (int subIdx = 0; subIdx < sub.length; subIdx++) {
-                    byte value;
-                    int currentBuffersIdx = buffersIndex + subIdx;
-                    if (currentBuffersIdx >= bufferSize) {
-                        value = secondBuffer[currentBuffersIdx % bufferSize];
-                    } else {
-                        value = firstBuffer[currentBuffersIdx];
-                    }
-                    if (sub[subIdx] != value) {
-                        found = false;
-                        break;
-                    }
-                }
-                if (found) {
-                    return selfIdx;
-                }
-            }
-            return -1;
+            return doFind(this, frame, self, sub, startIn, endIn, false, startConverter, endConverter, posixLib);
         }
+    }
 
-        private void readBytes(VirtualFrame frame, PMMap self, PosixSupportLibrary posixLib, long index, byte[] buffer) {
-            try {
-                long remaining = self.getLength() - index;
-                int toReadLen = remaining > buffer.length ? buffer.length : (int) remaining;
-                int nread = posixLib.mmapReadBytes(getPosixSupport(), self.getPosixSupportHandle(), index, buffer, toReadLen);
-                if (toReadLen != nread) {
-                    throw raise(PythonBuiltinClassType.SystemError, MMAP_CHANGED_LENGTH);
-                }
-            } catch (PosixException ex) {
-                throw raiseOSErrorFromPosixException(frame, ex);
-            }
+    @Builtin(name = "rfind", minNumOfPositionalArgs = 2, parameterNames = {"$self", "sub", "start", "end"})
+    @ArgumentClinic(name = "sub", conversion = ClinicConversion.Buffer)
+    @GenerateNodeFactory
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    public abstract static class RFindNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return RFindNodeClinicProviderGen.INSTANCE;
         }
 
-        private static long normalizeIndex(VirtualFrame frame, LongIndexConverterNode converter, Object idxObj, long len, long defaultValue) {
-            if (PGuards.isNoValue(idxObj)) {
-                return defaultValue;
-            }
-            long idx = converter.executeLong(frame, idxObj);
-            if (idx < 0) {
-                idx += len;
-            }
-            if (idx < 0) {
-                idx = 0;
-            } else if (idx > len) {
-                idx = len;
+        @Specialization
+        long rfind(VirtualFrame frame, PMMap self, byte[] sub, Object startIn, Object endIn,
+                        @Cached LongIndexConverterNode startConverter,
+                        @Cached LongIndexConverterNode endConverter,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            return doFind(this, frame, self, sub, startIn, endIn, true, startConverter, endConverter, posixLib);
+        }
+    }
+
+    private static long doFind(PythonBuiltinBaseNode node, VirtualFrame frame, PMMap self, byte[] sub, Object startIn, Object endIn, boolean reverse,
+                    LongIndexConverterNode startConverter, LongIndexConverterNode endConverter, PosixSupportLibrary posixLib) {
+        long start = normalizeIndex(frame, startConverter, startIn, self.getLength(), self.getPos());
+        long end = normalizeIndex(frame, endConverter, endIn, self.getLength(), self.getLength());
+
+        if (sub.length == 0) {
+            if (start > end) {
+                return -1;
             }
-            return idx;
+            return reverse ? end : start;
+        }
+        if (end - start < sub.length) {
+            return -1;
+        }
+        // the search runs directly on the mapped memory, no need to copy it to the Java heap
+        try {
+            return posixLib.mmapFind(node.getPosixSupport(), self.getPosixSupportHandle(), start, end, sub, reverse);
+        } catch (PosixException e) {
+            throw node.raiseOSErrorFromPosixException(frame, e);
+        }
+    }
+
+    private static long normalizeIndex(VirtualFrame frame, LongIndexConverterNode converter, Object idxObj, long len, long defaultValue) {
+        if (PGuards.isNoValue(idxObj)) {
+            return defaultValue;
+        }
+        long idx = converter.executeLong(frame, idxObj);
+        if (idx < 0) {
+            idx += len;
+        }
+        if (idx < 0) {
+            idx = 0;
+        } else if (idx > len) {
+            idx = len;
         }
+        return idx;
     }
 
     @Builtin(name = "flush", minNumOfPositionalArgs = 1, parameterNames = {"$self", "offset", "size"})
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.mmap;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PConstructAndRaiseNode;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.InvalidArrayIndexException;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+
+/**
+ * Buffer pointer of a {@code memoryview} of an {@link PMMap mmap} object. The element accesses go
+ * directly to the mapped memory via {@link PosixSupportLibrary}, so the view and the mmap object
+ * always see the same data.
+ */
+@ExportLibrary(InteropLibrary.class)
+public final class MMapPointer implements TruffleObject {
+
+    private final PMMap mmap;
+
+    public MMapPointer(PMMap mmap) {
+        this.mmap = mmap;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    boolean hasArrayElements() {
+        return true;
+    }
+
+    @ExportMessage
+    long getArraySize() {
+        return mmap.getLength();
+    }
+
+    @ExportMessage
+    boolean isArrayElementReadable(long index) {
+        return !mmap.isClosed() && index >= 0 && index < mmap.getLength();
+    }
+
+    @ExportMessage
+    boolean isArrayElementModifiable(long index) {
+        return mmap.isWriteable() && isArrayElementReadable(index);
+    }
+
+    @ExportMessage
+    @SuppressWarnings({"static-method", "unused"})
+    boolean isArrayElementInsertable(long index) {
+        return false;
+    }
+
+    @ExportMessage
+    Object readArrayElement(long index,
+                    @Shared("posixLib") @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Shared("context") @CachedContext(PythonLanguage.class) PythonContext context,
+                    @Shared("raiseNode") @Cached PRaiseNode raiseNode,
+                    @Shared("constructAndRaiseNode") @Cached PConstructAndRaiseNode constructAndRaiseNode) throws InvalidArrayIndexException {
+        checkIndex(index, raiseNode);
+        try {
+            return posixLib.mmapReadByte(context.getPosixSupport(), mmap.getPosixSupportHandle(), index);
+        } catch (PosixException e) {
+            throw constructAndRaiseNode.raiseOSError(null, e.getErrorCode(), e.getMessage(), null, null);
+        }
+    }
+
+    @ExportMessage
+    void writeArrayElement(long index, Object value,
+                    @Shared("posixLib") @CachedLibrary(limit = "1") PosixSupportLibrary posixLib,
+                    @Shared("context") @CachedContext(PythonLanguage.class) PythonContext context,
+                    @Shared("raiseNode") @Cached PRaiseNode raiseNode,
+                    @Shared("constructAndRaiseNode") @Cached PConstructAndRaiseNode constructAndRaiseNode) throws InvalidArrayIndexException, UnsupportedTypeException {
+        if (!(value instanceof Byte)) {
+            throw UnsupportedTypeException.create(new Object[]{value});
+        }
+        checkIndex(index, raiseNode);
+        try {
+            posixLib.mmapWriteBytes(context.getPosixSupport(), mmap.getPosixSupportHandle(), index, new byte[]{(byte) value}, 1);
+        } catch (PosixException e) {
+            throw constructAndRaiseNode.raiseOSError(null, e.getErrorCode(), e.getMessage(), null, null);
+        }
+    }
+
+    /**
+     * Reads {@code len} bytes at {@code index} with a single {@link PosixSupportLibrary} message.
+     * The memoryview nodes use this instead of reading the elements one by one.
+     */
+    public void readBytes(long index, byte[] dest, int destOffset, int len, PosixSupportLibrary posixLib, Object posixSupport, PRaiseNode raiseNode,
+                    PConstructAndRaiseNode constructAndRaiseNode) {
+        checkOpen(raiseNode);
+        try {
+            if (destOffset == 0) {
+                posixLib.mmapReadBytes(posixSupport, mmap.getPosixSupportHandle(), index, dest, len);
+            } else {
+                byte[] bytes = new byte[len];
+                posixLib.mmapReadBytes(posixSupport, mmap.getPosixSupportHandle(), index, bytes, len);
+                PythonUtils.arraycopy(bytes, 0, dest, destOffset, len);
+            }
+        } catch (PosixException e) {
+            throw constructAndRaiseNode.raiseOSError(null, e.getErrorCode(), e.getMessage(), null, null);
+        }
+    }
+
+    /**
+     * Writes {@code len} bytes at {@code index} with a single {@link PosixSupportLibrary} message.
+     */
+    public void writeBytes(long index, byte[] src, int srcOffset, int len, PosixSupportLibrary posixLib, Object posixSupport, PRaiseNode raiseNode,
+                    PConstructAndRaiseNode constructAndRaiseNode) {
+        checkOpen(raiseNode);
+        byte[] bytes = src;
+        if (srcOffset != 0) {
+            bytes = PythonUtils.arrayCopyOfRange(src, srcOffset, srcOffset + len);
+        }
+        try {
+            posixLib.mmapWriteBytes(posixSupport, mmap.getPosixSupportHandle(), index, bytes, len);
+        } catch (PosixException e) {
+            throw constructAndRaiseNode.raiseOSError(null, e.getErrorCode(), e.getMessage(), null, null);
+        }
+    }
+
+    private void checkOpen(PRaiseNode raiseNode) {
+        if (mmap.isClosed()) {
+            throw raiseNode.raise(PythonBuiltinClassType.ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+        }
+    }
+
+    private void checkIndex(long index, PRaiseNode raiseNode) throws InvalidArrayIndexException {
+        checkOpen(raiseNode);
+        if (index < 0 || index >= mmap.getLength()) {
+            throw InvalidArrayIndexException.create(index);
+        }
+    }
+}
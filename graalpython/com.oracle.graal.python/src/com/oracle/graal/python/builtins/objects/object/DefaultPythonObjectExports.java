@@ -53,12 +53,15 @@ import com.oracle.graal.python.builtins.objects.iterator.PStringIterator;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.interop.HostByteBuffers;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Exclusive;
 import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.InteropLibrary;
@@ -218,6 +221,33 @@ final class DefaultPythonObjectExports {
         }
     }
 
+    @ExportMessage
+    static boolean isBuffer(Object receiver,
+                    @Shared("context") @CachedContext(PythonLanguage.class) PythonContext context) {
+        return HostByteBuffers.isHostByteBuffer(context.getEnv(), receiver);
+    }
+
+    @ExportMessage
+    static int getBufferLength(Object receiver,
+                    @Shared("context") @CachedContext(PythonLanguage.class) PythonContext context) throws UnsupportedMessageException {
+        Object hostBuffer = HostByteBuffers.unwrap(context.getEnv(), receiver);
+        if (hostBuffer == null) {
+            throw UnsupportedMessageException.create();
+        }
+        return HostByteBuffers.length(hostBuffer);
+    }
+
+    @ExportMessage
+    static byte[] getBufferBytes(Object receiver,
+                    @Shared("context") @CachedContext(PythonLanguage.class) PythonContext context) throws UnsupportedMessageException {
+        Object hostBuffer = HostByteBuffers.unwrap(context.getEnv(), receiver);
+        if (hostBuffer == null) {
+            throw UnsupportedMessageException.create();
+        }
+        // a single bulk copy instead of reading the array element-wise through interop
+        return HostByteBuffers.copyBytes(hostBuffer);
+    }
+
     @ExportMessage
     static Object asPStringWithState(Object receiver, ThreadState state,
                     @CachedLibrary("receiver") PythonObjectLibrary plib) {
@@ -305,8 +305,20 @@ public class DirEntryBuiltins extends PythonBuiltins {
 
         abstract boolean execute(VirtualFrame frame, PDirEntry self, boolean followSymlinks);
 
-        @Specialization(guards = "followSymlinks")
-        boolean testModeUsingStat(VirtualFrame frame, PDirEntry self, boolean followSymlinks) {
+        @Specialization
+        boolean useTypeIfKnown(VirtualFrame frame, PDirEntry self, boolean followSymlinks,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached ConditionProfile needStatProfile) {
+            // Like CPython, only stat if the type is unknown or if we need to follow a symlink.
+            // This keeps os.walk() from calling fstatat() for every entry.
+            int entryType = posixLib.dirEntryGetType(getPosixSupport(), self.dirEntryData);
+            if (needStatProfile.profile(entryType == DT_UNKNOWN.value || (followSymlinks && entryType == DT_LNK.value))) {
+                return testModeUsingStat(frame, self, followSymlinks);
+            }
+            return entryType == expectedDirEntryType;
+        }
+
+        private boolean testModeUsingStat(VirtualFrame frame, PDirEntry self, boolean followSymlinks) {
             PTuple statResult = getStatHelperNode().execute(frame, self, followSymlinks, true);
             if (statResult == null) {
                 // file not found
@@ -317,16 +329,6 @@ public class DirEntryBuiltins extends PythonBuiltins {
             return mode == expectedMode;
         }
 
-        @Specialization(guards = "!followSymlinks")
-        boolean useTypeIfKnown(VirtualFrame frame, PDirEntry self, @SuppressWarnings("unused") boolean followSymlinks,
-                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
-            int entryType = posixLib.dirEntryGetType(getPosixSupport(), self.dirEntryData);
-            if (entryType != DT_UNKNOWN.value) {
-                return entryType == expectedDirEntryType;
-            }
-            return testModeUsingStat(frame, self, false);
-        }
-
         private StatHelperNode getStatHelperNode() {
             if (statHelperNode == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -48,6 +48,7 @@ import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.runtime.AsyncHandler.AsyncAction;
 import com.oracle.graal.python.runtime.AsyncHandler.SharedFinalizer;
 import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.object.Shape;
@@ -57,6 +58,8 @@ public final class PScandirIterator extends PythonBuiltinObject {
 
     final PosixFileHandle path;
     final DirStreamRef ref;
+    Object[] batch = PythonUtils.EMPTY_OBJECT_ARRAY;
+    int batchIndex;
 
     public PScandirIterator(Object cls, Shape instanceShape, PythonContext context, Object dirStream, PosixFileHandle path) {
         super(cls, instanceShape);
@@ -52,6 +52,7 @@ import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
@@ -63,12 +64,14 @@ import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PythonBuiltinClassType.PScandirIterator)
 public class ScandirIteratorBuiltins extends PythonBuiltins {
@@ -108,21 +111,25 @@ public class ScandirIteratorBuiltins extends PythonBuiltins {
     abstract static class NextNode extends PythonUnaryBuiltinNode {
         @Specialization
         PDirEntry next(VirtualFrame frame, PScandirIterator self,
-                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached ConditionProfile refillProfile) {
             if (self.ref.isReleased()) {
                 throw raise(PythonBuiltinClassType.StopIteration);
             }
-            try {
-                Object dirEntryData = posixLib.readdir(getPosixSupport(), self.ref.getReference());
-                if (dirEntryData == null) {
+            if (refillProfile.profile(self.batchIndex >= self.batch.length)) {
+                try {
+                    self.batch = posixLib.readdirBatch(getPosixSupport(), self.ref.getReference(), PosixModuleBuiltins.READDIR_BATCH_SIZE, true);
+                    self.batchIndex = 0;
+                } catch (PosixException e) {
+                    CloseNode.closedir(self, getPosixSupport(), posixLib);
+                    throw raiseOSErrorFromPosixException(frame, e);
+                }
+                if (self.batch.length == 0) {
                     CloseNode.closedir(self, getPosixSupport(), posixLib);
                     throw raise(PythonBuiltinClassType.StopIteration);
                 }
-                return factory().createDirEntry(dirEntryData, self.path);
-            } catch (PosixException e) {
-                CloseNode.closedir(self, getPosixSupport(), posixLib);
-                throw raiseOSErrorFromPosixException(frame, e);
             }
+            return factory().createDirEntry(self.batch[self.batchIndex++], self.path);
         }
     }
 
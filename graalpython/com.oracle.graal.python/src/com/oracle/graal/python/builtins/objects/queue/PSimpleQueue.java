@@ -40,7 +40,6 @@
  */
 package com.oracle.graal.python.builtins.objects.queue;
 
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
@@ -49,30 +48,41 @@ import com.oracle.truffle.api.object.Shape;
 
 public final class PSimpleQueue extends PythonBuiltinObject {
 
-    private final LinkedBlockingQueue<Object> data = createQueue();
+    private final RingBufferQueue data;
 
-    public PSimpleQueue(Object cls, Shape instanceShape) {
+    /**
+     * @param maxSize the maximum number of items or {@code 0} if the queue is unbounded
+     */
+    public PSimpleQueue(Object cls, Shape instanceShape, int maxSize) {
         super(cls, instanceShape);
+        this.data = createQueue(maxSize);
     }
 
     @TruffleBoundary
-    private static LinkedBlockingQueue<Object> createQueue() {
-        return new LinkedBlockingQueue<>();
+    private static RingBufferQueue createQueue(int maxSize) {
+        return new RingBufferQueue(maxSize);
     }
 
-    @TruffleBoundary
     int getQueueSize() {
         return data.size();
     }
 
+    int getMaxSize() {
+        return data.getMaxSize();
+    }
+
+    boolean isFull() {
+        return data.isFull();
+    }
+
     @TruffleBoundary
     Object get() throws InterruptedException {
-        return data.take();
+        return data.take(-1);
     }
 
     @TruffleBoundary
     Object get(long microSeconds) throws InterruptedException {
-        return data.poll(microSeconds, TimeUnit.MICROSECONDS);
+        return data.take(TimeUnit.MICROSECONDS.toNanos(microSeconds));
     }
 
     @TruffleBoundary
@@ -85,4 +95,8 @@ public final class PSimpleQueue extends PythonBuiltinObject {
         return data.offer(value);
     }
 
+    @TruffleBoundary
+    boolean put(Object value, long microSeconds) throws InterruptedException {
+        return data.offer(value, microSeconds < 0 ? -1 : TimeUnit.MICROSECONDS.toNanos(microSeconds));
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.queue;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A FIFO queue of objects that stores its items in a circular array, which grows as needed up to
+ * the maximum size. Unlike {@link java.util.concurrent.LinkedBlockingQueue}, it does not allocate
+ * a node per item, and it only signals consumers or producers if some of them are actually parked.
+ * The number of items is published in a volatile field, so that polling an empty queue and
+ * querying the size do not need the lock. Since Python code only uses the queue while holding the
+ * GIL, the lock is almost never contended.
+ */
+final class RingBufferQueue {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    /** The maximum number of items, or {@code 0} if the queue is unbounded. */
+    private final int maxSize;
+
+    private Object[] items;
+    private int head;
+    private volatile int size;
+    private int waitingConsumers;
+    private int waitingProducers;
+
+    RingBufferQueue(int maxSize) {
+        assert maxSize >= 0;
+        this.maxSize = maxSize;
+        this.items = new Object[maxSize > 0 ? Math.min(INITIAL_CAPACITY, roundUpToPowerOf2(maxSize)) : INITIAL_CAPACITY];
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return maxSize > 0 && size >= maxSize;
+    }
+
+    /**
+     * Adds the item if there is space for it.
+     *
+     * @return {@code false} if the queue is full or cannot grow any further
+     */
+    boolean offer(Object item) {
+        lock.lock();
+        try {
+            return enqueue(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the item, waiting for space if the queue is full.
+     *
+     * @param timeoutNanos the maximum time to wait or a negative value to wait without timeout
+     * @return {@code false} if the time elapsed before there was space for the item
+     */
+    boolean offer(Object item, long timeoutNanos) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long nanos = timeoutNanos;
+            while (isFull()) {
+                if (timeoutNanos >= 0 && nanos <= 0) {
+                    return false;
+                }
+                waitingProducers++;
+                try {
+                    if (timeoutNanos < 0) {
+                        notFull.await();
+                    } else {
+                        nanos = notFull.awaitNanos(nanos);
+                    }
+                } finally {
+                    waitingProducers--;
+                }
+            }
+            return enqueue(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the first item without waiting.
+     *
+     * @return the item or {@code null} if the queue is empty
+     */
+    Object poll() {
+        if (size == 0) {
+            return null;
+        }
+        lock.lock();
+        try {
+            return size == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the first item, waiting for one if the queue is empty.
+     *
+     * @param timeoutNanos the maximum time to wait or a negative value to wait without timeout
+     * @return the item or {@code null} if the time elapsed before an item was available
+     */
+    Object take(long timeoutNanos) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long nanos = timeoutNanos;
+            while (size == 0) {
+                if (timeoutNanos >= 0 && nanos <= 0) {
+                    return null;
+                }
+                waitingConsumers++;
+                try {
+                    if (timeoutNanos < 0) {
+                        notEmpty.await();
+                    } else {
+                        nanos = notEmpty.awaitNanos(nanos);
+                    }
+                } finally {
+                    waitingConsumers--;
+                }
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean enqueue(Object item) {
+        int n = size;
+        if (maxSize > 0 && n >= maxSize) {
+            return false;
+        }
+        if (n == items.length && !grow()) {
+            return false;
+        }
+        items[(head + n) & (items.length - 1)] = item;
+        size = n + 1;
+        if (waitingConsumers > 0) {
+            notEmpty.signal();
+        }
+        return true;
+    }
+
+    private Object dequeue() {
+        Object item = items[head];
+        items[head] = null;
+        head = (head + 1) & (items.length - 1);
+        size = size - 1;
+        if (waitingProducers > 0) {
+            notFull.signal();
+        }
+        return item;
+    }
+
+    private boolean grow() {
+        int capacity = items.length;
+        if (capacity >= MAX_CAPACITY) {
+            return false;
+        }
+        Object[] newItems = new Object[capacity << 1];
+        // the queue is full, so the items wrap around at 'head'
+        int firstPart = capacity - head;
+        System.arraycopy(items, head, newItems, 0, firstPart);
+        System.arraycopy(items, 0, newItems, firstPart, head);
+        items = newItems;
+        head = 0;
+        return true;
+    }
+
+    private static int roundUpToPowerOf2(int n) {
+        return n >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+    }
+}
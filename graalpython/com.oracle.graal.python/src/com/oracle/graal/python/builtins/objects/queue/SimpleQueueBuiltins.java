@@ -41,6 +41,7 @@
 package com.oracle.graal.python.builtins.objects.queue;
 
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Empty;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.Full;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
 
@@ -55,19 +56,22 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.queue.SimpleQueueBuiltinsClinicProviders.SimpleQueueGetNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.queue.SimpleQueueBuiltinsClinicProviders.SimpleQueuePutNodeClinicProviderGen;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
-import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.runtime.GilNode;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PythonBuiltinClassType.PSimpleQueue)
 public final class SimpleQueueBuiltins extends PythonBuiltins {
@@ -88,6 +92,28 @@ public final class SimpleQueueBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "full", minNumOfPositionalArgs = 1, //
+                    doc = "full($self, /)\n--\n\nReturn True if the queue is full, False otherwise (not reliable!).")
+    @GenerateNodeFactory
+    public abstract static class SimpleQueueFullNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static boolean doGeneric(PSimpleQueue self) {
+            return self.isFull();
+        }
+    }
+
+    @Builtin(name = "maxsize", minNumOfPositionalArgs = 1, isGetter = true, //
+                    doc = "The maximum number of items in the queue, 0 if the queue is unbounded.")
+    @GenerateNodeFactory
+    public abstract static class SimpleQueueMaxSizeNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static int doGeneric(PSimpleQueue self) {
+            return self.getMaxSize();
+        }
+    }
+
     @Builtin(name = "qsize", minNumOfPositionalArgs = 1, //
                     doc = "qsize($self, /)\n--\n\nReturn the approximate size of the queue (not reliable!).")
     @GenerateNodeFactory
@@ -173,19 +199,7 @@ public final class SimpleQueueBuiltins extends PythonBuiltins {
         Object doTimeout(VirtualFrame frame, PSimpleQueue self, boolean block, Object timeout,
                         @CachedLibrary(limit = "1") PythonObjectLibrary timeoutLib) {
             assert block;
-
-            // convert timeout object (given in seconds) to a Java long in microseconds
-            long ltimeout;
-            if (timeoutLib.canBeJavaLong(timeout)) {
-                ltimeout = timeoutLib.asJavaLong(timeout, frame) * 1000000;
-            } else if (timeoutLib.canBeJavaDouble(timeout)) {
-                ltimeout = (long) (timeoutLib.asJavaDouble(timeout) * 1000000.0);
-            } else {
-                throw raise(OverflowError, "timeout value is too large");
-            }
-            if (ltimeout < 0) {
-                throw raise(ValueError, "'timeout' must be a non-negative number");
-            }
+            long ltimeout = toMicroSeconds(frame, this, timeout, timeoutLib);
 
             // CPython first tries a non-blocking get without releasing the GIL
             Object result = self.poll();
@@ -222,26 +236,80 @@ public final class SimpleQueueBuiltins extends PythonBuiltins {
     }
 
     /**
-     * For reference, see CPython's {@code _queuemodule.c: _queue_SimpleQueue_put_impl}.
+     * Converts a timeout object (given in seconds) to a Java long in microseconds.
+     */
+    static long toMicroSeconds(VirtualFrame frame, PythonBuiltinBaseNode node, Object timeout, PythonObjectLibrary timeoutLib) {
+        long ltimeout;
+        if (timeoutLib.canBeJavaLong(timeout)) {
+            ltimeout = timeoutLib.asJavaLong(timeout, frame) * 1000000;
+        } else if (timeoutLib.canBeJavaDouble(timeout)) {
+            ltimeout = (long) (timeoutLib.asJavaDouble(timeout) * 1000000.0);
+        } else {
+            throw node.raise(OverflowError, "timeout value is too large");
+        }
+        if (ltimeout < 0) {
+            throw node.raise(ValueError, "'timeout' must be a non-negative number");
+        }
+        return ltimeout;
+    }
+
+    /**
+     * For reference, see CPython's {@code _queuemodule.c: _queue_SimpleQueue_put_impl}. Unlike
+     * CPython, the queue may have a maximum size, in which case this works like
+     * {@code queue.Queue.put}.
      */
     @Builtin(name = "put", minNumOfPositionalArgs = 2, parameterNames = {"$self", "item", "block", "timeout"}, //
                     doc = "put($self, /, item, block=True, timeout=None)\n" +
                                     "--\n\n" +
                                     "Put the item on the queue.\n" +
                                     "\n" +
-                                    "The optional 'block' and 'timeout' arguments are ignored, as this method\n" +
-                                    "never blocks.  They are provided for compatibility with the Queue class.")
+                                    "If the queue is unbounded, the optional 'block' and 'timeout' arguments\n" +
+                                    "are ignored, as this method never blocks. Otherwise, if 'block' is true\n" +
+                                    "and 'timeout' is None (the default), block if necessary until a free slot\n" +
+                                    "is available. If 'timeout' is a non-negative number, it blocks at most\n" +
+                                    "'timeout' seconds and raises the Full exception if no free slot was\n" +
+                                    "available within that time. Otherwise ('block' is false), put the item\n" +
+                                    "on the queue if a free slot is immediately available, else raise the\n" +
+                                    "Full exception ('timeout' is ignored in that case).")
     @GenerateNodeFactory
-    public abstract static class SimpleQueuePutNode extends PythonQuaternaryBuiltinNode {
+    @ArgumentClinic(name = "block", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    public abstract static class SimpleQueuePutNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SimpleQueuePutNodeClinicProviderGen.INSTANCE;
+        }
 
         @Specialization
-        PNone doGeneric(PSimpleQueue self, Object item, @SuppressWarnings("unused") Object block, @SuppressWarnings("unused") Object timeout) {
-            if (!self.put(item)) {
-                /*
-                 * CPython uses a Python list as backing storage. This will throw an OverflowError
-                 * if no more elements can be added to the list.
-                 */
-                throw raise(OverflowError);
+        PNone doGeneric(VirtualFrame frame, PSimpleQueue self, Object item, boolean block, Object timeout,
+                        @Cached ConditionProfile fullProfile,
+                        @Cached GilNode gil,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary timeoutLib) {
+            if (fullProfile.profile(!self.put(item))) {
+                if (!self.isFull()) {
+                    /*
+                     * CPython uses a Python list as backing storage. This will throw an
+                     * OverflowError if no more elements can be added to the list.
+                     */
+                    throw raise(OverflowError);
+                }
+                if (!block) {
+                    throw raise(Full);
+                }
+                long ltimeout = timeout instanceof PNone ? -1 : toMicroSeconds(frame, this, timeout, timeoutLib);
+                boolean added = false;
+                try {
+                    gil.release(true);
+                    added = self.put(item, ltimeout);
+                } catch (InterruptedException e) {
+                    CompilerDirectives.transferToInterpreter();
+                    Thread.currentThread().interrupt();
+                } finally {
+                    gil.acquire();
+                }
+                if (!added) {
+                    throw raise(Full);
+                }
             }
             return PNone.NONE;
         }
@@ -252,7 +320,7 @@ public final class SimpleQueueBuiltins extends PythonBuiltins {
                                     "--\n\n" +
                                     "Put an item into the queue without blocking.\n" +
                                     "\n" +
-                                    "This is exactly equivalent to `put(item)` and is only provided\n" +
+                                    "This is exactly equivalent to `put(item, False)` and is only provided\n" +
                                     "for compatibility with the Queue class.")
     @GenerateNodeFactory
     public abstract static class SimpleQueuePutNoWaitNode extends PythonBinaryBuiltinNode {
@@ -260,6 +328,9 @@ public final class SimpleQueueBuiltins extends PythonBuiltins {
         @Specialization
         PNone doGeneric(PSimpleQueue self, Object item) {
             if (!self.put(item)) {
+                if (self.isFull()) {
+                    throw raise(Full);
+                }
                 /*
                  * CPython uses a Python list as backing storage. This will throw an OverflowError
                  * if no more elements can be added to the list.
@@ -40,6 +40,7 @@
  */
 package com.oracle.graal.python.builtins.objects.socket;
 
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.NotImplementedError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OSError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
@@ -59,8 +60,10 @@ import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
@@ -72,7 +75,9 @@ import com.oracle.graal.python.builtins.objects.socket.SocketUtils.TimeoutHelper
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.lib.PyNumberAsSizeNode;
 import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.builtins.ListNodes.FastConstructListNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallTernaryNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
@@ -83,9 +88,11 @@ import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.function.builtins.clinic.BufferConversionNode;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaDoubleNode;
 import com.oracle.graal.python.runtime.GilNode;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.Buffer;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.PythonUtils;
@@ -409,11 +416,34 @@ public class SocketBuiltins extends PythonBuiltins {
         Object recvInto(VirtualFrame frame, PSocket socket, PMemoryView buffer, @SuppressWarnings("unused") Object flags,
                         @Cached PyNumberAsSizeNode asSizeNode,
                         @Cached("create(__LEN__)") LookupAndCallUnaryNode callLen,
-                        @Cached("create(__SETITEM__)") LookupAndCallTernaryNode setItem) {
+                        @Cached("create(__SETITEM__)") LookupAndCallTernaryNode setItem,
+                        @Cached BytesNodes.GetWritableByteArrayNode getWritableArray,
+                        @Cached ConditionProfile directProfile,
+                        @Cached GilNode gil) {
             if (socket.getSocket() == null) {
                 throw raiseOSError(frame, OSErrorEnum.ENOTCONN);
             }
             int bufferLen = asSizeNode.executeExact(frame, callLen.executeObject(frame, buffer));
+            byte[] target = getWritableArray.execute(buffer);
+            if (directProfile.profile(target != null)) {
+                // the view is backed by a managed array, receive into it directly
+                int offset = BytesNodes.GetWritableByteArrayNode.getArrayOffset(buffer);
+                BytesNodes.GetWritableByteArrayNode.pin(buffer);
+                try {
+                    gil.release(true);
+                    try {
+                        return SocketUtils.recv(this, socket, PythonUtils.wrapByteBuffer(target, offset, buffer.getLength()));
+                    } finally {
+                        gil.acquire();
+                    }
+                } catch (NotYetConnectedException e) {
+                    throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
+                } catch (IOException e) {
+                    throw raiseOSError(frame, OSErrorEnum.EBADF, e);
+                } finally {
+                    BytesNodes.GetWritableByteArrayNode.unpin(buffer);
+                }
+            }
             byte[] targetBuffer = new byte[bufferLen];
             ByteBuffer byteBuffer = PythonUtils.wrapByteBuffer(targetBuffer);
             int length;
@@ -606,10 +636,49 @@ public class SocketBuiltins extends PythonBuiltins {
     @Builtin(name = "sendmsg", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 5)
     @GenerateNodeFactory
     abstract static class SendMsgNode extends PythonBuiltinNode {
-        @SuppressWarnings("unused")
         @Specialization
-        Object sendMsg(PSocket socket, Object buffers, Object ancdata, int flags, Object address) {
-            return PNotImplemented.NOT_IMPLEMENTED;
+        Object sendMsg(VirtualFrame frame, PSocket socket, Object buffers, Object ancdata, Object flags, @SuppressWarnings("unused") Object address,
+                        @Cached FastConstructListNode constructListNode,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @Cached BufferConversionNode bufferConversionNode,
+                        @Cached PyNumberAsSizeNode asSizeNode,
+                        @Cached GilNode gil) {
+            if (socket.getSocket() == null) {
+                throw raiseOSError(frame, OSErrorEnum.ENOTCONN);
+            }
+            // Only connected stream sockets are supported. Like Linux does for TCP, the address is
+            // ignored for them.
+            if (!PGuards.isPNone(ancdata) && getObjectArrayNode.execute(constructListNode.execute(frame, ancdata)).length > 0) {
+                throw raise(NotImplementedError, ErrorMessages.S_NOT_SUPPORTED, "sendmsg() with ancillary data");
+            }
+            if (!PGuards.isPNone(flags) && asSizeNode.executeExact(frame, flags) != 0) {
+                throw raise(NotImplementedError, ErrorMessages.S_NOT_SUPPORTED, "sendmsg() with flags");
+            }
+            Object[] items = getObjectArrayNode.execute(constructListNode.execute(frame, buffers));
+            ByteBuffer[] sources = new ByteBuffer[items.length];
+            long total = 0;
+            for (int i = 0; i < items.length; i++) {
+                Buffer buffer = PosixModuleBuiltins.WritevNode.toBuffer(frame, items[i], bufferConversionNode);
+                sources[i] = buffer.getByteBuffer();
+                total += buffer.length;
+            }
+            long written;
+            gil.release(true);
+            try {
+                try {
+                    written = SocketUtils.send(this, socket, sources);
+                } finally {
+                    gil.acquire();
+                }
+            } catch (NotYetConnectedException e) {
+                throw raiseOSError(frame, OSErrorEnum.ENOTCONN);
+            } catch (IOException e) {
+                throw raiseOSError(frame, e);
+            }
+            if (written == 0 && total > 0) {
+                throw raiseOSError(frame, OSErrorEnum.EWOULDBLOCK);
+            }
+            return written;
         }
     }
 
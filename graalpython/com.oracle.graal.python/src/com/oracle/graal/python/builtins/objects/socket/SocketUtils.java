@@ -94,6 +94,17 @@ public class SocketUtils {
         return nativeSocket.write(source);
     }
 
+    public static long send(PNodeWithRaise node, PSocket socket, ByteBuffer[] sources) throws IOException {
+        return send(node, socket, sources, socket.getTimeoutInMilliseconds());
+    }
+
+    @TruffleBoundary
+    public static long send(PNodeWithRaise node, PSocket socket, ByteBuffer[] sources, long timeoutMilliseconds) throws IOException {
+        SocketChannel nativeSocket = socket.getSocket();
+        handleTimeout(node, nativeSocket, SelectionKey.OP_WRITE, timeoutMilliseconds);
+        return nativeSocket.write(sources);
+    }
+
     public static SocketChannel accept(PNodeWithRaise node, PSocket socket) throws IOException {
         return accept(node, socket, socket.getTimeoutInMilliseconds());
     }
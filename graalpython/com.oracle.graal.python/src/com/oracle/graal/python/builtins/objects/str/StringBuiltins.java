@@ -60,6 +60,7 @@ import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.regex.Matcher;
@@ -121,6 +122,7 @@ import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuilti
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.nodes.subscript.SliceLiteralNode.CastToSliceComponentNode;
 import com.oracle.graal.python.nodes.subscript.SliceLiteralNode.CoerceToIntSlice;
@@ -885,7 +887,7 @@ public final class StringBuiltins extends PythonBuiltins {
         static String lowerTrivial(String self, int pos) {
             for (int i = pos; i < self.length(); i++) {
                 char c = self.charAt(i);
-                if (c >= 'A' && c <= 'Z' || c >= 'À' && c <= 'Þ' || c > 255) {
+                if (c >= 'A' && c <= 'Z' || c >= 'À' && c <= 'Þ' && c != '×' || c > 255) {
                     // either upper case or out of simple range
                     return lowerSimple(self, i);
                 }
@@ -897,12 +899,10 @@ public final class StringBuiltins extends PythonBuiltins {
         private static String lowerSimple(String self, int pos) {
             CompilerAsserts.neverPartOfCompilation();
             char[] chars = new char[self.length()];
-            for (int i = 0; i < pos; i++) {
-                chars[i] = self.charAt(i);
-            }
-            for (int i = 0; i < self.length(); i++) {
+            self.getChars(0, pos, chars, 0);
+            for (int i = pos; i < self.length(); i++) {
                 char c = self.charAt(i);
-                if (c >= 'A' && c <= 'Z' || c >= 'À' && c <= 'Þ') {
+                if (c >= 'A' && c <= 'Z' || c >= 'À' && c <= 'Þ' && c != '×') {
                     c = (char) (c - 'A' + 'a');
                 } else if (c > 255) {
                     // complex chars encountered, use generic case
@@ -943,7 +943,7 @@ public final class StringBuiltins extends PythonBuiltins {
         private static String upperTrivial(String self, int pos) {
             for (int i = pos; i < self.length(); i++) {
                 char c = self.charAt(i);
-                if (c >= 'a' && c <= 'z' || c >= 'à' && c <= 'þ' || c == 181 || c == 223 || c >= 255) {
+                if (c >= 'a' && c <= 'z' || c >= 'à' && c <= 'þ' && c != '÷' || c == 181 || c == 223 || c >= 255) {
                     // either upper case or out of simple range
                     return upperSimple(self, i);
                 }
@@ -956,12 +956,10 @@ public final class StringBuiltins extends PythonBuiltins {
         private static String upperSimple(String self, int pos) {
             CompilerAsserts.neverPartOfCompilation();
             char[] chars = new char[self.length()];
-            for (int i = 0; i < pos; i++) {
-                chars[i] = self.charAt(i);
-            }
-            for (int i = 0; i < self.length(); i++) {
+            self.getChars(0, pos, chars, 0);
+            for (int i = pos; i < self.length(); i++) {
                 char c = self.charAt(i);
-                if (c >= 'a' && c <= 'z' || c >= 'à' && c <= 'þ') {
+                if (c >= 'a' && c <= 'z' || c >= 'à' && c <= 'þ' && c != '÷') {
                     c = (char) (c - 'a' + 'A');
                 } else if (c == 181 || c == 223 || c >= 255) {
                     // complex chars encountered, use generic case
@@ -1077,15 +1075,34 @@ public final class StringBuiltins extends PythonBuiltins {
             return PythonUtils.newString(translatedChars);
         }
 
+        /**
+         * Strings shorter than this are translated by looking up each character in the table.
+         */
+        private static final int COMPILE_TABLE_THRESHOLD = 16;
+
         @Specialization
         static String doGeneric(VirtualFrame frame, Object self, Object table,
                         @Cached CastToJavaStringCheckedNode castSelfNode,
                         @Cached GetItemNode getItemNode,
                         @Cached GetClassNode getClassNode,
                         @Cached IsSubtypeNode isSubtypeNode,
-                        @Cached SpliceNode spliceNode) {
+                        @Cached SpliceNode spliceNode,
+                        @Cached IsBuiltinClassProfile isBuiltinDictProfile,
+                        @CachedLibrary(limit = "3") HashingStorageLibrary hlib,
+                        @Cached ConditionProfile compileProfile) {
             String selfStr = castSelfNode.cast(self, ErrorMessages.REQUIRES_STR_OBJECT_BUT_RECEIVED_P, "translate", self);
 
+            if (compileProfile.profile(selfStr.length() >= COMPILE_TABLE_THRESHOLD && table instanceof PDict && isBuiltinDictProfile.profileObject(table, PythonBuiltinClassType.PDict))) {
+                HashingStorage storage = ((PDict) table).getDictStorage();
+                // compiling costs a pass over the table, which only pays off if the string is long
+                if (hlib.length(storage) <= selfStr.length()) {
+                    CompiledTable compiled = CompiledTable.compile(storage);
+                    if (compiled != null) {
+                        return compiled.translate(selfStr);
+                    }
+                }
+            }
+
             StringBuilder sb = PythonUtils.newStringBuilder(selfStr.length());
 
             for (int i = 0; i < selfStr.length();) {
@@ -1108,6 +1125,102 @@ public final class StringBuiltins extends PythonBuiltins {
 
             return PythonUtils.sbToString(sb);
         }
+
+        /**
+         * A translation table built from a {@code dict}, indexed by the character for the BMP and
+         * with a map for supplementary code points. This avoids a dict lookup per character, and
+         * in particular raising and catching a {@code KeyError} for every character that is not in
+         * the table.
+         */
+        static final class CompiledTable {
+            /** Replacement for each BMP character, {@code null} if the character is unchanged. */
+            private final String[] bmp;
+            private final HashMap<Integer, String> supplementary;
+
+            private CompiledTable(String[] bmp, HashMap<Integer, String> supplementary) {
+                this.bmp = bmp;
+                this.supplementary = supplementary;
+            }
+
+            /**
+             * Returns {@code null} if the table contains keys or values for which the result
+             * could differ from the generic lookup, e.g. float keys or int subclass values.
+             */
+            @TruffleBoundary
+            static CompiledTable compile(HashingStorage storage) {
+                HashingStorageLibrary lib = HashingStorageLibrary.getUncached();
+                String[] bmp = new String[0];
+                HashMap<Integer, String> supplementary = null;
+                for (HashingStorage.DictEntry entry : lib.entries(storage)) {
+                    long key;
+                    if (entry.key instanceof Integer) {
+                        key = (int) entry.key;
+                    } else if (entry.key instanceof Long) {
+                        key = (long) entry.key;
+                    } else if (entry.key instanceof Boolean) {
+                        key = ((boolean) entry.key) ? 1 : 0;
+                    } else if (entry.key instanceof String) {
+                        // can never be equal to a code point
+                        continue;
+                    } else {
+                        return null;
+                    }
+                    if (key < 0 || key > Character.MAX_CODE_POINT) {
+                        continue;
+                    }
+                    String replacement;
+                    if (entry.value == PNone.NONE) {
+                        replacement = "";
+                    } else if (entry.value instanceof String) {
+                        replacement = (String) entry.value;
+                    } else if (entry.value instanceof Integer && Character.isValidCodePoint((int) entry.value)) {
+                        replacement = new String(Character.toChars((int) entry.value));
+                    } else {
+                        // let the generic path deal with (or raise for) everything else
+                        return null;
+                    }
+                    if (key <= Character.MAX_VALUE) {
+                        if (key >= bmp.length) {
+                            bmp = Arrays.copyOf(bmp, (int) Math.min(Math.max(key + 1, bmp.length * 2L), Character.MAX_VALUE + 1));
+                        }
+                        bmp[(int) key] = replacement;
+                    } else {
+                        if (supplementary == null) {
+                            supplementary = new HashMap<>();
+                        }
+                        supplementary.put((int) key, replacement);
+                    }
+                }
+                return new CompiledTable(bmp, supplementary);
+            }
+
+            @TruffleBoundary
+            String translate(String str) {
+                StringBuilder sb = new StringBuilder(str.length());
+                int len = str.length();
+                for (int i = 0; i < len; i++) {
+                    char c = str.charAt(i);
+                    if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(str.charAt(i + 1))) {
+                        // a pair is a single code point, its halves must not match BMP keys
+                        String replacement = supplementary != null ? supplementary.get(Character.toCodePoint(c, str.charAt(i + 1))) : null;
+                        if (replacement != null) {
+                            sb.append(replacement);
+                        } else {
+                            sb.append(c).append(str.charAt(i + 1));
+                        }
+                        i++;
+                        continue;
+                    }
+                    String replacement = c < bmp.length ? bmp[c] : null;
+                    if (replacement != null) {
+                        sb.append(replacement);
+                    } else {
+                        sb.append(c);
+                    }
+                }
+                return sb.toString();
+            }
+        }
     }
 
     // str.capitalize()
@@ -1925,13 +2038,43 @@ public final class StringBuiltins extends PythonBuiltins {
     }
 
     abstract static class IsCategoryBaseNode extends PythonUnaryBuiltinNode {
+        protected static final byte ASCII_ALPHA = 1;
+        protected static final byte ASCII_DIGIT = 2;
+
+        private static final byte[] ASCII_CATEGORIES = new byte[128];
+
+        static {
+            for (char c = 'a'; c <= 'z'; c++) {
+                ASCII_CATEGORIES[c] = ASCII_ALPHA;
+                ASCII_CATEGORIES[c - 'a' + 'A'] = ASCII_ALPHA;
+            }
+            for (char c = '0'; c <= '9'; c++) {
+                ASCII_CATEGORIES[c] = ASCII_DIGIT;
+            }
+        }
+
         @Specialization
         @TruffleBoundary
         boolean doString(String self) {
             if (self.length() == 0) {
                 return false;
             }
-            for (int i = 0; i < self.length();) {
+            int i = 0;
+            int asciiMask = getAsciiCategoryMask();
+            if (asciiMask != 0) {
+                // scan the ASCII prefix with a table lookup instead of querying the Unicode
+                // properties of each code point
+                for (; i < self.length(); i++) {
+                    char c = self.charAt(i);
+                    if (c >= 128) {
+                        break;
+                    }
+                    if ((ASCII_CATEGORIES[c] & asciiMask) == 0) {
+                        return false;
+                    }
+                }
+            }
+            while (i < self.length()) {
                 int codePoint = self.codePointAt(i);
                 if (!isCategory(codePoint)) {
                     return false;
@@ -1957,6 +2100,14 @@ public final class StringBuiltins extends PythonBuiltins {
             CompilerAsserts.neverPartOfCompilation();
             throw new IllegalStateException("should not be reached");
         }
+
+        /**
+         * The ASCII characters (as a mask of {@link #ASCII_ALPHA} and {@link #ASCII_DIGIT}) that
+         * belong to the category, or {@code 0} if there is no ASCII fast path.
+         */
+        protected int getAsciiCategoryMask() {
+            return 0;
+        }
     }
 
     @Builtin(name = "isalnum", minNumOfPositionalArgs = 1)
@@ -1971,6 +2122,11 @@ public final class StringBuiltins extends PythonBuiltins {
         protected String getName() {
             return "isalnum";
         }
+
+        @Override
+        protected int getAsciiCategoryMask() {
+            return ASCII_ALPHA | ASCII_DIGIT;
+        }
     }
 
     @Builtin(name = "isalpha", minNumOfPositionalArgs = 1)
@@ -1985,6 +2141,11 @@ public final class StringBuiltins extends PythonBuiltins {
         protected String getName() {
             return "isalpha";
         }
+
+        @Override
+        protected int getAsciiCategoryMask() {
+            return ASCII_ALPHA;
+        }
     }
 
     @Builtin(name = "isdecimal", minNumOfPositionalArgs = 1)
@@ -1999,6 +2160,11 @@ public final class StringBuiltins extends PythonBuiltins {
         protected String getName() {
             return "isdecimal";
         }
+
+        @Override
+        protected int getAsciiCategoryMask() {
+            return ASCII_DIGIT;
+        }
     }
 
     @Builtin(name = "isdigit", minNumOfPositionalArgs = 1)
@@ -2014,6 +2180,11 @@ public final class StringBuiltins extends PythonBuiltins {
         protected String getName() {
             return "isdigit";
         }
+
+        @Override
+        protected int getAsciiCategoryMask() {
+            return ASCII_DIGIT;
+        }
     }
 
     @Builtin(name = "isnumeric", minNumOfPositionalArgs = 1)
@@ -2029,6 +2200,11 @@ public final class StringBuiltins extends PythonBuiltins {
         protected String getName() {
             return "isnumeric";
         }
+
+        @Override
+        protected int getAsciiCategoryMask() {
+            return ASCII_DIGIT;
+        }
     }
 
     @Builtin(name = "isidentifier", minNumOfPositionalArgs = 1)
@@ -2479,7 +2655,13 @@ public final class StringBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         static String doString(String self) {
-            return UCharacter.foldCase(self, true);
+            for (int i = 0; i < self.length(); i++) {
+                if (self.charAt(i) >= 128) {
+                    return UCharacter.foldCase(self, true);
+                }
+            }
+            // for ASCII strings, case folding is the same as lowering
+            return LowerNode.lower(self);
         }
 
         @Specialization(replaces = "doString")
@@ -76,6 +76,7 @@ import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.graal.python.util.StringInterner;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Bind;
@@ -634,7 +635,7 @@ public abstract class StringNodes {
         static PString doString(String string,
                         @Shared("writeNode") @Cached WriteAttributeToDynamicObjectNode writeNode,
                         @Cached PythonObjectFactory factory) {
-            final PString interned = factory.createString(string);
+            final PString interned = factory.createString(StringInterner.intern(string));
             writeNode.execute(interned, PString.INTERNED, true);
             return interned;
         }
@@ -74,7 +74,7 @@ import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 
-@CoreFunctions(extendClasses = {PythonBuiltinClassType.PLock, PythonBuiltinClassType.PRLock})
+@CoreFunctions(extendClasses = {PythonBuiltinClassType.PLock, PythonBuiltinClassType.PRLock, PythonBuiltinClassType.PRWLockView})
 public class LockBuiltins extends PythonBuiltins {
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
@@ -114,6 +114,12 @@ public class LockBuiltins extends PythonBuiltins {
             return self.acquireNonBlocking();
         }
 
+        @Specialization(guards = {"!invalidArgs(blocking, timeout)", "!blocking"})
+        static boolean nonBlocking(PRWLockView self, @SuppressWarnings("unused") boolean blocking, @SuppressWarnings("unused") double timeout) {
+            // acquire lock
+            return self.acquireNonBlocking();
+        }
+
         @Specialization(guards = {"!invalidArgs(blocking, timeout)", "timeout == UNSET_TIMEOUT", "blocking"})
         static boolean acBlocking(PLock self, @SuppressWarnings("unused") boolean blocking, @SuppressWarnings("unused") double timeout,
                         @Cached.Shared("g") @Cached GilNode gil) {
@@ -150,6 +156,41 @@ public class LockBuiltins extends PythonBuiltins {
             }
         }
 
+        @Specialization(guards = {"!invalidArgs(blocking, timeout)", "timeout == UNSET_TIMEOUT", "blocking"})
+        boolean acBlocking(PRWLockView self, @SuppressWarnings("unused") boolean blocking, @SuppressWarnings("unused") double timeout,
+                        @Cached.Shared("g") @Cached GilNode gil) {
+            // an uncontended acquire does not need to give up the GIL
+            if (self.acquireNonBlocking()) {
+                return true;
+            }
+            if (self.isUpgrade()) {
+                throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.CANNOT_UPGRADE_READ_LOCK);
+            }
+            gil.release(true);
+            try {
+                return self.acquireBlocking();
+            } finally {
+                gil.acquire();
+            }
+        }
+
+        @Specialization(guards = {"!invalidArgs(blocking, timeout)", "timeout != UNSET_TIMEOUT", "blocking"})
+        boolean acTimeOut(PRWLockView self, @SuppressWarnings("unused") boolean blocking, double timeout,
+                        @Cached.Shared("g") @Cached GilNode gil) {
+            if (self.acquireNonBlocking()) {
+                return true;
+            }
+            if (self.isUpgrade()) {
+                throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.CANNOT_UPGRADE_READ_LOCK);
+            }
+            gil.release(true);
+            try {
+                return self.acquireTimeout(timeout);
+            } finally {
+                gil.acquire();
+            }
+        }
+
         @Specialization(guards = {"!invalidArgs(blocking, timeout)", "timeout != UNSET_TIMEOUT", "blocking"})
         static boolean acTimeOut(AbstractPythonLock self, @SuppressWarnings("unused") boolean blocking, double timeout,
                         @Cached.Shared("g") @Cached GilNode gil) {
@@ -226,11 +267,29 @@ public class LockBuiltins extends PythonBuiltins {
             self.release();
             return PNone.NONE;
         }
+
+        @Specialization
+        Object doRelease(PRWLockView self) {
+            if (!self.isOwned()) {
+                throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.CANNOT_RELEASE_UNAQUIRED_LOCK);
+            }
+            self.release();
+            return PNone.NONE;
+        }
     }
 
     @Builtin(name = __EXIT__, minNumOfPositionalArgs = 4)
     @GenerateNodeFactory
     abstract static class ExitLockNode extends PythonBuiltinNode {
+        @Specialization
+        Object exit(PRWLockView self, @SuppressWarnings("unused") Object type, @SuppressWarnings("unused") Object value, @SuppressWarnings("unused") Object traceback) {
+            if (!self.isOwned()) {
+                throw raise(PythonBuiltinClassType.RuntimeError, ErrorMessages.CANNOT_RELEASE_UNAQUIRED_LOCK);
+            }
+            self.release();
+            return PNone.NONE;
+        }
+
         @Specialization
         @TruffleBoundary
         Object exit(AbstractPythonLock self, @SuppressWarnings("unused") Object type, @SuppressWarnings("unused") Object value, @SuppressWarnings("unused") Object traceback) {
@@ -246,6 +305,11 @@ public class LockBuiltins extends PythonBuiltins {
         boolean isLocked(PLock self) {
             return self.locked();
         }
+
+        @Specialization
+        boolean isLocked(PRWLockView self) {
+            return self.locked();
+        }
     }
 
     @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
@@ -270,5 +334,15 @@ public class LockBuiltins extends PythonBuiltins {
                             self.getCount(),
                             self.hashCode());
         }
+
+        @Specialization
+        @TruffleBoundary
+        String repr(PRWLockView self) {
+            return PythonUtils.format("<%s %s %s object at %s>",
+                            (self.locked()) ? "locked" : "unlocked",
+                            self.isWrite() ? "write" : "read",
+                            GetNameNode.getUncached().execute(GetClassNode.getUncached().execute(self)),
+                            self.hashCode());
+        }
     }
 }
@@ -52,16 +52,20 @@ public final class PSemLock extends AbstractPythonLock {
 
     private final Semaphore semaphore;
     private final int kind;
+    private final int maxValue;
     private final String name;
 
     private int lastThreadID = -1;
     private int count;
+    /** The key of the semaphore in {@code PythonLanguage#semaphoreHandles}, or -1. */
+    private long handle = -1;
 
-    public PSemLock(Object cls, Shape instanceShape, String name, int kind, Semaphore sharedSemaphore) {
+    public PSemLock(Object cls, Shape instanceShape, String name, int kind, int maxValue, Semaphore sharedSemaphore) {
         super(cls, instanceShape);
         this.name = name;
         this.semaphore = sharedSemaphore;
         this.kind = kind;
+        this.maxValue = maxValue;
     }
 
     @Override
@@ -99,6 +103,27 @@ public final class PSemLock extends AbstractPythonLock {
         semaphore.release();
     }
 
+    /**
+     * Releases the semaphore unless that would raise its value above {@code maxvalue}.
+     *
+     * @return {@code false} if the semaphore was not released
+     */
+    @TruffleBoundary
+    public boolean releaseBounded() {
+        if (kind != SEMAPHORE) {
+            semaphore.release();
+            return true;
+        }
+        // keep concurrent releases from both passing the check
+        synchronized (semaphore) {
+            if (semaphore.availablePermits() >= maxValue) {
+                return false;
+            }
+            semaphore.release();
+            return true;
+        }
+    }
+
     @Override
     @TruffleBoundary
     public boolean locked() {
@@ -131,7 +156,23 @@ public final class PSemLock extends AbstractPythonLock {
         return kind;
     }
 
+    public int getMaxValue() {
+        return maxValue;
+    }
+
     public String getName() {
         return name;
     }
+
+    public Semaphore getSemaphore() {
+        return semaphore;
+    }
+
+    public long getHandle() {
+        return handle;
+    }
+
+    public void setHandle(long handle) {
+        this.handle = handle;
+    }
 }
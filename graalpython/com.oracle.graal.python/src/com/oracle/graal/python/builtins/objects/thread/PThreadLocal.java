@@ -40,6 +40,7 @@
  */
 package com.oracle.graal.python.builtins.objects.thread;
 
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
@@ -49,24 +50,32 @@ import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
+/**
+ * A {@code threading.local} object. The dict of each thread is stored in the thread's
+ * {@link PythonThreadState} at an index assigned to the object when it is first used, so that
+ * getting it is just an array access. Attribute accesses are then cached by the shape of the dict's
+ * storage like for any other dict with string keys.
+ */
 @ExportLibrary(PythonObjectLibrary.class)
 public final class PThreadLocal extends PythonBuiltinObject {
-    private final ThreadLocal<PDict> threadLocalDict;
     private final Object[] args;
     private final PKeyword[] keywords;
+    private int slot = -1;
 
     public PThreadLocal(Object cls, Shape instanceShape, Object[] args, PKeyword[] keywords) {
         super(cls, instanceShape);
-        threadLocalDict = new ThreadLocal<>();
         this.args = args;
         this.keywords = keywords;
     }
@@ -78,14 +87,19 @@ public final class PThreadLocal extends PythonBuiltinObject {
     }
 
     @ExportMessage
-    @TruffleBoundary
     PDict getDict(@CachedLibrary("this") PythonObjectLibrary lib,
                     @Cached CallNode callNode,
-                    @Cached PythonObjectFactory factory) {
-        PDict dict = threadLocalDict.get();
-        if (dict == null) {
+                    @Cached PythonObjectFactory factory,
+                    @Cached ConditionProfile initProfile,
+                    @CachedContext(PythonLanguage.class) PythonContext context) {
+        PythonThreadState threadState = context.getThreadState();
+        PDict dict = threadState.getLocalDict(slot);
+        if (initProfile.profile(dict == null)) {
+            if (slot < 0) {
+                slot = context.allocateThreadLocalSlot(this);
+            }
             dict = factory.createDict();
-            threadLocalDict.set(dict);
+            threadState.setLocalDict(slot, dict);
             Object initMethod = lib.lookupAttribute(this, null, SpecialMethodNames.__INIT__);
             callNode.execute(initMethod, args, keywords);
         }
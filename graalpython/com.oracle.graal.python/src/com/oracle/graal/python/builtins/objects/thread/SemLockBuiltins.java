@@ -43,8 +43,13 @@ package com.oracle.graal.python.builtins.objects.thread;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
 
+import java.lang.ref.WeakReference;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
@@ -54,11 +59,16 @@ import com.oracle.graal.python.builtins.objects.thread.LockBuiltins.AcquireLockN
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.CachedLanguage;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -109,9 +119,63 @@ public class SemLockBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class GetHandleNode extends PythonUnaryBuiltinNode {
         @Specialization
+        static long getHandle(PSemLock self,
+                        @CachedLanguage PythonLanguage lang) {
+            long handle = self.getHandle();
+            if (handle < 0) {
+                // the handle is only needed to pickle the lock, so register it lazily
+                handle = registerHandle(lang, self.getSemaphore());
+                self.setHandle(handle);
+            }
+            return handle;
+        }
+
         @TruffleBoundary
-        int getHandle(PSemLock self) {
-            return self.hashCode();
+        private static long registerHandle(PythonLanguage lang, Semaphore semaphore) {
+            lang.semaphoreHandles.values().removeIf(ref -> ref.get() == null);
+            long handle = lang.nextSemaphoreHandle.getAndIncrement();
+            lang.semaphoreHandles.put(handle, new WeakReference<>(semaphore));
+            return handle;
+        }
+    }
+
+    @Builtin(name = "_rebuild", minNumOfPositionalArgs = 5, parameterNames = {"$cls", "handle", "kind", "maxvalue", "name"}, isClassmethod = true)
+    @ArgumentClinic(name = "handle", conversion = ClinicConversion.Long)
+    @ArgumentClinic(name = "kind", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "maxvalue", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class RebuildNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SemLockBuiltinsClinicProviders.RebuildNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PSemLock rebuild(Object cls, long handle, int kind, int maxvalue, Object nameObj,
+                        @Cached CastToJavaStringNode castNameNode,
+                        @CachedLanguage PythonLanguage lang) {
+            Semaphore semaphore = lookupHandle(lang, handle);
+            if (semaphore == null) {
+                throw raise(PythonBuiltinClassType.FileNotFoundError, ErrorMessages.NO_SUCH_FILE_OR_DIR, "semaphores", handle);
+            }
+            String name = null;
+            if (nameObj != PNone.NONE) {
+                try {
+                    name = castNameNode.execute(nameObj);
+                } catch (CannotCastException e) {
+                    throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.ARG_D_MUST_BE_S_NOT_P, "_rebuild", 4, "str", nameObj);
+                }
+            }
+            PSemLock semLock = factory().createSemLock(cls, name, kind, maxvalue, semaphore);
+            semLock.setHandle(handle);
+            return semLock;
+        }
+
+        @TruffleBoundary
+        private static Semaphore lookupHandle(PythonLanguage lang, long handle) {
+            WeakReference<Semaphore> ref = lang.semaphoreHandles.get(handle);
+            return ref != null ? ref.get() : null;
         }
     }
 
@@ -128,8 +192,8 @@ public class SemLockBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class GetMaxValue extends PythonUnaryBuiltinNode {
         @Specialization
-        Object getMax(@SuppressWarnings("unused") PSemLock self) {
-            return Integer.MAX_VALUE;
+        int getMax(PSemLock self) {
+            return self.getMaxValue();
         }
     }
 
@@ -188,7 +252,9 @@ public class SemLockBuiltins extends PythonBuiltins {
                 }
                 assert self.getCount() == 1;
             }
-            self.release();
+            if (!self.releaseBounded()) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.SEMAPHORE_RELEASED_TOO_MANY_TIMES);
+            }
             self.decreaseCount();
             return PNone.NONE;
         }
@@ -198,8 +264,10 @@ public class SemLockBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class ExitLockNode extends PythonBuiltinNode {
         @Specialization
-        Object exit(AbstractPythonLock self, @SuppressWarnings("unused") Object type, @SuppressWarnings("unused") Object value, @SuppressWarnings("unused") Object traceback) {
-            self.release();
+        Object exit(PSemLock self, @SuppressWarnings("unused") Object type, @SuppressWarnings("unused") Object value, @SuppressWarnings("unused") Object traceback) {
+            if (!self.releaseBounded()) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.SEMAPHORE_RELEASED_TOO_MANY_TIMES);
+            }
             return PNone.NONE;
         }
     }
@@ -144,6 +144,7 @@ public abstract class BuiltinNames {
     public static final String MEMBER_DESCRIPTOR = "member_descriptor";
     public static final String SIMPLE_QUEUE = "SimpleQueue";
     public static final String EMPTY = "Empty";
+    public static final String FULL = "Full";
 
     public static final String DICT_KEYITERATOR = "dict_keyiterator";
     public static final String DICT_VALUEITERATOR = "dict_valueiterator";
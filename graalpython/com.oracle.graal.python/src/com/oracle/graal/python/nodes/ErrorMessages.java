@@ -523,6 +523,7 @@ public abstract class ErrorMessages {
     public static final String SECURITY_EX_WHILE_READING = "security exception while reading: '%s'";
     public static final String SEEK_OUT_OF_RANGE = "seek out of range";
     public static final String SEMAPHORE_NAME_TAKEN = "Semaphore name taken: '%s'";
+    public static final String SEMAPHORE_RELEASED_TOO_MANY_TIMES = "semaphore or lock released too many times";
     public static final String SEP_MUST_BE_NONE_OR_STRING = "sep must be None or a string, not %p";
     public static final String SEP_MUST_BE_STR_OR_BYTES = "sep must be str or bytes.";
     public static final String SEP_MUST_BE_LENGTH_1 = "sep must be length 1.";
@@ -694,6 +695,7 @@ public abstract class ErrorMessages {
     public static final String MEM_MAPPED_OFFSET_MUST_BE_POSITIVE = "memory mapped offset must be positive";
     public static final String MEM_MAPPED_OFFSET_INVALID_ACCESS = "mmap invalid access parameter.";
     public static final String MMAP_CHANGED_LENGTH = "The mmapped file has changed its length";
+    public static final String MMAP_CLOSED_OR_INVALID = "mmap closed or invalid";
     public static final String CANNOT_MMAP_AN_EMPTY_FILE = "cannot mmap an empty file";
     public static final String MMAP_S_IS_GREATER_THAN_FILE_SIZE = "mmap %s is greater than file size";
     public static final String TOO_MANY_REMAINING_BYTES_TO_BE_STORED = "There are too many remaining bytes to be stored in a bytes object.";
@@ -780,6 +782,7 @@ public abstract class ErrorMessages {
     public static final String ILLEGAL_DECODER_STATE = "illegal decoder state";
     public static final String ILLEGAL_DECODER_STATE_THE_FIRST = "illegal decoder state: the first item should be a bytes object, not '%p'";
     public static final String A_STRICTLY_POSITIVE_INTEGER_IS_REQUIRED = "a strictly positive integer is required";
+    public static final String SWITCH_INTERVAL_MUST_BE_POSITIVE = "switch interval must be strictly positive";
     public static final String NEW_POSITION_TOO_LARGE = "new position too large";
     public static final String NEGATIVE_SIZE_VALUE_D = "negative size value %d";
     public static final String INVALID_WHENCE_D_SHOULD_BE_0_1_OR_2 = "invalid whence (%d, should be 0, 1 or 2)";
@@ -818,4 +821,24 @@ public abstract class ErrorMessages {
                     "The ability to return an instance of a strict subclass of %s " +
                     "is deprecated, and may be removed in a future version of Python.";
     public static final String MULTI_PHASE_INIT_OF_EXTENSION_MODULE_S = "multi-phase init of extension module %s";
+
+    // select errors
+    public static final String TIMEOUT_IS_TOO_LARGE = "timeout is too large";
+    public static final String CONCURRENT_POLL_INVOCATION = "concurrent poll() invocation";
+    public static final String IO_OPERATION_ON_CLOSED_EPOLL = "I/O operation on closed epoll object";
+    public static final String MAXEVENTS_MUST_BE_GREATER_THAN_ZERO = "maxevents must be greater than 0, got %d";
+    public static final String NEGATIVE_SIZEHINT = "negative sizehint";
+    public static final String VFS_REQUIRES_JAVA_BACKEND = "virtual file systems are only supported by the 'java' POSIX backend";
+    public static final String UNRECOGNIZED_INTERPRETER_ID = "unrecognized interpreter ID %d";
+    public static final String INTERPRETER_ALREADY_RUNNING = "interpreter already running";
+    public static final String CANNOT_DESTROY_CURRENT_INTERPRETER = "cannot destroy the current interpreter";
+    public static final String CANNOT_DESTROY_RUNNING_INTERPRETER = "cannot destroy running interpreter";
+    public static final String CANNOT_RUN_IN_MAIN_INTERPRETER = "cannot run code in the main interpreter from a sub-interpreter";
+    public static final String OBJ_DOES_NOT_SUPPORT_CROSS_INTERPRETER_DATA = "%s does not support cross-interpreter data";
+    public static final String SHARED_KEYS_MUST_BE_STR = "shared keys must be str";
+    public static final String CHANNEL_D_NOT_FOUND = "channel %d not found";
+    public static final String CHANNEL_D_CLOSED = "channel %d closed";
+    public static final String CHANNEL_D_EMPTY = "channel %d is empty";
+    public static final String CANNOT_UPGRADE_READ_LOCK = "cannot acquire the writer while holding the reader";
+    public static final String STRIPES_MUST_BE_POSITIVE = "number of stripes must be positive";
 }
@@ -93,6 +93,7 @@ import com.oracle.graal.python.parser.sst.WithSSTNode;
 import com.oracle.graal.python.parser.sst.YieldExpressionSSTNode;
 import com.oracle.graal.python.runtime.PythonParser;
 import com.oracle.graal.python.util.OverflowException;
+import com.oracle.graal.python.util.StringInterner;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameDescriptor;
@@ -170,7 +171,16 @@ public final class PythonSSTNodeFactory {
         return new ImportFromSSTNode(scopeEnvironment.getCurrentScope(), from, asNames, startOffset, endOffset);
     }
 
+    /**
+     * Mangles the identifier if needed and returns its canonical instance from the
+     * {@link StringInterner}, so that names in the generated code are identical to the attribute
+     * and dict keys used at runtime.
+     */
     public String mangleNameInCurrentScope(String name) {
+        return StringInterner.internIfIdentifier(mangleNameInCurrentScopeUninterned(name));
+    }
+
+    private String mangleNameInCurrentScopeUninterned(String name) {
         if (cannotBeMangled(name)) {
             return name;
         }
@@ -53,6 +53,7 @@ import com.oracle.graal.python.nodes.expression.ExpressionNode;
 import com.oracle.graal.python.nodes.literal.KeywordLiteralNode;
 import com.oracle.graal.python.nodes.literal.ListLiteralNode;
 import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.graal.python.util.StringInterner;
 
 public final class ArgListBuilder {
 
@@ -134,7 +135,7 @@ public final class ArgListBuilder {
             nameArgNames = new ArrayList<>();
         }
         nameArgNodes.add(value);
-        nameArgNames.add(name);
+        nameArgNames.add(StringInterner.internIfIdentifier(name));
     }
 
     public ExpressionNode[] getNameArgs(SSTreeVisitor<PNode> visitor) {
@@ -43,6 +43,8 @@ package com.oracle.graal.python.parser.sst;
 
 import java.math.BigInteger;
 
+import com.oracle.graal.python.builtins.objects.ints.DecimalConversion;
+
 public abstract class NumberLiteralSSTNode extends SSTNode {
 
     private NumberLiteralSSTNode(int startIndex, int endIndex) {
@@ -136,11 +138,11 @@ public abstract class NumberLiteralSSTNode extends SSTNode {
             }
             if (overunder) {
                 // overflow
-                BigInteger bigResult = BigInteger.valueOf(result);
-                BigInteger bigBase = BigInteger.valueOf(base);
-                while (i < value.length()) {
-                    bigResult = bigResult.multiply(bigBase).add(BigInteger.valueOf(digitValue(value.charAt(i))));
-                    i++;
+                BigInteger bigResult;
+                if (base == 10) {
+                    bigResult = DecimalConversion.parse(value, start, value.length());
+                } else {
+                    bigResult = new BigInteger(value.substring(start), base);
                 }
                 return new BigIntegerLiteralSSTNode(bigResult, startIndex, endIndex);
             }
@@ -50,6 +50,7 @@ import com.oracle.graal.python.nodes.expression.BinaryArithmetic;
 import com.oracle.graal.python.nodes.expression.UnaryArithmetic;
 import com.oracle.graal.python.parser.ScopeInfo;
 import com.oracle.graal.python.parser.sst.SerializationUtils.SSTId;
+import com.oracle.graal.python.util.StringInterner;
 
 public final class SSTDeserializer {
 
@@ -259,7 +260,7 @@ public final class SSTDeserializer {
                     chars[i] = stream.readChar();
                 }
             }
-            String result = new String(chars, 0, length);
+            String result = StringInterner.internIfIdentifier(new String(chars, 0, length));
             stringTable.add(result);
             return result;
         } else {
@@ -48,9 +48,13 @@ import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import com.oracle.graal.python.PythonLanguage;
@@ -62,6 +66,8 @@ import com.oracle.graal.python.nodes.call.GenericInvokeNode;
 import com.oracle.graal.python.nodes.frame.ReadCallerFrameNode;
 import com.oracle.graal.python.runtime.ExecutionContext.CalleeContext;
 import com.oracle.graal.python.runtime.exception.ExceptionUtils;
+import com.oracle.graal.python.runtime.exception.PythonExitException;
+import com.oracle.graal.python.runtime.exception.PythonThreadKillException;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.graal.python.util.Supplier;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -130,14 +136,37 @@ public class AsyncHandler {
         }
     }
 
-    private final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(6, new ThreadFactory() {
+    private static final ThreadFactory DAEMON_THREAD_FACTORY = new ThreadFactory() {
         @Override
         public Thread newThread(Runnable r) {
             Thread t = Executors.defaultThreadFactory().newThread(r);
             t.setDaemon(true);
             return t;
         }
-    });
+    };
+
+    /**
+     * Runs the loops of the action suppliers of all contexts (see {@link #registerAction}). The
+     * suppliers block until they have an action, so the threads do not wake up while idle.
+     */
+    private static final ExecutorService SUPPLIER_EXECUTOR = Executors.newCachedThreadPool(DAEMON_THREAD_FACTORY);
+
+    /**
+     * The timer of all contexts for actions that are queued with a delay (see
+     * {@link #queueAction(AsyncAction, long)}). It only has work while such actions are pending.
+     */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(DAEMON_THREAD_FACTORY);
+
+    private final ConcurrentLinkedQueue<Future<?>> supplierLoops = new ConcurrentLinkedQueue<>();
+    private volatile boolean isShutdown;
+
+    /**
+     * Runs blocking operations (such as file reads and writes) on context threads that do not hold
+     * the GIL. Created lazily, because most programs never use it.
+     */
+    private ExecutorService blockingExecutorService;
+    private static final int BLOCKING_THREADS = 4;
+    private static final int BLOCKING_THREAD_KEEP_ALIVE = 10; // seconds
 
     private static final byte HAS_SCHEDULED_ACTION = 1;
     private static final byte SHOULD_RELEASE_GIL = 2;
@@ -158,26 +187,75 @@ public class AsyncHandler {
     private final WeakReference<PythonContext> context;
     private final ConcurrentLinkedQueue<AsyncAction> scheduledActions = new ConcurrentLinkedQueue<>();
     private ThreadLocal<Boolean> recursionGuard = new ThreadLocal<>();
+    /**
+     * How long to wait before asking a supplier again that returned no action. Suppliers usually
+     * block until they have one, but some return {@code null} while they are disabled.
+     */
     private static final int ASYNC_ACTION_DELAY = 15; // chosen by a fair D20 dice roll
-    private static final int GIL_RELEASE_DELAY = 10;
 
-    private class AsyncRunnable implements Runnable {
+    private class SupplierLoop implements Runnable {
         private final Supplier<AsyncAction> actionSupplier;
 
-        public AsyncRunnable(Supplier<AsyncAction> actionSupplier) {
+        SupplierLoop(Supplier<AsyncAction> actionSupplier) {
             this.actionSupplier = actionSupplier;
         }
 
         @Override
         public void run() {
-            AsyncAction asyncAction = actionSupplier.get();
-            if (asyncAction != null) {
-                scheduledActions.add(asyncAction);
-                scheduledActionsFlags |= HAS_SCHEDULED_ACTION;
+            Thread thread = Thread.currentThread();
+            while (!isShutdown && !thread.isInterrupted()) {
+                AsyncAction action = actionSupplier.get();
+                if (action != null) {
+                    // queue right away, so that a burst of actions is not spread over many delays
+                    queueAction(action);
+                } else {
+                    try {
+                        Thread.sleep(ASYNC_ACTION_DELAY);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private class BlockingRunnable implements Runnable {
+        private final Supplier<AsyncAction> task;
+
+        BlockingRunnable(Supplier<AsyncAction> task) {
+            this.task = task;
+        }
+
+        @Override
+        @SuppressWarnings("try")
+        public void run() {
+            // The queued actions (signal handlers, finalizers) are left to the Python threads, the
+            // guard keeps the safepoints of this thread from processing them.
+            recursionGuard.set(true);
+            AsyncAction action = task.get();
+            PythonContext ctx = context.get();
+            if (action == null || ctx == null || isShutdown) {
+                return;
+            }
+            // The thread that would normally pick up the action may be blocked without the GIL
+            // (e.g. an event loop waiting in select), so we run this one action ourselves.
+            try (GilNode.UncachedAcquire gil = GilNode.uncachedAcquire()) {
+                if (!isShutdown) {
+                    action.execute(ctx);
+                }
+            } catch (PythonThreadKillException | PythonExitException e) {
+                // interrupted while waiting for the GIL, the context is shutting down
             }
         }
     }
 
+    private void queueAction(AsyncAction asyncAction) {
+        if (asyncAction != null) {
+            scheduledActions.add(asyncAction);
+            scheduledActionsFlags |= HAS_SCHEDULED_ACTION;
+        }
+    }
+
     private static class CallRootNode extends PRootNode {
         static final int ASYNC_CALLABLE_INDEX = 0;
         static final int ASYNC_FRAME_INDEX_INDEX = 1;
@@ -232,23 +310,85 @@ public class AsyncHandler {
         this.callTarget = context.getLanguage().createCachedCallTarget(l -> new CallRootNode(l), CallRootNode.class);
     }
 
+    /**
+     * Registers a supplier that is called in a loop on a separate thread. It should block until
+     * there is an action, which is then queued immediately.
+     */
     void registerAction(Supplier<AsyncAction> actionSupplier) {
         CompilerAsserts.neverPartOfCompilation();
         if (PythonLanguage.getContext().getOption(PythonOptions.NoAsyncActions)) {
             return;
         }
-        executorService.scheduleWithFixedDelay(new AsyncRunnable(actionSupplier), ASYNC_ACTION_DELAY, ASYNC_ACTION_DELAY, TimeUnit.MILLISECONDS);
+        supplierLoops.add(SUPPLIER_EXECUTOR.submit(new SupplierLoop(actionSupplier)));
     }
 
-    void activateGIL() {
-        CompilerAsserts.neverPartOfCompilation();
-        executorService.scheduleWithFixedDelay(() -> {
-            if ((scheduledActionsFlags & SHOULD_RELEASE_GIL) != 0) {
-                // didn't release the gil at all in the last GIL_RELEASE_DELAY timeframe. Panic.
-                needsAdditionalSafepointExecution = true;
+    /**
+     * Queues an action after the given delay. Used for actions that must be retried later, e.g.
+     * when they need to be processed by a thread that does not hold the GIL right now.
+     */
+    @TruffleBoundary
+    public void queueAction(AsyncAction action, long delayMillis) {
+        if (delayMillis <= 0) {
+            queueAction(action);
+        } else if (!isShutdown) {
+            TIMER.schedule(() -> {
+                if (!isShutdown) {
+                    queueAction(action);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Runs {@code task} on a context thread that does not hold the GIL. The task must not touch
+     * Python objects. The action it returns is executed by the worker thread after acquiring the
+     * GIL, the worker never processes other queued actions. If the context does not allow creating
+     * threads, the task runs on the current thread with the GIL released and its action is queued
+     * and processed at the next safepoint.
+     */
+    @TruffleBoundary
+    @SuppressWarnings("try")
+    public void submitBlockingTask(Supplier<AsyncAction> task) {
+        PythonContext ctx = context.get();
+        if (ctx == null) {
+            return;
+        }
+        if (!ctx.getEnv().isCreateThreadAllowed()) {
+            AsyncAction action;
+            try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                action = task.get();
             }
-            scheduledActionsFlags |= SHOULD_RELEASE_GIL;
-        }, GIL_RELEASE_DELAY, GIL_RELEASE_DELAY, TimeUnit.MILLISECONDS);
+            queueAction(action);
+            return;
+        }
+        getBlockingExecutorService(ctx).execute(new BlockingRunnable(task));
+    }
+
+    private synchronized ExecutorService getBlockingExecutorService(PythonContext ctx) {
+        if (blockingExecutorService == null) {
+            TruffleLanguage.Env env = ctx.getEnv();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(BLOCKING_THREADS, BLOCKING_THREADS, BLOCKING_THREAD_KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = env.createThread(r, null, ctx.getThreadGroup());
+                t.setDaemon(true);
+                return t;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            blockingExecutorService = executor;
+        }
+        return blockingExecutorService;
+    }
+
+    /**
+     * Called by a thread that waited a whole switch interval for the GIL.
+     *
+     * @see GlobalInterpreterLock
+     */
+    void requestGilRelease() {
+        if ((scheduledActionsFlags & SHOULD_RELEASE_GIL) != 0) {
+            // didn't release the gil at all since the last request. Panic.
+            needsAdditionalSafepointExecution = true;
+        }
+        scheduledActionsFlags |= SHOULD_RELEASE_GIL;
     }
 
     void triggerAsyncActions() {
@@ -272,22 +412,20 @@ public class AsyncHandler {
             scheduledActionsFlags &= ~SHOULD_RELEASE_GIL;
             doReleaseGIL();
         }
-        if ((scheduledActionsFlags & HAS_SCHEDULED_ACTION) != 0) {
+        // keep the flag for another thread if this one must not process the actions right now
+        if ((scheduledActionsFlags & HAS_SCHEDULED_ACTION) != 0 && recursionGuard.get() != Boolean.TRUE) {
             scheduledActionsFlags &= ~HAS_SCHEDULED_ACTION;
             processAsyncActions();
         }
     }
 
     @TruffleBoundary
-    @SuppressWarnings("try")
     private final void doReleaseGIL() {
         PythonContext ctx = context.get();
         if (ctx == null) {
             return;
         }
-        try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
-            Thread.yield();
-        }
+        ctx.yieldGil();
     }
 
     /**
@@ -327,8 +465,29 @@ public class AsyncHandler {
         }
     }
 
+    @SuppressWarnings("try")
     public void shutdown() {
-        executorService.shutdownNow();
+        isShutdown = true;
+        Future<?> loop;
+        while ((loop = supplierLoops.poll()) != null) {
+            loop.cancel(true);
+        }
+        ExecutorService blockingExecutor;
+        synchronized (this) {
+            blockingExecutor = blockingExecutorService;
+        }
+        if (blockingExecutor != null) {
+            blockingExecutor.shutdownNow();
+            // The worker threads are context threads and must be gone before the context closes.
+            // Like the thread pools of CPython at exit, we wait for the running tasks to finish,
+            // but their actions are not executed anymore. The tasks only read and write regular
+            // files, so they do finish.
+            try (GilNode.UncachedRelease gil = GilNode.uncachedRelease()) {
+                blockingExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     public static class SharedFinalizer {
@@ -45,12 +45,20 @@ import static com.oracle.graal.python.runtime.PosixConstants.DT_DIR;
 import static com.oracle.graal.python.runtime.PosixConstants.DT_LNK;
 import static com.oracle.graal.python.runtime.PosixConstants.DT_REG;
 import static com.oracle.graal.python.runtime.PosixConstants.DT_UNKNOWN;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLET;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLONESHOT;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLLOUT;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_ADD;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_DEL;
+import static com.oracle.graal.python.runtime.PosixConstants.EPOLL_CTL_MOD;
 import static com.oracle.graal.python.runtime.PosixConstants.F_OK;
 import static com.oracle.graal.python.runtime.PosixConstants.LOCK_EX;
 import static com.oracle.graal.python.runtime.PosixConstants.LOCK_NB;
 import static com.oracle.graal.python.runtime.PosixConstants.LOCK_SH;
 import static com.oracle.graal.python.runtime.PosixConstants.LOCK_UN;
 import static com.oracle.graal.python.runtime.PosixConstants.MAP_ANONYMOUS;
+import static com.oracle.graal.python.runtime.PosixConstants.MAP_PRIVATE;
 import static com.oracle.graal.python.runtime.PosixConstants.O_ACCMODE;
 import static com.oracle.graal.python.runtime.PosixConstants.O_APPEND;
 import static com.oracle.graal.python.runtime.PosixConstants.O_CREAT;
@@ -63,6 +71,9 @@ import static com.oracle.graal.python.runtime.PosixConstants.O_SYNC;
 import static com.oracle.graal.python.runtime.PosixConstants.O_TMPFILE;
 import static com.oracle.graal.python.runtime.PosixConstants.O_TRUNC;
 import static com.oracle.graal.python.runtime.PosixConstants.O_WRONLY;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLIN;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLNVAL;
+import static com.oracle.graal.python.runtime.PosixConstants.POLLOUT;
 import static com.oracle.graal.python.runtime.PosixConstants.PROT_EXEC;
 import static com.oracle.graal.python.runtime.PosixConstants.PROT_NONE;
 import static com.oracle.graal.python.runtime.PosixConstants.PROT_READ;
@@ -112,10 +123,16 @@ import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.Channel;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.FileLock;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
@@ -123,6 +140,7 @@ import java.nio.channels.Selector;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileAttribute;
@@ -130,11 +148,13 @@ import java.nio.file.attribute.FileTime;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -147,6 +167,7 @@ import org.graalvm.nativeimage.ProcessProperties;
 import org.graalvm.polyglot.io.ProcessHandler.Redirect;
 
 import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.bytes.BytesSearch;
 import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum.ErrorAndMessagePair;
@@ -172,6 +193,11 @@ import com.oracle.graal.python.runtime.PosixSupportLibrary.UniversalSockAddr;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.UnsupportedPosixFeatureException;
 import com.oracle.graal.python.runtime.exception.PythonExitException;
 import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.graal.python.runtime.vfs.MemoryMount;
+import com.oracle.graal.python.runtime.vfs.VirtualFileSystem;
+import com.oracle.graal.python.runtime.vfs.VirtualFileSystem.Lookup;
+import com.oracle.graal.python.runtime.vfs.VirtualMount;
+import com.oracle.graal.python.runtime.vfs.ZipMount;
 import com.oracle.graal.python.util.FileDeleteShutdownHook;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
@@ -223,12 +249,18 @@ import com.sun.security.auth.UnixNumericGroupPrincipal;
  * <li>{@code faccessAt} does not support: effective IDs, and no follow symlinks unless the mode is
  * only F_OK.</li>
  * <li>{@code select} supports only network sockets, but not regular files.</li>
+ * <li>{@code poll} reports regular files as always ready and never reports {@code POLLPRI},
+ * {@code POLLERR} or {@code POLLHUP}. {@code epoll} does not support edge-triggered mode and
+ * channels registered in non-blocking mode must not be switched to blocking mode while registered.
+ * </li>
  * </ul>
  */
 @ExportLibrary(PosixSupportLibrary.class)
 @SuppressWarnings("unused")
 public final class EmulatedPosixSupport extends PosixResources {
 
+    private static final int MMAP_FIND_CHUNK_SIZE = 1024;
+
     private static final PosixFilePermission[][] otherBitsToPermission = new PosixFilePermission[][]{
                     new PosixFilePermission[]{},
                     new PosixFilePermission[]{PosixFilePermission.OTHERS_EXECUTE},
@@ -263,6 +295,8 @@ public final class EmulatedPosixSupport extends PosixResources {
     private final ConcurrentHashMap<String, String> environ = new ConcurrentHashMap<>();
     private int currentUmask = 0022;
     private boolean hasDefaultUmask = true;
+    private final VirtualFileSystem vfs = new VirtualFileSystem();
+    private static final String MEMORY_MOUNT_SOURCE = ":memory:";
 
     public EmulatedPosixSupport(PythonContext context, boolean useNfiForSocketFd) {
         super(context, useNfiForSocketFd);
@@ -277,6 +311,84 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    /**
+     * Mounts the zip or jar archive at {@code archivePath} read-only at {@code mountPoint}.
+     */
+    @TruffleBoundary
+    public void mountArchive(String mountPoint, String archivePath) throws PosixException {
+        String path = getMountPointPath(mountPoint);
+        ZipMount mount;
+        try {
+            mount = ZipMount.open(getTruffleFile(archivePath).newByteChannel(Collections.singleton(StandardOpenOption.READ)));
+        } catch (IOException | SecurityException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+        try {
+            vfs.mount(path, mount);
+        } catch (IOException e) {
+            try {
+                mount.close();
+            } catch (IOException ignored) {
+            }
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    /**
+     * Mounts an empty in-memory file system at {@code mountPoint}.
+     */
+    @TruffleBoundary
+    public void mountMemory(String mountPoint) throws PosixException {
+        try {
+            vfs.mount(getMountPointPath(mountPoint), new MemoryMount());
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    public void unmount(String mountPoint) throws PosixException {
+        try {
+            vfs.unmount(getMountPointPath(mountPoint));
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    /**
+     * Unmounts everything and closes the archives. Called when the context is finalized.
+     */
+    public void unmountAll() {
+        vfs.unmountAll();
+    }
+
+    /**
+     * Sets up the mounts given by the {@link PythonOptions#VirtualMounts} option.
+     */
+    @TruffleBoundary
+    public void mountFromOption(String option) throws PosixException {
+        for (String spec : option.split(",")) {
+            if (spec.isEmpty()) {
+                continue;
+            }
+            int eq = spec.indexOf('=');
+            if (eq <= 0) {
+                throw posixException(OSErrorEnum.EINVAL);
+            }
+            String mountPoint = spec.substring(0, eq);
+            String source = spec.substring(eq + 1);
+            if (source.equals(MEMORY_MOUNT_SOURCE)) {
+                mountMemory(mountPoint);
+            } else {
+                mountArchive(mountPoint, source);
+            }
+        }
+    }
+
+    private String getMountPointPath(String mountPoint) throws PosixException {
+        return getTruffleFile(mountPoint).getAbsoluteFile().normalize().getPath();
+    }
+
     @ExportMessage
     @SuppressWarnings("static-method")
     public String getBackend() {
@@ -351,6 +463,10 @@ public final class EmulatedPosixSupport extends PosixResources {
         Set<StandardOpenOption> options = flagsToOptions(flags);
         FileAttribute<Set<PosixFilePermission>> attributes = modeToAttributes(mode & ~currentUmask);
         try {
+            Lookup mount = findMount(file);
+            if (mount != null) {
+                return openVirtualFile(file, mount, options);
+            }
             return openTruffleFile(file, options, attributes);
         } catch (Exception e) {
             errorBranch.enter();
@@ -376,6 +492,11 @@ public final class EmulatedPosixSupport extends PosixResources {
         return open(file, fc);
     }
 
+    @TruffleBoundary
+    private int openVirtualFile(TruffleFile file, Lookup mount, Set<StandardOpenOption> options) throws IOException {
+        return open(file, mount.mount.newByteChannel(mount.path, options));
+    }
+
     @ExportMessage
     public long write(int fd, Buffer data,
                     @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
@@ -413,6 +534,237 @@ public final class EmulatedPosixSupport extends PosixResources {
         return new Buffer(array.getInternalByteArray(), array.length());
     }
 
+    @ExportMessage
+    public long readInto(int fd, byte[] buf, int offset, int length,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (!(channel instanceof ReadableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        try {
+            return doReadIntoOp(buf, offset, length, (ReadableByteChannel) channel);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private static int doReadIntoOp(byte[] buf, int offset, int length, ReadableByteChannel channel) throws IOException {
+        int n = channel.read(ByteBuffer.wrap(buf, offset, length));
+        // channels report EOF as -1
+        return Math.max(n, 0);
+    }
+
+    @ExportMessage
+    public long preadInto(int fd, byte[] buf, int offset, int length, long position,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (channel == null) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(channel instanceof SeekableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.ESPIPE);
+        }
+        if (position < 0) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        try {
+            return doPreadIntoOp(buf, offset, length, position, (SeekableByteChannel) channel);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static int doPreadIntoOp(byte[] buf, int offset, int length, long position, SeekableByteChannel channel) throws IOException {
+        ByteBuffer dst = ByteBuffer.wrap(buf, offset, length);
+        int n;
+        if (channel instanceof FileChannel) {
+            n = ((FileChannel) channel).read(dst, position);
+        } else {
+            // no positional read available, emulate it by seeking there and back
+            long oldPosition = channel.position();
+            try {
+                channel.position(position);
+                n = channel.read(dst);
+            } finally {
+                channel.position(oldPosition);
+            }
+        }
+        return Math.max(n, 0);
+    }
+
+    @ExportMessage
+    public long writev(int fd, Buffer[] buffers,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (!(channel instanceof WritableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        try {
+            return doWritevOp(buffers, (WritableByteChannel) channel);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static long doWritevOp(Buffer[] buffers, WritableByteChannel channel) throws IOException {
+        ByteBuffer[] srcs = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            srcs[i] = buffers[i].getByteBuffer();
+        }
+        if (channel instanceof GatheringByteChannel) {
+            return ((GatheringByteChannel) channel).write(srcs);
+        }
+        long written = 0;
+        for (ByteBuffer src : srcs) {
+            int len = src.remaining();
+            int n = channel.write(src);
+            written += n;
+            if (n < len) {
+                break;
+            }
+        }
+        return written;
+    }
+
+    @ExportMessage
+    public long readv(int fd, Buffer[] buffers,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (!(channel instanceof ReadableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        try {
+            return doReadvOp(buffers, (ReadableByteChannel) channel);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static long doReadvOp(Buffer[] buffers, ReadableByteChannel channel) throws IOException {
+        ByteBuffer[] dsts = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            dsts[i] = buffers[i].getByteBuffer();
+        }
+        if (channel instanceof ScatteringByteChannel) {
+            // channels report EOF as -1
+            return Math.max(((ScatteringByteChannel) channel).read(dsts), 0);
+        }
+        long read = 0;
+        for (ByteBuffer dst : dsts) {
+            int len = dst.remaining();
+            int n = channel.read(dst);
+            if (n > 0) {
+                read += n;
+            }
+            if (n < len) {
+                break;
+            }
+        }
+        return read;
+    }
+
+    @ExportMessage
+    public long sendfile(int outFd, int inFd, long offset, long count,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel in = getFileChannel(inFd, channelClassProfile);
+        Channel out = getFileChannel(outFd, channelClassProfile);
+        if (in == null || out == null) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(in instanceof FileChannel)) {
+            // like sendfile(2), the input has to be a regular file
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        if (out instanceof PSocket) {
+            out = ((PSocket) out).getSocket();
+        }
+        if (!(out instanceof WritableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        try {
+            return doSendfile((FileChannel) in, offset, count, (WritableByteChannel) out);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static long doSendfile(FileChannel in, long offset, long count, WritableByteChannel out) throws IOException {
+        long position = offset < 0 ? in.position() : offset;
+        long n = in.transferTo(position, count, out);
+        if (offset < 0) {
+            in.position(position + n);
+        }
+        return n;
+    }
+
+    @ExportMessage
+    public long copyFileRange(int inFd, long inOffset, int outFd, long outOffset, long count,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel in = getFileChannel(inFd, channelClassProfile);
+        Channel out = getFileChannel(outFd, channelClassProfile);
+        if (in == null || out == null) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(in instanceof FileChannel) || !(out instanceof FileChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        try {
+            return doCopyFileRange((FileChannel) in, inOffset, (FileChannel) out, outOffset, count);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static long doCopyFileRange(FileChannel in, long inOffset, FileChannel out, long outOffset, long count) throws IOException {
+        long inPosition = inOffset < 0 ? in.position() : inOffset;
+        long outPosition = out.position();
+        long n;
+        // transferTo writes at the current position of the target
+        if (outOffset >= 0) {
+            out.position(outOffset);
+        }
+        try {
+            n = in.transferTo(inPosition, count, out);
+        } finally {
+            if (outOffset >= 0) {
+                out.position(outPosition);
+            }
+        }
+        if (inOffset < 0) {
+            in.position(inPosition + n);
+        }
+        return n;
+    }
+
     @Override
     @ExportMessage
     public int dup(int fd) {
@@ -574,22 +926,190 @@ public final class EmulatedPosixSupport extends PosixResources {
             if (ch == null) {
                 throw posixException(OSErrorEnum.EBADF);
             }
-            if (ch instanceof SelectableChannel) {
-                channels[i] = (SelectableChannel) ch;
-            } else if (ch instanceof PSocket) {
-                PSocket socket = (PSocket) ch;
-                if (socket.getSocket() != null) {
-                    channels[i] = socket.getSocket();
-                } else if (socket.getServerSocket() != null) {
-                    channels[i] = socket.getServerSocket();
-                } else {
+            channels[i] = asSelectableChannel(ch);
+            if (channels[i] == null) {
+                throw ChannelNotSelectableException.INSTANCE;
+            }
+        }
+        return channels;
+    }
+
+    /**
+     * Returns the channel that can be registered with a {@link Selector} or {@code null} if the
+     * channel is not selectable (e.g., regular files).
+     */
+    private static SelectableChannel asSelectableChannel(Channel ch) throws PosixException {
+        if (ch instanceof SelectableChannel) {
+            return (SelectableChannel) ch;
+        } else if (ch instanceof PSocket) {
+            PSocket socket = (PSocket) ch;
+            if (socket.getSocket() != null) {
+                return socket.getSocket();
+            } else if (socket.getServerSocket() != null) {
+                return socket.getServerSocket();
+            } else {
+                throw posixException(OSErrorEnum.EBADF);
+            }
+        }
+        return null;
+    }
+
+    private static int eventsToInterestOps(SelectableChannel channel, int events, int inFlag, int outFlag) {
+        int ops = 0;
+        if ((events & inFlag) != 0) {
+            ops |= SelectionKey.OP_READ | SelectionKey.OP_ACCEPT;
+        }
+        if ((events & outFlag) != 0) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        return ops & channel.validOps();
+    }
+
+    private static int readyOpsToEvents(int readyOps, int inFlag, int outFlag) {
+        int events = 0;
+        if ((readyOps & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0) {
+            events |= inFlag;
+        }
+        if ((readyOps & SelectionKey.OP_WRITE) != 0) {
+            events |= outFlag;
+        }
+        return events;
+    }
+
+    private static int selectWithTimeout(Selector selector, int timeoutMs) throws IOException {
+        // Unlike in poll(2), zero means infinite timeout in the Java API
+        if (timeoutMs == 0) {
+            return selector.selectNow();
+        }
+        return selector.select(timeoutMs < 0 ? 0 : timeoutMs);
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public int[] poll(int[] fds, int[] events, int timeoutMs) throws PosixException {
+        final int inFlag = POLLIN.value;
+        final int outFlag = POLLOUT.value;
+        int[] revents = new int[fds.length];
+        SelectableChannel[] channels = new SelectableChannel[fds.length];
+        // the same channel may be present multiple times, but it can be registered only once
+        Map<SelectableChannel, Integer> interestOps = new HashMap<>();
+        boolean hasReadyFds = false;
+        for (int i = 0; i < fds.length; i++) {
+            Channel ch = getFileChannel(fds[i]);
+            SelectableChannel channel;
+            try {
+                channel = ch != null ? asSelectableChannel(ch) : null;
+            } catch (PosixException e) {
+                ch = null;
+                channel = null;
+            }
+            if (ch == null) {
+                revents[i] = POLLNVAL.value;
+                hasReadyFds = true;
+            } else if (channel == null) {
+                // Regular files are always ready for reading and writing
+                revents[i] = events[i] & (inFlag | outFlag);
+                hasReadyFds |= revents[i] != 0;
+            } else {
+                channels[i] = channel;
+                interestOps.merge(channel, eventsToInterestOps(channel, events[i], inFlag, outFlag), (a, b) -> a | b);
+            }
+        }
+
+        Map<SelectableChannel, Boolean> wasBlocking = new HashMap<>();
+        try (Selector selector = Selector.open()) {
+            for (Map.Entry<SelectableChannel, Integer> entry : interestOps.entrySet()) {
+                SelectableChannel channel = entry.getKey();
+                wasBlocking.put(channel, channel.isBlocking());
+                channel.configureBlocking(false);
+                channel.register(selector, entry.getValue());
+            }
+            selectWithTimeout(selector, hasReadyFds ? 0 : timeoutMs);
+            for (int i = 0; i < fds.length; i++) {
+                if (channels[i] != null) {
+                    SelectionKey key = channels[i].keyFor(selector);
+                    revents[i] = readyOpsToEvents(key.readyOps(), inFlag, outFlag) & events[i];
+                }
+            }
+            return revents;
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        } finally {
+            try {
+                for (Map.Entry<SelectableChannel, Boolean> entry : wasBlocking.entrySet()) {
+                    if (entry.getValue()) {
+                        entry.getKey().configureBlocking(true);
+                    }
+                }
+            } catch (IOException e) {
+                // We didn't manage to restore the blocking status, ignore
+            }
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public int epollCreate() throws PosixException {
+        if (!EPOLLIN.defined) {
+            throw posixException(OSErrorEnum.ENOSYS);
+        }
+        try {
+            return openEmulatedChannel(new EpollChannel());
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public void epollCtl(int epfd, int op, int fd, int events) throws PosixException {
+        Channel epollCh = getFileChannel(epfd);
+        if (epollCh == null) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(epollCh instanceof EpollChannel) || epfd == fd) {
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        EpollChannel epoll = (EpollChannel) epollCh;
+        try {
+            if (op == EPOLL_CTL_ADD.getValueIfDefined()) {
+                Channel ch = getFileChannel(fd);
+                if (ch == null) {
                     throw posixException(OSErrorEnum.EBADF);
                 }
+                SelectableChannel channel = asSelectableChannel(ch);
+                if (channel == null) {
+                    // Like epoll(7), which does not support regular files
+                    throw posixException(OSErrorEnum.EPERM);
+                }
+                epoll.add(fd, channel, events);
+            } else if (op == EPOLL_CTL_MOD.getValueIfDefined()) {
+                epoll.modify(fd, events);
+            } else if (op == EPOLL_CTL_DEL.getValueIfDefined()) {
+                epoll.delete(fd);
             } else {
-                throw ChannelNotSelectableException.INSTANCE;
+                throw posixException(OSErrorEnum.EINVAL);
             }
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public int epollWait(int epfd, int[] fds, int[] events, int timeoutMs) throws PosixException {
+        Channel epollCh = getFileChannel(epfd);
+        if (epollCh == null) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(epollCh instanceof EpollChannel) || fds.length == 0) {
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        try {
+            return ((EpollChannel) epollCh).await(fds, events, timeoutMs);
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
         }
-        return channels;
     }
 
     @ExportMessage
@@ -816,6 +1336,10 @@ public final class EmulatedPosixSupport extends PosixResources {
         TruffleFile f = resolvePath(dirFd, pathname, defaultDirFdPofile);
         LinkOption[] linkOptions = getLinkOptions(followSymlinks);
         try {
+            Lookup mount = findMount(f);
+            if (mount != null) {
+                return virtualStat(mount);
+            }
             return fstat(f, linkOptions);
         } catch (Exception e) {
             errorBranch.enter();
@@ -842,6 +1366,10 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
         TruffleFile f = getTruffleFile(path);
         try {
+            Lookup mount = findMount(f);
+            if (mount != null) {
+                return virtualStat(mount);
+            }
             return fstat(f, new LinkOption[0]);
         } catch (Exception e) {
             errorBranch.enter();
@@ -850,6 +1378,37 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @TruffleBoundary
+    private long[] virtualStat(Lookup mount) throws IOException {
+        VirtualMount.Entry entry = mount.mount.lookup(mount.path);
+        if (entry == null) {
+            throw new NoSuchFileException(mount.absolutePath);
+        }
+        int mode;
+        if (entry.isDirectory()) {
+            mode = S_IFDIR.value | 0555;
+        } else {
+            mode = S_IFREG.value | 0444;
+        }
+        if (!mount.mount.isReadOnly()) {
+            mode |= 0200;
+        }
+        long mtime = entry.getModifiedTime();
+        long seconds = Math.floorDiv(mtime, 1000L);
+        long nanos = Math.floorMod(mtime, 1000L) * 1000000L;
+        return new long[]{
+                        mode,
+                        getInodeId(mount.absolutePath), // ino
+                        0, // dev
+                        1, // nlink
+                        0, // uid
+                        0, // gid
+                        entry.getSize(),
+                        seconds, seconds, seconds,
+                        nanos, nanos, nanos
+        };
+    }
+
     private static long[] fstatWithoutPath(Channel fileChannel) {
         int mode = 0;
         if (fileChannel instanceof ReadableByteChannel) {
@@ -1080,6 +1639,16 @@ public final class EmulatedPosixSupport extends PosixResources {
                     @Shared("defaultDirProfile") @Cached ConditionProfile defaultDirFdPofile) throws PosixException {
         String pathname = pathToJavaStr(path);
         TruffleFile f = resolvePath(dirFd, pathname, defaultDirFdPofile);
+        Lookup mount = findMount(f);
+        if (mount != null) {
+            try {
+                deleteVirtualFile(mount, rmdir);
+                return;
+            } catch (IOException e) {
+                errorBranch.enter();
+                throw posixException(OSErrorEnum.fromException(e));
+            }
+        }
         if (f.exists(LinkOption.NOFOLLOW_LINKS)) {
             // we cannot check this if the file does not exist
             boolean isDirectory = f.isDirectory(LinkOption.NOFOLLOW_LINKS);
@@ -1096,6 +1665,11 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @TruffleBoundary
+    private static void deleteVirtualFile(Lookup mount, boolean directory) throws IOException {
+        mount.mount.delete(mount.path, directory);
+    }
+
     @ExportMessage
     public void symlinkat(Object target, int linkDirFd, Object link,
                     @Shared("errorBranch") @Cached BranchProfile errorBranch,
@@ -1119,6 +1693,11 @@ public final class EmulatedPosixSupport extends PosixResources {
         String pathStr = pathToJavaStr(path);
         TruffleFile linkFile = resolvePath(dirFd, pathStr, defaultDirFdPofile);
         try {
+            Lookup mount = findMount(linkFile);
+            if (mount != null) {
+                createVirtualDirectory(mount);
+                return;
+            }
             linkFile.createDirectory();
         } catch (Exception e) {
             errorBranch.enter();
@@ -1126,6 +1705,11 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @TruffleBoundary
+    private static void createVirtualDirectory(Lookup mount) throws IOException {
+        mount.mount.createDirectory(mount.path);
+    }
+
     @ExportMessage
     public Object getcwd() {
         return context.getEnv().getCurrentWorkingDirectory().toString();
@@ -1187,14 +1771,20 @@ public final class EmulatedPosixSupport extends PosixResources {
     }
 
     private static final class EmulatedDirStream {
+        /* null for directories of virtual mounts */
         final DirectoryStream<TruffleFile> dirStream;
-        final Iterator<TruffleFile> iterator;
+        final Iterator<?> iterator;
 
         private EmulatedDirStream(DirectoryStream<TruffleFile> dirStream) {
             this.dirStream = dirStream;
             iterator = getIterator(dirStream);
         }
 
+        private EmulatedDirStream(Iterator<VirtualDirEntry> iterator) {
+            this.dirStream = null;
+            this.iterator = iterator;
+        }
+
         @TruffleBoundary
         static Iterator<TruffleFile> getIterator(DirectoryStream<TruffleFile> dirStream) {
             return dirStream.iterator();
@@ -1219,8 +1809,28 @@ public final class EmulatedPosixSupport extends PosixResources {
         return opendirImpl(path, errorBranch);
     }
 
+    /**
+     * A directory entry of a virtual mount. Entries of the Truffle file system are represented by
+     * {@link TruffleFile} objects.
+     */
+    private static final class VirtualDirEntry {
+        final String name;
+        final String absolutePath;
+        final VirtualMount.Entry entry;
+
+        VirtualDirEntry(String name, String absolutePath, VirtualMount.Entry entry) {
+            this.name = name;
+            this.absolutePath = absolutePath;
+            this.entry = entry;
+        }
+    }
+
     private EmulatedDirStream opendirImpl(String path, BranchProfile errorBranch) throws PosixException {
         TruffleFile file = getTruffleFile(path);
+        Lookup mount = findMount(file);
+        if (mount != null) {
+            return opendirVirtual(mount);
+        }
         try {
             return new EmulatedDirStream(file.newDirectoryStream());
         } catch (IOException e) {
@@ -1229,12 +1839,34 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @TruffleBoundary
+    private static EmulatedDirStream opendirVirtual(Lookup mount) throws PosixException {
+        VirtualMount.Entry dir = mount.mount.lookup(mount.path);
+        if (dir == null) {
+            throw posixException(OSErrorEnum.ENOENT);
+        }
+        if (!dir.isDirectory()) {
+            throw posixException(OSErrorEnum.ENOTDIR);
+        }
+        String prefix = mount.path.isEmpty() ? "" : mount.path + "/";
+        String absolutePrefix = mount.absolutePath.endsWith("/") ? mount.absolutePath : mount.absolutePath + "/";
+        String[] names = mount.mount.list(dir);
+        ArrayList<VirtualDirEntry> entries = new ArrayList<>(names.length);
+        for (String name : names) {
+            entries.add(new VirtualDirEntry(name, absolutePrefix + name, mount.mount.lookup(prefix + name)));
+        }
+        return new EmulatedDirStream(entries.iterator());
+    }
+
     @ExportMessage
     @TruffleBoundary
     @SuppressWarnings("static-method")
     public void closedir(Object dirStreamObj,
                     @Shared("errorBranch") @Cached BranchProfile errorBranch) {
         EmulatedDirStream dirStream = (EmulatedDirStream) dirStreamObj;
+        if (dirStream.dirStream == null) {
+            return;
+        }
         try {
             dirStream.dirStream.close();
         } catch (IOException e) {
@@ -1255,28 +1887,49 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    @ExportMessage
+    @TruffleBoundary
+    @SuppressWarnings("static-method")
+    public Object[] readdirBatch(Object dirStreamObj, int maxEntries, @SuppressWarnings("unused") boolean resolveTypes) {
+        EmulatedDirStream dirStream = (EmulatedDirStream) dirStreamObj;
+        ArrayList<Object> entries = new ArrayList<>();
+        while (entries.size() < maxEntries && dirStream.iterator.hasNext()) {
+            entries.add(dirStream.iterator.next());
+        }
+        return entries.toArray();
+    }
+
     @ExportMessage
     @SuppressWarnings("static-method")
     public Object dirEntryGetName(Object dirEntry) {
-        TruffleFile file = (TruffleFile) dirEntry;
-        return file.getName();
+        return getDirEntryName(dirEntry);
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private static String getDirEntryName(Object dirEntry) {
+        if (dirEntry instanceof VirtualDirEntry) {
+            return ((VirtualDirEntry) dirEntry).name;
+        }
+        return ((TruffleFile) dirEntry).getName();
     }
 
     @ExportMessage
     @SuppressWarnings("static-method")
     public Object dirEntryGetPath(Object dirEntry, Object scandirPath) {
-        TruffleFile file = (TruffleFile) dirEntry;
         // Given that scandirPath must have been successfully channeled via opendir, we can assume
         // that it is a valid path
         TruffleFile dir = context.getPublicTruffleFileRelaxed(pathToJavaStr(scandirPath));
         // We let the filesystem handle the proper concatenation of the two paths
-        return dir.resolve(file.getName()).getPath();
+        return dir.resolve(getDirEntryName(dirEntry)).getPath();
     }
 
     @ExportMessage
     @TruffleBoundary
     @SuppressWarnings("static-method")
     public long dirEntryGetInode(Object dirEntry) throws PosixException {
+        if (dirEntry instanceof VirtualDirEntry) {
+            return getInodeId(((VirtualDirEntry) dirEntry).absolutePath);
+        }
         TruffleFile file = (TruffleFile) dirEntry;
         try {
             Attributes attributes = file.getAttributes(Collections.singletonList(UNIX_INODE), LinkOption.NOFOLLOW_LINKS);
@@ -1292,6 +1945,13 @@ public final class EmulatedPosixSupport extends PosixResources {
     @TruffleBoundary
     @SuppressWarnings("static-method")
     public int dirEntryGetType(Object dirEntry) {
+        if (dirEntry instanceof VirtualDirEntry) {
+            VirtualMount.Entry entry = ((VirtualDirEntry) dirEntry).entry;
+            if (entry == null) {
+                return DT_UNKNOWN.value;
+            }
+            return entry.isDirectory() ? DT_DIR.value : DT_REG.value;
+        }
         TruffleFile file = (TruffleFile) dirEntry;
         try {
             Attributes attrs = file.getAttributes(Arrays.asList(IS_DIRECTORY, IS_SYMBOLIC_LINK, IS_REGULAR_FILE), LinkOption.NOFOLLOW_LINKS);
@@ -1440,6 +2100,10 @@ public final class EmulatedPosixSupport extends PosixResources {
             // When the dirFd is invalid descriptor, we just return false, like the real faccessat
             return false;
         }
+        Lookup mount = findMount(file);
+        if (mount != null) {
+            return virtualAccess(mount, mode);
+        }
         if (!file.exists(getLinkOptions(followSymlinks))) {
             return false;
         }
@@ -1466,6 +2130,19 @@ public final class EmulatedPosixSupport extends PosixResources {
         return result;
     }
 
+    @TruffleBoundary
+    private static boolean virtualAccess(Lookup mount, int mode) {
+        VirtualMount.Entry entry = mount.mount.lookup(mount.path);
+        if (entry == null) {
+            return false;
+        }
+        if ((mode & W_OK.value) != 0 && mount.mount.isReadOnly()) {
+            return false;
+        }
+        // only directories are executable, see virtualStat
+        return (mode & X_OK.value) == 0 || entry.isDirectory();
+    }
+
     @ExportMessage
     public void fchmodat(int dirFd, Object path, int mode, boolean followSymlinks,
                     @Shared("defaultDirProfile") @Cached ConditionProfile defaultDirFdPofile) throws PosixException {
@@ -1975,19 +2652,216 @@ public final class EmulatedPosixSupport extends PosixResources {
     }
 
     public static final class MMapHandle {
-        private static final MMapHandle NONE = new MMapHandle(null, 0);
+        private static final MMapHandle NONE = new MMapHandle(null, 0, null);
         private SeekableByteChannel channel;
         private final long offset;
+        /**
+         * Direct view of the mapped region, or {@code null} if the channel could not be mapped, in
+         * which case all accesses go through the channel.
+         */
+        private ByteBuffer buffer;
 
-        public MMapHandle(SeekableByteChannel channel, long offset) {
+        public MMapHandle(SeekableByteChannel channel, long offset, ByteBuffer buffer) {
             this.channel = channel;
             this.offset = offset;
+            this.buffer = buffer;
         }
 
         @Override
         public String toString() {
             CompilerAsserts.neverPartOfCompilation();
-            return String.format("Emulated mmap [channel=%s, offset=%d]", channel, offset);
+            return String.format("Emulated mmap [channel=%s, offset=%d, mapped=%b]", channel, offset, buffer != null);
+        }
+    }
+
+    /**
+     * Emulation of an epoll instance on top of a {@link Selector} that stays open for the lifetime
+     * of the instance, so that the cost of waiting does not depend on the number of registered
+     * channels. Channels that are non-blocking when added (which is what event loops do) stay
+     * registered with the selector. Blocking channels cannot be registered permanently, since that
+     * would prevent blocking reads and writes, so they are switched to non-blocking mode only for
+     * the duration of a wait. Edge-triggered mode is emulated as level-triggered.
+     */
+    private static final class EpollChannel implements Channel {
+        private static final class Registration {
+            final int fd;
+            final SelectableChannel channel;
+            int events;
+            SelectionKey key;
+
+            Registration(int fd, SelectableChannel channel, int events) {
+                this.fd = fd;
+                this.channel = channel;
+                this.events = events;
+            }
+
+            int getInterestOps() {
+                return eventsToInterestOps(channel, events, EPOLLIN.getValueIfDefined(), EPOLLOUT.getValueIfDefined());
+            }
+        }
+
+        private final Selector selector;
+        private final Map<Integer, Registration> registrations = new HashMap<>();
+        private volatile boolean waiting;
+
+        EpollChannel() throws IOException {
+            selector = Selector.open();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return selector.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            selector.close();
+        }
+
+        private Registration getRegistration(int fd) {
+            Registration reg = registrations.get(fd);
+            if (reg != null && !reg.channel.isOpen()) {
+                // closing the channel implicitly removes it from the epoll set
+                registrations.remove(fd);
+                return null;
+            }
+            return reg;
+        }
+
+        private void wakeupWaitingThread() {
+            // avoid spurious wakeups of the next wait if no thread is currently waiting
+            if (waiting) {
+                selector.wakeup();
+            }
+        }
+
+        synchronized void add(int fd, SelectableChannel channel, int events) throws PosixException, IOException {
+            if (getRegistration(fd) != null) {
+                throw posixException(OSErrorEnum.EEXIST);
+            }
+            if ((events & EPOLLET.getValueIfDefined()) != 0) {
+                compatibilityIgnored("edge-triggered mode in emulated epoll, using level-triggered mode instead");
+            }
+            Registration reg = new Registration(fd, channel, events);
+            if (!channel.isBlocking()) {
+                if (channel.keyFor(selector) != null) {
+                    throw new UnsupportedPosixFeatureException("Registering the same channel multiple times in emulated epoll");
+                }
+                wakeupWaitingThread();
+                reg.key = channel.register(selector, reg.getInterestOps(), reg);
+            }
+            registrations.put(fd, reg);
+        }
+
+        synchronized void modify(int fd, int events) throws PosixException {
+            Registration reg = getRegistration(fd);
+            if (reg == null) {
+                throw posixException(OSErrorEnum.ENOENT);
+            }
+            reg.events = events;
+            if (reg.key != null) {
+                wakeupWaitingThread();
+                reg.key.interestOps(reg.getInterestOps());
+            }
+        }
+
+        synchronized void delete(int fd) throws PosixException {
+            Registration reg = getRegistration(fd);
+            if (reg == null) {
+                throw posixException(OSErrorEnum.ENOENT);
+            }
+            registrations.remove(fd);
+            if (reg.key != null) {
+                reg.key.cancel();
+                wakeupWaitingThread();
+            }
+        }
+
+        int await(int[] fds, int[] events, int timeoutMs) throws IOException {
+            // changes to the set wake up the selector, which must not end the wait early
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            int count = awaitOnce(fds, events, timeoutMs);
+            while (count == 0 && timeoutMs != 0 && !Thread.currentThread().isInterrupted()) {
+                int remainingMs = timeoutMs;
+                if (timeoutMs > 0) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        break;
+                    }
+                    remainingMs = (int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(left));
+                }
+                count = awaitOnce(fds, events, remainingMs);
+            }
+            return count;
+        }
+
+        private int awaitOnce(int[] fds, int[] events, int timeoutMs) throws IOException {
+            List<Registration> transientRegs = new ArrayList<>();
+            synchronized (this) {
+                for (Registration reg : registrations.values()) {
+                    if (reg.key == null && reg.channel.isOpen() && reg.channel.isBlocking()) {
+                        transientRegs.add(reg);
+                    }
+                }
+            }
+            try {
+                for (Registration reg : transientRegs) {
+                    reg.channel.configureBlocking(false);
+                    reg.key = reg.channel.register(selector, reg.getInterestOps(), reg);
+                }
+                waiting = true;
+                try {
+                    selectWithTimeout(selector, timeoutMs);
+                } finally {
+                    waiting = false;
+                }
+                synchronized (this) {
+                    int count = 0;
+                    Set<SelectionKey> selectedKeys = selector.selectedKeys();
+                    for (SelectionKey key : selectedKeys) {
+                        if (count == fds.length) {
+                            // the remaining channels are still ready and will be reported by the
+                            // next call
+                            break;
+                        }
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        Registration reg = (Registration) key.attachment();
+                        int revents = readyOpsToEvents(key.readyOps(), EPOLLIN.getValueIfDefined(), EPOLLOUT.getValueIfDefined()) & reg.events;
+                        if (revents == 0) {
+                            continue;
+                        }
+                        fds[count] = reg.fd;
+                        events[count] = revents;
+                        count++;
+                        if ((reg.events & EPOLLONESHOT.getValueIfDefined()) != 0) {
+                            // disabled until re-armed with EPOLL_CTL_MOD
+                            reg.events = 0;
+                            key.interestOps(0);
+                        }
+                    }
+                    selectedKeys.clear();
+                    return count;
+                }
+            } finally {
+                if (!transientRegs.isEmpty()) {
+                    for (Registration reg : transientRegs) {
+                        if (reg.key != null) {
+                            reg.key.cancel();
+                            reg.key = null;
+                        }
+                    }
+                    // deregisters the cancelled keys, which is required before switching back
+                    selector.selectNow();
+                    selector.selectedKeys().clear();
+                    for (Registration reg : transientRegs) {
+                        if (reg.channel.isOpen()) {
+                            reg.channel.configureBlocking(true);
+                        }
+                    }
+                }
+            }
         }
     }
 
@@ -2064,7 +2938,8 @@ public final class EmulatedPosixSupport extends PosixResources {
         // Note: the profile is not really defaultDirProfile, but it's good to share...
         if (isAnonymousProfile.profile((flags & MAP_ANONYMOUS.value) != 0)) {
             try {
-                return new MMapHandle(new AnonymousMap(PythonUtils.toIntExact(length)), 0);
+                AnonymousMap map = new AnonymousMap(PythonUtils.toIntExact(length));
+                return new MMapHandle(map, 0, wrapByteBuffer(map.data));
             } catch (OverflowException e) {
                 CompilerDirectives.transferToInterpreter();
                 throw new UnsupportedPosixFeatureException(String.format("Anonymous mapping in mmap for memory larger than %d", Integer.MAX_VALUE));
@@ -2073,19 +2948,96 @@ public final class EmulatedPosixSupport extends PosixResources {
 
         String path = getFilePath(fd);
         TruffleFile file = getTruffleFile(path);
+        Lookup mount = findMount(file);
+        if (mount != null) {
+            return mmapVirtual(mount, length, prot, flags, offset);
+        }
         Set<StandardOpenOption> options = mmapProtToOptions(prot);
 
         // we create a new channel, the file may be closed but the mmap object should still work
         SeekableByteChannel fileChannel;
         try {
             fileChannel = newByteChannel(file, options);
-            position(fileChannel, offset);
-            return new MMapHandle(fileChannel, offset);
+            ByteBuffer buffer = mapChannel(fileChannel, length, prot, flags, offset);
+            if (buffer == null) {
+                position(fileChannel, offset);
+            }
+            return new MMapHandle(fileChannel, offset, buffer);
         } catch (IOException e) {
             throw posixException(OSErrorEnum.fromException(e));
         }
     }
 
+    @TruffleBoundary
+    private static MMapHandle mmapVirtual(Lookup mount, long length, int prot, int flags, long offset) throws PosixException {
+        VirtualMount.Entry entry = mount.mount.lookup(mount.path);
+        if (entry == null || entry.isDirectory()) {
+            throw posixException(OSErrorEnum.ENODEV);
+        }
+        boolean writable = (prot & PROT_WRITE.value) != 0;
+        boolean shared = (flags & MAP_PRIVATE.value) == 0;
+        if (writable && shared && mount.mount.isReadOnly()) {
+            throw posixException(OSErrorEnum.EACCES);
+        }
+        if (length > Integer.MAX_VALUE || offset + length > entry.getSize()) {
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        try {
+            ByteBuffer buffer = mount.mount.map(entry, offset, length, writable);
+            if (buffer != null) {
+                // the channel is only kept so that unmapping has something to close
+                return new MMapHandle(mount.mount.newByteChannel(mount.path, Collections.singleton(StandardOpenOption.READ)), offset, buffer);
+            }
+            // the mapping reads and writes through a channel, so it sees the current contents
+            Set<StandardOpenOption> options = new HashSet<>();
+            options.add(StandardOpenOption.READ);
+            if (writable && shared) {
+                options.add(StandardOpenOption.WRITE);
+            }
+            SeekableByteChannel channel = mount.mount.newByteChannel(mount.path, options);
+            if (writable && !shared) {
+                // private writes must not reach the file, so such mappings work on a copy
+                ByteBuffer copy = ByteBuffer.allocate((int) length);
+                channel.position(offset);
+                int n;
+                do {
+                    n = channel.read(copy);
+                } while (n > 0 && copy.hasRemaining());
+                copy.clear();
+                return new MMapHandle(channel, offset, copy);
+            }
+            return new MMapHandle(channel, offset, null);
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    /**
+     * Maps the file into memory using the JDK's memory mapped files support, so that the mmap
+     * accesses do not need to go through the channel. Returns {@code null} if that is not possible
+     * for the given channel or length.
+     */
+    @TruffleBoundary
+    private static ByteBuffer mapChannel(SeekableByteChannel channel, long length, int prot, int flags, long offset) throws IOException {
+        if (!(channel instanceof FileChannel) || length > Integer.MAX_VALUE) {
+            return null;
+        }
+        MapMode mode;
+        if ((prot & PROT_WRITE.value) == 0) {
+            mode = MapMode.READ_ONLY;
+        } else if ((flags & MAP_PRIVATE.value) != 0) {
+            mode = MapMode.PRIVATE;
+        } else {
+            mode = MapMode.READ_WRITE;
+        }
+        try {
+            return ((FileChannel) channel).map(mode, offset, length);
+        } catch (NonReadableChannelException | NonWritableChannelException | UnsupportedOperationException e) {
+            // e.g. write-only mappings, fall back to the channel
+            return null;
+        }
+    }
+
     @TruffleBoundary
     private static Set<StandardOpenOption> mmapProtToOptions(int prot) {
         HashSet<StandardOpenOption> options = new HashSet<>();
@@ -2115,6 +3067,9 @@ public final class EmulatedPosixSupport extends PosixResources {
             throw posixException(OSErrorEnum.EACCES);
         }
         MMapHandle handle = (MMapHandle) mmap;
+        if (handle.buffer != null) {
+            return getByte(handle.buffer, (int) index);
+        }
         ByteBuffer readingBuffer = allocateByteBuffer(1);
         int readSize = readBytes(handle, index, readingBuffer, errBranch);
         if (readSize == 0) {
@@ -2139,6 +3094,11 @@ public final class EmulatedPosixSupport extends PosixResources {
             errBranch.enter();
             throw posixException(OSErrorEnum.EOVERFLOW);
         }
+        if (handle.buffer != null) {
+            int readSize = Math.max(0, Math.min(sz, handle.buffer.capacity() - (int) index));
+            getBytes(handle.buffer, (int) index, bytes, readSize);
+            return readSize;
+        }
         ByteBuffer readingBuffer = allocateByteBuffer(sz);
         int readSize = readBytes(handle, index, readingBuffer, errBranch);
         if (readSize > 0) {
@@ -2167,6 +3127,10 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
         MMapHandle handle = (MMapHandle) mmap;
         try {
+            if (handle.buffer != null) {
+                putBytes(handle.buffer, (int) index, bytes, length);
+                return;
+            }
             SeekableByteChannel channel = handle.channel;
             position(channel, handle.offset + index);
             int written = writeChannel(channel, bytes, length);
@@ -2174,7 +3138,8 @@ public final class EmulatedPosixSupport extends PosixResources {
                 throw posixException(OSErrorEnum.EIO);
             }
         } catch (Exception e) {
-            // Catching generic Exception to also cover NonWritableChannelException
+            // Catching generic Exception to also cover NonWritableChannelException and
+            // ReadOnlyBufferException
             errBranch.enter();
             throw posixException(OSErrorEnum.fromException(e));
         }
@@ -2185,14 +3150,73 @@ public final class EmulatedPosixSupport extends PosixResources {
         return channel.write(ByteBuffer.wrap(bytes, 0, length));
     }
 
+    @ExportMessage
+    public long mmapFind(Object mmap, long start, long end, byte[] sub, boolean reverse,
+                    @Shared("errorBranch") @Cached BranchProfile errBranch) throws PosixException {
+        if (mmap == MMapHandle.NONE) {
+            errBranch.enter();
+            throw posixException(OSErrorEnum.EACCES);
+        }
+        MMapHandle handle = (MMapHandle) mmap;
+        return find(handle, start, end, sub, reverse, errBranch);
+    }
+
+    /**
+     * Searches a heap buffer in place. Otherwise the region is read in chunks that overlap by
+     * {@code sub.length - 1} bytes, so that matches crossing a chunk boundary are found.
+     */
+    @TruffleBoundary
+    private long find(MMapHandle handle, long start, long end, byte[] sub, boolean reverse, BranchProfile errBranch) throws PosixException {
+        ByteBuffer buffer = handle.buffer;
+        if (buffer != null && buffer.hasArray()) {
+            int off = buffer.arrayOffset();
+            byte[] array = buffer.array();
+            int idx = reverse ? BytesSearch.lastIndexOf(array, off + (int) start, off + (int) end, sub, sub.length)
+                            : BytesSearch.indexOf(array, off + (int) start, off + (int) end, sub, sub.length);
+            return idx < 0 ? -1 : idx - off;
+        }
+        byte[] chunk = new byte[(int) Math.min(end - start, MMAP_FIND_CHUNK_SIZE + sub.length - 1)];
+        if (reverse) {
+            for (long hi = end; hi - start >= sub.length; hi -= MMAP_FIND_CHUNK_SIZE) {
+                long lo = Math.max(start, hi - chunk.length);
+                int n = Math.max(0, mmapReadBytes(handle, lo, chunk, (int) (hi - lo), errBranch));
+                int idx = BytesSearch.lastIndexOf(chunk, 0, n, sub, sub.length);
+                if (idx >= 0) {
+                    return lo + idx;
+                }
+            }
+        } else {
+            for (long lo = start; end - lo >= sub.length; lo += MMAP_FIND_CHUNK_SIZE) {
+                int n = Math.max(0, mmapReadBytes(handle, lo, chunk, (int) Math.min(end - lo, chunk.length), errBranch));
+                int idx = BytesSearch.indexOf(chunk, 0, n, sub, sub.length);
+                if (idx >= 0) {
+                    return lo + idx;
+                }
+            }
+        }
+        return -1;
+    }
+
     @ExportMessage
     @SuppressWarnings({"static-method", "unused"})
-    public void mmapFlush(Object mmap, long offset, long length) {
-        // Intentionally noop
-        // If we had access to the underlying NIO FileChannel, we could explicitly set force(true)
-        // when creating the channel. Another possibility would be exposing JDK's memory mapped
-        // files support via Truffle API, which would allow for more compatible (and completely
-        // different implementation of mmap in emulated posix)
+    public void mmapFlush(Object mmap, long offset, long length) throws PosixException {
+        if (mmap == MMapHandle.NONE) {
+            return;
+        }
+        // Only memory mapped files need to be written back, the channel writes are not buffered
+        ByteBuffer buffer = ((MMapHandle) mmap).buffer;
+        if (buffer instanceof MappedByteBuffer) {
+            try {
+                force((MappedByteBuffer) buffer);
+            } catch (Exception e) {
+                throw posixException(OSErrorEnum.fromException(e));
+            }
+        }
+    }
+
+    @TruffleBoundary
+    private static void force(MappedByteBuffer buffer) {
+        buffer.force();
     }
 
     @ExportMessage
@@ -2202,6 +3226,8 @@ public final class EmulatedPosixSupport extends PosixResources {
             return;
         }
         MMapHandle handle = (MMapHandle) mmap;
+        // The mapping itself is released by the JDK once the buffer becomes unreachable
+        handle.buffer = null;
         if (handle.channel != null) {
             try {
                 closeChannel(handle.channel);
@@ -2239,6 +3265,30 @@ public final class EmulatedPosixSupport extends PosixResources {
         return src.get();
     }
 
+    @TruffleBoundary(allowInlining = true)
+    private static ByteBuffer wrapByteBuffer(byte[] data) {
+        return ByteBuffer.wrap(data);
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private static byte getByte(ByteBuffer src, int index) {
+        return src.get(index);
+    }
+
+    @TruffleBoundary
+    private static void getBytes(ByteBuffer src, int index, byte[] dst, int length) {
+        ByteBuffer view = src.duplicate();
+        view.position(index);
+        view.get(dst, 0, length);
+    }
+
+    @TruffleBoundary
+    private static void putBytes(ByteBuffer dst, int index, byte[] src, int length) {
+        ByteBuffer view = dst.duplicate();
+        view.position(index);
+        view.put(src, 0, length);
+    }
+
     @TruffleBoundary
     private static int readChannel(Object readableChannel, ByteBuffer dst) throws IOException {
         return ((ReadableByteChannel) readableChannel).read(dst);
@@ -2478,6 +3528,22 @@ public final class EmulatedPosixSupport extends PosixResources {
         }
     }
 
+    /**
+     * Returns the mount that serves the file, or {@code null} if the file is not under a mount
+     * point of the {@link VirtualFileSystem}.
+     */
+    private Lookup findMount(TruffleFile file) {
+        if (vfs.isEmpty()) {
+            return null;
+        }
+        return findMountBoundary(file);
+    }
+
+    @TruffleBoundary
+    private Lookup findMountBoundary(TruffleFile file) {
+        return vfs.find(file.getAbsoluteFile().normalize().getPath());
+    }
+
     private static String pathToJavaStr(Object path) {
         return (String) path;
     }
@@ -51,6 +51,12 @@ import com.oracle.truffle.api.profiles.ConditionProfile;
 
 public abstract class GilNode extends Node {
 
+    /**
+     * The input size in bytes from which builtins release the GIL around pure Java computations,
+     * like {@code HASHLIB_GIL_MINSIZE} in CPython.
+     */
+    public static final int RELEASE_GIL_MIN_SIZE = 2048;
+
     private static final class Cached extends GilNode {
         @CompilationFinal private ContextReference<PythonContext> contextRef;
         private final ConditionProfile binaryProfile = ConditionProfile.createBinaryProfile();
@@ -206,6 +212,21 @@ public abstract class GilNode extends Node {
         return UncachedRelease.INSTANCE;
     }
 
+    /**
+     * Like {@link #uncachedRelease()}, but only releases the GIL if {@code release} is
+     * {@code true}. Closing the returned object takes the GIL again only if it was released. This
+     * is meant for pure Java computations on data that was copied out of Python objects (e.g.,
+     * compressing a {@code byte[]}), where releasing the GIL only pays off for large inputs.
+     */
+    @TruffleBoundary
+    public static UncachedRelease uncachedReleaseIf(boolean release) {
+        if (release) {
+            return uncachedRelease();
+        }
+        // closing will not acquire the GIL again, because we still own it
+        return UncachedRelease.INSTANCE;
+    }
+
     public static UncachedAcquire uncachedAcquire() {
         // if we already had the GIL, we don't acquire it again
         boolean wasAcquired = UncachedAcquire.INSTANCE_WITH_RELEASE.acquire();
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameInstance;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Counts how often and how long a thread waited for and held the GIL. Acquire counts, wait times
+ * and forced releases are always recorded, since they are cheap and only measured when the GIL is
+ * contended. Hold times and the sites that held the GIL for a long time are only recorded with
+ * {@link PythonOptions#GilStatistics}, because they need a timestamp on every acquire and release.
+ *
+ * An instance is only updated by its thread while it holds the GIL, so any thread holding the GIL
+ * can read it.
+ */
+public final class GilStatistics {
+    /**
+     * Bucket {@code i} of the histograms counts times shorter than {@code 2^i} microseconds, the
+     * last bucket counts all longer times.
+     */
+    public static final int HISTOGRAM_BUCKETS = 24;
+
+    /** Holds at least this long are attributed to the site that released the GIL. */
+    static final long LONG_HOLD_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private long acquireCount;
+    private long contendedCount;
+    private long waitTime;
+    private long forcedReleases;
+    private long holdTime;
+    private long holdStart;
+    private final long[] waitHistogram = new long[HISTOGRAM_BUCKETS];
+    private final long[] holdHistogram = new long[HISTOGRAM_BUCKETS];
+    private final HashMap<String, HoldSite> holdSites = new HashMap<>();
+
+    public static final class HoldSite {
+        private long count;
+        private long totalTime;
+        private long maxTime;
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalTime() {
+            return totalTime;
+        }
+
+        public long getMaxTime() {
+            return maxTime;
+        }
+
+        void record(long time) {
+            count++;
+            totalTime += time;
+            maxTime = Math.max(maxTime, time);
+        }
+
+        void merge(HoldSite other) {
+            count += other.count;
+            totalTime += other.totalTime;
+            maxTime = Math.max(maxTime, other.maxTime);
+        }
+    }
+
+    void recordAcquire(long waited) {
+        acquireCount++;
+        if (waited > 0) {
+            contendedCount++;
+            waitTime += waited;
+            waitHistogram[bucket(waited)]++;
+        }
+    }
+
+    void recordForcedRelease() {
+        forcedReleases++;
+    }
+
+    void startHold() {
+        holdStart = System.nanoTime();
+    }
+
+    @TruffleBoundary
+    void endHold() {
+        if (holdStart == 0) {
+            return;
+        }
+        long held = System.nanoTime() - holdStart;
+        holdStart = 0;
+        holdTime += held;
+        holdHistogram[bucket(held)]++;
+        if (held >= LONG_HOLD_THRESHOLD) {
+            holdSites.computeIfAbsent(getCurrentSite(), k -> new HoldSite()).record(held);
+        }
+    }
+
+    @TruffleBoundary
+    void merge(GilStatistics other) {
+        acquireCount += other.acquireCount;
+        contendedCount += other.contendedCount;
+        waitTime += other.waitTime;
+        forcedReleases += other.forcedReleases;
+        holdTime += other.holdTime;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            waitHistogram[i] += other.waitHistogram[i];
+            holdHistogram[i] += other.holdHistogram[i];
+        }
+        for (Map.Entry<String, HoldSite> e : other.holdSites.entrySet()) {
+            holdSites.computeIfAbsent(e.getKey(), k -> new HoldSite()).merge(e.getValue());
+        }
+    }
+
+    private static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        return Math.min(64 - Long.numberOfLeadingZeros(micros), HISTOGRAM_BUCKETS - 1);
+    }
+
+    /**
+     * Describes where the GIL is released: the function that releases it (usually a builtin doing
+     * a blocking call) and the closest Python call site.
+     */
+    private static String getCurrentSite() {
+        String[] name = new String[1];
+        String location = Truffle.getRuntime().iterateFrames((FrameInstance frameInstance) -> {
+            if (name[0] == null) {
+                RootNode rootNode = ((RootCallTarget) frameInstance.getCallTarget()).getRootNode();
+                name[0] = rootNode.getName();
+                return null;
+            }
+            Node callNode = frameInstance.getCallNode();
+            SourceSection section = callNode != null ? callNode.getEncapsulatingSourceSection() : null;
+            if (section != null && section.isAvailable()) {
+                return section.getSource().getName() + ":" + section.getStartLine();
+            }
+            return null;
+        });
+        if (name[0] == null) {
+            return "<unknown>";
+        }
+        return location != null ? name[0] + " at " + location : name[0];
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public long getContendedCount() {
+        return contendedCount;
+    }
+
+    /** Total wait time in nanoseconds. */
+    public long getWaitTime() {
+        return waitTime;
+    }
+
+    public long getForcedReleases() {
+        return forcedReleases;
+    }
+
+    /** Total hold time in nanoseconds, only recorded with {@link PythonOptions#GilStatistics}. */
+    public long getHoldTime() {
+        return holdTime;
+    }
+
+    public long[] getWaitHistogram() {
+        return waitHistogram.clone();
+    }
+
+    public long[] getHoldHistogram() {
+        return holdHistogram.clone();
+    }
+
+    @TruffleBoundary
+    public Map<String, HoldSite> getHoldSites() {
+        return new HashMap<>(holdSites);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The global interpreter lock, modelled after the GIL of CPython 3.2 and later. A thread that has
+ * to wait for the GIL waits for at most one switch interval. If no other thread took the GIL in
+ * that time, it asks the holder to drop it. The holder drops it at its next safepoint (see
+ * {@link AsyncHandler}) and hands it over to a waiting thread, i.e., it does not try to take it
+ * again before some other thread took it. This avoids that a CPU bound thread, which drops and
+ * immediately retakes the GIL, starves threads that only need it for short periods of time.
+ *
+ * Should not be used directly, see {@link GilNode}.
+ */
+final class GlobalInterpreterLock {
+    static final long DEFAULT_SWITCH_INTERVAL = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final ReentrantLock mutex = new ReentrantLock();
+    /** Signalled when the GIL is released. */
+    private final Condition released = mutex.newCondition();
+    /** Signalled when the GIL changes hands or a waiting thread gives up. */
+    private final Condition switched = mutex.newCondition();
+    private final Runnable dropRequest;
+
+    private volatile Thread holder;
+    private long switchNumber;
+    private volatile int waiters;
+    private volatile long switchInterval = DEFAULT_SWITCH_INTERVAL;
+
+    /**
+     * @param dropRequest is run by a waiting thread to ask the holder to drop the GIL
+     */
+    GlobalInterpreterLock(Runnable dropRequest) {
+        this.dropRequest = dropRequest;
+    }
+
+    boolean isHeldByCurrentThread() {
+        return holder == Thread.currentThread();
+    }
+
+    /**
+     * Returns whether some thread waits for the GIL. The answer may be outdated right away.
+     */
+    boolean hasWaiters() {
+        return waiters > 0;
+    }
+
+    long getSwitchInterval() {
+        return switchInterval;
+    }
+
+    void setSwitchInterval(long nanos) {
+        assert nanos > 0;
+        switchInterval = nanos;
+    }
+
+    /**
+     * Takes the GIL. Returns the time in nanoseconds the current thread had to wait for it.
+     */
+    long acquire() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        mutex.lock();
+        try {
+            long waited = 0;
+            if (holder != null) {
+                long start = System.nanoTime();
+                waiters++;
+                try {
+                    while (holder != null) {
+                        long switchNumberBefore = switchNumber;
+                        long remaining = released.awaitNanos(switchInterval);
+                        if (remaining <= 0 && holder != null && switchNumber == switchNumberBefore) {
+                            // nobody took the GIL during a whole interval
+                            dropRequest.run();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // pass on a signal we may have consumed and let a yielding holder know that
+                    // there is one waiter less
+                    released.signal();
+                    switched.signalAll();
+                    throw e;
+                } finally {
+                    waiters--;
+                }
+                waited = System.nanoTime() - start;
+            }
+            holder = Thread.currentThread();
+            switchNumber++;
+            switched.signalAll();
+            return waited;
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    void release() {
+        mutex.lock();
+        try {
+            assert isHeldByCurrentThread() : "trying to release the GIL without holding it";
+            holder = null;
+            released.signal();
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    /**
+     * Drops the GIL on a request of a waiting thread and takes it again, but only after another
+     * thread had it. Returns the time in nanoseconds the current thread waited to get it back.
+     */
+    long yieldToWaiter() throws InterruptedException {
+        mutex.lock();
+        try {
+            assert isHeldByCurrentThread() : "trying to yield the GIL without holding it";
+            if (waiters == 0) {
+                return 0;
+            }
+            long switchNumberBefore = switchNumber;
+            holder = null;
+            released.signal();
+            while (switchNumber == switchNumberBefore && waiters > 0) {
+                switched.await();
+            }
+        } finally {
+            mutex.unlock();
+        }
+        return acquire();
+    }
+}
@@ -202,6 +202,52 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.write(nativePosixSupport, fd, data);
     }
 
+    @ExportMessage
+    final long readInto(int fd, byte[] buf, int offset, int length,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        if (ImageInfo.inImageBuildtimeCode()) {
+            return PosixSupportLibrary.getUncached().readInto(emulatedPosixSupport, fd, buf, offset, length);
+        }
+        return nativeLib.readInto(nativePosixSupport, fd, buf, offset, length);
+    }
+
+    @ExportMessage
+    final long preadInto(int fd, byte[] buf, int offset, int length, long position,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        if (ImageInfo.inImageBuildtimeCode()) {
+            return PosixSupportLibrary.getUncached().preadInto(emulatedPosixSupport, fd, buf, offset, length, position);
+        }
+        return nativeLib.preadInto(nativePosixSupport, fd, buf, offset, length, position);
+    }
+
+    @ExportMessage
+    final long writev(int fd, Buffer[] buffers,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.writev(nativePosixSupport, fd, buffers);
+    }
+
+    @ExportMessage
+    final long readv(int fd, Buffer[] buffers,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.readv(nativePosixSupport, fd, buffers);
+    }
+
+    @ExportMessage
+    final long sendfile(int outFd, int inFd, long offset, long count,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.sendfile(nativePosixSupport, outFd, inFd, offset, count);
+    }
+
+    @ExportMessage
+    final long copyFileRange(int inFd, long inOffset, int outFd, long outOffset, long count,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.copyFileRange(nativePosixSupport, inFd, inOffset, outFd, outOffset, count);
+    }
+
     @ExportMessage
     final int dup(int fd,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
@@ -246,6 +292,33 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.select(nativePosixSupport, readfds, writefds, errorfds, timeout);
     }
 
+    @ExportMessage
+    final int[] poll(int[] fds, int[] events, int timeoutMs,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.poll(nativePosixSupport, fds, events, timeoutMs);
+    }
+
+    @ExportMessage
+    final int epollCreate(@CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.epollCreate(nativePosixSupport);
+    }
+
+    @ExportMessage
+    final void epollCtl(int epfd, int op, int fd, int events,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        nativeLib.epollCtl(nativePosixSupport, epfd, op, fd, events);
+    }
+
+    @ExportMessage
+    final int epollWait(int epfd, int[] fds, int[] events, int timeoutMs,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.epollWait(nativePosixSupport, epfd, fds, events, timeoutMs);
+    }
+
     @ExportMessage
     final long lseek(int fd, long offset, int how,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
@@ -404,6 +477,15 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         return nativeLib.readdir(nativePosixSupport, dirStream);
     }
 
+    @ExportMessage
+    final Object[] readdirBatch(Object dirStream, int maxEntries, boolean resolveTypes,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        if (ImageInfo.inImageBuildtimeCode()) {
+            return PosixSupportLibrary.getUncached().readdirBatch(emulatedPosixSupport, dirStream, maxEntries, resolveTypes);
+        }
+        return nativeLib.readdirBatch(nativePosixSupport, dirStream, maxEntries, resolveTypes);
+    }
+
     @ExportMessage
     final Object dirEntryGetName(Object dirEntry,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
@@ -657,6 +739,13 @@ public class ImageBuildtimePosixSupport extends PosixSupport {
         nativeLib.mmapWriteBytes(nativePosixSupport, mmap, index, bytes, length);
     }
 
+    @ExportMessage
+    final long mmapFind(Object mmap, long start, long end, byte[] sub, boolean reverse,
+                    @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
+        checkNotInImageBuildtime();
+        return nativeLib.mmapFind(nativePosixSupport, mmap, start, end, sub, reverse);
+    }
+
     @ExportMessage
     final void mmapFlush(Object mmap, long offset, long length,
                     @CachedLibrary("this.nativePosixSupport") PosixSupportLibrary nativeLib) throws PosixException {
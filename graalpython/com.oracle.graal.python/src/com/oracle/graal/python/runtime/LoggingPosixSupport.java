@@ -189,6 +189,72 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final long readInto(int fd, byte[] buf, int offset, int length,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("readInto", "%d, %d, %d", fd, offset, length);
+        try {
+            return logExit("readInto", "%d", lib.readInto(delegate, fd, buf, offset, length));
+        } catch (PosixException e) {
+            throw logException("readInto", e);
+        }
+    }
+
+    @ExportMessage
+    final long preadInto(int fd, byte[] buf, int offset, int length, long position,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("preadInto", "%d, %d, %d, %d", fd, offset, length, position);
+        try {
+            return logExit("preadInto", "%d", lib.preadInto(delegate, fd, buf, offset, length, position));
+        } catch (PosixException e) {
+            throw logException("preadInto", e);
+        }
+    }
+
+    @ExportMessage
+    final long writev(int fd, Buffer[] buffers,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("writev", "%d, %d", fd, buffers.length);
+        try {
+            return logExit("writev", "%d", lib.writev(delegate, fd, buffers));
+        } catch (PosixException e) {
+            throw logException("writev", e);
+        }
+    }
+
+    @ExportMessage
+    final long readv(int fd, Buffer[] buffers,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("readv", "%d, %d", fd, buffers.length);
+        try {
+            return logExit("readv", "%d", lib.readv(delegate, fd, buffers));
+        } catch (PosixException e) {
+            throw logException("readv", e);
+        }
+    }
+
+    @ExportMessage
+    final long sendfile(int outFd, int inFd, long offset, long count,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("sendfile", "%d, %d, %d, %d", outFd, inFd, offset, count);
+        try {
+            return logExit("sendfile", "%d", lib.sendfile(delegate, outFd, inFd, offset, count));
+        } catch (PosixException e) {
+            throw logException("sendfile", e);
+        }
+    }
+
+    @ExportMessage
+    final long copyFileRange(int inFd, long inOffset, int outFd, long outOffset, long count,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("copyFileRange", "%d, %d, %d, %d, %d", inFd, inOffset, outFd, outOffset, count);
+        try {
+            return logExit("copyFileRange", "%d", lib.copyFileRange(delegate, inFd, inOffset, outFd, outOffset, count));
+        } catch (PosixException e) {
+            throw logException("copyFileRange", e);
+        }
+    }
+
     @ExportMessage
     final int dup(int fd,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -256,6 +322,49 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final int[] poll(int[] fds, int[] events, int timeoutMs,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("poll", "%s, %s, %d", fds, events, timeoutMs);
+        try {
+            return logExit("poll", "%s", lib.poll(delegate, fds, events, timeoutMs));
+        } catch (PosixException e) {
+            throw logException("poll", e);
+        }
+    }
+
+    @ExportMessage
+    final int epollCreate(@CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("epollCreate", "");
+        try {
+            return logExit("epollCreate", "%d", lib.epollCreate(delegate));
+        } catch (PosixException e) {
+            throw logException("epollCreate", e);
+        }
+    }
+
+    @ExportMessage
+    final void epollCtl(int epfd, int op, int fd, int events,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("epollCtl", "%d, %d, %d, %d", epfd, op, fd, events);
+        try {
+            lib.epollCtl(delegate, epfd, op, fd, events);
+        } catch (PosixException e) {
+            throw logException("epollCtl", e);
+        }
+    }
+
+    @ExportMessage
+    final int epollWait(int epfd, int[] fds, int[] events, int timeoutMs,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("epollWait", "%d, %d, %d", epfd, fds.length, timeoutMs);
+        try {
+            return logExit("epollWait", "%d", lib.epollWait(delegate, epfd, fds, events, timeoutMs));
+        } catch (PosixException e) {
+            throw logException("epollWait", e);
+        }
+    }
+
     @ExportMessage
     final long lseek(int fd, long offset, int how,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -479,6 +588,17 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final Object[] readdirBatch(Object dirStream, int maxEntries, boolean resolveTypes,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("readdirBatch", "%s, %d, %b", dirStream, maxEntries, resolveTypes);
+        try {
+            return logExit("readdirBatch", "%s", lib.readdirBatch(delegate, dirStream, maxEntries, resolveTypes));
+        } catch (PosixException e) {
+            throw logException("readdirBatch", e);
+        }
+    }
+
     @ExportMessage
     final Object dirEntryGetName(Object dirEntry,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -761,6 +881,17 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    public long mmapFind(Object mmap, long start, long end, byte[] sub, boolean reverse,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("mmapFind", "%s, %d, %d, %s, %b", mmap, start, end, sub, reverse);
+        try {
+            return logExit("mmapFind", "%d", lib.mmapFind(delegate, mmap, start, end, sub, reverse));
+        } catch (PosixException e) {
+            throw logException("mmapFind", e);
+        }
+    }
+
     @ExportMessage
     final String ctermid(@CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
         logEnter("ctermid", "");
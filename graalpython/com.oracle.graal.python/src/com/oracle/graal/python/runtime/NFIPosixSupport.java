@@ -68,6 +68,7 @@ import org.graalvm.nativeimage.ImageInfo;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.modules.GraalPythonModuleBuiltins;
+import com.oracle.graal.python.builtins.objects.bytes.BytesSearch;
 import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.AcceptResult;
@@ -121,6 +122,8 @@ public final class NFIPosixSupport extends PosixSupport {
     private static final int DIRENT_NAME_BUF_LENGTH = 256;
 
     private static final int MAX_READ = Integer.MAX_VALUE / 2;
+    private static final int IOV_BATCH = 8;
+    private static final int MMAP_FIND_CHUNK_SIZE = 64 * 1024;
 
     private static final TruffleLogger LOGGER = PythonLanguage.getLogger(NFIPosixSupport.class);
 
@@ -155,10 +158,20 @@ public final class NFIPosixSupport extends PosixSupport {
         call_close("(sint32):sint32"),
         call_read("(sint32, [sint8], uint64):sint64"),
         call_write("(sint32, [sint8], uint64):sint64"),
+        call_read_into("(sint32, [sint8], sint32, uint64):sint64"),
+        call_pread_into("(sint32, [sint8], sint32, uint64, sint64):sint64"),
+        call_writev("(sint32, [sint8], sint64, [sint8], sint64, [sint8], sint64, [sint8], sint64, [sint8], sint64, [sint8], sint64, [sint8], sint64, [sint8], sint64, sint32):sint64"),
+        call_readv("(sint32, [sint8], sint64, [sint8], sint64, [sint8], sint64, [sint8], sint64, [sint8], sint64, [sint8], sint64, [sint8], sint64, [sint8], sint64, sint32):sint64"),
+        call_sendfile("(sint32, sint32, sint64, uint64):sint64"),
+        call_copy_file_range("(sint32, sint64, sint32, sint64, uint64):sint64"),
         call_dup("(sint32):sint32"),
         call_dup2("(sint32, sint32, sint32):sint32"),
         call_pipe2("([sint32]):sint32"),
         call_select("(sint32, [sint32], sint32, [sint32], sint32, [sint32], sint32, sint64, sint64, [sint8]):sint32"),
+        call_poll("([sint32], [sint32], [sint32], sint32, sint32):sint32"),
+        call_epoll_create("():sint32"),
+        call_epoll_ctl("(sint32, sint32, sint32, sint32):sint32"),
+        call_epoll_wait("(sint32, [sint32], [sint32], sint32, sint32):sint32"),
         call_lseek("(sint32, sint64, sint32):sint64"),
         call_ftruncate("(sint32, sint64):sint32"),
         call_fsync("(sint32):sint32"),
@@ -177,6 +190,7 @@ public final class NFIPosixSupport extends PosixSupport {
         call_fdopendir("(sint32):sint64"),
         call_closedir("(sint64, sint32):sint32"),
         call_readdir("(sint64, [sint8], uint64, [sint64]):sint32"),
+        call_readdir_batch("(sint64, [sint8], uint64, [sint64], sint32, sint32):sint32"),
         call_utimensat("(sint32, [sint8], [sint64], sint32):sint32"),
         call_futimens("(sint32, [sint64]):sint32"),
         call_futimes("(sint32, [sint64]):sint32"),
@@ -485,6 +499,106 @@ public final class NFIPosixSupport extends PosixSupport {
         return n;
     }
 
+    @ExportMessage
+    public long readInto(int fd, byte[] buf, int offset, int length,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        assert offset >= 0 && length >= 0 && offset + length <= buf.length;
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_read_into, fd, wrap(buf), offset, Math.min(length, MAX_READ));
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    @ExportMessage
+    public long preadInto(int fd, byte[] buf, int offset, int length, long position,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        assert offset >= 0 && length >= 0 && offset + length <= buf.length;
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_pread_into, fd, wrap(buf), offset, Math.min(length, MAX_READ), position);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    @ExportMessage
+    public long writev(int fd, Buffer[] buffers,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        return vectoredIO(PosixNativeFunction.call_writev, fd, buffers, invokeNode);
+    }
+
+    @ExportMessage
+    public long readv(int fd, Buffer[] buffers,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        return vectoredIO(PosixNativeFunction.call_readv, fd, buffers, invokeNode);
+    }
+
+    @ExportMessage
+    public long sendfile(int outFd, int inFd, long offset, long count,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_sendfile, outFd, inFd, offset, count);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    @ExportMessage
+    public long copyFileRange(int inFd, long inOffset, int outFd, long outOffset, long count,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_copy_file_range, inFd, inOffset, outFd, outOffset, count);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    /**
+     * Passes each buffer as an iovec of its own, without copying. NFI cannot pass an array of
+     * arrays, so the native functions take {@link #IOV_BATCH} buffers as separate arguments, and
+     * more buffers take several calls. Like {@code read}, at most {@link #MAX_READ} bytes are
+     * transferred, which is a partial transfer for larger buffers. The transfer also stops at the
+     * first batch that is not transferred completely, or that fails after some bytes were already
+     * transferred.
+     */
+    private long vectoredIO(PosixNativeFunction function, int fd, Buffer[] buffers, InvokeNativeFunction invokeNode) throws PosixException {
+        Object[] args = new Object[2 * IOV_BATCH + 2];
+        args[0] = fd;
+        long total = 0;
+        int next = 0;
+        while (next < buffers.length && total < MAX_READ) {
+            int count = 0;
+            long batchLength = 0;
+            while (count < IOV_BATCH && next + count < buffers.length && total + batchLength < MAX_READ) {
+                Buffer buffer = buffers[next + count];
+                long length = Math.min(buffer.length, MAX_READ - total - batchLength);
+                args[2 * count + 1] = wrap(buffer.data);
+                args[2 * count + 2] = length;
+                batchLength += length;
+                count++;
+            }
+            for (int i = count; i < IOV_BATCH; i++) {
+                args[2 * i + 1] = wrap(PythonUtils.EMPTY_BYTE_ARRAY);
+                args[2 * i + 2] = 0L;
+            }
+            args[args.length - 1] = count;
+            long n = invokeNode.callLong(this, function, args);
+            if (n < 0) {
+                if (total > 0) {
+                    // the error is reported by the next call
+                    return total;
+                }
+                throw getErrnoAndThrowPosixException(invokeNode);
+            }
+            total += n;
+            if (n < batchLength) {
+                break;
+            }
+            next += count;
+        }
+        return total;
+    }
+
     @ExportMessage
     public int dup(int fd,
                     @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
@@ -563,6 +677,46 @@ public final class NFIPosixSupport extends PosixSupport {
 
     }
 
+    @ExportMessage
+    public int[] poll(int[] fds, int[] events, int timeoutMs,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int[] revents = new int[fds.length];
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_poll, wrap(fds), wrap(events), wrap(revents), fds.length, timeoutMs);
+        if (result < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return revents;
+    }
+
+    @ExportMessage
+    public int epollCreate(@Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_epoll_create);
+        if (result < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return result;
+    }
+
+    @ExportMessage
+    public void epollCtl(int epfd, int op, int fd, int events,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_epoll_ctl, epfd, op, fd, events);
+        if (result < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+    }
+
+    @ExportMessage
+    public int epollWait(int epfd, int[] fds, int[] events, int timeoutMs,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        assert fds.length == events.length;
+        int result = invokeNode.callInt(this, PosixNativeFunction.call_epoll_wait, epfd, wrap(fds), wrap(events), fds.length, timeoutMs);
+        if (result < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return result;
+    }
+
     private static boolean[] selectFillInResult(int[] fds, byte[] selected, int selectedOffset) {
         boolean[] res = new boolean[fds.length];
         for (int i = 0; i < fds.length; i++) {
@@ -823,6 +977,38 @@ public final class NFIPosixSupport extends PosixSupport {
         throw newPosixException(invokeNode, errno);
     }
 
+    @ExportMessage
+    public Object[] readdirBatch(Object dirStreamObj, int maxEntries, boolean resolveTypes,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        DirStream dirStream = (DirStream) dirStreamObj;
+        byte[] names = new byte[maxEntries * DIRENT_NAME_BUF_LENGTH];
+        // the last slot receives the errno of a failure after some entries were read
+        long[] out = new long[2 * maxEntries + 1];
+        int count;
+        synchronized (dirStream.lock) {
+            if (dirStream.closed) {
+                return new Object[0];
+            }
+            if (dirStream.pendingErrno != 0) {
+                int errno = dirStream.pendingErrno;
+                dirStream.pendingErrno = 0;
+                throw newPosixException(invokeNode, errno);
+            }
+            count = invokeNode.callInt(this, PosixNativeFunction.call_readdir_batch, dirStream.nativePtr, wrap(names), DIRENT_NAME_BUF_LENGTH, wrap(out), maxEntries, resolveTypes ? 1 : 0);
+            if (count < 0) {
+                throw getErrnoAndThrowPosixException(invokeNode);
+            }
+            dirStream.pendingErrno = (int) out[2 * maxEntries];
+        }
+        Object[] entries = new Object[count];
+        for (int i = 0; i < count; i++) {
+            int start = i * DIRENT_NAME_BUF_LENGTH;
+            int end = findZero(names, start, start + DIRENT_NAME_BUF_LENGTH);
+            entries[i] = new DirEntry(Buffer.wrap(PythonUtils.arrayCopyOfRange(names, start, end)), out[2 * i], (int) out[2 * i + 1]);
+        }
+        return entries;
+    }
+
     @ExportMessage
     @SuppressWarnings("static-method")
     public Object dirEntryGetName(Object dirEntryObj) {
@@ -1317,6 +1503,45 @@ public final class NFIPosixSupport extends PosixSupport {
         UNSAFE.copyMemory(bytes, Unsafe.ARRAY_BYTE_BASE_OFFSET, null, handle.pointer + index, length);
     }
 
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public long mmapFind(Object mmap, long start, long end, byte[] sub, boolean reverse) {
+        MMapHandle handle = (MMapHandle) mmap;
+        checkIndexAndLen(handle, start, end - start);
+        return findInMemory(handle.pointer, start, end, sub, reverse);
+    }
+
+    /**
+     * Copies the region to the Java heap in chunks that overlap by {@code sub.length - 1} bytes, so
+     * that matches crossing a chunk boundary are found, and searches each chunk with
+     * {@link BytesSearch}.
+     */
+    @TruffleBoundary
+    private static long findInMemory(long address, long start, long end, byte[] sub, boolean reverse) {
+        byte[] chunk = new byte[(int) Math.min(end - start, MMAP_FIND_CHUNK_SIZE + sub.length - 1)];
+        if (reverse) {
+            for (long hi = end; hi - start >= sub.length; hi -= MMAP_FIND_CHUNK_SIZE) {
+                long lo = Math.max(start, hi - chunk.length);
+                int n = (int) (hi - lo);
+                UNSAFE.copyMemory(null, address + lo, chunk, Unsafe.ARRAY_BYTE_BASE_OFFSET, n);
+                int idx = BytesSearch.lastIndexOf(chunk, 0, n, sub, sub.length);
+                if (idx >= 0) {
+                    return lo + idx;
+                }
+            }
+        } else {
+            for (long lo = start; end - lo >= sub.length; lo += MMAP_FIND_CHUNK_SIZE) {
+                int n = (int) Math.min(end - lo, chunk.length);
+                UNSAFE.copyMemory(null, address + lo, chunk, Unsafe.ARRAY_BYTE_BASE_OFFSET, n);
+                int idx = BytesSearch.indexOf(chunk, 0, n, sub, sub.length);
+                if (idx >= 0) {
+                    return lo + idx;
+                }
+            }
+        }
+        return -1;
+    }
+
     @ExportMessage
     public void mmapFlush(Object mmap, long offset, long length,
                     @Shared("invoke") @Cached InvokeNativeFunction invokeNode) {
@@ -1929,6 +2154,7 @@ public final class NFIPosixSupport extends PosixSupport {
         final boolean needsRewind;
         final Object lock;
         boolean closed;
+        int pendingErrno;
 
         DirStream(long nativePtr, boolean needsRewind) {
             this.nativePtr = nativePtr;
@@ -2012,12 +2238,16 @@ public final class NFIPosixSupport extends PosixSupport {
     }
 
     private static int findZero(byte[] buf) {
-        for (int i = 0; i < buf.length; ++i) {
+        return findZero(buf, 0, buf.length);
+    }
+
+    private static int findZero(byte[] buf, int from, int to) {
+        for (int i = from; i < to; ++i) {
             if (buf[i] == 0) {
                 return i;
             }
         }
-        return buf.length;
+        return to;
     }
 
     private Object pathToCStringOrNull(Object path) {
@@ -70,6 +70,10 @@ public final class PosixConstants {
     public static final MandatoryIntConstant SEEK_END;
     public static final OptionalIntConstant SEEK_DATA;
     public static final OptionalIntConstant SEEK_HOLE;
+    public static final OptionalIntConstant EPOLL_CTL_ADD;
+    public static final OptionalIntConstant EPOLL_CTL_MOD;
+    public static final OptionalIntConstant EPOLL_CTL_DEL;
+    public static final OptionalIntConstant EPOLL_CLOEXEC;
     public static final MandatoryIntConstant O_ACCMODE;
     public static final MandatoryIntConstant O_RDONLY;
     public static final MandatoryIntConstant O_WRONLY;
@@ -119,6 +123,32 @@ public final class PosixConstants {
     public static final MandatoryIntConstant DT_LNK;
     public static final MandatoryIntConstant DT_SOCK;
     public static final MandatoryIntConstant DT_WHT;
+    public static final MandatoryIntConstant POLLIN;
+    public static final MandatoryIntConstant POLLPRI;
+    public static final MandatoryIntConstant POLLOUT;
+    public static final MandatoryIntConstant POLLERR;
+    public static final MandatoryIntConstant POLLHUP;
+    public static final MandatoryIntConstant POLLNVAL;
+    public static final OptionalIntConstant POLLRDNORM;
+    public static final OptionalIntConstant POLLRDBAND;
+    public static final OptionalIntConstant POLLWRNORM;
+    public static final OptionalIntConstant POLLWRBAND;
+    public static final OptionalIntConstant POLLMSG;
+    public static final OptionalIntConstant POLLRDHUP;
+    public static final OptionalIntConstant EPOLLIN;
+    public static final OptionalIntConstant EPOLLPRI;
+    public static final OptionalIntConstant EPOLLOUT;
+    public static final OptionalIntConstant EPOLLERR;
+    public static final OptionalIntConstant EPOLLHUP;
+    public static final OptionalIntConstant EPOLLRDNORM;
+    public static final OptionalIntConstant EPOLLRDBAND;
+    public static final OptionalIntConstant EPOLLWRNORM;
+    public static final OptionalIntConstant EPOLLWRBAND;
+    public static final OptionalIntConstant EPOLLMSG;
+    public static final OptionalIntConstant EPOLLRDHUP;
+    public static final OptionalIntConstant EPOLLEXCLUSIVE;
+    public static final OptionalIntConstant EPOLLONESHOT;
+    public static final OptionalIntConstant EPOLLET;
     public static final MandatoryIntConstant WNOHANG;
     public static final MandatoryIntConstant WUNTRACED;
     public static final MandatoryIntConstant R_OK;
@@ -258,6 +288,8 @@ public final class PosixConstants {
     public static final IntConstant[] flockOperation;
     public static final IntConstant[] flockType;
     public static final IntConstant[] direntType;
+    public static final IntConstant[] pollEvents;
+    public static final IntConstant[] epollEvents;
     public static final IntConstant[] waitOptions;
     public static final IntConstant[] accessMode;
     public static final IntConstant[] rtld;
@@ -292,6 +324,10 @@ public final class PosixConstants {
         SEEK_END = reg.createMandatoryInt("SEEK_END");
         SEEK_DATA = reg.createOptionalInt("SEEK_DATA");
         SEEK_HOLE = reg.createOptionalInt("SEEK_HOLE");
+        EPOLL_CTL_ADD = reg.createOptionalInt("EPOLL_CTL_ADD");
+        EPOLL_CTL_MOD = reg.createOptionalInt("EPOLL_CTL_MOD");
+        EPOLL_CTL_DEL = reg.createOptionalInt("EPOLL_CTL_DEL");
+        EPOLL_CLOEXEC = reg.createOptionalInt("EPOLL_CLOEXEC");
         O_ACCMODE = reg.createMandatoryInt("O_ACCMODE");
         O_RDONLY = reg.createMandatoryInt("O_RDONLY");
         O_WRONLY = reg.createMandatoryInt("O_WRONLY");
@@ -341,6 +377,32 @@ public final class PosixConstants {
         DT_LNK = reg.createMandatoryInt("DT_LNK");
         DT_SOCK = reg.createMandatoryInt("DT_SOCK");
         DT_WHT = reg.createMandatoryInt("DT_WHT");
+        POLLIN = reg.createMandatoryInt("POLLIN");
+        POLLPRI = reg.createMandatoryInt("POLLPRI");
+        POLLOUT = reg.createMandatoryInt("POLLOUT");
+        POLLERR = reg.createMandatoryInt("POLLERR");
+        POLLHUP = reg.createMandatoryInt("POLLHUP");
+        POLLNVAL = reg.createMandatoryInt("POLLNVAL");
+        POLLRDNORM = reg.createOptionalInt("POLLRDNORM");
+        POLLRDBAND = reg.createOptionalInt("POLLRDBAND");
+        POLLWRNORM = reg.createOptionalInt("POLLWRNORM");
+        POLLWRBAND = reg.createOptionalInt("POLLWRBAND");
+        POLLMSG = reg.createOptionalInt("POLLMSG");
+        POLLRDHUP = reg.createOptionalInt("POLLRDHUP");
+        EPOLLIN = reg.createOptionalInt("EPOLLIN");
+        EPOLLPRI = reg.createOptionalInt("EPOLLPRI");
+        EPOLLOUT = reg.createOptionalInt("EPOLLOUT");
+        EPOLLERR = reg.createOptionalInt("EPOLLERR");
+        EPOLLHUP = reg.createOptionalInt("EPOLLHUP");
+        EPOLLRDNORM = reg.createOptionalInt("EPOLLRDNORM");
+        EPOLLRDBAND = reg.createOptionalInt("EPOLLRDBAND");
+        EPOLLWRNORM = reg.createOptionalInt("EPOLLWRNORM");
+        EPOLLWRBAND = reg.createOptionalInt("EPOLLWRBAND");
+        EPOLLMSG = reg.createOptionalInt("EPOLLMSG");
+        EPOLLRDHUP = reg.createOptionalInt("EPOLLRDHUP");
+        EPOLLEXCLUSIVE = reg.createOptionalInt("EPOLLEXCLUSIVE");
+        EPOLLONESHOT = reg.createOptionalInt("EPOLLONESHOT");
+        EPOLLET = reg.createOptionalInt("EPOLLET");
         WNOHANG = reg.createMandatoryInt("WNOHANG");
         WUNTRACED = reg.createMandatoryInt("WUNTRACED");
         R_OK = reg.createMandatoryInt("R_OK");
@@ -480,6 +542,9 @@ public final class PosixConstants {
         flockOperation = new IntConstant[]{LOCK_SH, LOCK_EX, LOCK_NB, LOCK_UN};
         flockType = new IntConstant[]{F_RDLCK, F_WRLCK, F_UNLCK};
         direntType = new IntConstant[]{DT_UNKNOWN, DT_FIFO, DT_CHR, DT_DIR, DT_BLK, DT_REG, DT_LNK, DT_SOCK, DT_WHT};
+        pollEvents = new IntConstant[]{POLLIN, POLLPRI, POLLOUT, POLLERR, POLLHUP, POLLNVAL, POLLRDNORM, POLLRDBAND, POLLWRNORM, POLLWRBAND, POLLMSG, POLLRDHUP};
+        epollEvents = new IntConstant[]{EPOLLIN, EPOLLPRI, EPOLLOUT, EPOLLERR, EPOLLHUP, EPOLLRDNORM, EPOLLRDBAND, EPOLLWRNORM, EPOLLWRBAND, EPOLLMSG, EPOLLRDHUP, EPOLLEXCLUSIVE, EPOLLONESHOT,
+                        EPOLLET};
         waitOptions = new IntConstant[]{WNOHANG, WUNTRACED};
         accessMode = new IntConstant[]{R_OK, W_OK, X_OK, F_OK};
         rtld = new IntConstant[]{RTLD_LAZY, RTLD_NOW, RTLD_GLOBAL, RTLD_LOCAL};
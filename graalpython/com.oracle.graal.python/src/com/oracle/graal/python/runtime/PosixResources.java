@@ -345,6 +345,16 @@ public class PosixResources extends PosixSupport {
 
     @TruffleBoundary
     public int openSocket(PSocket socket) {
+        return openEmulatedChannel(socket);
+    }
+
+    /**
+     * Assigns a file descriptor to a channel that exists only in the emulation layer, such as an
+     * emulated socket or epoll instance. See {@link #openSocket(PSocket)} for how the file
+     * descriptor is chosen.
+     */
+    @TruffleBoundary
+    public int openEmulatedChannel(Channel channel) {
         synchronized (files) {
             int fd;
             if (!useNfiForSocketFd) {
@@ -366,7 +376,7 @@ public class PosixResources extends PosixSupport {
                     throw CompilerDirectives.shouldNotReachHere("Unable to assign native fd to a socket", e);
                 }
             }
-            addFD(fd, socket);
+            addFD(fd, channel);
             return fd;
         }
     }
@@ -378,6 +388,14 @@ public class PosixResources extends PosixSupport {
             return;
         }
         socket.setFileno(-1);
+        closeEmulatedChannel(fd);
+    }
+
+    /**
+     * Closes a file descriptor obtained from {@link #openEmulatedChannel(Channel)}.
+     */
+    @TruffleBoundary
+    public void closeEmulatedChannel(int fd) {
         close(fd);
         if (useNfiForSocketFd) {
             // using nfi backend
@@ -93,6 +93,56 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract long write(Object receiver, int fd, Buffer data) throws PosixException;
 
+    /**
+     * Reads up to {@code length} bytes from {@code fd} directly into {@code buf}, starting at index
+     * {@code offset}. Unlike {@link #read(Object, int, long)}, no intermediate buffer is allocated,
+     * which allows {@code readinto}-like operations to fill the caller's storage in place.
+     *
+     * @return the number of bytes read, {@code 0} at end of file
+     */
+    public abstract long readInto(Object receiver, int fd, byte[] buf, int offset, int length) throws PosixException;
+
+    /**
+     * Same as {@link #readInto(Object, int, byte[], int, int)}, but reads from the given file
+     * position and leaves the file offset unchanged, like {@code pread}.
+     */
+    public abstract long preadInto(Object receiver, int fd, byte[] buf, int offset, int length, long position) throws PosixException;
+
+    /**
+     * Writes the contents of all {@code buffers} in order with a single call, like
+     * {@code writev}. Each buffer contributes its first {@link Buffer#length} bytes.
+     *
+     * @return the total number of bytes written, which may be less than the sum of the lengths
+     */
+    public abstract long writev(Object receiver, int fd, Buffer[] buffers) throws PosixException;
+
+    /**
+     * Reads into {@code buffers} in order with a single call, like {@code readv}. Each buffer is
+     * filled up to its {@link Buffer#length} before moving on to the next one.
+     *
+     * @return the total number of bytes read, {@code 0} at end of file
+     */
+    public abstract long readv(Object receiver, int fd, Buffer[] buffers) throws PosixException;
+
+    /**
+     * Copies up to {@code count} bytes from {@code inFd} to {@code outFd} without passing the data
+     * through user space where possible, like {@code sendfile}. If {@code offset} is negative, the
+     * data is read from, and advances, the current file offset of {@code inFd}. Otherwise, the
+     * data is read from {@code offset} and the file offset of {@code inFd} is left unchanged.
+     *
+     * @return the number of bytes copied
+     */
+    public abstract long sendfile(Object receiver, int outFd, int inFd, long offset, long count) throws PosixException;
+
+    /**
+     * Copies up to {@code count} bytes between two regular files, like {@code copy_file_range}.
+     * Negative offsets denote the current file offset of the respective descriptor, which is then
+     * advanced by the number of bytes copied.
+     *
+     * @return the number of bytes copied, {@code 0} at end of the input file
+     */
+    public abstract long copyFileRange(Object receiver, int inFd, long inOffset, int outFd, long outOffset, long count) throws PosixException;
+
     public abstract int dup(Object receiver, int fd) throws PosixException;
 
     public abstract int dup2(Object receiver, int fd, int fd2, boolean inheritable) throws PosixException;
@@ -105,6 +155,29 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract SelectResult select(Object receiver, int[] readfds, int[] writefds, int[] errorfds, Timeval timeout) throws PosixException;
 
+    /**
+     * Waits for events on the given file descriptors, {@code timeoutMs < 0} means infinite timeout.
+     *
+     * @return the returned events for each of the file descriptors in {@code fds}
+     */
+    public abstract int[] poll(Object receiver, int[] fds, int[] events, int timeoutMs) throws PosixException;
+
+    /**
+     * Creates a new epoll instance with the close-on-exec flag set.
+     */
+    public abstract int epollCreate(Object receiver) throws PosixException;
+
+    public abstract void epollCtl(Object receiver, int epfd, int op, int fd, int events) throws PosixException;
+
+    /**
+     * Waits for events on the epoll instance, {@code timeoutMs < 0} means infinite timeout. The
+     * ready file descriptors and their events are stored in {@code fds} and {@code events}, the
+     * length of which determines the maximum number of reported events.
+     *
+     * @return the number of ready file descriptors
+     */
+    public abstract int epollWait(Object receiver, int epfd, int[] fds, int[] events, int timeoutMs) throws PosixException;
+
     public abstract long lseek(Object receiver, int fd, long offset, int how) throws PosixException;
 
     public abstract void ftruncate(Object receiver, int fd, long length) throws PosixException;
@@ -179,6 +252,19 @@ public abstract class PosixSupportLibrary extends Library {
      */
     public abstract Object readdir(Object receiver, Object dirStream) throws PosixException;
 
+    /**
+     * Reads up to {@code maxEntries} entries at once, which saves the per-entry overhead of
+     * {@link #readdir(Object, Object)} when walking large directories. If {@code resolveTypes} is
+     * set, implementations should resolve {@code DT_UNKNOWN} entry types if they can do so cheaply
+     * while reading the batch. Callers that only need the names should not set it. If reading
+     * fails after some entries were read, these entries are returned and the error is reported by
+     * the next call.
+     *
+     * @return an array of opaque dir entry objects as returned by {@code readdir}, which is empty
+     *         when there are no more items or if the stream has been closed by {@code closedir}.
+     */
+    public abstract Object[] readdirBatch(Object receiver, Object dirStream, int maxEntries, boolean resolveTypes) throws PosixException;
+
     /**
      * @return an opaque object representing the dir entry name
      * @see #getPathAsBytes(Object, Object)
@@ -285,6 +371,16 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract void mmapWriteBytes(Object receiver, Object mmap, long index, byte[] bytes, int length) throws PosixException;
 
+    /**
+     * Searches the mapped memory between {@code start} (inclusive) and {@code end} (exclusive) for
+     * {@code sub}, which must not be empty, without reading the whole region to the Java heap at
+     * once.
+     *
+     * @param reverse whether to return the last match (like {@code rfind}) instead of the first
+     * @return the index of the match relative to the start of the mapping, or {@code -1}
+     */
+    public abstract long mmapFind(Object receiver, Object mmap, long start, long end, byte[] sub, boolean reverse) throws PosixException;
+
     public abstract void mmapFlush(Object receiver, Object mmap, long offset, long length) throws PosixException;
 
     public abstract void mmapUnmap(Object receiver, Object mmap, long length) throws PosixException;
@@ -36,17 +36,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.nio.file.LinkOption;
 import java.text.MessageFormat;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -81,11 +86,13 @@ import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
+import com.oracle.graal.python.builtins.objects.thread.PThreadLocal;
 import com.oracle.graal.python.nodes.SpecialAttributeNames;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
 import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.runtime.AsyncHandler.AsyncAction;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.exception.ExceptionUtils;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonExitException;
@@ -149,6 +156,9 @@ public final class PythonContext {
         /* corresponds to 'PyThreadState.dict' */
         PDict dict;
 
+        /* the dicts of the 'threading.local' objects, indexed by their slot */
+        PDict[] localDicts;
+
         /*
          * This is the native wrapper object if we need to expose the thread state as PyThreadState
          * object. We need to store it here because the wrapper may receive 'toNative' in which case
@@ -157,6 +167,8 @@ public final class PythonContext {
          */
         PThreadState nativeWrapper;
 
+        final GilStatistics gilStatistics = new GilStatistics();
+
         /*
          * The constructor needs to have this particular signature such that we can use it for
          * ContextThreadLocal.
@@ -173,6 +185,10 @@ public final class PythonContext {
             return shuttingDown;
         }
 
+        public GilStatistics getGilStatistics() {
+            return gilStatistics;
+        }
+
         @TruffleBoundary
         boolean reprEnter(Object item) {
             if (reprObjectSet == null) {
@@ -218,6 +234,43 @@ public final class PythonContext {
             this.nativeWrapper = nativeWrapper;
         }
 
+        public PDict getLocalDict(int slot) {
+            PDict[] dicts = localDicts;
+            if (dicts != null && slot >= 0 && slot < dicts.length) {
+                return dicts[slot];
+            }
+            return null;
+        }
+
+        @TruffleBoundary
+        public void setLocalDict(int slot, PDict localDict) {
+            if (localDicts == null) {
+                localDicts = new PDict[Math.max(slot + 1, 8)];
+            } else if (slot >= localDicts.length) {
+                localDicts = Arrays.copyOf(localDicts, Math.max(slot + 1, localDicts.length * 2));
+            }
+            localDicts[slot] = localDict;
+        }
+
+        void clearLocalDict(int slot) {
+            if (localDicts != null && slot < localDicts.length) {
+                localDicts[slot] = null;
+            }
+        }
+
+        /**
+         * Resets the state to that of a new thread, so that the owning thread can run another
+         * Python thread.
+         */
+        void reset() {
+            topframeref = Reference.EMPTY;
+            currentException = null;
+            caughtException = null;
+            reprObjectSet = null;
+            localDicts = null;
+            dispose();
+        }
+
         public void dispose() {
             // This method may be called twice on the same object.
             ReleaseHandleNode releaseHandleNode = ReleaseHandleNodeGen.getUncached();
@@ -297,7 +350,19 @@ public final class PythonContext {
 
     private static final Assumption singleNativeContext = Truffle.getRuntime().createAssumption("single native context assumption");
 
-    private final ReentrantLock globalInterpreterLock = new ReentrantLock();
+    private final GlobalInterpreterLock globalInterpreterLock;
+    /** Collects the GIL statistics of threads that have exited. */
+    private final GilStatistics exitedThreadsGilStatistics = new GilStatistics();
+    private boolean gilStatisticsEnabled;
+    private PythonThreadPool threadPool;
+
+    /** The slots of the per-thread dicts of 'threading.local' objects that are in use. */
+    private final BitSet threadLocalSlots = new BitSet();
+    private final ReferenceQueue<PThreadLocal> collectedThreadLocals = new ReferenceQueue<>();
+    private final Set<ThreadLocalSlotReference> threadLocalSlotReferences = new HashSet<>();
+
+    /** The sub-interpreter run by this context, created on first use. */
+    private SubInterpreters.Interpreter interpreter;
 
     /** Native wrappers for context-insensitive singletons like {@link PNone#NONE}. */
     @CompilationFinal(dimensions = 1) private final PythonNativeWrapper[] singletonNativePtrs = new PythonNativeWrapper[PythonLanguage.getNumberOfSpecialSingletons()];
@@ -336,6 +401,7 @@ public final class PythonContext {
         this.core = core;
         this.env = env;
         this.handler = new AsyncHandler(this);
+        this.globalInterpreterLock = new GlobalInterpreterLock(handler::requestGilRelease);
         this.sharedFinalizer = new AsyncHandler.SharedFinalizer(this);
         this.optionValues = PythonOptions.createOptionValuesStorage(env);
         this.in = env.in();
@@ -354,6 +420,31 @@ public final class PythonContext {
         return threadGroup;
     }
 
+    /**
+     * Returns the sub-interpreter run by this context. If this context was not created as a
+     * sub-interpreter, it is the main interpreter of a new {@link SubInterpreters registry}.
+     */
+    @TruffleBoundary
+    public synchronized SubInterpreters.Interpreter getInterpreter() {
+        if (interpreter == null) {
+            Object config = env.getConfig().get(SubInterpreters.CONFIG_KEY);
+            if (config instanceof SubInterpreters.Interpreter) {
+                interpreter = (SubInterpreters.Interpreter) config;
+            } else {
+                interpreter = new SubInterpreters().getMain();
+            }
+        }
+        return interpreter;
+    }
+
+    /**
+     * The pool that runs Python threads if {@link PythonOptions#PooledThreads} is enabled,
+     * {@code null} otherwise.
+     */
+    public PythonThreadPool getThreadPool() {
+        return threadPool;
+    }
+
     @TruffleBoundary(allowInlining = true)
     public long getPythonThreadStackSize() {
         return pythonThreadStackSize.get();
@@ -517,9 +608,14 @@ public final class PythonContext {
     }
 
     public void initialize() {
+        gilStatisticsEnabled = getOption(PythonOptions.GilStatistics);
+        threadPool = getOption(PythonOptions.PooledThreads) ? new PythonThreadPool(this) : null;
         acquireGil();
         try {
             initializePosixSupport();
+            if (!ImageInfo.inImageBuildtimeCode()) {
+                mountVirtualFileSystems();
+            }
             core.initialize(this);
             setupRuntimeInformation(false);
             core.postInitialize();
@@ -537,6 +633,9 @@ public final class PythonContext {
         acquireGil();
         try {
             setEnv(newEnv);
+            gilStatisticsEnabled = getOption(PythonOptions.GilStatistics);
+            threadPool = getOption(PythonOptions.PooledThreads) ? new PythonThreadPool(this) : null;
+            mountVirtualFileSystems();
             setupRuntimeInformation(true);
             core.postInitialize();
             importSiteIfForced();
@@ -682,6 +781,26 @@ public final class PythonContext {
         }
     }
 
+    /**
+     * Sets up the mounts of the {@link PythonOptions#VirtualMounts} option. They are only used by
+     * the emulated POSIX backend.
+     */
+    private void mountVirtualFileSystems() {
+        String mounts = getOption(PythonOptions.VirtualMounts);
+        if (mounts.isEmpty()) {
+            return;
+        }
+        if (!getLanguage().getEngineOption(PythonOptions.PosixModuleBackend).equals("java")) {
+            writeWarning("Virtual file system mounts are only supported by the 'java' POSIX backend, ignoring them");
+            return;
+        }
+        try {
+            resources.mountFromOption(mounts);
+        } catch (PosixException e) {
+            writeWarning(String.format("Could not set up the virtual file system mounts '%s': %s", mounts, e.getMessage()));
+        }
+    }
+
     private String sysPrefix, basePrefix, coreHome, stdLibHome, capiHome;
 
     public void initializeHomeAndPrefixPaths(Env newEnv, String languageHome) {
@@ -874,9 +993,21 @@ public final class PythonContext {
             shutdownThreads();
             runShutdownHooks();
             finalizing = true;
+            if (threadPool != null) {
+                threadPool.shutdown();
+            }
+            if (interpreter != null && interpreter.isMain()) {
+                interpreter.getRegistry().destroyAll();
+            }
             joinThreads();
+            if (gilStatisticsEnabled) {
+                logGilStatistics();
+            }
             cleanupCApiResources();
             disposeThreadStates();
+            if (resources != null) {
+                resources.unmountAll();
+            }
         }
         cleanupHPyResources();
     }
@@ -917,6 +1048,24 @@ public final class PythonContext {
         }
     }
 
+    @TruffleBoundary
+    private void logGilStatistics() {
+        GilStatistics total = getExitedThreadsGilStatistics();
+        for (GilStatistics statistics : getGilStatistics().values()) {
+            total.merge(statistics);
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("GIL statistics: %d acquires (%d contended), %.3fms waiting, %.3fms holding, %d forced releases", total.getAcquireCount(), total.getContendedCount(),
+                        total.getWaitTime() / 1e6, total.getHoldTime() / 1e6, total.getForcedReleases()));
+        ArrayList<Map.Entry<String, GilStatistics.HoldSite>> sites = new ArrayList<>(total.getHoldSites().entrySet());
+        sites.sort((a, b) -> Long.compare(b.getValue().getTotalTime(), a.getValue().getTotalTime()));
+        for (int i = 0; i < sites.size() && i < 10; i++) {
+            GilStatistics.HoldSite site = sites.get(i).getValue();
+            sb.append(String.format("%n  %s: held %d times for %.3fms, longest %.3fms", sites.get(i).getKey(), site.getCount(), site.getTotalTime() / 1e6, site.getMaxTime() / 1e6));
+        }
+        LOGGER.info(sb.toString());
+    }
+
     /**
      * Release all resources held by the thread states. This function needs to run as long as the
      * context is still valid because it may call into LLVM to release handles.
@@ -1106,23 +1255,58 @@ public final class PythonContext {
     void acquireGil() {
         assert !ownsGil() : "trying to acquire the GIL more than once";
         try {
-            globalInterpreterLock.lockInterruptibly();
+            recordGilAcquire(globalInterpreterLock.acquire());
         } catch (InterruptedException e) {
-            if (!ImageInfo.inImageBuildtimeCode() && threadState.get().isShuttingDown()) {
-                // This is a thread being killed during normal context shutdown. This thread
-                // should exit now. This should usually only happen for daemon threads on
-                // context shutdown. This is the equivalent to the logic in pylifecycle.c and
-                // PyEval_RestoreThread which, on Python shutdown, will join non-daemon threads
-                // and then simply start destroying the thread states of remaining threads. If
-                // any remaining daemon thread then tries to acquire the GIL, it'll notice the
-                // shutdown is happening and exit.
-                throw new PythonThreadKillException();
-            } else {
-                // We are being interrupted through some non-internal means. If this happens to
-                // the main thread (which can only occur if we are embedded somewhere) we exit
-                // with the same exit code that SIGINT would produce. Other threads just die.
-                throw new PythonExitException(null, 130);
-            }
+            throw handleGilInterrupt();
+        }
+    }
+
+    /**
+     * Drops the GIL if another thread is waiting for it and takes it again after that thread had
+     * it. Should not be called directly.
+     *
+     * @see AsyncHandler
+     */
+    @TruffleBoundary
+    void yieldGil() {
+        if (!globalInterpreterLock.hasWaiters()) {
+            return;
+        }
+        GilStatistics statistics = threadState.get().gilStatistics;
+        statistics.recordForcedRelease();
+        if (gilStatisticsEnabled) {
+            statistics.endHold();
+        }
+        try {
+            recordGilAcquire(globalInterpreterLock.yieldToWaiter());
+        } catch (InterruptedException e) {
+            throw handleGilInterrupt();
+        }
+    }
+
+    private void recordGilAcquire(long waited) {
+        GilStatistics statistics = threadState.get().gilStatistics;
+        statistics.recordAcquire(waited);
+        if (gilStatisticsEnabled) {
+            statistics.startHold();
+        }
+    }
+
+    private RuntimeException handleGilInterrupt() {
+        if (!ImageInfo.inImageBuildtimeCode() && threadState.get().isShuttingDown()) {
+            // This is a thread being killed during normal context shutdown. This thread
+            // should exit now. This should usually only happen for daemon threads on
+            // context shutdown. This is the equivalent to the logic in pylifecycle.c and
+            // PyEval_RestoreThread which, on Python shutdown, will join non-daemon threads
+            // and then simply start destroying the thread states of remaining threads. If
+            // any remaining daemon thread then tries to acquire the GIL, it'll notice the
+            // shutdown is happening and exit.
+            return new PythonThreadKillException();
+        } else {
+            // We are being interrupted through some non-internal means. If this happens to
+            // the main thread (which can only occur if we are embedded somewhere) we exit
+            // with the same exit code that SIGINT would produce. Other threads just die.
+            return new PythonExitException(null, 130);
         }
     }
 
@@ -1133,8 +1317,50 @@ public final class PythonContext {
      */
     @TruffleBoundary
     void releaseGil() {
-        assert globalInterpreterLock.getHoldCount() == 1 : "trying to release the GIL with invalid hold count " + globalInterpreterLock.getHoldCount();
-        globalInterpreterLock.unlock();
+        if (gilStatisticsEnabled) {
+            threadState.get().gilStatistics.endHold();
+        }
+        globalInterpreterLock.release();
+    }
+
+    public boolean isGilStatisticsEnabled() {
+        return gilStatisticsEnabled;
+    }
+
+    /**
+     * Returns the GIL statistics of all live threads.
+     */
+    @TruffleBoundary
+    public synchronized Map<Thread, GilStatistics> getGilStatistics() {
+        LinkedHashMap<Thread, GilStatistics> result = new LinkedHashMap<>();
+        for (Map.Entry<Thread, PythonThreadState> e : threadStateMapping.entrySet()) {
+            result.put(e.getKey(), e.getValue().gilStatistics);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the combined GIL statistics of all threads that have exited so far.
+     */
+    @TruffleBoundary
+    public synchronized GilStatistics getExitedThreadsGilStatistics() {
+        GilStatistics result = new GilStatistics();
+        result.merge(exitedThreadsGilStatistics);
+        return result;
+    }
+
+    /**
+     * Returns the GIL switch interval in seconds.
+     */
+    public double getSwitchInterval() {
+        return globalInterpreterLock.getSwitchInterval() / 1e9;
+    }
+
+    /**
+     * Sets how long a thread waits for the GIL before it asks the holder to drop it.
+     */
+    public void setSwitchInterval(double seconds) {
+        globalInterpreterLock.setSwitchInterval(Math.max(1, (long) (seconds * 1e9)));
     }
 
     /**
@@ -1246,11 +1472,6 @@ public final class PythonContext {
         getThreadState().sentinelLock = sentinelLock;
     }
 
-    @TruffleBoundary
-    public void initializeMultiThreading() {
-        handler.activateGIL();
-    }
-
     public synchronized void attachThread(Thread thread) {
         CompilerAsserts.neverPartOfCompilation();
         threadStateMapping.put(thread, threadState.get(thread));
@@ -1266,11 +1487,72 @@ public final class PythonContext {
         }
         ts.shutdown();
         threadStateMapping.remove(thread);
+        exitedThreadsGilStatistics.merge(ts.gilStatistics);
         ts.dispose();
-        releaseSentinelLock(ts.sentinelLock);
+        releaseSentinelLock(ts);
+        freeCollectedThreadLocalSlots();
+    }
+
+    /**
+     * Called by a {@link PythonThreadPool pooled} thread when its Python thread ended. This does
+     * what {@link #disposeThread} does for other threads, but keeps the thread attached.
+     */
+    synchronized void recycleThreadState() {
+        CompilerAsserts.neverPartOfCompilation();
+        PythonThreadState ts = threadState.get();
+        if (ts.isShuttingDown()) {
+            // already disposed
+            return;
+        }
+        ts.reset();
+        releaseSentinelLock(ts);
+        freeCollectedThreadLocalSlots();
+        // RLocks and RWLocks that the thread did not release stay owned by this Java thread, see
+        // PythonThreadPool
+    }
+
+    private static final class ThreadLocalSlotReference extends WeakReference<PThreadLocal> {
+        final int slot;
+
+        ThreadLocalSlotReference(PThreadLocal local, int slot, ReferenceQueue<PThreadLocal> queue) {
+            super(local, queue);
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Assigns the index of the per-thread dicts of a 'threading.local' object (see
+     * {@link PythonThreadState#getLocalDict(int)}). The slots of collected objects are cleared in
+     * all threads and reused.
+     */
+    @TruffleBoundary
+    public synchronized int allocateThreadLocalSlot(PThreadLocal local) {
+        freeCollectedThreadLocalSlots();
+        int slot = threadLocalSlots.nextClearBit(0);
+        threadLocalSlots.set(slot);
+        threadLocalSlotReferences.add(new ThreadLocalSlotReference(local, slot, collectedThreadLocals));
+        return slot;
+    }
+
+    /**
+     * Drops the per-thread dicts of collected 'threading.local' objects. Besides on allocation,
+     * this is done whenever a thread ends, so that the dicts (and what they reference) of a program
+     * that stops creating locals do not stay alive in the remaining threads.
+     */
+    private void freeCollectedThreadLocalSlots() {
+        assert Thread.holdsLock(this);
+        ThreadLocalSlotReference ref;
+        while ((ref = (ThreadLocalSlotReference) collectedThreadLocals.poll()) != null) {
+            int freedSlot = ref.slot;
+            threadLocalSlotReferences.remove(ref);
+            applyToAllThreadStates(ts -> ts.clearLocalDict(freedSlot));
+            threadLocalSlots.clear(freedSlot);
+        }
     }
 
-    private static void releaseSentinelLock(WeakReference<PLock> sentinelLockWeakref) {
+    private static void releaseSentinelLock(PythonThreadState ts) {
+        WeakReference<PLock> sentinelLockWeakref = ts.sentinelLock;
+        ts.sentinelLock = null;
         if (sentinelLockWeakref != null) {
             PLock sentinelLock = sentinelLockWeakref.get();
             if (sentinelLock != null) {
@@ -123,6 +123,20 @@ public final class PythonOptions {
     @EngineOption @Option(category = OptionCategory.USER, help = "Choose the backend for the POSIX module. Valid values are 'java', 'native', 'llvm'.") //
     public static final OptionKey<String> PosixModuleBackend = new OptionKey<>("java");
 
+    @Option(category = OptionCategory.USER, help = "Comma-separated list of virtual file system mounts for the 'java' POSIX backend. " +
+                    "Each entry has the form 'mount_point=archive' to mount a zip or jar archive read-only, " +
+                    "or 'mount_point=:memory:' to mount an empty in-memory file system.") //
+    public static final OptionKey<String> VirtualMounts = new OptionKey<>("");
+
+    @Option(category = OptionCategory.EXPERT, help = "Record how long each thread holds the GIL and which code held it for longer than a millisecond. " +
+                    "The statistics are available from __graalpython__.get_gil_statistics() and are logged when the context exits.") //
+    public static final OptionKey<Boolean> GilStatistics = new OptionKey<>(false);
+
+    @Option(category = OptionCategory.EXPERT, help = "Run Python threads on a pool of reusable threads instead of starting a new thread for each of them. " +
+                    "This makes starting threads considerably cheaper for programs that start many short lived threads. " +
+                    "An RLock that a thread still holds when it finishes stays owned by the pooled thread that ran it.") //
+    public static final OptionKey<Boolean> PooledThreads = new OptionKey<>(false);
+
     @Option(category = OptionCategory.USER, help = "Value of the --check-hash-based-pycs command line option" +
                     "- 'default' means the 'check_source' flag in hash-based pycs" +
                     "  determines invalidation" +
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+
+/**
+ * Runs Python threads on a pool of threads that stay entered in the context. Starting a thread
+ * that is polyglot-capable is expensive (the thread has to be created, entered and initialized in
+ * every language), so programs that start many short lived threads, e.g. through a
+ * {@code ThreadPoolExecutor} with many workers, spend much of their time on that. A worker thread
+ * that finished its Python thread waits for {@link #KEEP_ALIVE_NANOS} for the next one before it
+ * exits. The Python-visible state of the thread is reset in between (see
+ * {@link PythonContext#recycleThreadState()}).
+ *
+ * The ownership of reentrant locks is not part of that state, because the locks are owned by the
+ * Java thread: an {@code RLock} or {@code RWLock} that a Python thread still holds when it finishes
+ * stays owned by its worker, so the next Python thread on that worker can acquire it again without
+ * blocking, or release it. Threads that hold such locks must release them before they finish.
+ *
+ * Enabled with {@link PythonOptions#PooledThreads}.
+ */
+public final class PythonThreadPool {
+    static final long KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final PythonContext context;
+    private final ReentrantLock lock = new ReentrantLock();
+    /** The idle workers, the one that became idle last is reused first. */
+    private final ArrayDeque<Worker> idleWorkers = new ArrayDeque<>();
+    private boolean shutdown;
+
+    PythonThreadPool(PythonContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Runs the task on an idle worker or on a new worker thread and returns the thread that runs
+     * it. The returned thread is already started.
+     */
+    @TruffleBoundary
+    public Thread execute(Runnable task) {
+        lock.lock();
+        try {
+            Worker worker = idleWorkers.pollLast();
+            if (worker != null) {
+                worker.task = task;
+                worker.assigned.signal();
+                return worker.thread;
+            }
+        } finally {
+            lock.unlock();
+        }
+        Env env = context.getEnv();
+        Worker worker = new Worker(task);
+        worker.thread = env.createThread(worker, env.getContext(), context.getThreadGroup());
+        worker.thread.start();
+        return worker.thread;
+    }
+
+    /**
+     * The number of worker threads that are alive but do not run a Python thread.
+     */
+    @TruffleBoundary
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idleWorkers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lets all idle workers exit and makes busy workers exit after their current task.
+     */
+    @TruffleBoundary
+    void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            for (Worker worker : idleWorkers) {
+                worker.assigned.signal();
+            }
+            idleWorkers.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class Worker implements Runnable {
+        final Condition assigned = lock.newCondition();
+        Runnable task;
+        Thread thread;
+
+        Worker(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            Runnable next = task;
+            while (next != null) {
+                try {
+                    next.run();
+                } finally {
+                    context.recycleThreadState();
+                }
+                next = awaitTask();
+            }
+        }
+
+        private Runnable awaitTask() {
+            lock.lock();
+            try {
+                task = null;
+                if (shutdown) {
+                    return null;
+                }
+                idleWorkers.addLast(this);
+                long nanos = KEEP_ALIVE_NANOS;
+                while (task == null) {
+                    if (shutdown || nanos <= 0) {
+                        idleWorkers.remove(this);
+                        return null;
+                    }
+                    nanos = assigned.awaitNanos(nanos);
+                }
+                return task;
+            } catch (InterruptedException e) {
+                // a task that was handed over concurrently must still run, it will notice the
+                // interrupt when it acquires the GIL
+                if (task == null) {
+                    idleWorkers.remove(this);
+                }
+                Thread.currentThread().interrupt();
+                return task;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
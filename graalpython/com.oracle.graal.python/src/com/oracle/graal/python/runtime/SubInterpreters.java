@@ -0,0 +1,518 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.BasicSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleContext;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.Source;
+
+/**
+ * The sub-interpreters of a context and the channels between them (see {@code _xxsubinterpreters}
+ * and PEP 554). Each sub-interpreter is an inner context on the same engine, so it shares the
+ * parsed and compiled code with the other interpreters, but has its own modules, objects and GIL.
+ * Interpreters running on different threads therefore run in parallel.
+ *
+ * The registry is created by the main interpreter and handed to the sub-interpreters through the
+ * config of their context (see {@link #CONFIG_KEY}). Only immutable objects can be passed between
+ * interpreters; they are converted to a representation that does not belong to any context (see
+ * {@link #toShareable(Object)}) and back.
+ */
+public final class SubInterpreters {
+    /** The key of the {@link Interpreter} in the config of a sub-interpreter's context. */
+    public static final String CONFIG_KEY = "python.SubInterpreter";
+    public static final long MAIN_ID = 0;
+
+    private static final Source INITIALIZE = Source.newBuilder(PythonLanguage.ID, "", "<subinterpreter>").internal(true).build();
+    private static final Source RUN_PENDING = Source.newBuilder(PythonLanguage.ID, "__import__('_xxsubinterpreters')._run_pending()", "<subinterpreter>").internal(true).build();
+
+    private final Interpreter main = new Interpreter(this, MAIN_ID);
+    private final AtomicLong nextInterpreterId = new AtomicLong(MAIN_ID + 1);
+    private final AtomicLong nextChannelId = new AtomicLong();
+    private final ConcurrentHashMap<Long, Interpreter> interpreters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final Object channelEvents = new Object();
+    private volatile int channelWaiters;
+
+    SubInterpreters() {
+        interpreters.put(MAIN_ID, main);
+    }
+
+    public static final class Interpreter {
+        private final SubInterpreters registry;
+        private final long id;
+        /** The inner context, {@code null} for the main interpreter. */
+        private TruffleContext context;
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        // the code to run and its result, handed over to the inner context
+        private String pendingScript;
+        private Map<String, Object> pendingShared;
+        private String error;
+
+        Interpreter(SubInterpreters registry, long id) {
+            this.registry = registry;
+            this.id = id;
+        }
+
+        public SubInterpreters getRegistry() {
+            return registry;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public boolean isMain() {
+            return id == MAIN_ID;
+        }
+
+        public boolean isRunning() {
+            return running.get();
+        }
+
+        /**
+         * Runs the script in the {@code __main__} module of the interpreter, with the shared values
+         * bound as globals. The caller must not hold the GIL of its own context.
+         *
+         * @return a description of the exception raised by the script or {@code null}
+         */
+        @TruffleBoundary
+        public String run(Node location, String script, Map<String, Object> shared) {
+            assert !isMain();
+            pendingScript = script;
+            pendingShared = shared;
+            error = null;
+            context.evalPublic(location, RUN_PENDING);
+            return error;
+        }
+
+        /**
+         * Called in the inner context to get the script that {@link #run} was asked to run.
+         */
+        public String takePendingScript() {
+            String script = pendingScript;
+            pendingScript = null;
+            return script;
+        }
+
+        public Map<String, Object> takePendingShared() {
+            Map<String, Object> shared = pendingShared;
+            pendingShared = null;
+            return shared;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+
+        /**
+         * @return {@code false} if the interpreter is already running
+         */
+        public boolean start() {
+            return running.compareAndSet(false, true);
+        }
+
+        public void stop() {
+            running.set(false);
+        }
+    }
+
+    public static final class Channel {
+        /** Queued after the last item when the channel is closed, to wake up the receivers. */
+        private static final Object CLOSED = new Object();
+
+        private final SubInterpreters registry;
+        private final long id;
+        private final LinkedBlockingQueue<Object> items = new LinkedBlockingQueue<>();
+        private volatile boolean closed;
+        // the references to the ends, see retain and release
+        private int sendRefs;
+        private int recvRefs;
+
+        Channel(SubInterpreters registry, long id) {
+            this.registry = registry;
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @TruffleBoundary
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                items.add(CLOSED);
+                registry.signalChannels();
+            }
+        }
+
+        /**
+         * Counts a reference to the send and/or the receive end of the channel. Like the file
+         * descriptors of a pipe, the references may belong to any interpreter.
+         */
+        @TruffleBoundary
+        public synchronized void retain(boolean send, boolean recv) {
+            if (send) {
+                sendRefs++;
+            }
+            if (recv) {
+                recvRefs++;
+            }
+        }
+
+        /**
+         * Drops references taken with {@link #retain}. Dropping the last reference to the send end
+         * closes the channel, so that the receivers get the remaining items and then find it
+         * closed. Once neither end is referenced, the channel is destroyed.
+         */
+        @TruffleBoundary
+        public void release(boolean send, boolean recv) {
+            boolean destroy;
+            synchronized (this) {
+                if (send && sendRefs > 0 && --sendRefs == 0) {
+                    close();
+                }
+                if (recv && recvRefs > 0) {
+                    recvRefs--;
+                }
+                destroy = sendRefs == 0 && recvRefs == 0;
+            }
+            if (destroy) {
+                registry.destroyChannel(this);
+            }
+        }
+
+        /**
+         * @return {@code true} if {@link #receive} would not block
+         */
+        @TruffleBoundary
+        boolean isReady() {
+            return closed || !items.isEmpty();
+        }
+
+        /**
+         * @return {@code false} if the channel is closed
+         */
+        @TruffleBoundary
+        public boolean send(Object shareable) {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                items.add(shareable);
+            }
+            registry.signalChannels();
+            return true;
+        }
+
+        /**
+         * @param timeoutMicros the maximum time to wait, {@code 0} to not wait, or a negative value
+         *            to wait without timeout
+         * @return the shareable representation of the item, or {@code null} if there is none or the
+         *         channel is closed and empty
+         */
+        @TruffleBoundary
+        public Object receive(long timeoutMicros) throws InterruptedException {
+            Object item;
+            if (timeoutMicros == 0) {
+                item = items.poll();
+            } else if (timeoutMicros < 0) {
+                item = items.take();
+            } else {
+                item = items.poll(timeoutMicros, TimeUnit.MICROSECONDS);
+            }
+            return unwrap(item);
+        }
+
+        /**
+         * Like {@link #receive} without waiting.
+         */
+        @TruffleBoundary
+        public Object poll() {
+            return unwrap(items.poll());
+        }
+
+        private Object unwrap(Object item) {
+            if (item == CLOSED) {
+                // leave the marker for the other receivers
+                items.add(CLOSED);
+                return null;
+            }
+            return item;
+        }
+    }
+
+    /**
+     * Notifies the threads in {@link #waitForChannels} that a channel may have become ready.
+     */
+    private void signalChannels() {
+        if (channelWaiters > 0) {
+            synchronized (channelEvents) {
+                channelEvents.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Like {@link #waitForChannels} without waiting.
+     */
+    @TruffleBoundary
+    public static List<Channel> pollChannels(List<Channel> channels) {
+        List<Channel> ready = new ArrayList<>();
+        for (Channel channel : channels) {
+            if (channel.isReady()) {
+                ready.add(channel);
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Waits until at least one of the channels has an item to receive or is closed. The caller
+     * must not hold the GIL of its own context.
+     *
+     * @param timeoutMicros the maximum time to wait, {@code 0} to not wait, or a negative value to
+     *            wait without timeout
+     * @return the ready channels, empty if the timeout expired
+     */
+    @TruffleBoundary
+    public List<Channel> waitForChannels(List<Channel> waitFor, long timeoutMicros) throws InterruptedException {
+        List<Channel> ready = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(timeoutMicros);
+        synchronized (channelEvents) {
+            // registering first makes senders notify us of items added after the check below
+            channelWaiters++;
+            try {
+                while (true) {
+                    for (Channel channel : waitFor) {
+                        if (channel.isReady()) {
+                            ready.add(channel);
+                        }
+                    }
+                    if (!ready.isEmpty() || timeoutMicros == 0) {
+                        return ready;
+                    } else if (timeoutMicros < 0) {
+                        channelEvents.wait();
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return ready;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(channelEvents, remaining);
+                    }
+                }
+            } finally {
+                channelWaiters--;
+            }
+        }
+    }
+
+    public Interpreter getMain() {
+        return main;
+    }
+
+    /**
+     * Creates a sub-interpreter and initializes it. The caller must not hold the GIL of its own
+     * context.
+     */
+    @TruffleBoundary
+    public Interpreter create(Env env, Node location) {
+        Interpreter interpreter = new Interpreter(this, nextInterpreterId.getAndIncrement());
+        interpreter.context = env.newContextBuilder().config(CONFIG_KEY, interpreter).build();
+        // initialize the context now rather than in the first run
+        interpreter.context.evalPublic(location, INITIALIZE);
+        interpreters.put(interpreter.id, interpreter);
+        return interpreter;
+    }
+
+    @TruffleBoundary
+    public Interpreter get(long id) {
+        return interpreters.get(id);
+    }
+
+    @TruffleBoundary
+    public List<Long> getIds() {
+        return new ArrayList<>(interpreters.keySet());
+    }
+
+    /**
+     * Closes the context of an interpreter. The caller must have claimed the interpreter with
+     * {@link Interpreter#start()}, so that no other thread runs code in it meanwhile.
+     */
+    @TruffleBoundary
+    public void destroy(Interpreter interpreter) {
+        assert !interpreter.isMain() && interpreter.isRunning();
+        interpreters.remove(interpreter.id);
+        interpreter.context.close();
+    }
+
+    /**
+     * Closes all sub-interpreters, called when the main interpreter exits. Interpreters that are
+     * still running on other threads are cancelled, so that no inner context outlives the main one.
+     */
+    @TruffleBoundary
+    void destroyAll() {
+        for (Interpreter interpreter : interpreters.values()) {
+            if (interpreter.isMain()) {
+                continue;
+            }
+            if (interpreter.start()) {
+                destroy(interpreter);
+            } else if (interpreters.remove(interpreter.id) != null) {
+                // waits until the threads running the interpreter have left it
+                interpreter.context.closeCancelled(null, "interpreter " + interpreter.id + " still running at exit");
+            }
+        }
+    }
+
+    @TruffleBoundary
+    public Channel createChannel() {
+        Channel channel = new Channel(this, nextChannelId.getAndIncrement());
+        channels.put(channel.id, channel);
+        return channel;
+    }
+
+    @TruffleBoundary
+    public Channel getChannel(long id) {
+        return channels.get(id);
+    }
+
+    @TruffleBoundary
+    public void destroyChannel(Channel channel) {
+        channel.close();
+        channels.remove(channel.id);
+    }
+
+    @TruffleBoundary
+    public List<Long> getChannelIds() {
+        return new ArrayList<>(channels.keySet());
+    }
+
+    /**
+     * Converts an immutable object ({@code None}, {@code bool}, {@code int}, {@code float},
+     * {@code str}, {@code bytes} and tuples of these) to a representation that does not refer to
+     * objects of a context.
+     *
+     * @return the representation or {@code null} if the object cannot be shared
+     */
+    @TruffleBoundary
+    public static Object toShareable(Object obj) {
+        if (obj == PNone.NONE || obj instanceof Boolean || obj instanceof Integer || obj instanceof Long || obj instanceof Double || obj instanceof String) {
+            return obj;
+        }
+        Object clazz = GetClassNode.getUncached().execute(obj);
+        if (obj instanceof PInt && IsBuiltinClassProfile.profileClassSlowPath(clazz, PythonBuiltinClassType.PInt)) {
+            return ((PInt) obj).getValue();
+        } else if (obj instanceof PString && IsBuiltinClassProfile.profileClassSlowPath(clazz, PythonBuiltinClassType.PString)) {
+            return CastToJavaStringNode.getUncached().execute(obj);
+        } else if (obj instanceof PBytes && IsBuiltinClassProfile.profileClassSlowPath(clazz, PythonBuiltinClassType.PBytes)) {
+            byte[] bytes = SequenceStorageNodes.ToByteArrayNode.getUncached().execute(((PBytes) obj).getSequenceStorage());
+            // the array may be the storage of the bytes object
+            return bytes.clone();
+        } else if (obj instanceof PTuple && IsBuiltinClassProfile.profileClassSlowPath(clazz, PythonBuiltinClassType.PTuple)) {
+            SequenceStorage storage = ((PTuple) obj).getSequenceStorage();
+            if (!(storage instanceof BasicSequenceStorage)) {
+                return null;
+            }
+            Object[] items = new Object[storage.length()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = toShareable(storage.getItemNormalized(i));
+                if (items[i] == null) {
+                    return null;
+                }
+            }
+            return items;
+        }
+        return null;
+    }
+
+    /**
+     * Creates the object of the current context for a representation created by
+     * {@link #toShareable(Object)}. Each representation must be converted only once.
+     */
+    @TruffleBoundary
+    public static Object fromShareable(PythonObjectFactory factory, Object shareable) {
+        if (shareable instanceof BigInteger) {
+            return factory.createInt((BigInteger) shareable);
+        } else if (shareable instanceof byte[]) {
+            return factory.createBytes((byte[]) shareable);
+        } else if (shareable instanceof Object[]) {
+            Object[] items = (Object[]) shareable;
+            Object[] converted = new Object[items.length];
+            for (int i = 0; i < items.length; i++) {
+                converted[i] = fromShareable(factory, items[i]);
+            }
+            return factory.createTuple(converted);
+        }
+        return shareable;
+    }
+}
@@ -12,6 +12,7 @@ import static com.oracle.graal.python.runtime.formatting.InternalFormat.Spec.spe
 import java.math.BigInteger;
 import java.text.NumberFormat;
 
+import com.oracle.graal.python.builtins.objects.ints.DecimalConversion;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.runtime.formatting.FormattingBuffer.StringFormattingBuffer;
@@ -161,11 +162,11 @@ public class IntegerFormatter extends InternalFormat.Formatter {
         if (value.signum() < 0) {
             // Negative value: deal with sign and base, and convert magnitude.
             negativeSign(null);
-            number = value.negate().toString();
+            number = DecimalConversion.toString(value.negate());
         } else {
             // Positive value: deal with sign, base and magnitude.
             positiveSign(null);
-            number = value.toString();
+            number = DecimalConversion.toString(value);
         }
         appendNumber(number);
     }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime.interop;
+
+import java.nio.ByteBuffer;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+
+/**
+ * Support for using Java {@code byte[]} and {@link ByteBuffer} host objects as Python buffers.
+ * Heap-backed buffers and arrays expose their backing array so that they can be shared without
+ * copying; everything else is copied in bulk.
+ */
+public final class HostByteBuffers {
+
+    private HostByteBuffers() {
+    }
+
+    /**
+     * Returns the Java {@code byte[]} or {@link ByteBuffer} behind {@code object}, or {@code null}
+     * if the object is not such a host object.
+     */
+    public static Object unwrap(Env env, Object object) {
+        if (env.isHostObject(object)) {
+            Object hostObject = env.asHostObject(object);
+            if (hostObject instanceof byte[] || hostObject instanceof ByteBuffer) {
+                return hostObject;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isHostByteBuffer(Env env, Object object) {
+        return unwrap(env, object) != null;
+    }
+
+    /**
+     * The number of bytes visible to Python, i.e., the array length or the remaining bytes of the
+     * buffer.
+     */
+    @TruffleBoundary
+    public static int length(Object hostBuffer) {
+        if (hostBuffer instanceof byte[]) {
+            return ((byte[]) hostBuffer).length;
+        }
+        return ((ByteBuffer) hostBuffer).remaining();
+    }
+
+    /**
+     * Returns the array that can be shared with the host buffer, or {@code null} if the buffer is
+     * direct or read-only.
+     */
+    @TruffleBoundary
+    public static byte[] getBackingArray(Object hostBuffer) {
+        if (hostBuffer instanceof byte[]) {
+            return (byte[]) hostBuffer;
+        }
+        ByteBuffer buffer = (ByteBuffer) hostBuffer;
+        return buffer.hasArray() ? buffer.array() : null;
+    }
+
+    /**
+     * Returns the offset of the first visible byte in the array returned by
+     * {@link #getBackingArray(Object)}.
+     */
+    @TruffleBoundary
+    public static int getArrayOffset(Object hostBuffer) {
+        if (hostBuffer instanceof byte[]) {
+            return 0;
+        }
+        ByteBuffer buffer = (ByteBuffer) hostBuffer;
+        return buffer.arrayOffset() + buffer.position();
+    }
+
+    /**
+     * Copies the visible bytes. The position of a {@link ByteBuffer} is not changed.
+     */
+    @TruffleBoundary
+    public static byte[] copyBytes(Object hostBuffer) {
+        if (hostBuffer instanceof byte[]) {
+            return ((byte[]) hostBuffer).clone();
+        }
+        ByteBuffer buffer = ((ByteBuffer) hostBuffer).duplicate();
+        byte[] result = new byte[buffer.remaining()];
+        buffer.get(result);
+        return result;
+    }
+}
@@ -49,6 +49,8 @@ import com.oracle.graal.python.builtins.modules.json.PJSONEncoder;
 import com.oracle.graal.python.builtins.modules.json.PJSONEncoder.FastEncode;
 import com.oracle.graal.python.builtins.modules.json.PJSONScanner;
 import com.oracle.graal.python.builtins.modules.lzma.LZMAObject;
+import com.oracle.graal.python.builtins.modules.select.PEpoll;
+import com.oracle.graal.python.builtins.modules.select.PPoll;
 import com.oracle.graal.python.builtins.modules.zlib.ZLibCompObject;
 import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
@@ -134,7 +136,10 @@ import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.superobject.SuperObject;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
 import com.oracle.graal.python.builtins.objects.thread.PRLock;
+import com.oracle.graal.python.builtins.objects.thread.PRWLock;
+import com.oracle.graal.python.builtins.objects.thread.PRWLockView;
 import com.oracle.graal.python.builtins.objects.thread.PSemLock;
+import com.oracle.graal.python.builtins.objects.thread.PStripedLock;
 import com.oracle.graal.python.builtins.objects.thread.PThread;
 import com.oracle.graal.python.builtins.objects.thread.PThreadLocal;
 import com.oracle.graal.python.builtins.objects.traceback.LazyTraceback;
@@ -979,6 +984,25 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PRLock(cls, getShape(cls)));
     }
 
+    public final PRWLock createRWLock() {
+        return createRWLock(PythonBuiltinClassType.PRWLock);
+    }
+
+    public final PRWLock createRWLock(Object cls) {
+        PRWLock lock = trace(new PRWLock(cls, getShape(cls)));
+        PythonBuiltinClassType viewCls = PythonBuiltinClassType.PRWLockView;
+        lock.setViews(trace(new PRWLockView(viewCls, getShape(viewCls), lock, false)), trace(new PRWLockView(viewCls, getShape(viewCls), lock, true)));
+        return lock;
+    }
+
+    public final PStripedLock createStripedLock(Object cls, int stripes, boolean readWrite) {
+        Object[] locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = readWrite ? createRWLock() : createRLock();
+        }
+        return trace(new PStripedLock(cls, getShape(cls), locks));
+    }
+
     public final PThread createPythonThread(Thread thread) {
         return trace(new PThread(PythonBuiltinClassType.PThread, PythonBuiltinClassType.PThread.getInstanceShape(getLanguage()), thread));
     }
@@ -987,8 +1011,8 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PThread(cls, getShape(cls), thread));
     }
 
-    public final PSemLock createSemLock(Object cls, String name, int kind, Semaphore sharedSemaphore) {
-        return trace(new PSemLock(cls, getShape(cls), name, kind, sharedSemaphore));
+    public final PSemLock createSemLock(Object cls, String name, int kind, int maxValue, Semaphore sharedSemaphore) {
+        return trace(new PSemLock(cls, getShape(cls), name, kind, maxValue, sharedSemaphore));
     }
 
     public final PScandirIterator createScandirIterator(PythonContext context, Object dirStream, PosixFileHandle path) {
@@ -1129,7 +1153,15 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PDequeIter(PythonBuiltinClassType.PDequeRevIter, getShape(PythonBuiltinClassType.PDequeRevIter), deque, true));
     }
 
-    public final PSimpleQueue createSimpleQueue(Object cls) {
-        return trace(new PSimpleQueue(cls, getShape(cls)));
+    public final PSimpleQueue createSimpleQueue(Object cls, int maxSize) {
+        return trace(new PSimpleQueue(cls, getShape(cls), maxSize));
+    }
+
+    public final PPoll createPoll() {
+        return trace(new PPoll(PythonBuiltinClassType.PPoll, PythonBuiltinClassType.PPoll.getInstanceShape(getLanguage())));
+    }
+
+    public final PEpoll createEpoll(Object cls, int epfd) {
+        return trace(new PEpoll(cls, getShape(cls), epfd));
     }
 }
@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime.vfs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+
+/**
+ * A writable mount that keeps its files in memory. The contents are lost when the mount is
+ * unmounted or the context exits.
+ */
+public final class MemoryMount extends VirtualMount {
+
+    private static final class MemoryDirectory extends Entry {
+        final TreeMap<String, Entry> children = new TreeMap<>();
+        long modifiedTime = System.currentTimeMillis();
+
+        @Override
+        public boolean isDirectory() {
+            return true;
+        }
+
+        @Override
+        public long getSize() {
+            return 0;
+        }
+
+        @Override
+        public long getModifiedTime() {
+            return modifiedTime;
+        }
+    }
+
+    private static final class MemoryFile extends Entry {
+        byte[] data = new byte[0];
+        int size;
+        long modifiedTime = System.currentTimeMillis();
+
+        @Override
+        public boolean isDirectory() {
+            return false;
+        }
+
+        @Override
+        public synchronized long getSize() {
+            return size;
+        }
+
+        @Override
+        public synchronized long getModifiedTime() {
+            return modifiedTime;
+        }
+
+        synchronized int read(ByteBuffer dst, long position) {
+            if (position >= size) {
+                return -1;
+            }
+            int n = (int) Math.min(dst.remaining(), size - position);
+            dst.put(data, (int) position, n);
+            return n;
+        }
+
+        synchronized int write(ByteBuffer src, long position) throws IOException {
+            int n = src.remaining();
+            long end = position + n;
+            if (end > Integer.MAX_VALUE) {
+                throw error("", OSErrorEnum.EFBIG);
+            }
+            ensureCapacity((int) end);
+            if (position > size) {
+                // the gap after a seek past the end reads as zeros
+                Arrays.fill(data, size, (int) position, (byte) 0);
+            }
+            src.get(data, (int) position, n);
+            size = Math.max(size, (int) end);
+            modifiedTime = System.currentTimeMillis();
+            return n;
+        }
+
+        synchronized void truncate(long newSize) {
+            if (newSize < size) {
+                size = (int) newSize;
+                modifiedTime = System.currentTimeMillis();
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > data.length) {
+                data = Arrays.copyOf(data, Math.max(capacity, (int) Math.min(data.length * 2L, Integer.MAX_VALUE - 8)));
+            }
+        }
+    }
+
+    private static final class MemoryFileChannel implements SeekableByteChannel {
+        private final MemoryFile file;
+        private final boolean readable;
+        private final boolean writable;
+        private final boolean append;
+        private long position;
+        private boolean open = true;
+
+        MemoryFileChannel(MemoryFile file, boolean readable, boolean writable, boolean append) {
+            this.file = file;
+            this.readable = readable;
+            this.writable = writable;
+            this.append = append;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        private void ensureOpen() throws ClosedChannelException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+        }
+
+        @Override
+        public synchronized int read(ByteBuffer dst) throws IOException {
+            ensureOpen();
+            if (!readable) {
+                throw new NonReadableChannelException();
+            }
+            int n = file.read(dst, position);
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+
+        @Override
+        public synchronized int write(ByteBuffer src) throws IOException {
+            ensureOpen();
+            if (!writable) {
+                throw new NonWritableChannelException();
+            }
+            if (append) {
+                position = file.getSize();
+            }
+            int n = file.write(src, position);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public synchronized long position() throws IOException {
+            ensureOpen();
+            return position;
+        }
+
+        @Override
+        public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+            ensureOpen();
+            if (newPosition < 0) {
+                throw new IllegalArgumentException();
+            }
+            position = newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            ensureOpen();
+            return file.getSize();
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) throws IOException {
+            ensureOpen();
+            if (!writable) {
+                throw new NonWritableChannelException();
+            }
+            file.truncate(size);
+            return this;
+        }
+    }
+
+    private final MemoryDirectory root = new MemoryDirectory();
+
+    @Override
+    public synchronized Entry lookup(String path) {
+        if (path.isEmpty()) {
+            return root;
+        }
+        Entry entry = root;
+        for (String name : path.split("/")) {
+            if (!(entry instanceof MemoryDirectory)) {
+                return null;
+            }
+            entry = ((MemoryDirectory) entry).children.get(name);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the directory that contains {@code path}.
+     */
+    private MemoryDirectory lookupParent(String path) throws IOException {
+        int slash = path.lastIndexOf('/');
+        Entry parent = slash < 0 ? root : lookup(path.substring(0, slash));
+        if (parent == null) {
+            throw new NoSuchFileException(path);
+        }
+        if (!(parent instanceof MemoryDirectory)) {
+            throw error(path, OSErrorEnum.ENOTDIR);
+        }
+        return (MemoryDirectory) parent;
+    }
+
+    private static String getName(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public synchronized String[] list(Entry directory) {
+        return ((MemoryDirectory) directory).children.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public synchronized SeekableByteChannel newByteChannel(String path, Set<? extends OpenOption> options) throws IOException {
+        boolean append = options.contains(StandardOpenOption.APPEND);
+        boolean writable = append || options.contains(StandardOpenOption.WRITE);
+        boolean readable = !writable || options.contains(StandardOpenOption.READ);
+        Entry entry = lookup(path);
+        if (entry == null) {
+            if (!options.contains(StandardOpenOption.CREATE) && !options.contains(StandardOpenOption.CREATE_NEW)) {
+                throw new NoSuchFileException(path);
+            }
+            MemoryDirectory parent = lookupParent(path);
+            MemoryFile file = new MemoryFile();
+            parent.children.put(getName(path), file);
+            parent.modifiedTime = System.currentTimeMillis();
+            return new MemoryFileChannel(file, readable, writable, append);
+        }
+        if (options.contains(StandardOpenOption.CREATE_NEW)) {
+            throw new FileAlreadyExistsException(path);
+        }
+        if (entry instanceof MemoryDirectory) {
+            if (writable) {
+                throw error(path, OSErrorEnum.EISDIR);
+            }
+            return new ByteBufferChannel(ByteBuffer.allocate(0));
+        }
+        MemoryFile file = (MemoryFile) entry;
+        if (writable && options.contains(StandardOpenOption.TRUNCATE_EXISTING)) {
+            file.truncate(0);
+        }
+        return new MemoryFileChannel(file, readable, writable, append);
+    }
+
+    /**
+     * The memory of a file is replaced when the file grows, which would detach a buffer from it.
+     */
+    @Override
+    public ByteBuffer map(Entry file, long offset, long length, boolean writable) {
+        return null;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    @Override
+    public synchronized void createDirectory(String path) throws IOException {
+        if (lookup(path) != null) {
+            throw new FileAlreadyExistsException(path);
+        }
+        MemoryDirectory parent = lookupParent(path);
+        parent.children.put(getName(path), new MemoryDirectory());
+        parent.modifiedTime = System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void delete(String path, boolean directory) throws IOException {
+        if (path.isEmpty()) {
+            throw error(path, OSErrorEnum.EBUSY);
+        }
+        Entry entry = lookup(path);
+        if (entry == null) {
+            throw new NoSuchFileException(path);
+        }
+        if (entry.isDirectory() != directory) {
+            throw error(path, directory ? OSErrorEnum.ENOTDIR : OSErrorEnum.EISDIR);
+        }
+        if (directory && !((MemoryDirectory) entry).children.isEmpty()) {
+            throw new DirectoryNotEmptyException(path);
+        }
+        MemoryDirectory parent = lookupParent(path);
+        parent.children.remove(getName(path));
+        parent.modifiedTime = System.currentTimeMillis();
+    }
+}
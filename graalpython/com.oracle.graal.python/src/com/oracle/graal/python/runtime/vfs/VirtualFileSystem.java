@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime.vfs;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The mount table of the emulated POSIX layer. Paths under a mount point are served by the
+ * {@link VirtualMount} instead of the Truffle file system, so that modules and data files can be
+ * read from an in-memory tree or from an archive without extracting it.
+ */
+public final class VirtualFileSystem {
+
+    private static final class MountPoint {
+        final String path;
+        final VirtualMount mount;
+
+        MountPoint(String path, VirtualMount mount) {
+            this.path = path;
+            this.mount = mount;
+        }
+    }
+
+    /**
+     * The result of {@link #find(String)}: the mount and the path relative to its mount point.
+     */
+    public static final class Lookup {
+        public final VirtualMount mount;
+        public final String path;
+        public final String absolutePath;
+
+        Lookup(VirtualMount mount, String path, String absolutePath) {
+            this.mount = mount;
+            this.path = path;
+            this.absolutePath = absolutePath;
+        }
+    }
+
+    /**
+     * Sorted by decreasing length of the mount point, so that nested mounts take precedence. The
+     * array is replaced on every change, lookups do not need to synchronize.
+     */
+    private volatile MountPoint[] mountPoints = new MountPoint[0];
+
+    public boolean isEmpty() {
+        return mountPoints.length == 0;
+    }
+
+    @TruffleBoundary
+    public synchronized void mount(String mountPoint, VirtualMount mount) throws IOException {
+        String path = normalizeMountPoint(mountPoint);
+        for (MountPoint mp : mountPoints) {
+            if (mp.path.equals(path)) {
+                throw VirtualMount.error(mountPoint, OSErrorEnum.EBUSY);
+            }
+        }
+        MountPoint[] newMountPoints = Arrays.copyOf(mountPoints, mountPoints.length + 1);
+        newMountPoints[newMountPoints.length - 1] = new MountPoint(path, mount);
+        Arrays.sort(newMountPoints, (a, b) -> b.path.length() - a.path.length());
+        mountPoints = newMountPoints;
+    }
+
+    @TruffleBoundary
+    public synchronized void unmount(String mountPoint) throws IOException {
+        String path = normalizeMountPoint(mountPoint);
+        MountPoint[] oldMountPoints = mountPoints;
+        for (int i = 0; i < oldMountPoints.length; i++) {
+            if (oldMountPoints[i].path.equals(path)) {
+                MountPoint[] newMountPoints = new MountPoint[oldMountPoints.length - 1];
+                System.arraycopy(oldMountPoints, 0, newMountPoints, 0, i);
+                System.arraycopy(oldMountPoints, i + 1, newMountPoints, i, newMountPoints.length - i);
+                mountPoints = newMountPoints;
+                oldMountPoints[i].mount.close();
+                return;
+            }
+        }
+        throw VirtualMount.error(mountPoint, OSErrorEnum.EINVAL);
+    }
+
+    @TruffleBoundary
+    public synchronized void unmountAll() {
+        for (MountPoint mp : mountPoints) {
+            try {
+                mp.mount.close();
+            } catch (IOException e) {
+                // nothing we can do during shutdown
+            }
+        }
+        mountPoints = new MountPoint[0];
+    }
+
+    /**
+     * Finds the mount that serves the given normalized absolute path, or returns {@code null} if
+     * the path is not under any mount point.
+     */
+    @TruffleBoundary
+    public Lookup find(String absolutePath) {
+        for (MountPoint mp : mountPoints) {
+            String prefix = mp.path;
+            if (absolutePath.startsWith(prefix)) {
+                if (absolutePath.length() == prefix.length()) {
+                    return new Lookup(mp.mount, "", absolutePath);
+                } else if (absolutePath.charAt(prefix.length()) == '/') {
+                    return new Lookup(mp.mount, absolutePath.substring(prefix.length() + 1), absolutePath);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String normalizeMountPoint(String mountPoint) throws IOException {
+        if (!mountPoint.startsWith("/")) {
+            throw VirtualMount.error(mountPoint, OSErrorEnum.EINVAL);
+        }
+        int end = mountPoint.length();
+        while (end > 0 && mountPoint.charAt(end - 1) == '/') {
+            end--;
+        }
+        // the root is stored as empty string, so that every absolute path continues with a '/'
+        return mountPoint.substring(0, end);
+    }
+}
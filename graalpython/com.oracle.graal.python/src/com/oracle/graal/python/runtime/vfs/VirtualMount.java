@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime.vfs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.OpenOption;
+import java.util.Set;
+
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+
+/**
+ * A file tree mounted into the {@link VirtualFileSystem}. Paths passed to the mount are relative to
+ * the mount point, use {@code '/'} as separator and contain neither {@code "."} nor {@code ".."}
+ * components. The root of the mount is the empty path.
+ */
+public abstract class VirtualMount {
+
+    /**
+     * A regular file or directory in a mount.
+     */
+    public abstract static class Entry {
+        public abstract boolean isDirectory();
+
+        public abstract long getSize();
+
+        /**
+         * The modification time in milliseconds since the epoch.
+         */
+        public abstract long getModifiedTime();
+    }
+
+    /**
+     * Returns the entry for the given path, or {@code null} if it does not exist.
+     */
+    public abstract Entry lookup(String path);
+
+    /**
+     * Returns the names of the entries in the given directory.
+     */
+    public abstract String[] list(Entry directory);
+
+    public abstract SeekableByteChannel newByteChannel(String path, Set<? extends OpenOption> options) throws IOException;
+
+    /**
+     * Returns the contents of the file between {@code offset} and {@code offset + length} as a
+     * buffer that shares the memory of the file where possible. The buffer is read-only unless
+     * {@code writable} is {@code true}. Returns {@code null} if the buffer could not stay attached
+     * to the file for the lifetime of the mapping, the mapping then goes through a channel.
+     */
+    public abstract ByteBuffer map(Entry file, long offset, long length, boolean writable) throws IOException;
+
+    public abstract boolean isReadOnly();
+
+    public void createDirectory(String path) throws IOException {
+        throw error(path, OSErrorEnum.EROFS);
+    }
+
+    public void delete(String path, boolean directory) throws IOException {
+        throw error(path, OSErrorEnum.EROFS);
+    }
+
+    /**
+     * Releases the resources held by the mount after it was unmounted.
+     */
+    public void close() throws IOException {
+    }
+
+    static FileSystemException error(String path, OSErrorEnum error) {
+        // OSErrorEnum.fromException maps the reason back to the error number
+        return new FileSystemException(path, null, error.getMessage());
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime.vfs;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
+
+/**
+ * A read-only mount of a zip or jar archive. The central directory is read once when the archive is
+ * mounted and kept as an index, so looking up and opening entries does not scan or reopen the
+ * archive. Stored entries are memory mapped directly from the archive file if it is a regular file,
+ * deflated entries are inflated on first access and kept while memory permits.
+ */
+public final class ZipMount extends VirtualMount {
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_HEADER_SIGNATURE = 0x06054b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_HEADER_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int FLAG_ENCRYPTED = 1;
+    private static final int FLAG_UTF8 = 0x800;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    private static final class ZipEntry extends Entry {
+        final boolean directory;
+        final int method;
+        final int flags;
+        final long compressedSize;
+        final long size;
+        final long headerOffset;
+        final long modifiedTime;
+        final ArrayList<String> children;
+
+        /* mapped or read stored contents, they cost no heap memory if mapped */
+        ByteBuffer storedContents;
+        SoftReference<ByteBuffer> inflatedContents;
+
+        ZipEntry(boolean directory, int method, int flags, long compressedSize, long size, long headerOffset, long modifiedTime) {
+            this.directory = directory;
+            this.method = method;
+            this.flags = flags;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.headerOffset = headerOffset;
+            this.modifiedTime = modifiedTime;
+            this.children = directory ? new ArrayList<>() : null;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return directory;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public long getModifiedTime() {
+            return modifiedTime;
+        }
+    }
+
+    private final SeekableByteChannel archive;
+    private final HashMap<String, ZipEntry> entries = new HashMap<>();
+
+    private ZipMount(SeekableByteChannel archive) {
+        this.archive = archive;
+        entries.put("", newDirectory(0));
+    }
+
+    /**
+     * Reads the central directory of the archive and creates the mount. The mount takes ownership
+     * of the channel.
+     */
+    public static ZipMount open(SeekableByteChannel archive) throws IOException {
+        ZipMount mount = new ZipMount(archive);
+        try {
+            mount.readCentralDirectory();
+        } catch (IOException | RuntimeException e) {
+            archive.close();
+            throw e;
+        }
+        return mount;
+    }
+
+    private static ZipEntry newDirectory(long modifiedTime) {
+        return new ZipEntry(true, METHOD_STORED, 0, 0, 0, -1, modifiedTime);
+    }
+
+    private void readCentralDirectory() throws IOException {
+        long archiveSize = archive.size();
+        int tailSize = (int) Math.min(archiveSize, END_HEADER_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = read(archiveSize - tailSize, tailSize);
+        int end = -1;
+        for (int i = tailSize - END_HEADER_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_HEADER_SIGNATURE) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new IOException("not a zip archive");
+        }
+        int entryCount = tail.getShort(end + 10) & 0xFFFF;
+        long directorySize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+        long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+        if (entryCount == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+            throw new IOException("zip64 archives are not supported");
+        }
+        if (directorySize > Integer.MAX_VALUE || directoryOffset + directorySize > archiveSize) {
+            throw new IOException("invalid zip central directory");
+        }
+        ByteBuffer directory = read(directoryOffset, (int) directorySize);
+        int pos = 0;
+        for (int i = 0; i < entryCount; i++) {
+            if (pos + CENTRAL_HEADER_SIZE > directory.limit() || directory.getInt(pos) != CENTRAL_HEADER_SIGNATURE) {
+                throw new IOException("invalid zip central directory");
+            }
+            int flags = directory.getShort(pos + 8) & 0xFFFF;
+            int method = directory.getShort(pos + 10) & 0xFFFF;
+            int time = directory.getShort(pos + 12) & 0xFFFF;
+            int date = directory.getShort(pos + 14) & 0xFFFF;
+            long compressedSize = directory.getInt(pos + 20) & 0xFFFFFFFFL;
+            long size = directory.getInt(pos + 24) & 0xFFFFFFFFL;
+            int nameLength = directory.getShort(pos + 28) & 0xFFFF;
+            int extraLength = directory.getShort(pos + 30) & 0xFFFF;
+            int commentLength = directory.getShort(pos + 32) & 0xFFFF;
+            long headerOffset = directory.getInt(pos + 42) & 0xFFFFFFFFL;
+            byte[] nameBytes = new byte[nameLength];
+            ByteBuffer nameBuffer = directory.duplicate();
+            nameBuffer.position(pos + CENTRAL_HEADER_SIZE);
+            nameBuffer.get(nameBytes);
+            // names without the UTF-8 flag are in CP437, which agrees with UTF-8 for ASCII names
+            String name = new String(nameBytes, (flags & FLAG_UTF8) != 0 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+            addEntry(name, flags, method, compressedSize, size, headerOffset, dosTimeToMillis(date, time));
+            pos += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+    }
+
+    private void addEntry(String rawName, int flags, int method, long compressedSize, long size, long headerOffset, long modifiedTime) {
+        boolean directory = rawName.endsWith("/");
+        String name = normalize(rawName);
+        if (name == null || entries.containsKey(name) && !directory) {
+            // skip entries that would escape the mount and duplicates, the first one wins
+            return;
+        }
+        if (directory) {
+            ZipEntry existing = entries.get(name);
+            if (existing != null) {
+                return;
+            }
+            entries.put(name, newDirectory(modifiedTime));
+        } else {
+            entries.put(name, new ZipEntry(false, method, flags, compressedSize, size, headerOffset, modifiedTime));
+        }
+        // register in the parent, creating the parent directories that have no entries of their own
+        String child = name;
+        while (!child.isEmpty()) {
+            int slash = child.lastIndexOf('/');
+            String parentName = slash < 0 ? "" : child.substring(0, slash);
+            ZipEntry parent = entries.get(parentName);
+            boolean created = false;
+            if (parent == null) {
+                parent = newDirectory(modifiedTime);
+                entries.put(parentName, parent);
+                created = true;
+            } else if (!parent.directory) {
+                return;
+            }
+            parent.children.add(child.substring(slash + 1));
+            if (!created) {
+                break;
+            }
+            child = parentName;
+        }
+    }
+
+    private static String normalize(String rawName) {
+        StringBuilder sb = new StringBuilder();
+        for (String component : rawName.split("/")) {
+            if (component.isEmpty() || component.equals(".")) {
+                continue;
+            }
+            if (component.equals("..")) {
+                return null;
+            }
+            if (sb.length() > 0) {
+                sb.append('/');
+            }
+            sb.append(component);
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    private static long dosTimeToMillis(int date, int time) {
+        int month = (date >> 5) & 0xF;
+        int day = date & 0x1F;
+        if (month < 1 || month > 12 || day < 1) {
+            return 0;
+        }
+        try {
+            LocalDateTime dateTime = LocalDateTime.of(((date >> 9) & 0x7F) + 1980, month, day, (time >> 11) & 0x1F, (time >> 5) & 0x3F, Math.min((time & 0x1F) * 2, 59));
+            return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (RuntimeException e) {
+            // invalid date such as February 30
+            return 0;
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        if (archive instanceof FileChannel) {
+            FileChannel fc = (FileChannel) archive;
+            while (buffer.hasRemaining()) {
+                if (fc.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("unexpected end of zip archive");
+                }
+            }
+        } else {
+            synchronized (archive) {
+                archive.position(position);
+                while (buffer.hasRemaining()) {
+                    if (archive.read(buffer) < 0) {
+                        throw new IOException("unexpected end of zip archive");
+                    }
+                }
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private ByteBuffer getContents(String name, ZipEntry entry) throws IOException {
+        if (entry.directory) {
+            return ByteBuffer.allocate(0);
+        }
+        synchronized (entry) {
+            if (entry.storedContents != null) {
+                return entry.storedContents;
+            }
+            ByteBuffer inflated = entry.inflatedContents != null ? entry.inflatedContents.get() : null;
+            if (inflated != null) {
+                return inflated;
+            }
+            if ((entry.flags & FLAG_ENCRYPTED) != 0 || entry.size > Integer.MAX_VALUE || entry.compressedSize > Integer.MAX_VALUE) {
+                throw error(name, OSErrorEnum.EOPNOTSUPP);
+            }
+            ByteBuffer header = read(entry.headerOffset, LOCAL_HEADER_SIZE);
+            if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+                throw error(name, OSErrorEnum.EIO);
+            }
+            long dataOffset = entry.headerOffset + LOCAL_HEADER_SIZE + (header.getShort(26) & 0xFFFF) + (header.getShort(28) & 0xFFFF);
+            if (entry.method == METHOD_STORED) {
+                if (archive instanceof FileChannel) {
+                    entry.storedContents = ((FileChannel) archive).map(MapMode.READ_ONLY, dataOffset, entry.size);
+                } else {
+                    entry.storedContents = read(dataOffset, (int) entry.size);
+                }
+                return entry.storedContents;
+            } else if (entry.method == METHOD_DEFLATED) {
+                inflated = inflate(name, read(dataOffset, (int) entry.compressedSize), (int) entry.size);
+                entry.inflatedContents = new SoftReference<>(inflated);
+                return inflated;
+            } else {
+                throw error(name, OSErrorEnum.EOPNOTSUPP);
+            }
+        }
+    }
+
+    private static ByteBuffer inflate(String name, ByteBuffer compressed, int size) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed.array(), compressed.arrayOffset(), compressed.limit());
+            byte[] result = new byte[size];
+            int n = 0;
+            while (n < size && !inflater.finished()) {
+                int inflated = inflater.inflate(result, n, size - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += inflated;
+            }
+            if (n != size) {
+                throw error(name, OSErrorEnum.EIO);
+            }
+            return ByteBuffer.wrap(result);
+        } catch (DataFormatException e) {
+            throw error(name, OSErrorEnum.EIO);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public Entry lookup(String path) {
+        return entries.get(path);
+    }
+
+    @Override
+    public String[] list(Entry directory) {
+        return ((ZipEntry) directory).children.toArray(new String[0]);
+    }
+
+    @Override
+    public SeekableByteChannel newByteChannel(String path, Set<? extends OpenOption> options) throws IOException {
+        if (options.contains(StandardOpenOption.WRITE) || options.contains(StandardOpenOption.APPEND)) {
+            throw error(path, OSErrorEnum.EROFS);
+        }
+        ZipEntry entry = entries.get(path);
+        if (entry == null) {
+            if (options.contains(StandardOpenOption.CREATE) || options.contains(StandardOpenOption.CREATE_NEW)) {
+                throw error(path, OSErrorEnum.EROFS);
+            }
+            throw new NoSuchFileException(path);
+        }
+        return new ByteBufferChannel(getContents(path, entry).duplicate());
+    }
+
+    @Override
+    public ByteBuffer map(Entry file, long offset, long length, boolean writable) throws IOException {
+        ByteBuffer contents = getContents("", (ZipEntry) file).duplicate();
+        contents.position((int) Math.min(offset, contents.limit()));
+        contents.limit((int) Math.min(offset + length, contents.limit()));
+        if (writable) {
+            // a private copy, writes are never visible in the archive
+            ByteBuffer copy = ByteBuffer.allocate(contents.remaining());
+            copy.put(contents);
+            copy.clear();
+            return copy;
+        }
+        return contents.slice().asReadOnlyBuffer();
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        archive.close();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.util;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A weak intern table for strings shared by all Python contexts. The parser, the JSON decoder and
+ * the attribute dictionaries canonicalize identifier-like strings through this table, so that
+ * attribute names, keyword argument names and dict keys that are equal are usually also
+ * identical. Lookups in {@code PEMap}, {@code KeywordsStorage} and in object shapes can then be
+ * decided by a reference comparison in the common case.
+ *
+ * Entries do not keep the strings alive, so interning strings from untrusted input (like JSON
+ * documents) does not leak memory.
+ */
+public final class StringInterner {
+
+    /**
+     * Strings longer than this are not interned automatically, they are unlikely to be identifiers
+     * and comparing them by content is not a bottleneck.
+     */
+    public static final int MAX_AUTO_INTERN_LENGTH = 64;
+
+    /**
+     * The table is split into stripes with a lock each, so that threads (and contexts) interning
+     * different strings rarely contend.
+     */
+    private static final int STRIPES = 32;
+
+    @SuppressWarnings("unchecked") private static final WeakHashMap<String, WeakReference<String>>[] TABLES = new WeakHashMap[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            TABLES[i] = new WeakHashMap<>();
+        }
+    }
+
+    private StringInterner() {
+        // no instances
+    }
+
+    /**
+     * Returns the canonical instance of the given string.
+     */
+    @TruffleBoundary
+    public static String intern(String s) {
+        int h = s.hashCode();
+        WeakHashMap<String, WeakReference<String>> table = TABLES[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        synchronized (table) {
+            WeakReference<String> ref = table.get(s);
+            if (ref != null) {
+                String interned = ref.get();
+                if (interned != null) {
+                    return interned;
+                }
+            }
+            table.put(s, new WeakReference<>(s));
+            return s;
+        }
+    }
+
+    /**
+     * Returns the canonical instance of the given string if it is short and looks like a Python
+     * identifier, otherwise returns the string itself.
+     */
+    public static String internIfIdentifier(String s) {
+        if (isIdentifierLike(s)) {
+            return intern(s);
+        }
+        return s;
+    }
+
+    /**
+     * Checks if the string is a short, ASCII-only identifier. This is intentionally more
+     * restrictive than {@code str.isidentifier}, it is only used to decide what to intern
+     * automatically.
+     */
+    public static boolean isIdentifierLike(String s) {
+        int len = s.length();
+        if (len == 0 || len > MAX_AUTO_INTERN_LENGTH) {
+            return false;
+        }
+        char first = s.charAt(0);
+        if (!(first == '_' || (first >= 'a' && first <= 'z') || (first >= 'A' && first <= 'Z'))) {
+            return false;
+        }
+        for (int i = 1; i < len; i++) {
+            char c = s.charAt(i);
+            if (!(c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
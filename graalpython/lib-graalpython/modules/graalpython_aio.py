@@ -0,0 +1,136 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+"""
+File I/O for asyncio that does not block the event loop.
+
+The reads and writes run on background threads that do not hold the GIL, and
+these threads complete the returned futures with loop.call_soon_threadsafe, so a
+coroutine can overlap disk and network I/O without going through
+loop.run_in_executor:
+
+    fd = os.open(path, os.O_RDONLY)
+    data = await graalpython_aio.read(fd, 65536)
+
+Operations work on raw file descriptors (or objects with a fileno method) of
+regular files. Pipes, sockets and terminals raise OSError(ESPIPE), because a read
+of them may never complete; use the event loop for them. The buffer of a file
+object returned by open is bypassed, so do not mix these operations with buffered
+reads and writes on the same file object.
+"""
+
+import asyncio
+import os
+
+try:
+    _async_read = __graalpython__.async_read
+    _async_write = __graalpython__.async_write
+except NameError:
+    _async_read = _async_write = None
+
+
+def _fileno(fd):
+    if isinstance(fd, int):
+        return fd
+    return fd.fileno()
+
+
+def _complete(future, result, errno):
+    if future.cancelled():
+        return
+    if errno:
+        future.set_exception(OSError(errno, os.strerror(errno)))
+    else:
+        future.set_result(result)
+
+
+def _submit(operation, *args):
+    loop = asyncio.get_running_loop()
+    future = loop.create_future()
+
+    def done(result, errno):
+        # runs with the GIL held, usually on the background thread
+        try:
+            loop.call_soon_threadsafe(_complete, future, result, errno)
+        except RuntimeError:
+            # the loop was closed in the meantime
+            pass
+
+    operation(*args, done)
+    return future
+
+
+async def read(fd, n, offset=-1):
+    """Read at most n bytes from fd, at the given offset or at the current file position if offset is negative."""
+    fd = _fileno(fd)
+    if _async_read is None:
+        if offset < 0:
+            return await asyncio.get_running_loop().run_in_executor(None, os.read, fd, n)
+        return await asyncio.get_running_loop().run_in_executor(None, os.pread, fd, n, offset)
+    return await _submit(_async_read, fd, n, offset)
+
+
+async def write(fd, data):
+    """Write data to fd at the current file position and return the number of bytes written."""
+    fd = _fileno(fd)
+    if _async_write is None:
+        return await asyncio.get_running_loop().run_in_executor(None, os.write, fd, bytes(data))
+    return await _submit(_async_write, fd, data)
+
+
+async def write_all(fd, data):
+    """Write all of data to fd."""
+    view = memoryview(data)
+    while view:
+        view = view[await write(fd, view):]
+
+
+async def read_file(path, chunk_size=65536):
+    """Return the contents of the file at path."""
+    fd = os.open(path, os.O_RDONLY)
+    try:
+        chunks = []
+        offset = 0
+        while True:
+            chunk = await read(fd, chunk_size, offset)
+            if not chunk:
+                return b''.join(chunks)
+            chunks.append(chunk)
+            offset += len(chunk)
+    finally:
+        os.close(fd)
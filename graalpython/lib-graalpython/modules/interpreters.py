@@ -0,0 +1,198 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+"""
+Sub-interpreters in the style of PEP 554.
+
+Each interpreter has its own modules, objects and GIL, but shares the compiled
+code with the other interpreters of the process. Code running in different
+interpreters on different threads therefore runs in parallel:
+
+    interp = interpreters.create()
+    recv, send = interpreters.create_channel()
+    t = threading.Thread(target=interp.run, args=(script,),
+                         kwargs={"channels": {"results": send}})
+    t.start()
+    ...
+    result = recv.recv()
+
+Only immutable objects (None, bool, int, float, str, bytes and tuples of these)
+can be passed between interpreters. They are copied without pickling.
+"""
+
+import _xxsubinterpreters as _interpreters
+from _xxsubinterpreters import (
+    RunFailedError, ChannelError, ChannelNotFoundError, ChannelClosedError,
+    ChannelEmptyError, is_shareable,
+)
+
+__all__ = [
+    "Interpreter", "get_current", "get_main", "create", "list_all",
+    "is_shareable", "RecvChannel", "SendChannel", "create_channel",
+    "list_all_channels", "RunFailedError", "ChannelError",
+    "ChannelNotFoundError", "ChannelClosedError", "ChannelEmptyError",
+]
+
+
+class Interpreter:
+    """A single Python interpreter in the current process."""
+
+    def __init__(self, id):
+        self._id = id
+
+    def __repr__(self):
+        return "%s(id=%d)" % (type(self).__name__, self._id)
+
+    def __eq__(self, other):
+        return isinstance(other, Interpreter) and self._id == other._id
+
+    def __hash__(self):
+        return hash(self._id)
+
+    @property
+    def id(self):
+        return self._id
+
+    def is_running(self):
+        """Return whether or not the interpreter is currently executing code."""
+        return _interpreters.is_running(self._id)
+
+    def close(self):
+        """Finalize and destroy the interpreter."""
+        _interpreters.destroy(self._id)
+
+    def run(self, src, *, channels=None):
+        """Run the source code in the interpreter's __main__ module.
+
+        This blocks the current thread until done, other threads keep running.
+        The channels (a dict of names to channel objects) are bound as globals
+        in the interpreter's __main__ module. An exception raised by the code
+        is reported as RunFailedError.
+        """
+        if channels:
+            shared = {}
+            lines = ["import interpreters as _interpreters"]
+            for name, channel in channels.items():
+                if not isinstance(channel, (RecvChannel, SendChannel)):
+                    raise TypeError("expected a channel, got %r" % (channel,))
+                shared[name] = channel.id
+                lines.append("%s = _interpreters.%s(%s)" % (name, type(channel).__name__, name))
+            lines.append("del _interpreters")
+            _interpreters.run_string(self._id, "\n".join(lines), shared)
+        _interpreters.run_string(self._id, src)
+
+
+def get_current():
+    """Return the interpreter that is running the current code."""
+    return Interpreter(_interpreters.get_current())
+
+
+def get_main():
+    """Return the main interpreter."""
+    return Interpreter(_interpreters.get_main())
+
+
+def create():
+    """Initialize a new interpreter and return it."""
+    return Interpreter(_interpreters.create())
+
+
+def list_all():
+    """Return all existing interpreters."""
+    return [Interpreter(id) for id in _interpreters.list_all()]
+
+
+class _Channel:
+
+    def __init__(self, id):
+        self._id = id
+
+    def __repr__(self):
+        return "%s(id=%d)" % (type(self).__name__, self._id)
+
+    def __eq__(self, other):
+        return isinstance(other, _Channel) and self._id == other._id
+
+    def __hash__(self):
+        return hash(self._id)
+
+    @property
+    def id(self):
+        return self._id
+
+
+class RecvChannel(_Channel):
+    """The receiving end of a cross-interpreter channel."""
+
+    def recv(self, timeout=None):
+        """Return the next object from the channel, waiting for one if needed."""
+        return _interpreters.channel_recv(self._id, block=True, timeout=timeout)
+
+    def recv_nowait(self, default=None):
+        """Return the next object from the channel, or default if there is none."""
+        return _interpreters.channel_recv(self._id, default)
+
+
+class SendChannel(_Channel):
+    """The sending end of a cross-interpreter channel."""
+
+    def send(self, obj):
+        """Send the object to the receiving end of the channel."""
+        _interpreters.channel_send(self._id, obj)
+
+    def send_nowait(self, obj):
+        """Send the object to the receiving end of the channel.
+
+        Channels are unbounded, so this is the same as send.
+        """
+        _interpreters.channel_send(self._id, obj)
+
+    def close(self):
+        """Close the channel, objects that were already sent can still be received."""
+        _interpreters.channel_close(self._id)
+
+
+def create_channel():
+    """Create a new channel and return its (recv, send) ends."""
+    cid = _interpreters.channel_create()
+    return RecvChannel(cid), SendChannel(cid)
+
+
+def list_all_channels():
+    """Return the (recv, send) ends of all open channels."""
+    return [(RecvChannel(cid), SendChannel(cid)) for cid in _interpreters.channel_list_all()]
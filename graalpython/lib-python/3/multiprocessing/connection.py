@@ -920,6 +920,13 @@ else:
 
         Returns list of those objects in object_list which are ready/readable.
         '''
+        # BEGIN TRUFFLE PATCH
+        # connections and sentinels of the 'interpreter' start method are
+        # channels rather than file descriptors
+        if any(hasattr(obj, '_wait_channel') for obj in object_list):
+            from .popen_interpreter import wait
+            return wait(object_list, timeout)
+        # END TRUFFLE PATCH
         with _WaitSelector() as selector:
             for obj in object_list:
                 selector.register(obj, selectors.EVENT_READ)
@@ -260,8 +260,22 @@ class DefaultContext(BaseContext):
             methods = ['spawn', 'fork'] if sys.platform == 'darwin' else ['fork', 'spawn']
             if reduction.HAVE_SEND_HANDLE:
                 methods.append('forkserver')
+            # BEGIN TRUFFLE PATCH
+            methods.append('interpreter')
+            # END TRUFFLE PATCH
             return methods
 
+    # BEGIN TRUFFLE PATCH
+    # the 'interpreter' start method has its own pipes and pools
+    def Pipe(self, duplex=True):
+        return self.get_context().Pipe(duplex)
+
+    def Pool(self, processes=None, initializer=None, initargs=(),
+             maxtasksperchild=None):
+        return self.get_context().Pool(processes, initializer, initargs,
+                                       maxtasksperchild)
+    # END TRUFFLE PATCH
+
 
 #
 # Context types for fixed start method
@@ -338,6 +352,39 @@ else:
     }
     _default_context = DefaultContext(_concrete_contexts['spawn'])
 
+# BEGIN TRUFFLE PATCH
+#
+# Start method that runs each process in a sub-interpreter of the current
+# process, on a thread of its own. Pipes and queues are backed by channels
+# between the interpreters.
+#
+
+class InterpreterProcess(process.BaseProcess):
+    _start_method = 'interpreter'
+    @staticmethod
+    def _Popen(process_obj):
+        from .popen_interpreter import Popen
+        return Popen(process_obj)
+
+class InterpreterContext(BaseContext):
+    _name = 'interpreter'
+    Process = InterpreterProcess
+
+    def Pipe(self, duplex=True):
+        '''Returns two connection object connected by a pipe'''
+        from .popen_interpreter import Pipe
+        return Pipe(duplex)
+
+    def Pool(self, processes=None, initializer=None, initargs=(),
+             maxtasksperchild=None):
+        '''Returns a process pool object'''
+        from .popen_interpreter import Pool
+        return Pool(processes, initializer, initargs, maxtasksperchild,
+                    context=self.get_context())
+
+_concrete_contexts['interpreter'] = InterpreterContext()
+# END TRUFFLE PATCH
+
 #
 # Force the start method
 #
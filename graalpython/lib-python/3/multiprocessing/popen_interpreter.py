@@ -0,0 +1,299 @@
+#
+# GraalPython specific 'interpreter' start method: each process is a
+# sub-interpreter of the current process (see the _xxsubinterpreters module)
+# and runs on a thread of its own. Starting a process therefore only costs the
+# creation of a new interpreter, which shares the compiled code with the
+# current one. Pipes, and the queues built on them, are channels between the
+# interpreters instead of file descriptors.
+#
+
+import io
+import os
+import sys
+import threading
+import weakref
+
+import _xxsubinterpreters as _interpreters
+
+from . import connection
+from . import pool
+from . import process
+from . import spawn
+from . import util
+from .context import reduction, set_spawning_popen
+
+__all__ = ['Popen', 'Pipe', 'Pool', 'wait']
+
+#
+# Connections and sentinels are waited for through the channel in their
+# _wait_channel attribute, which is ready when it has an object to receive
+# or is closed
+#
+
+class _Sentinel(object):
+    '''Becomes ready when the process finished'''
+
+    def __init__(self, cid):
+        self._wait_channel = cid
+
+    def __repr__(self):
+        return '<%s channel=%d>' % (type(self).__name__, self._wait_channel)
+
+
+# The connections of the current interpreter, which are closed when it exits,
+# like the file descriptors of a process
+_connections = weakref.WeakSet()
+
+class Connection(connection._ConnectionBase):
+    '''Connection that sends and receives through channels'''
+
+    def __init__(self, recv_cid, send_cid, readable=True, writable=True,
+                 _retained=False):
+        super().__init__(recv_cid if readable else send_cid, readable,
+                         writable)
+        self._recv_cid = recv_cid
+        self._send_cid = send_cid
+        self._wait_channel = recv_cid
+        if not _retained:
+            self._retain()
+        _connections.add(self)
+
+    def _retain(self):
+        # like file descriptors of a pipe, the ends of the channels are
+        # referenced by the connections of all interpreters
+        if self.readable:
+            _interpreters._channel_retain(self._recv_cid, recv=True)
+        if self.writable:
+            _interpreters._channel_retain(self._send_cid, send=True)
+
+    def __reduce__(self):
+        # the channels are the same in all interpreters of the process; the
+        # pickled connection keeps them open until it is unpickled, as the
+        # file descriptors inherited by a child process would
+        self._check_closed()
+        self._retain()
+        return (type(self), (self._recv_cid, self._send_cid, self.readable,
+                             self.writable, True))
+
+    def fileno(self):
+        self._check_closed()
+        raise OSError('connection is not backed by a file descriptor')
+
+    def _close(self):
+        # closing the last writer lets the readers get EOFError, and the
+        # channels are destroyed once no connection uses them anymore
+        try:
+            if self.readable:
+                _interpreters.channel_release(self._recv_cid, recv=True)
+            if self.writable:
+                _interpreters.channel_release(self._send_cid, send=True)
+        except _interpreters.ChannelNotFoundError:
+            # already destroyed, e.g. when the interpreter exits
+            pass
+
+    def _send_bytes(self, buf):
+        _interpreters.channel_send(self._send_cid, bytes(buf))
+
+    def _recv_bytes(self, maxsize=None):
+        try:
+            buf = _interpreters.channel_recv(self._recv_cid, block=True)
+        except _interpreters.ChannelClosedError:
+            raise EOFError
+        if maxsize is not None and len(buf) > maxsize:
+            return None
+        return io.BytesIO(buf)
+
+    def _poll(self, timeout):
+        return bool(_interpreters.channel_wait([self._recv_cid],
+                                               _timeout(timeout)))
+
+
+def Pipe(duplex=True):
+    '''
+    Returns pair of connection objects at either end of a pipe
+    '''
+    if duplex:
+        cid1 = _interpreters.channel_create()
+        cid2 = _interpreters.channel_create()
+        return Connection(cid1, cid2), Connection(cid2, cid1)
+    cid = _interpreters.channel_create()
+    return (Connection(cid, cid, writable=False),
+            Connection(cid, cid, readable=False))
+
+def _timeout(timeout):
+    # callers compute timeouts from deadlines, which may have passed already
+    return None if timeout is None else max(timeout, 0)
+
+def wait(object_list, timeout=None):
+    '''
+    Wait till an object in object_list is ready/readable.
+
+    Returns list of those objects in object_list which are ready/readable.
+    '''
+    timeout = _timeout(timeout)
+    cids = [o._wait_channel for o in object_list if hasattr(o, '_wait_channel')]
+    others = [o for o in object_list if not hasattr(o, '_wait_channel')]
+    ready = []
+    if not others:
+        ready_cids = _interpreters.channel_wait(cids, timeout)
+    else:
+        # file descriptors and channels cannot be waited for at once, so a
+        # thread waits for the file descriptors and reports to a channel
+        done = _interpreters.channel_create()
+        wakeup_r, wakeup_w = os.pipe()
+
+        def wait_for_others():
+            try:
+                ready.extend(connection.wait(others + [wakeup_r], timeout))
+            finally:
+                _interpreters.channel_send(done, None)
+
+        waiter = threading.Thread(target=wait_for_others, daemon=True)
+        waiter.start()
+        try:
+            _interpreters.channel_wait(cids + [done], timeout)
+        finally:
+            os.write(wakeup_w, b'\0')
+            waiter.join()
+            os.close(wakeup_r)
+            os.close(wakeup_w)
+            _interpreters.channel_destroy(done)
+        ready_cids = _interpreters.channel_wait(cids, 0)
+    return [o for o in object_list if o in ready or
+            getattr(o, '_wait_channel', None) in ready_cids]
+
+#
+# Pool whose workers are interpreters
+#
+
+class Pool(pool.Pool):
+
+    @staticmethod
+    def _help_stuff_finish(inqueue, task_handler, size):
+        # The workers cannot be killed like processes, so rather than keeping
+        # them away from inqueue, drop the tasks that are still queued. The
+        # workers then get to the sentinels the task handler sends them.
+        util.debug('removing tasks from inqueue')
+        sentinels = 0
+        while True:
+            res = _interpreters.channel_recv(inqueue._reader._recv_cid, None)
+            if res is None:
+                break
+            if reduction.ForkingPickler.loads(res) is None:
+                sentinels += 1
+        for i in range(sentinels):
+            inqueue.put(None)
+
+#
+# Start child process in a new interpreter
+#
+
+_CHILD_SCRIPT = '''\
+from multiprocessing.popen_interpreter import _main
+_main(_mp_data, _mp_result, _mp_sentinel)
+'''
+
+class Popen(object):
+    method = 'interpreter'
+
+    def __init__(self, process_obj):
+        util._flush_std_streams()
+        self.returncode = None
+        self.finalizer = None
+        self._launch(process_obj)
+
+    def poll(self, flag=os.WNOHANG):
+        return self.returncode
+
+    def wait(self, timeout=None):
+        if self.returncode is None:
+            # the sentinel channel is closed after the return code was set
+            _interpreters.channel_wait([self.sentinel._wait_channel],
+                                       _timeout(timeout))
+        return self.returncode
+
+    def terminate(self):
+        # The process is a thread of the current process that cannot be
+        # stopped from the outside, it exits when its code returns.
+        pass
+
+    kill = terminate
+
+    def _launch(self, process_obj):
+        prep_data = spawn.get_preparation_data(process_obj._name)
+        fp = io.BytesIO()
+        set_spawning_popen(self)
+        try:
+            reduction.dump(prep_data, fp)
+            reduction.dump(process_obj, fp)
+        finally:
+            set_spawning_popen(None)
+
+        self.pid = os.getpid()
+        self.sentinel = _Sentinel(_interpreters.channel_create())
+        self._result = _interpreters.channel_create()
+        self.finalizer = util.Finalize(self, _destroy_channels,
+                                       (self.sentinel._wait_channel,
+                                        self._result))
+        self._thread = threading.Thread(target=self._run,
+                                        args=(fp.getvalue(),),
+                                        name=process_obj._name, daemon=True)
+        self._thread.start()
+
+    def _run(self, data):
+        exitcode = 1
+        try:
+            # the interpreter is created here rather than in _launch, so that
+            # several processes start in parallel
+            interp = _interpreters.create()
+            try:
+                _interpreters.run_string(interp, _CHILD_SCRIPT, {
+                    '_mp_data': data,
+                    '_mp_result': self._result,
+                    '_mp_sentinel': self.sentinel._wait_channel,
+                })
+            finally:
+                exitcode = _interpreters.channel_recv(self._result, exitcode)
+                _interpreters.destroy(interp)
+        except _interpreters.RunFailedError as e:
+            sys.stderr.write('%s\n' % e)
+        finally:
+            self.returncode = exitcode
+            _interpreters.channel_close(self.sentinel._wait_channel)
+
+    def close(self):
+        if self.finalizer is not None:
+            self.finalizer()
+
+
+def _destroy_channels(*cids):
+    for cid in cids:
+        try:
+            _interpreters.channel_destroy(cid)
+        except _interpreters.ChannelNotFoundError:
+            pass
+
+
+def _main(data, result, sentinel):
+    '''
+    Run the process pickled by Popen, called in the new interpreter
+    '''
+    # the interpreter shares the standard streams with the rest of the
+    # process, so BaseProcess._bootstrap must not close the real stdin
+    sys.stdin = open(os.devnull)
+    exitcode = 1
+    try:
+        with io.BytesIO(data) as from_parent:
+            process.current_process()._inheriting = True
+            try:
+                preparation_data = reduction.pickle.load(from_parent)
+                spawn.prepare(preparation_data)
+                self = reduction.pickle.load(from_parent)
+            finally:
+                del process.current_process()._inheriting
+        # the parent is alive as long as this process runs
+        exitcode = self._bootstrap(_Sentinel(sentinel))
+    finally:
+        for conn in list(_connections):
+            conn.close()
+        _interpreters.channel_send(result, exitcode)
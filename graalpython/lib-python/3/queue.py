@@ -19,9 +19,13 @@ except ImportError:
         'Exception raised by Queue.get(block=0)/get_nowait().'
         pass
 
-class Full(Exception):
-    'Exception raised by Queue.put(block=0)/put_nowait().'
-    pass
+# Truffle change: _queue.SimpleQueue may be bounded and raises Full
+try:
+    from _queue import Full
+except ImportError:
+    class Full(Exception):
+        'Exception raised by Queue.put(block=0)/put_nowait().'
+        pass
 
 
 class Queue:
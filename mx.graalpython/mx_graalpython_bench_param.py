@@ -208,6 +208,7 @@ MESO_BENCHMARKS = {
     'nbody3': ITER_10 + ['5000000'],
     'spectralnorm3': ITER_10 + ['3000'],
     'pidigits': ITER_10 + [],
+    'pidigits-bigint-sized': ITER_10 + ['1_000_000'],
     'sieve-sized': ITER_15 + ['500_000'],
     'image-magix': ITER_10 + ['10000'],
     'parrot-b2': ITER_10 + ['200'],
@@ -234,6 +235,7 @@ MESO_BENCHMARKS_SMALL = {
     'chaos': ITER_10 + WARMUP_2 + ['2'],
     'image-magix': ITER_10 + WARMUP_2 + ['100'],
     'raytrace-simple': ITER_10 + WARMUP_2 + ['110', '110'],
+    'pidigits-bigint-sized': ITER_10 + WARMUP_2 + ['10_000'],
 }
 
 
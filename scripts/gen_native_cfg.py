@@ -70,6 +70,7 @@ includes = '''
 #include <netdb.h>
 #include <netinet/in.h>
 #include <netinet/tcp.h>
+#include <poll.h>
 #include <stddef.h>
 #include <stdio.h>
 #include <sys/mman.h>
@@ -79,6 +80,9 @@ includes = '''
 #include <sys/unistd.h>
 #include <sys/utsname.h>
 #include <sys/wait.h>
+#ifdef __linux__
+#include <sys/epoll.h>
+#endif
 '''
 
 type_defs = {
@@ -111,6 +115,11 @@ constant_defs = '''
 * i SEEK_DATA
 * i SEEK_HOLE
 
+* i EPOLL_CTL_ADD
+* i EPOLL_CTL_MOD
+* i EPOLL_CTL_DEL
+* x EPOLL_CLOEXEC
+
 [openFlags]
   x O_ACCMODE
   x O_RDONLY
@@ -174,6 +183,36 @@ constant_defs = '''
   i DT_SOCK
   i DT_WHT
 
+[pollEvents]
+  x POLLIN
+  x POLLPRI
+  x POLLOUT
+  x POLLERR
+  x POLLHUP
+  x POLLNVAL
+* x POLLRDNORM
+* x POLLRDBAND
+* x POLLWRNORM
+* x POLLWRBAND
+* x POLLMSG
+* x POLLRDHUP
+
+[epollEvents]
+* x EPOLLIN
+* x EPOLLPRI
+* x EPOLLOUT
+* x EPOLLERR
+* x EPOLLHUP
+* x EPOLLRDNORM
+* x EPOLLRDBAND
+* x EPOLLWRNORM
+* x EPOLLWRBAND
+* x EPOLLMSG
+* x EPOLLRDHUP
+* x EPOLLEXCLUSIVE
+* x EPOLLONESHOT
+* x EPOLLET
+
 [waitOptions]
   i WNOHANG
   i WUNTRACED